@@ -0,0 +1,235 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.benchmarks;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.dispatchers.CommandStackDispatcher;
+import io.github.xerprojects.xerj.commandstack.dispatchers.async.AsyncCommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.dispatchers.async.BoundedAsyncCommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.dispatchers.async.OverflowPolicy;
+import io.github.xerprojects.xerj.commandstack.dispatchers.async.RingBufferCommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.dispatchers.async.ShardedCommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.dispatchers.async.SynchronousCommand;
+import io.github.xerprojects.xerj.commandstack.dispatchers.async.WaitStrategy;
+import io.github.xerprojects.xerj.commandstack.providers.registry.RegistryCommandHandlerProvider;
+
+/**
+ * Benchmarks {@link AsyncCommandDispatcher#send(Object)}, {@link BoundedAsyncCommandDispatcher#send(Object)}
+ * {@link RingBufferCommandDispatcher#send(Object)} and {@link ShardedCommandDispatcher#send(Object)}.
+ *
+ * The async benchmarks measure the full round trip i.e. each operation sends a command
+ * and waits until a worker thread has handled it. The burst benchmarks measure throughput
+ * i.e. each invocation sends a burst of commands and only waits for the last one to be handled. The synchronous benchmark measures
+ * the overhead of the decorator for commands marked with {@link SynchronousCommand}.
+ *
+ * @author Joel Jeremy Marquez
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AsyncCommandDispatcherBenchmarks {
+
+    private static final int BOUNDED_QUEUE_CAPACITY = 1024;
+    private static final int RING_BUFFER_CAPACITY = 1024;
+    private static final int BURST_SIZE = 1000;
+
+    @Param({ "1", "10000" })
+    int registeredCommandTypes;
+
+    @Param({ "1", "4" })
+    int workerThreads;
+
+    /**
+     * EXECUTOR benchmarks {@link AsyncCommandDispatcher} over a fixed thread pool.
+     * BOUNDED benchmarks {@link BoundedAsyncCommandDispatcher} with the caller-runs overflow policy.
+     * RING_BUFFER benchmarks {@link RingBufferCommandDispatcher} with the park wait strategy (spinning
+     * wait strategies need a spare core per spinning thread).
+     * SHARDED benchmarks {@link ShardedCommandDispatcher} with one shard per worker thread and 
+     * the park wait strategy. Synchronous commands are handled on their shard, so the synchronous 
+     * benchmarks measure a round trip for SHARDED.
+     */
+    @Param({ "EXECUTOR", "BOUNDED", "RING_BUFFER", "SHARDED" })
+    String dispatcherType;
+
+    ExecutorService executorService;
+    AutoCloseable closeableDispatcher;
+    CommandDispatcher dispatcher;
+
+    @Setup
+    public void setup() {
+        Class<?>[] fillerCommandTypes = CommandTypes.generate(registeredCommandTypes - 1);
+
+        CommandDispatcher commandStackDispatcher = commandStackDispatcher(fillerCommandTypes);
+
+        if ("BOUNDED".equals(dispatcherType)) {
+            BoundedAsyncCommandDispatcher boundedDispatcher = new BoundedAsyncCommandDispatcher(
+                commandStackDispatcher, BOUNDED_QUEUE_CAPACITY, workerThreads, OverflowPolicy.callerRuns());
+            closeableDispatcher = boundedDispatcher;
+            dispatcher = boundedDispatcher;
+        } else if ("RING_BUFFER".equals(dispatcherType)) {
+            RingBufferCommandDispatcher ringBufferDispatcher = new RingBufferCommandDispatcher(
+                commandStackDispatcher, RING_BUFFER_CAPACITY, workerThreads, WaitStrategy.PARK);
+            closeableDispatcher = ringBufferDispatcher;
+            dispatcher = ringBufferDispatcher;
+        } else if ("SHARDED".equals(dispatcherType)) {
+            ShardedCommandDispatcher shardedDispatcher = new ShardedCommandDispatcher(
+                shard -> commandStackDispatcher(fillerCommandTypes), 
+                workerThreads, RING_BUFFER_CAPACITY, WaitStrategy.PARK);
+            closeableDispatcher = shardedDispatcher;
+            dispatcher = shardedDispatcher;
+        } else {
+            executorService = Executors.newFixedThreadPool(workerThreads);
+            dispatcher = new AsyncCommandDispatcher(commandStackDispatcher, executorService);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (closeableDispatcher != null) {
+            closeableDispatcher.close();
+        }
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void sendRoundTrip(ThreadState threadState) {
+        roundTrip(threadState.roundTripCommand);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void sendRoundTripContended(ThreadState threadState) {
+        roundTrip(threadState.roundTripCommand);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BURST_SIZE)
+    public void sendBurst(ThreadState threadState) {
+        burst(threadState);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    @OperationsPerInvocation(BURST_SIZE)
+    public void sendBurstContended(ThreadState threadState) {
+        burst(threadState);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void sendSynchronous(ThreadState threadState) {
+        dispatcher.send(threadState.synchronousCommand);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void sendSynchronousContended(ThreadState threadState) {
+        dispatcher.send(threadState.synchronousCommand);
+    }
+
+    private static CommandDispatcher commandStackDispatcher(Class<?>[] fillerCommandTypes) {
+        return new CommandStackDispatcher(new RegistryCommandHandlerProvider(registry -> {
+            CommandTypes.registerNoOpHandlers(registry, fillerCommandTypes);
+            registry.registerCommandHandler(RoundTripCommand.class,
+                () -> RoundTripCommand::markHandled);
+            registry.registerCommandHandler(BurstCommand.class,
+                () -> command -> {});
+            registry.registerCommandHandler(SynchronousBenchmarkCommand.class,
+                () -> SynchronousBenchmarkCommand::markHandled);
+        }));
+    }
+
+    private void burst(ThreadState threadState) {
+        for (int i = 1; i < BURST_SIZE; i++) {
+            dispatcher.send(threadState.burstCommand);
+        }
+        // Waiting for the last command keeps the backlog of the unbounded dispatchers in check.
+        roundTrip(threadState.roundTripCommand);
+    }
+
+    private void roundTrip(RoundTripCommand command) {
+        command.reset();
+        dispatcher.send(command);
+        command.awaitHandled();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final RoundTripCommand roundTripCommand = new RoundTripCommand();
+        final BurstCommand burstCommand = new BurstCommand();
+        final SynchronousBenchmarkCommand synchronousCommand = new SynchronousBenchmarkCommand();
+    }
+
+    /**
+     * Command which the sending thread can wait on until it is handled.
+     */
+    public static class RoundTripCommand {
+        private volatile boolean handled;
+
+        void reset() {
+            handled = false;
+        }
+
+        void markHandled() {
+            handled = true;
+        }
+
+        void awaitHandled() {
+            while (!handled) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Command which is handled by a no-op command handler.
+     */
+    public static class BurstCommand {}
+
+    /**
+     * Command which {@link AsyncCommandDispatcher} executes on the sending thread.
+     */
+    public static class SynchronousBenchmarkCommand
+            extends BenchmarkCommand implements SynchronousCommand {}
+}
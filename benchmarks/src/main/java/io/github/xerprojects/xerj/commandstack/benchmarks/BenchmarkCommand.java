@@ -0,0 +1,43 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.benchmarks;
+
+/**
+ * The command that is dispatched in the benchmarks. Each benchmark thread owns
+ * its own instance so that marking it as handled does not cause any contention.
+ *
+ * @author Joel Jeremy Marquez
+ */
+public class BenchmarkCommand {
+    private long handledCount;
+
+    /**
+     * Mark command as handled. This gives the command handlers
+     * a side effect that the JIT cannot eliminate.
+     */
+    public void markHandled() {
+        handledCount++;
+    }
+
+    /**
+     * Get the number of times this command was handled.
+     * @return The number of times this command was handled.
+     */
+    public long getHandledCount() {
+        return handledCount;
+    }
+}
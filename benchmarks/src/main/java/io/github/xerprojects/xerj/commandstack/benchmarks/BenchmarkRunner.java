@@ -0,0 +1,60 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. This accepts the same command line options
+ * as JMH's own main class but always attaches the GC profiler so that allocation
+ * rates (gc.alloc.rate.norm) are reported alongside throughput and latency.
+ *
+ * @author Joel Jeremy Marquez
+ */
+public class BenchmarkRunner {
+    private BenchmarkRunner() {}
+
+    /**
+     * Run benchmarks.
+     * @param args JMH command line options e.g. benchmark include patterns, -p, -t, -rf json.
+     * @throws IOException if help could not be printed.
+     * @throws CommandLineOptionException if command line options are invalid.
+     * @throws RunnerException if benchmarks failed to run.
+     */
+    public static void main(String[] args)
+            throws IOException, CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        if (commandLineOptions.shouldHelp()) {
+            commandLineOptions.showHelp();
+            return;
+        }
+
+        new Runner(new OptionsBuilder()
+            .parent(commandLineOptions)
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+    }
+}
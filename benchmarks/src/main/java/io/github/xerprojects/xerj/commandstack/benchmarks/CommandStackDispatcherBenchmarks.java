@@ -0,0 +1,118 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.dispatchers.CommandInterceptor;
+import io.github.xerprojects.xerj.commandstack.dispatchers.CommandStackDispatcher;
+import io.github.xerprojects.xerj.commandstack.dispatchers.CommandStackDispatcher.UnhandleCommandListener;
+
+/**
+ * Benchmarks {@link CommandStackDispatcher#send(Object)} through each of the
+ * built-in command handler providers.
+ *
+ * @author Joel Jeremy Marquez
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CommandStackDispatcherBenchmarks {
+
+    @Param({ "1", "10", "100", "1000", "10000" })
+    int registeredCommandTypes;
+
+    @Param({ "REGISTRY", "REGISTRY_METHOD", "COMPOSITE", "COMPOSITE_MEMOIZED", "REQUIRED" })
+    ProviderType providerType;
+
+    @Param({ "false", "true" })
+    boolean cacheResolvedCommandHandlers;
+
+    /**
+     * The number of pass-through interceptors in the interceptor pipeline.
+     */
+    @Param({ "0", "3" })
+    int interceptors;
+
+    CommandDispatcher dispatcher;
+
+    @Setup
+    public void setup() {
+        dispatcher = new CommandStackDispatcher(
+            providerType.create(registeredCommandTypes, BenchmarkCommand::markHandled),
+            new NoOpUnhandledCommandListener(),
+            cacheResolvedCommandHandlers,
+            passThroughInterceptors(interceptors));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void send(ThreadState threadState) {
+        dispatcher.send(threadState.command);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void sendContended(ThreadState threadState) {
+        dispatcher.send(threadState.command);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final BenchmarkCommand command = new BenchmarkCommand();
+    }
+
+    private static List<CommandInterceptor> passThroughInterceptors(int count) {
+        List<CommandInterceptor> interceptors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            interceptors.add(new PassThroughInterceptor());
+        }
+        return interceptors;
+    }
+
+    static class PassThroughInterceptor implements CommandInterceptor {
+        @Override
+        public <TCommand> void intercept(TCommand command, CommandHandler<TCommand> next) {
+            next.handle(command);
+        }
+    }
+
+    static class NoOpUnhandledCommandListener implements UnhandleCommandListener {
+        @Override
+        public <TCommand> void notifyUnhandledCommand(TCommand command) {}
+    }
+}
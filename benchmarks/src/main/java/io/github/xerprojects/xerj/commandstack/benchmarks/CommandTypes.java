@@ -0,0 +1,96 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.providers.registry.CommandHandlerRegistry;
+
+/**
+ * Generates distinct command types so that registries can be benchmarked with
+ * thousands of registrations without having thousands of source files.
+ *
+ * Each generated type is {@link FillerCommand} defined by its own class loader,
+ * which makes it a different {@link Class} as far as the registries are concerned.
+ *
+ * @author Joel Jeremy Marquez
+ */
+public class CommandTypes {
+    private static final byte[] FILLER_COMMAND_BYTECODE = readBytecode(FillerCommand.class);
+
+    private CommandTypes() {}
+
+    /**
+     * Generate distinct command types.
+     * @param count The number of command types to generate.
+     * @return The generated command types.
+     */
+    public static Class<?>[] generate(int count) {
+        Class<?>[] commandTypes = new Class<?>[count];
+        for (int i = 0; i < count; i++) {
+            commandTypes[i] = new FillerClassLoader().defineFillerCommand();
+        }
+        return commandTypes;
+    }
+
+    /**
+     * Register a no-op command handler for each of the command types.
+     * @param registry The registry to register command handlers to.
+     * @param commandTypes The command types to register.
+     */
+    public static void registerNoOpHandlers(CommandHandlerRegistry registry, Class<?>[] commandTypes) {
+        for (Class<?> commandType : commandTypes) {
+            registerNoOpHandler(registry, commandType);
+        }
+    }
+
+    private static <TCommand> void registerNoOpHandler(
+            CommandHandlerRegistry registry,
+            Class<TCommand> commandType) {
+        CommandHandler<TCommand> noOpHandler = command -> {};
+        registry.registerCommandHandler(commandType, () -> noOpHandler);
+    }
+
+    private static byte[] readBytecode(Class<?> type) {
+        String resourceName = type.getSimpleName() + ".class";
+        try (InputStream bytecode = type.getResourceAsStream(resourceName)) {
+            if (bytecode == null) {
+                throw new IllegalStateException("Unable to find bytecode of " + type);
+            }
+            return bytecode.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class FillerClassLoader extends ClassLoader {
+        FillerClassLoader() {
+            super(CommandTypes.class.getClassLoader());
+        }
+
+        Class<?> defineFillerCommand() {
+            return defineClass(
+                FillerCommand.class.getName(),
+                FILLER_COMMAND_BYTECODE,
+                0,
+                FILLER_COMMAND_BYTECODE.length);
+        }
+    }
+}
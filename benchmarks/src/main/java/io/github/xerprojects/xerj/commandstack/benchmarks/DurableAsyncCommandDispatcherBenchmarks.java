@@ -0,0 +1,127 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.dispatchers.async.CommandCodec;
+import io.github.xerprojects.xerj.commandstack.dispatchers.async.DurableAsyncCommandDispatcher;
+
+/**
+ * Benchmarks {@link DurableAsyncCommandDispatcher#send(Object)} i.e. appending the encoded command 
+ * to the journal, waiting until it has been forced to disk and handing it off to the executor service.
+ * The contended benchmark shows the effect of group commit: concurrent senders share forces,
+ * so throughput grows with the number of senders although each send waits for a force.
+ * 
+ * Commands are encoded by returning preallocated bytes so that only the cost of the journal is measured.
+ *
+ * @author Joel Jeremy Marquez
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DurableAsyncCommandDispatcherBenchmarks {
+
+    private static final CommandDispatcher NO_OP_DISPATCHER = new CommandDispatcher() {
+        @Override
+        public <TCommand> void send(TCommand command) {}
+    };
+
+    /**
+     * The size of each encoded command in bytes.
+     */
+    @Param({ "64", "1024" })
+    int encodedCommandSize;
+
+    Path journalDirectory;
+    ExecutorService executorService;
+    DurableAsyncCommandDispatcher dispatcher;
+    BenchmarkCommand command = new BenchmarkCommand();
+
+    @Setup
+    public void setup() throws IOException {
+        byte[] encodedCommand = new byte[encodedCommandSize];
+        journalDirectory = Files.createTempDirectory("xerj-commandstack-journal-");
+        executorService = Executors.newSingleThreadExecutor();
+        dispatcher = new DurableAsyncCommandDispatcher(NO_OP_DISPATCHER, executorService, journalDirectory, 
+            new CommandCodec() {
+                @Override
+                public byte[] encode(Object command) {
+                    return encodedCommand;
+                }
+
+                @Override
+                public Object decode(byte[] encodedCommand) {
+                    return command;
+                }
+            });
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        dispatcher.close();
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        List<Path> paths;
+        try (Stream<Path> files = Files.walk(journalDirectory)) {
+            paths = files.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void send() {
+        dispatcher.send(command);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void sendContended() {
+        dispatcher.send(command);
+    }
+}
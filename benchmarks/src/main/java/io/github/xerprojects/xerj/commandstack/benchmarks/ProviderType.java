@@ -0,0 +1,176 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.benchmarks;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.CommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand;
+import io.github.xerprojects.xerj.commandstack.providers.CompositeCommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.providers.RequiredCommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.providers.registry.CommandHandlerRegistry;
+import io.github.xerprojects.xerj.commandstack.providers.registry.RegistryCommandHandlerProvider;
+
+/**
+ * The command handler provider configurations that are benchmarked.
+ * In every configuration, {@link BenchmarkCommand} is registered last.
+ *
+ * @author Joel Jeremy Marquez
+ */
+public enum ProviderType {
+    /**
+     * A single {@link RegistryCommandHandlerProvider}.
+     */
+    REGISTRY {
+        @Override
+        CommandHandlerProvider create(
+                Class<?>[] fillerCommandTypes,
+                CommandHandler<BenchmarkCommand> benchmarkCommandHandler) {
+            return registry(fillerCommandTypes, benchmarkCommandHandler);
+        }
+    },
+    /**
+     * A single {@link RegistryCommandHandlerProvider} where the {@link BenchmarkCommand} handler
+     * is a method that is bound via {@link CommandHandlerRegistry#registerCommandHandlers(MethodHandles.Lookup, Object)}.
+     */
+    REGISTRY_METHOD {
+        @Override
+        CommandHandlerProvider create(
+                Class<?>[] fillerCommandTypes,
+                CommandHandler<BenchmarkCommand> benchmarkCommandHandler) {
+            return new RegistryCommandHandlerProvider(registry -> {
+                CommandTypes.registerNoOpHandlers(registry, fillerCommandTypes);
+                registry.registerCommandHandlers(MethodHandles.lookup(), 
+                    new BenchmarkCommandHandlerMethods(benchmarkCommandHandler));
+            });
+        }
+    },
+    /**
+     * A {@link CompositeCommandHandlerProvider} over {@link #COMPOSED_PROVIDER_COUNT}
+     * {@link RegistryCommandHandlerProvider}s. The registrations are split evenly between them.
+     */
+    COMPOSITE {
+        @Override
+        CommandHandlerProvider create(
+                Class<?>[] fillerCommandTypes,
+                CommandHandler<BenchmarkCommand> benchmarkCommandHandler) {
+            return new CompositeCommandHandlerProvider(
+                composedProviders(fillerCommandTypes, benchmarkCommandHandler));
+        }
+    },
+    /**
+     * Same as {@link #COMPOSITE} but with command handler owner memoization enabled.
+     */
+    COMPOSITE_MEMOIZED {
+        @Override
+        CommandHandlerProvider create(
+                Class<?>[] fillerCommandTypes,
+                CommandHandler<BenchmarkCommand> benchmarkCommandHandler) {
+            return new CompositeCommandHandlerProvider(
+                composedProviders(fillerCommandTypes, benchmarkCommandHandler), true);
+        }
+    },
+    /**
+     * A {@link RequiredCommandHandlerProvider} decorating a {@link RegistryCommandHandlerProvider}.
+     */
+    REQUIRED {
+        @Override
+        CommandHandlerProvider create(
+                Class<?>[] fillerCommandTypes,
+                CommandHandler<BenchmarkCommand> benchmarkCommandHandler) {
+            return new RequiredCommandHandlerProvider(
+                registry(fillerCommandTypes, benchmarkCommandHandler));
+        }
+    };
+
+    /**
+     * The number of providers composed by {@link #COMPOSITE} and {@link #COMPOSITE_MEMOIZED}.
+     */
+    public static final int COMPOSED_PROVIDER_COUNT = 6;
+
+    /**
+     * Create the command handler provider.
+     * @param registeredCommandTypes The total number of command types to register,
+     * including {@link BenchmarkCommand}.
+     * @param benchmarkCommandHandler The command handler for {@link BenchmarkCommand}.
+     * @return The command handler provider.
+     */
+    public CommandHandlerProvider create(
+            int registeredCommandTypes,
+            CommandHandler<BenchmarkCommand> benchmarkCommandHandler) {
+        if (registeredCommandTypes < 1) {
+            throw new IllegalArgumentException("registeredCommandTypes must be at least 1.");
+        }
+        return create(CommandTypes.generate(registeredCommandTypes - 1), benchmarkCommandHandler);
+    }
+
+    abstract CommandHandlerProvider create(
+        Class<?>[] fillerCommandTypes,
+        CommandHandler<BenchmarkCommand> benchmarkCommandHandler);
+
+    private static RegistryCommandHandlerProvider registry(
+            Class<?>[] fillerCommandTypes,
+            CommandHandler<BenchmarkCommand> benchmarkCommandHandler) {
+        return new RegistryCommandHandlerProvider(registry -> {
+            CommandTypes.registerNoOpHandlers(registry, fillerCommandTypes);
+            registry.registerCommandHandler(BenchmarkCommand.class, () -> benchmarkCommandHandler);
+        });
+    }
+
+    /**
+     * Handles {@link BenchmarkCommand} via a method instead of a {@link CommandHandler} implementation.
+     */
+    static class BenchmarkCommandHandlerMethods {
+        private final CommandHandler<BenchmarkCommand> benchmarkCommandHandler;
+
+        BenchmarkCommandHandlerMethods(CommandHandler<BenchmarkCommand> benchmarkCommandHandler) {
+            this.benchmarkCommandHandler = benchmarkCommandHandler;
+        }
+
+        @HandlesCommand
+        void handle(BenchmarkCommand command) {
+            benchmarkCommandHandler.handle(command);
+        }
+    }
+
+    private static List<CommandHandlerProvider> composedProviders(
+            Class<?>[] fillerCommandTypes,
+            CommandHandler<BenchmarkCommand> benchmarkCommandHandler) {
+
+        List<CommandHandlerProvider> providers = new ArrayList<>();
+        int chunkSize = (fillerCommandTypes.length + COMPOSED_PROVIDER_COUNT - 1) / COMPOSED_PROVIDER_COUNT;
+
+        for (int i = 0; i < COMPOSED_PROVIDER_COUNT - 1; i++) {
+            int from = Math.min(i * chunkSize, fillerCommandTypes.length);
+            int to = Math.min(from + chunkSize, fillerCommandTypes.length);
+            Class<?>[] chunk = Arrays.copyOfRange(fillerCommandTypes, from, to);
+            providers.add(new RegistryCommandHandlerProvider(
+                registry -> CommandTypes.registerNoOpHandlers(registry, chunk)));
+        }
+
+        int lastChunkStart = Math.min((COMPOSED_PROVIDER_COUNT - 1) * chunkSize, fillerCommandTypes.length);
+        providers.add(registry(
+            Arrays.copyOfRange(fillerCommandTypes, lastChunkStart, fillerCommandTypes.length),
+            benchmarkCommandHandler));
+
+        return providers;
+    }
+}
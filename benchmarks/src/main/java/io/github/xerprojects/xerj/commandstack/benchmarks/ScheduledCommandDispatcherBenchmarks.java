@@ -0,0 +1,107 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.dispatchers.async.ScheduledCommand;
+import io.github.xerprojects.xerj.commandstack.dispatchers.async.ScheduledCommandDispatcher;
+
+/**
+ * Benchmarks scheduling and cancelling a timeout command via {@link ScheduledCommandDispatcher#sendAfter(Object, Duration)}
+ * against a {@link ScheduledThreadPoolExecutor} (with remove-on-cancel) which dispatches the command.
+ * This is the typical life of a timeout: it is scheduled and almost always cancelled before it expires.
+ * Scheduled commands pile up to the given backlog so that the cost of heap sifting shows up.
+ *
+ * @author Joel Jeremy Marquez
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ScheduledCommandDispatcherBenchmarks {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final CommandDispatcher NO_OP_DISPATCHER = new CommandDispatcher() {
+        @Override
+        public <TCommand> void send(TCommand command) {}
+    };
+
+    /**
+     * The number of scheduled commands which are not cancelled right away.
+     */
+    @Param({ "0", "100000" })
+    int backlog;
+
+    ScheduledCommandDispatcher scheduledDispatcher;
+    ScheduledThreadPoolExecutor scheduledExecutor;
+    BenchmarkCommand command = new BenchmarkCommand();
+
+    @Setup
+    public void setup() {
+        scheduledDispatcher = new ScheduledCommandDispatcher(NO_OP_DISPATCHER);
+        scheduledExecutor = new ScheduledThreadPoolExecutor(1);
+        scheduledExecutor.setRemoveOnCancelPolicy(true);
+
+        for (int i = 0; i < backlog; i++) {
+            scheduledDispatcher.sendAfter(command, TIMEOUT.plusMillis(i));
+            scheduledExecutor.schedule(() -> NO_OP_DISPATCHER.send(command), 
+                TIMEOUT.toMillis() + i, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduledDispatcher.close();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean timingWheel() {
+        ScheduledCommand scheduledCommand = scheduledDispatcher.sendAfter(command, TIMEOUT);
+        return scheduledCommand.cancel();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean scheduledThreadPoolExecutor() {
+        ScheduledFuture<?> future = scheduledExecutor.schedule(() -> NO_OP_DISPATCHER.send(command), 
+            TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        return future.cancel(false);
+    }
+}
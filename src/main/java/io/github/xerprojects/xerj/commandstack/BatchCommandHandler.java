@@ -0,0 +1,38 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack;
+
+import java.util.List;
+
+/**
+ * Command handler which can handle multiple commands of the same type at once
+ * e.g. to amortize database round trips.
+ * 
+ * Dispatchers that support batch dispatching (see {@link CommandDispatcher#sendAll(java.util.Collection)})
+ * will call {@link #handleAll(List)} instead of calling {@link #handle(Object)} for each command.
+ * 
+ * @param <TCommand> The command type associated with this command handler.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public interface BatchCommandHandler<TCommand> extends CommandHandler<TCommand> {
+	/**
+	 * Execute commands.
+	 * @param commands The commands to be executed, in the order they were dispatched.
+	 */
+	void handleAll(List<TCommand> commands);
+}
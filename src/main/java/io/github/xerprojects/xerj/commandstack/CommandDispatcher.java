@@ -16,6 +16,10 @@
 
 package io.github.xerprojects.xerj.commandstack;
 
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.Collection;
+
 /**
  * Dispatches commands to their respective command handlers.
  * 
@@ -28,4 +32,21 @@ public interface CommandDispatcher {
      * @param command The command to dispatch.
      */
     <TCommand> void send(TCommand command);
+
+    /**
+     * Dispatch the commands to their registered command handlers.
+     * 
+     * By default, this dispatches each command via {@link #send(Object)}. Dispatchers may
+     * override this to dispatch commands of the same type together e.g. to a {@link BatchCommandHandler}.
+     * In that case, commands of the same type are dispatched in the order they appear in the collection
+     * but commands of different types may be dispatched in a different order.
+     * @param commands The commands to dispatch.
+     */
+    default void sendAll(Collection<?> commands) {
+        requireNonNull(commands, "commands");
+
+        for (Object command : commands) {
+            send(command);
+        }
+    }
 }
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.Optional;
+
+import io.github.xerprojects.xerj.commandstack.internal.OptionalCommandHandlerProviderAdapter;
+
+/**
+ * Command handler provider which can resolve command handlers without wrapping
+ * them in an {@link Optional}. This is the contract used internally by the built-in 
+ * dispatchers and providers so that a steady-state dispatch does not allocate.
+ * 
+ * Any {@link CommandHandlerProvider} can be bridged to this contract via {@link #from(CommandHandlerProvider)}.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public interface DirectCommandHandlerProvider extends CommandHandlerProvider {
+	/**
+	 * Get command handler for the given command type.
+	 * @param <TCommand> The command type.
+	 * @param commandType The command type.
+	 * @return The command handler instance that is registered for the command type.
+	 * If there is no command handler was registered, null will be returned.
+	 */
+	<TCommand> CommandHandler<TCommand> getCommandHandlerOrNull(Class<TCommand> commandType);
+
+	/**
+	 * Get command handler for the given command type.
+	 * @param <TCommand> The command type.
+	 * @param commandType The command type.
+	 * @return The command handler instance that is registered for the command type.
+	 * If there is no command handler was registered, an empty Optional will be returned.
+	 */
+	@Override
+	default <TCommand> Optional<CommandHandler<TCommand>> getCommandHandlerFor(Class<TCommand> commandType) {
+		return Optional.ofNullable(getCommandHandlerOrNull(commandType));
+	}
+
+	/**
+	 * Bridge the command handler provider to the {@link DirectCommandHandlerProvider} contract.
+	 * If the provider already implements {@link DirectCommandHandlerProvider}, it is returned as is.
+	 * Otherwise, it is wrapped in an adapter which unwraps the {@link Optional} returned by 
+	 * {@link CommandHandlerProvider#getCommandHandlerFor(Class)} and throws a 
+	 * {@link io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException} 
+	 * if the provider returned a null {@link Optional}.
+	 * @param commandHandlerProvider The command handler provider.
+	 * @return The direct command handler provider.
+	 */
+	static DirectCommandHandlerProvider from(CommandHandlerProvider commandHandlerProvider) {
+		requireNonNull(commandHandlerProvider, "commandHandlerProvider");
+
+		if (commandHandlerProvider instanceof DirectCommandHandlerProvider) {
+			return (DirectCommandHandlerProvider)commandHandlerProvider;
+		}
+
+		return new OptionalCommandHandlerProviderAdapter(commandHandlerProvider);
+	}
+}
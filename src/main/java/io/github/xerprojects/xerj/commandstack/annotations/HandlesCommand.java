@@ -0,0 +1,64 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+
+/**
+ * Marks a command handler for registration. Marked command handlers can be registered:
+ * <ul>
+ * <li>At compile time. The annotation processor of this library generates a 
+ * {@link io.github.xerprojects.xerj.commandstack.DirectCommandHandlerProvider} for all marked 
+ * command handlers of a compilation so that no classpath scanning or reflection is needed at runtime.</li>
+ * <li>At runtime (methods only) via 
+ * {@link io.github.xerprojects.xerj.commandstack.providers.registry.CommandHandlerRegistry#registerCommandHandlers(java.lang.invoke.MethodHandles.Lookup, Object)}.</li>
+ * </ul>
+ * 
+ * The following rules apply to compile-time registration.
+ * 
+ * The following can be marked:
+ * <ul>
+ * <li>Classes which implement {@link CommandHandler}. The command type is the type argument of
+ * {@link CommandHandler}. The class must not be abstract and must have a no-arg constructor.</li>
+ * <li>Methods which return void and have the command as their only parameter. 
+ * If the method is not static, the declaring class must not be abstract and 
+ * must have a no-arg constructor.</li>
+ * </ul>
+ * 
+ * Command handlers without instance fields (including inherited ones) are stateless, so they are 
+ * created once on first resolution and reused afterwards. A new instance of any other command handler 
+ * is created every time a command handler is resolved.
+ * Marked command handlers must be accessible from the generated command handler provider's package.
+ * 
+ * The command handler provider is only generated if its name is specified via the 
+ * {@code xerj.commandstack.generatedProvider} annotation processor option 
+ * e.g. {@code -Axerj.commandstack.generatedProvider=com.acme.AcmeCommandHandlerProvider}.
+ * Since JDK 23, annotation processors on the classpath only run if annotation processing 
+ * is requested via {@code -proc:full}, or if this library is on the annotation processor path.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface HandlesCommand {}
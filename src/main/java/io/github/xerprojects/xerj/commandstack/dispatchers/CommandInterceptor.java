@@ -0,0 +1,53 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+
+/**
+ * Interceptor that is invoked by {@link CommandStackDispatcher} around the handling
+ * of commands e.g. for validation, logging, transactions or authorization.
+ * 
+ * {@link CommandStackDispatcher} builds the interceptor pipeline of each command type only once
+ * from the interceptors that apply to the command type (see {@link #interceptsCommandType(Class)}) 
+ * and reuses it for all succeeding sends of that command type.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public interface CommandInterceptor {
+	/**
+	 * Whether this interceptor applies to the given command type. This is only called once
+	 * per command type when the command type's interceptor pipeline is built.
+	 * By default, interceptors apply to all command types.
+	 * @param commandType The command type.
+	 * @return {@code true} if this interceptor should intercept commands of the command type.
+	 * Otherwise, {@code false}.
+	 */
+	default boolean interceptsCommandType(Class<?> commandType) {
+		return true;
+	}
+
+	/**
+	 * Intercept the command. Implementations should invoke {@code next} to continue down the pipeline
+	 * or return/throw without invoking it to short-circuit the pipeline.
+	 * @param <TCommand> The command type.
+	 * @param command The command being dispatched.
+	 * @param next The rest of the pipeline. The last step of the pipeline invokes the command handler 
+	 * (or the unhandled command listener if there is no registered command handler).
+	 */
+	<TCommand> void intercept(TCommand command, CommandHandler<TCommand> next);
+}
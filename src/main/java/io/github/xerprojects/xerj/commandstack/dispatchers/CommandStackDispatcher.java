@@ -18,23 +18,57 @@ package io.github.xerprojects.xerj.commandstack.dispatchers;
 
 import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import io.github.xerprojects.xerj.commandstack.BatchCommandHandler;
 import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
 import io.github.xerprojects.xerj.commandstack.CommandHandler;
 import io.github.xerprojects.xerj.commandstack.CommandHandlerProvider;
-import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
+import io.github.xerprojects.xerj.commandstack.DirectCommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.internal.jfr.JfrEvents;
 
 /**
  * Default command dispatcher. This dispatcher gets its command handler instances
  * from a {@link CommandHandlerProvider} based on the type of command being dispatched.
  * 
+ * By default, command handlers are resolved from the {@link CommandHandlerProvider} on every send.
+ * If enabled via {@link #CommandStackDispatcher(CommandHandlerProvider, UnhandleCommandListener, boolean)},
+ * the resolved command handler (or the unhandled command listener) is cached per command type 
+ * so that the command handler provider is only consulted once per command type. Cached entries 
+ * can be invalidated via {@link #invalidateResolvedCommandHandler(Class)} and 
+ * {@link #invalidateResolvedCommandHandlers()}.
+ * 
+ * Cross-cutting concerns can be plugged in via {@link CommandInterceptor}s. The interceptor pipeline
+ * of each command type is built once from the interceptors that apply to the command type
+ * and is reused for all succeeding sends of the command type.
+ * 
+ * Command handler resolutions, command handler executions and unhandled commands are
+ * recorded as JDK Flight Recorder events if JDK Flight Recorder is available and the events are enabled.
+ * 
  * @author Joel Jeremy Marquez
  */
 public class CommandStackDispatcher implements CommandDispatcher {
 	
-	private final CommandHandlerProvider commandHandlerProvider;
+	private final DirectCommandHandlerProvider commandHandlerProvider;
+	private final Class<?> commandHandlerProviderType;
 	private final UnhandleCommandListener unhandledCommandListener;
+	private final boolean cacheResolvedCommandHandlers;
+	private final ConcurrentHashMap<Class<?>, CommandHandler<?>> resolvedCommandHandlers = 
+		new ConcurrentHashMap<>();
+	// Incremented on every invalidation so that handlers resolved before an invalidation are not cached.
+	private final AtomicLong invalidations = new AtomicLong();
+	private final CommandInterceptor[] interceptors;
+	private final ConcurrentHashMap<Class<?>, CommandHandler<?>> interceptorPipelines = 
+		new ConcurrentHashMap<>();
+	// Cached in place of a command handler for command types that have no registered command handler.
+	private final CommandHandler<Object> unhandledCommandHandler = this::notifyUnhandledCommand;
 
 	/**
 	 * Constructor.
@@ -57,12 +91,64 @@ public class CommandStackDispatcher implements CommandDispatcher {
 	public CommandStackDispatcher(
 			CommandHandlerProvider commandHandlerProvider,
 			UnhandleCommandListener unhandledCommandListener) {
+		this(commandHandlerProvider, unhandledCommandListener, false);
+	}
+
+	/**
+	 * Constructor.
+	 * @param commandHandlerProvider 
+	 * Command handler provider where this dispatcher will get its command handlers from.
+	 * @param unhandledCommandListener 
+	 * This listener gets executed whenever a command goes unhandled because there was 
+	 * no registered command handler.
+	 * @param cacheResolvedCommandHandlers
+	 * Whether to cache the resolved command handler per command type. If enabled, 
+	 * the command handler provider will only be consulted on the first send of each command type
+	 * (until invalidated) and the same command handler instance will be used for all succeeding sends.
+	 * Only enable this if the command handlers are safe to reuse.
+	 */
+	public CommandStackDispatcher(
+			CommandHandlerProvider commandHandlerProvider,
+			UnhandleCommandListener unhandledCommandListener,
+			boolean cacheResolvedCommandHandlers) {
+		this(commandHandlerProvider, unhandledCommandListener, cacheResolvedCommandHandlers, 
+			Collections.emptyList());
+	}
+
+	/**
+	 * Constructor.
+	 * @param commandHandlerProvider 
+	 * Command handler provider where this dispatcher will get its command handlers from.
+	 * @param unhandledCommandListener 
+	 * This listener gets executed whenever a command goes unhandled because there was 
+	 * no registered command handler.
+	 * @param cacheResolvedCommandHandlers
+	 * Whether to cache the resolved command handler per command type. If enabled, 
+	 * the command handler provider will only be consulted on the first send of each command type
+	 * (until invalidated) and the same command handler instance will be used for all succeeding sends.
+	 * Only enable this if the command handlers are safe to reuse.
+	 * @param interceptors
+	 * Interceptors that are invoked around the handling of the commands they apply to.
+	 * The first interceptor is the outermost interceptor of the pipeline.
+	 */
+	public CommandStackDispatcher(
+			CommandHandlerProvider commandHandlerProvider,
+			UnhandleCommandListener unhandledCommandListener,
+			boolean cacheResolvedCommandHandlers,
+			List<CommandInterceptor> interceptors) {
 		this.commandHandlerProvider = 
-			new NonNullOptionalProvider(
+			DirectCommandHandlerProvider.from(
 				requireNonNull(commandHandlerProvider, "commandHandlerProvider"));
+		this.commandHandlerProviderType = commandHandlerProvider.getClass();
 		
 		this.unhandledCommandListener = 
 			requireNonNull(unhandledCommandListener, "unhandledCommandListener");
+
+		this.cacheResolvedCommandHandlers = cacheResolvedCommandHandlers;
+
+		requireNonNull(interceptors, "interceptors");
+		interceptors.forEach(interceptor -> requireNonNull(interceptor, "interceptor"));
+		this.interceptors = interceptors.toArray(new CommandInterceptor[0]);
 	}
 	
 	/**
@@ -70,6 +156,7 @@ public class CommandStackDispatcher implements CommandDispatcher {
 	 * 
 	 * This will invoke the dispatcher's unhandled command listener
 	 * when there is no registered command handler for the command.
+	 * If there are interceptors, the command is passed through the command type's interceptor pipeline.
 	 * 
 	 * @param <TCommand> The command type.
 	 * @param command The command to dispatch.
@@ -80,12 +167,237 @@ public class CommandStackDispatcher implements CommandDispatcher {
 		
 		@SuppressWarnings("unchecked")
 		Class<TCommand> actualCommandType = (Class<TCommand>)command.getClass();
-		
+
+		if (interceptors.length == 0) {
+			handle(actualCommandType, command);
+		} else {
+			getInterceptorPipeline(actualCommandType).handle(command);
+		}
+	}
+
+	/**
+	 * Dispatch commands to their registered command handlers.
+	 * 
+	 * Commands are grouped by their type and the command handler of each command type
+	 * is only resolved once per call. If the resolved command handler is a {@link BatchCommandHandler}, 
+	 * all commands of that type are passed to {@link BatchCommandHandler#handleAll(List)} at once.
+	 * Commands of the same type are dispatched in the order they appear in the collection
+	 * while command types are dispatched in the order they first appear in the collection.
+	 * 
+	 * This will invoke the dispatcher's unhandled command listener for each command 
+	 * that has no registered command handler.
+	 * 
+	 * Commands whose type has applicable interceptors are passed through the interceptor pipeline
+	 * one at a time instead (and are not passed to {@link BatchCommandHandler#handleAll(List)}).
+	 * 
+	 * @param commands The commands to dispatch.
+	 */
+	@Override
+	public void sendAll(Collection<?> commands) {
+
+		requireNonNull(commands, "commands");
+
+		// Group before dispatching anything so that null commands are rejected up front.
+		Map<Class<?>, List<Object>> commandsByType = new LinkedHashMap<>();
+		for (Object command : commands) {
+			requireNonNull(command, "command");
+			commandsByType.computeIfAbsent(command.getClass(), type -> new ArrayList<>()).add(command);
+		}
+
+		for (Map.Entry<Class<?>, List<Object>> commandGroup : commandsByType.entrySet()) {
+			sendBatch(commandGroup.getKey(), commandGroup.getValue());
+		}
+	}
+
+	/**
+	 * Invalidate the cached command handler of the given command type. The command handler
+	 * will be resolved again from the command handler provider on the next send.
+	 * Command handlers which are being resolved while invalidating are still used by the sends
+	 * that resolved them but are not cached.
+	 * @param commandType The command type whose cached command handler should be invalidated.
+	 */
+	public void invalidateResolvedCommandHandler(Class<?> commandType) {
+		requireNonNull(commandType, "commandType");
+
+		// Must be incremented before removing. See getCachedCommandHandler.
+		invalidations.incrementAndGet();
+		resolvedCommandHandlers.remove(commandType);
+	}
+
+	/**
+	 * Invalidate all cached command handlers. Command handlers will be resolved again 
+	 * from the command handler provider on the next send of each command type.
+	 */
+	public void invalidateResolvedCommandHandlers() {
+		// Must be incremented before clearing. See getCachedCommandHandler.
+		invalidations.incrementAndGet();
+		resolvedCommandHandlers.clear();
+	}
+
+	private <TCommand> void handle(Class<TCommand> commandType, TCommand command) {
 		CommandHandler<TCommand> resolvedHandler = 
-			commandHandlerProvider.getCommandHandlerFor(actualCommandType)
-				.orElse(unhandledCommandListener::notifyUnhandledCommand);
+			cacheResolvedCommandHandlers ? 
+				getCachedCommandHandler(commandType) : 
+				getCommandHandlerOrNull(commandType);
 		
-		resolvedHandler.handle(command);
+		if (resolvedHandler == null || resolvedHandler == unhandledCommandHandler) {
+			notifyUnhandledCommand(command);
+			return;
+		}
+
+		Object handlingEvent = JfrEvents.beginHandling();
+		try {
+			resolvedHandler.handle(command);
+		} finally {
+			JfrEvents.commitHandling(handlingEvent, commandType, resolvedHandler);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <TCommand> void sendBatch(Class<TCommand> commandType, List<?> commands) {
+		List<TCommand> typedCommands = (List<TCommand>)commands;
+
+		if (interceptors.length > 0) {
+			CommandHandler<TCommand> pipeline = getInterceptorPipeline(commandType);
+			if (pipeline instanceof InterceptorStep) {
+				for (TCommand command : typedCommands) {
+					pipeline.handle(command);
+				}
+				return;
+			}
+		}
+
+		CommandHandler<TCommand> resolvedHandler = 
+			cacheResolvedCommandHandlers ? 
+				getCachedCommandHandler(commandType) : 
+				getCommandHandlerOrNull(commandType);
+
+		if (resolvedHandler == null || resolvedHandler == unhandledCommandHandler) {
+			for (TCommand command : typedCommands) {
+				notifyUnhandledCommand(command);
+			}
+			return;
+		}
+
+		// Batches are recorded as a single handling event.
+		Object handlingEvent = JfrEvents.beginHandling();
+		try {
+			if (resolvedHandler instanceof BatchCommandHandler) {
+				((BatchCommandHandler<TCommand>)resolvedHandler).handleAll(typedCommands);
+			} else {
+				for (TCommand command : typedCommands) {
+					resolvedHandler.handle(command);
+				}
+			}
+		} finally {
+			JfrEvents.commitHandling(handlingEvent, commandType, resolvedHandler);
+		}
+	}
+
+	private <TCommand> CommandHandler<TCommand> getCommandHandlerOrNull(Class<TCommand> commandType) {
+		Object resolutionEvent = JfrEvents.beginResolution();
+		CommandHandler<TCommand> resolvedHandler = null;
+		try {
+			resolvedHandler = commandHandlerProvider.getCommandHandlerOrNull(commandType);
+		} finally {
+			JfrEvents.commitResolution(
+				resolutionEvent, commandType, commandHandlerProviderType, resolvedHandler);
+		}
+		return resolvedHandler;
+	}
+
+	private <TCommand> void notifyUnhandledCommand(TCommand command) {
+		JfrEvents.commitUnhandledCommand(command.getClass());
+		unhandledCommandListener.notifyUnhandledCommand(command);
+	}
+
+	private <TCommand> CommandHandler<TCommand> getCachedCommandHandler(Class<TCommand> commandType) {
+		@SuppressWarnings("unchecked")
+		CommandHandler<TCommand> cachedHandler = 
+			(CommandHandler<TCommand>)resolvedCommandHandlers.get(commandType);
+
+		if (cachedHandler == null) {
+			long invalidationsBeforeResolution = invalidations.get();
+
+			// Not using computeIfAbsent so that the provider is not called while holding the map's lock.
+			CommandHandler<TCommand> resolvedHandler = resolveCommandHandler(commandType);
+
+			@SuppressWarnings("unchecked")
+			CommandHandler<TCommand> existingHandler = 
+				(CommandHandler<TCommand>)resolvedCommandHandlers.putIfAbsent(commandType, resolvedHandler);
+
+			if (existingHandler != null) {
+				cachedHandler = existingHandler;
+			} else {
+				// The handler may have been resolved before an invalidation that ran before it was cached.
+				// Take it back out so that the invalidation is not undone. It is still used for this send.
+				if (invalidations.get() != invalidationsBeforeResolution) {
+					resolvedCommandHandlers.remove(commandType, resolvedHandler);
+				}
+				cachedHandler = resolvedHandler;
+			}
+		}
+
+		return cachedHandler;
+	}
+
+	private <TCommand> CommandHandler<TCommand> resolveCommandHandler(Class<TCommand> commandType) {
+		CommandHandler<TCommand> resolvedHandler = getCommandHandlerOrNull(commandType);
+
+		@SuppressWarnings("unchecked")
+		CommandHandler<TCommand> unhandled = (CommandHandler<TCommand>)unhandledCommandHandler;
+
+		return resolvedHandler != null ? resolvedHandler : unhandled;
+	}
+
+	private <TCommand> CommandHandler<TCommand> getInterceptorPipeline(Class<TCommand> commandType) {
+		@SuppressWarnings("unchecked")
+		CommandHandler<TCommand> pipeline = 
+			(CommandHandler<TCommand>)interceptorPipelines.get(commandType);
+
+		if (pipeline == null) {
+			// Not using computeIfAbsent so that the interceptors are not called while holding the map's lock.
+			CommandHandler<TCommand> builtPipeline = buildInterceptorPipeline(commandType);
+
+			@SuppressWarnings("unchecked")
+			CommandHandler<TCommand> existingPipeline = 
+				(CommandHandler<TCommand>)interceptorPipelines.putIfAbsent(commandType, builtPipeline);
+
+			pipeline = existingPipeline != null ? existingPipeline : builtPipeline;
+		}
+
+		return pipeline;
+	}
+
+	private <TCommand> CommandHandler<TCommand> buildInterceptorPipeline(Class<TCommand> commandType) {
+		CommandHandler<TCommand> pipeline = command -> handle(commandType, command);
+
+		// Build from the innermost interceptor outwards so that the first interceptor runs first.
+		for (int i = interceptors.length - 1; i >= 0; i--) {
+			if (interceptors[i].interceptsCommandType(commandType)) {
+				pipeline = new InterceptorStep<>(interceptors[i], pipeline);
+			}
+		}
+
+		return pipeline;
+	}
+
+	/**
+	 * Step of an interceptor pipeline which invokes an interceptor with the rest of the pipeline.
+	 */
+	private static class InterceptorStep<TCommand> implements CommandHandler<TCommand> {
+		private final CommandInterceptor interceptor;
+		private final CommandHandler<TCommand> next;
+
+		InterceptorStep(CommandInterceptor interceptor, CommandHandler<TCommand> next) {
+			this.interceptor = interceptor;
+			this.next = next;
+		}
+
+		@Override
+		public void handle(TCommand command) {
+			interceptor.intercept(command, next);
+		}
 	}
 
 	/**
@@ -102,34 +414,6 @@ public class CommandStackDispatcher implements CommandDispatcher {
 		<TCommand> void notifyUnhandledCommand(TCommand command);
 	}
 
-	 /**
-	  * Decorator that checks if decorated command handler provider's response is null.
-	  * If so, throw a {@link CommandStackException}.
-	  */
-	private static class NonNullOptionalProvider implements CommandHandlerProvider {
-
-		private final CommandHandlerProvider commandHandlerProvider;
-
-		public NonNullOptionalProvider(CommandHandlerProvider commandHandlerProvider) {
-			this.commandHandlerProvider = commandHandlerProvider;
-		}
-
-		@Override
-		public <TCommand> Optional<CommandHandler<TCommand>> getCommandHandlerFor(
-				Class<TCommand> commandType) {
-			Optional<CommandHandler<TCommand>> resolvedHandler = 
-				commandHandlerProvider.getCommandHandlerFor(commandType);
-			
-			if (resolvedHandler == null) {
-				throw new CommandStackException(
-					"Command handler provider returned null. Please check command handler provider configuration: " +
-						commandHandlerProvider.getClass());
-			}
-
-			return resolvedHandler;
-		}
-	}
-
 	/**
 	 * No-op unhandled command listener.
 	 */
@@ -18,9 +18,16 @@ package io.github.xerprojects.xerj.commandstack.dispatchers.async;
 
 import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.internal.jfr.JfrEvents;
 
 /**
  * Command dispatcher decorator that enables decorated command dispatcher to 
@@ -30,6 +37,9 @@ import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
  * Commands that are marked with marker interface {@link SynchronousCommand} 
  * will be executed synchrously (not via {@link ExecutorService}).
  * 
+ * The time each command spends waiting for the {@link ExecutorService} to execute it is recorded 
+ * as a JDK Flight Recorder event if JDK Flight Recorder is available and the event is enabled.
+ * 
  * @author Joel Jeremy Marquez
  */
 public class AsyncCommandDispatcher implements CommandDispatcher {
@@ -63,10 +73,98 @@ public class AsyncCommandDispatcher implements CommandDispatcher {
         if (command instanceof SynchronousCommand) {
             decoratedDispatcher.send(command);
         } else {
+            Object queueWaitEvent = JfrEvents.beginQueueWait();
             executorService.execute(() -> {
+                JfrEvents.commitQueueWait(queueWaitEvent, command.getClass());
                 decoratedDispatcher.send(command);
             });
         }
     }
-    
+
+    /**
+     * Asynchronously dispatch command to its registered command handler and return a
+     * {@link CompletionStage} which is completed by the thread that executed the command handler
+     * as soon as the command handler returns. If the command handler throws, the returned
+     * {@link CompletionStage} is completed exceptionally with the thrown exception.
+     * 
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously and the returned 
+     * {@link CompletionStage} is already completed when this method returns.
+     * 
+     * If the {@link ExecutorService} rejects the command, the returned {@link CompletionStage}
+     * is completed exceptionally with the {@link RejectedExecutionException}.
+     * 
+     * @param <TCommand> The command type.
+     * @param command The command to dispatch.
+     * @return The {@link CompletionStage} which is completed once the command has been handled.
+     */
+    public <TCommand> CompletionStage<Void> sendAsync(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        if (command instanceof SynchronousCommand) {
+            sendAndComplete(command, completion);
+        } else {
+            Object queueWaitEvent = JfrEvents.beginQueueWait();
+            try {
+                executorService.execute(() -> {
+                    JfrEvents.commitQueueWait(queueWaitEvent, command.getClass());
+                    sendAndComplete(command, completion);
+                });
+            } catch (RejectedExecutionException ex) {
+                completion.completeExceptionally(ex);
+            }
+        }
+
+        return completion;
+    }
+
+    /**
+     * Asynchronously dispatch commands to their registered command handlers.
+     * Commands that implement the marker interface {@link SynchronousCommand} are dispatched 
+     * synchronously as one batch. All other commands are dispatched as one batch in a single 
+     * task that is submitted to the {@link ExecutorService}.
+     */
+    @Override
+    public void sendAll(Collection<?> commands) {
+
+        requireNonNull(commands, "commands");
+
+        List<Object> synchronousCommands = new ArrayList<>();
+        List<Object> asynchronousCommands = new ArrayList<>(commands.size());
+
+        for (Object command : commands) {
+            requireNonNull(command, "command");
+
+            if (command instanceof SynchronousCommand) {
+                synchronousCommands.add(command);
+            } else {
+                asynchronousCommands.add(command);
+            }
+        }
+
+        if (!asynchronousCommands.isEmpty()) {
+            Object queueWaitEvents = JfrEvents.beginQueueWaits(asynchronousCommands.size());
+            executorService.execute(() -> {
+                JfrEvents.commitQueueWaits(queueWaitEvents, asynchronousCommands);
+                decoratedDispatcher.sendAll(asynchronousCommands);
+            });
+        }
+
+        if (!synchronousCommands.isEmpty()) {
+            decoratedDispatcher.sendAll(synchronousCommands);
+        }
+    }
+
+    private <TCommand> void sendAndComplete(TCommand command, CompletableFuture<Void> completion) {
+        try {
+            decoratedDispatcher.send(command);
+        } catch (Throwable ex) {
+            completion.completeExceptionally(ex);
+            return;
+        }
+        completion.complete(null);
+    }
 }
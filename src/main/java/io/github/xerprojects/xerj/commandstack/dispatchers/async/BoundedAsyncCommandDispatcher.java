@@ -0,0 +1,392 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+import io.github.xerprojects.xerj.commandstack.internal.utils.DaemonThreadFactory;
+import io.github.xerprojects.xerj.commandstack.internal.utils.Rejections;
+import io.github.xerprojects.xerj.commandstack.internal.utils.UncaughtExceptions;
+
+/**
+ * Command dispatcher decorator that enables decorated command dispatcher to 
+ * execute commands asynchronously via a bounded dispatch queue which is drained 
+ * by a fixed number of worker threads. 
+ * 
+ * What happens when a command is dispatched while the dispatch queue is full
+ * is determined by the {@link OverflowPolicy}. The number of commands in the dispatch queue
+ * and the number of rejected and dropped commands are exposed via {@link #getQueueDepth()}, 
+ * {@link #getRejectedCount()} and {@link #getDroppedCount()}.
+ * 
+ * Exceptions that are thrown by command handlers of commands which were dispatched via
+ * {@link #send(Object)} are reported to the worker thread's {@link Thread.UncaughtExceptionHandler}
+ * and the worker thread continues with the next command.
+ * 
+ * Commands that are marked with marker interface {@link SynchronousCommand} 
+ * will be executed synchrously (not via the dispatch queue).
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class BoundedAsyncCommandDispatcher implements CommandDispatcher, AutoCloseable {
+
+    private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("xerj-commandstack-bounded-");
+
+    /**
+     * Signals a worker thread to stop.
+     */
+    private static final QueuedCommand STOP_WORKER = new QueuedCommand(new Object(), null);
+
+    private final CommandDispatcher decoratedDispatcher;
+    private final ArrayBlockingQueue<QueuedCommand> dispatchQueue;
+    private final OverflowPolicy overflowPolicy;
+    private final Thread[] workers;
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param queueCapacity The maximum number of commands that can wait in the dispatch queue.
+     * @param workerCount The number of worker threads which handle the queued commands.
+     * @param overflowPolicy What to do with commands that are dispatched while the dispatch queue is full.
+     */
+    public BoundedAsyncCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            int queueCapacity,
+            int workerCount,
+            OverflowPolicy overflowPolicy) {
+        this(decoratedDispatcher, queueCapacity, workerCount, overflowPolicy, 
+            THREAD_FACTORY);
+    }
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param queueCapacity The maximum number of commands that can wait in the dispatch queue.
+     * @param workerCount The number of worker threads which handle the queued commands.
+     * @param overflowPolicy What to do with commands that are dispatched while the dispatch queue is full.
+     * @param threadFactory The thread factory to create the worker threads with.
+     */
+    public BoundedAsyncCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            int queueCapacity,
+            int workerCount,
+            OverflowPolicy overflowPolicy,
+            ThreadFactory threadFactory) {
+
+        this.decoratedDispatcher = 
+            requireNonNull(decoratedDispatcher, "decoratedDispatcher");
+        this.overflowPolicy = requireNonNull(overflowPolicy, "overflowPolicy");
+        requireNonNull(threadFactory, "threadFactory");
+
+        require(queueCapacity, capacity -> capacity < 1, 
+            "queueCapacity argument must be greater than zero.");
+        require(workerCount, count -> count < 1, 
+            "workerCount argument must be greater than zero.");
+
+        this.dispatchQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = new Thread[workerCount];
+
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = threadFactory.newThread(this::runWorker);
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Get the number of commands that are currently waiting in the dispatch queue.
+     * @return The number of commands that are currently waiting in the dispatch queue.
+     */
+    public int getQueueDepth() {
+        return dispatchQueue.size();
+    }
+
+    /**
+     * Get the maximum number of commands that can wait in the dispatch queue.
+     * @return The maximum number of commands that can wait in the dispatch queue.
+     */
+    public int getQueueCapacity() {
+        return dispatchQueue.size() + dispatchQueue.remainingCapacity();
+    }
+
+    /**
+     * Get the number of commands that were rejected with a {@link CommandRejectedException}
+     * because the dispatch queue was full or because this dispatcher was already closed.
+     * @return The number of rejected commands.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Get the number of commands that were discarded by the {@link OverflowPolicy#dropNewest()}
+     * and {@link OverflowPolicy#dropOldest()} overflow policies.
+     * @return The number of dropped commands.
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Get the overflow policy of this dispatcher.
+     * @return The overflow policy.
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler via the dispatch queue.
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously.
+     * 
+     * This throws a {@link CommandRejectedException} if the command was rejected 
+     * by the overflow policy or if this dispatcher has already been closed.
+     */
+    @Override
+    public <TCommand> void send(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        if (command instanceof SynchronousCommand) {
+            decoratedDispatcher.send(command);
+        } else {
+            enqueue(new QueuedCommand(command, null));
+        }
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler via the dispatch queue
+     * and return a {@link CompletionStage} which is completed by the worker thread as soon as 
+     * the command handler returns. If the command handler throws, the returned 
+     * {@link CompletionStage} is completed exceptionally with the thrown exception.
+     * 
+     * If the command was rejected or dropped by the overflow policy or if this dispatcher 
+     * has already been closed, the returned {@link CompletionStage} is completed exceptionally 
+     * with a {@link CommandRejectedException}.
+     * 
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously and the returned 
+     * {@link CompletionStage} is already completed when this method returns.
+     * 
+     * @param <TCommand> The command type.
+     * @param command The command to dispatch.
+     * @return The {@link CompletionStage} which is completed once the command has been handled.
+     */
+    public <TCommand> CompletionStage<Void> sendAsync(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        QueuedCommand queuedCommand = new QueuedCommand(command, new CompletableFuture<>());
+
+        if (command instanceof SynchronousCommand) {
+            queuedCommand.handle(decoratedDispatcher);
+        } else {
+            try {
+                enqueue(queuedCommand);
+            } catch (CommandRejectedException ex) {
+                queuedCommand.fail(ex);
+            }
+        }
+
+        return queuedCommand.completion;
+    }
+
+    /**
+     * Stop accepting commands and wait for the worker threads to handle all queued commands.
+     * Commands which are dispatched while closing are rejected.
+     * If interrupted while waiting, this returns without waiting for the worker threads.
+     */
+    @Override
+    public void close() {
+        synchronized (workers) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        try {
+            // Stop signals are queued behind the commands that are already in the dispatch queue.
+            for (int i = 0; i < workers.length; i++) {
+                dispatchQueue.put(STOP_WORKER);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        // Commands that raced with closing and were queued behind the stop signals.
+        QueuedCommand queuedCommand;
+        while ((queuedCommand = dispatchQueue.poll()) != null) {
+            if (queuedCommand != STOP_WORKER) {
+                queuedCommand.fail(rejected(queuedCommand, "Command dispatcher has been closed.", null));
+            }
+        }
+    }
+
+    private void enqueue(QueuedCommand queuedCommand) {
+        if (closed) {
+            throw rejected(queuedCommand, "Command dispatcher has been closed.", null);
+        }
+
+        if (dispatchQueue.offer(queuedCommand)) {
+            rejectIfClosed(queuedCommand);
+            return;
+        }
+
+        switch (overflowPolicy.getKind()) {
+            case BLOCK:
+                try {
+                    long timeoutNanos = overflowPolicy.getTimeout().toNanos();
+                    if (!dispatchQueue.offer(queuedCommand, timeoutNanos, TimeUnit.NANOSECONDS)) {
+                        throw rejected(queuedCommand, 
+                            "Dispatch queue is still full after " + overflowPolicy.getTimeout() + ".", null);
+                    }
+                    rejectIfClosed(queuedCommand);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw rejected(queuedCommand, 
+                        "Interrupted while waiting for room in the dispatch queue.", ex);
+                }
+                break;
+            case CALLER_RUNS:
+                queuedCommand.handle(decoratedDispatcher);
+                break;
+            case DROP_NEWEST:
+                drop(queuedCommand);
+                break;
+            case DROP_OLDEST:
+                while (!dispatchQueue.offer(queuedCommand)) {
+                    QueuedCommand oldest = dispatchQueue.poll();
+                    if (oldest == STOP_WORKER) {
+                        // Dispatcher is closing. Keep the stop signal.
+                        dispatchQueue.offer(oldest);
+                        throw rejected(queuedCommand, "Command dispatcher has been closed.", null);
+                    }
+                    if (oldest != null) {
+                        drop(oldest);
+                    }
+                }
+                rejectIfClosed(queuedCommand);
+                break;
+            case REJECT:
+            default:
+                throw rejected(queuedCommand, "Dispatch queue is full.", null);
+        }
+    }
+
+    /**
+     * The workers may have already stopped and the dispatch queue may have already been drained
+     * if the dispatcher was closed while queueing. Take the command back if it is still there.
+     */
+    private void rejectIfClosed(QueuedCommand queuedCommand) {
+        if (closed && dispatchQueue.remove(queuedCommand)) {
+            throw rejected(queuedCommand, "Command dispatcher has been closed.", null);
+        }
+    }
+
+    private CommandRejectedException rejected(
+            QueuedCommand queuedCommand, 
+            String message, 
+            Throwable cause) {
+        rejectedCount.increment();
+        return Rejections.rejected(queuedCommand.command, message, cause);
+    }
+
+    private void drop(QueuedCommand queuedCommand) {
+        droppedCount.increment();
+        queuedCommand.fail(new CommandRejectedException(queuedCommand.command.getClass(), 
+            "Command of type " + queuedCommand.command.getClass() + 
+            " was dropped because the dispatch queue was full."));
+    }
+
+    private void runWorker() {
+        while (true) {
+            QueuedCommand queuedCommand;
+            try {
+                queuedCommand = dispatchQueue.take();
+            } catch (InterruptedException ex) {
+                // Only stop signals stop the worker so that queued commands are not lost.
+                continue;
+            }
+
+            if (queuedCommand == STOP_WORKER) {
+                return;
+            }
+
+            try {
+                queuedCommand.handle(decoratedDispatcher);
+            } catch (Throwable ex) {
+                UncaughtExceptions.report(ex);
+            }
+        }
+    }
+
+    /**
+     * A command in the dispatch queue.
+     */
+    private static class QueuedCommand {
+        private final Object command;
+        private final CompletableFuture<Void> completion;
+
+        QueuedCommand(Object command, CompletableFuture<Void> completion) {
+            this.command = command;
+            this.completion = completion;
+        }
+
+        /**
+         * Dispatch the command. Exceptions are propagated if there is no completion to report them to.
+         */
+        void handle(CommandDispatcher dispatcher) {
+            if (completion == null) {
+                dispatcher.send(command);
+                return;
+            }
+
+            try {
+                dispatcher.send(command);
+            } catch (Throwable ex) {
+                completion.completeExceptionally(ex);
+                return;
+            }
+            completion.complete(null);
+        }
+
+        void fail(Throwable ex) {
+            if (completion != null) {
+                completion.completeExceptionally(ex);
+            }
+        }
+    }
+}
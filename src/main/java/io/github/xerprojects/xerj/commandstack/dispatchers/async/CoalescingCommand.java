@@ -0,0 +1,48 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+/**
+ * Interface that tells {@link CoalescingCommandDispatcher} which commands can be coalesced.
+ * Commands of the same type with equal coalescing keys that are dispatched within 
+ * the same window are coalesced into a single command before they are handled.
+ * 
+ * By default, a newer command supersedes the pending command. Override 
+ * {@link #coalesceWith(CoalescingCommand)} to merge commands instead.
+ * 
+ * @param <TCommand> The command type.
+ * @author Joel Jeremy Marquez
+ */
+public interface CoalescingCommand<TCommand extends CoalescingCommand<TCommand>> {
+    /**
+     * Get the coalescing key of the command e.g. the ID of the entity the command updates.
+     * Coalescing keys are compared via {@link Object#equals(Object)} and {@link Object#hashCode()}.
+     * @return The coalescing key of the command. Must not be null.
+     */
+    Object getCoalescingKey();
+
+    /**
+     * Coalesce this (pending) command with a newer command with the same coalescing key.
+     * This is called while holding the window's lock so it should be quick.
+     * @param newerCommand The newer command.
+     * @return The command that replaces both commands. Must not be null.
+     * By default, the newer command is returned.
+     */
+    default TCommand coalesceWith(TCommand newerCommand) {
+        return newerCommand;
+    }
+}
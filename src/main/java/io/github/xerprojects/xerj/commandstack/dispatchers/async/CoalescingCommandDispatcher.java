@@ -0,0 +1,326 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
+import io.github.xerprojects.xerj.commandstack.internal.utils.DaemonThreadFactory;
+import io.github.xerprojects.xerj.commandstack.internal.utils.Rejections;
+import io.github.xerprojects.xerj.commandstack.internal.utils.UncaughtExceptions;
+
+/**
+ * Command dispatcher decorator that coalesces high frequency commands before they reach 
+ * the decorated command dispatcher.
+ * 
+ * Commands that implement {@link CoalescingCommand} open a window per command type and coalescing key. 
+ * Commands with the same type and coalescing key that are dispatched while the window is open are 
+ * coalesced into the pending command via {@link CoalescingCommand#coalesceWith(CoalescingCommand)}.
+ * The window is closed and the resulting command is dispatched to the decorated command dispatcher 
+ * once the window duration has elapsed or the maximum number of coalesced commands has been reached,
+ * whichever comes first.
+ * 
+ * Coalesced commands are dispatched to the decorated command dispatcher on a single timer thread,
+ * one window at a time, so windows of the same coalescing key are handled in the order they were opened.
+ * Decorate an asynchronous command dispatcher if the command handlers are slow.
+ * Exceptions that are thrown by the decorated command dispatcher are reported to the timer thread's 
+ * {@link Thread.UncaughtExceptionHandler}.
+ * 
+ * Commands that do not implement {@link CoalescingCommand} are dispatched to 
+ * the decorated command dispatcher right away on the calling thread.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class CoalescingCommandDispatcher implements CommandDispatcher, AutoCloseable {
+
+    private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("xerj-commandstack-coalescing-");
+
+    private final CommandDispatcher decoratedDispatcher;
+    private final long windowNanos;
+    private final int maxCoalescedCommands;
+    private final ScheduledThreadPoolExecutor timer;
+    private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<Object, Window>> windowsByCommandType = 
+        new ConcurrentHashMap<>();
+    private final LongAdder coalescedCount = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param window How long a window stays open after its first command was dispatched.
+     * @param maxCoalescedCommands The maximum number of commands that are coalesced into a single command.
+     * The window is closed early once this number of commands has been dispatched to it.
+     */
+    public CoalescingCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            Duration window,
+            int maxCoalescedCommands) {
+        this(decoratedDispatcher, window, maxCoalescedCommands, THREAD_FACTORY);
+    }
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param window How long a window stays open after its first command was dispatched.
+     * @param maxCoalescedCommands The maximum number of commands that are coalesced into a single command.
+     * The window is closed early once this number of commands has been dispatched to it.
+     * @param threadFactory The thread factory to create the timer thread with.
+     */
+    public CoalescingCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            Duration window,
+            int maxCoalescedCommands,
+            ThreadFactory threadFactory) {
+
+        this.decoratedDispatcher = 
+            requireNonNull(decoratedDispatcher, "decoratedDispatcher");
+        requireNonNull(window, "window");
+        require(window, w -> w.isNegative() || w.isZero(), 
+            "window argument must be positive.");
+        this.maxCoalescedCommands = require(maxCoalescedCommands, max -> max < 1, 
+            "maxCoalescedCommands argument must be greater than zero.");
+        requireNonNull(threadFactory, "threadFactory");
+
+        this.windowNanos = window.toNanos();
+        this.timer = new ScheduledThreadPoolExecutor(1, threadFactory);
+        // Windows that were closed early should not linger in the timer's queue.
+        this.timer.setRemoveOnCancelPolicy(true);
+        // Open windows are flushed by close() instead.
+        this.timer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Get how long a window stays open after its first command was dispatched.
+     * @return How long a window stays open.
+     */
+    public Duration getWindow() {
+        return Duration.ofNanos(windowNanos);
+    }
+
+    /**
+     * Get the maximum number of commands that are coalesced into a single command.
+     * @return The maximum number of commands that are coalesced into a single command.
+     */
+    public int getMaxCoalescedCommands() {
+        return maxCoalescedCommands;
+    }
+
+    /**
+     * Get the number of commands that were coalesced into a pending command 
+     * i.e. the number of command handler executions that were saved.
+     * @return The number of commands that were coalesced into a pending command.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * Dispatch command to its registered command handler. Commands which implement
+     * {@link CoalescingCommand} are coalesced and dispatched asynchronously once their window closes.
+     * Other commands are dispatched synchronously.
+     * 
+     * This throws a {@link CommandRejectedException} if this dispatcher has already been closed.
+     */
+    @Override
+    public <TCommand> void send(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        if (!(command instanceof CoalescingCommand)) {
+            decoratedDispatcher.send(command);
+            return;
+        }
+
+        if (closed) {
+            throw Rejections.dispatcherClosed(command);
+        }
+
+        Object coalescingKey = requireNonNull(
+            ((CoalescingCommand<?>)command).getCoalescingKey(), "coalescingKey");
+
+        ConcurrentHashMap<Object, Window> windows = windowsOf(command.getClass());
+        Window window;
+
+        while (true) {
+            window = windows.get(coalescingKey);
+
+            if (window == null) {
+                window = new Window(windows, coalescingKey, command);
+                if (windows.putIfAbsent(coalescingKey, window) == null) {
+                    open(window);
+                    break;
+                }
+                // Lost the race to open the window. Coalesce into the winner's window.
+                continue;
+            }
+
+            int commandCount = window.coalesce(command);
+            if (commandCount < 0) {
+                // Window is being flushed. Open a new one.
+                continue;
+            }
+
+            coalescedCount.increment();
+            if (commandCount >= maxCoalescedCommands) {
+                flushEarly(window);
+            }
+            break;
+        }
+
+        if (closed) {
+            // close() may have already swept the windows. Flush is idempotent.
+            window.run();
+        }
+    }
+
+    /**
+     * Stop accepting commands, wait for the timer thread to dispatch the windows
+     * that have already been closed and then dispatch the remaining open windows
+     * on the calling thread. If interrupted while waiting, the timer thread is interrupted
+     * and the remaining open windows are discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        timer.shutdown();
+
+        try {
+            while (!timer.awaitTermination(1, TimeUnit.DAYS)) {
+                // Keep waiting.
+            }
+        } catch (InterruptedException ex) {
+            timer.shutdownNow();
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        for (ConcurrentHashMap<Object, Window> windows : windowsByCommandType.values()) {
+            for (Window window : windows.values()) {
+                window.run();
+            }
+        }
+    }
+
+    private ConcurrentHashMap<Object, Window> windowsOf(Class<?> commandType) {
+        ConcurrentHashMap<Object, Window> windows = windowsByCommandType.get(commandType);
+        if (windows == null) {
+            windows = windowsByCommandType.computeIfAbsent(commandType, type -> new ConcurrentHashMap<>());
+        }
+        return windows;
+    }
+
+    private void open(Window window) {
+        if (maxCoalescedCommands == 1) {
+            flushEarly(window);
+            return;
+        }
+
+        try {
+            window.timeout = timer.schedule(window, windowNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ex) {
+            // Closed. The window is flushed by close() or by send().
+        }
+    }
+
+    private void flushEarly(Window window) {
+        ScheduledFuture<?> timeout = window.timeout;
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+
+        try {
+            timer.execute(window);
+        } catch (RejectedExecutionException ex) {
+            // Closed. The window is flushed by close() or by send().
+        }
+    }
+
+    private void dispatch(Object command) {
+        try {
+            decoratedDispatcher.send(command);
+        } catch (Throwable ex) {
+            UncaughtExceptions.report(ex);
+        }
+    }
+
+    /**
+     * Pending command of a coalescing key. Running the window flushes it.
+     */
+    private class Window implements Runnable {
+        private final ConcurrentHashMap<Object, Window> windows;
+        private final Object coalescingKey;
+        private Object pendingCommand;
+        private int commandCount = 1;
+        private boolean flushed;
+        private volatile ScheduledFuture<?> timeout;
+
+        Window(ConcurrentHashMap<Object, Window> windows, Object coalescingKey, Object command) {
+            this.windows = windows;
+            this.coalescingKey = coalescingKey;
+            this.pendingCommand = command;
+        }
+
+        /**
+         * Coalesce the command into the pending command.
+         * @return The number of commands in this window or -1 if the window has already been flushed.
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        synchronized int coalesce(Object newerCommand) {
+            if (flushed) {
+                return -1;
+            }
+
+            Object coalescedCommand = ((CoalescingCommand)pendingCommand).coalesceWith(
+                (CoalescingCommand)newerCommand);
+            if (coalescedCommand == null) {
+                throw new CommandStackException(
+                    pendingCommand.getClass() + ".coalesceWith returned null.");
+            }
+
+            pendingCommand = coalescedCommand;
+            return ++commandCount;
+        }
+
+        @Override
+        public void run() {
+            Object command;
+            synchronized (this) {
+                if (flushed) {
+                    return;
+                }
+                flushed = true;
+                command = pendingCommand;
+                pendingCommand = null;
+                windows.remove(coalescingKey, this);
+            }
+
+            dispatch(command);
+        }
+    }
+}
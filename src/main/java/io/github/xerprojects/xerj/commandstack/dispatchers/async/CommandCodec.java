@@ -0,0 +1,50 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+/**
+ * Converts commands to and from bytes so that {@link DurableAsyncCommandDispatcher}
+ * can write them to its journal. Codecs are called concurrently by all sending threads,
+ * so implementations must be thread-safe.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public interface CommandCodec {
+    /**
+     * Convert the command to bytes.
+     * @param command The command to encode.
+     * @return The encoded command.
+     */
+    byte[] encode(Object command);
+
+    /**
+     * Convert bytes which were returned by {@link #encode(Object)} back to a command.
+     * @param encodedCommand The encoded command.
+     * @return The decoded command.
+     */
+    Object decode(byte[] encodedCommand);
+
+    /**
+     * Codec which uses Java serialization. Commands must implement {@link java.io.Serializable}.
+     * Only use this codec with journals that cannot be written by untrusted parties, 
+     * as decoding deserializes whatever the journal contains.
+     * @return The codec which uses Java serialization.
+     */
+    static CommandCodec javaSerialization() {
+        return JavaSerializationCommandCodec.INSTANCE;
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import java.util.Collection;
+
+/**
+ * Lets a command handler which was called by a {@link ForkJoinCommandDispatcher} fork child commands
+ * and join them. Forked commands are pushed to the work queue of the current {@link java.util.concurrent.ForkJoinPool}
+ * worker thread so that idle worker threads can steal them, and a thread which joins a forked command
+ * helps to execute pending commands instead of just waiting.
+ * 
+ * Each command gets its own context. Child commands which have not been joined by the time the 
+ * command handler returns are joined before the command is considered to be handled. 
+ * The context must only be used by the thread which handles the command.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public interface CommandForkContext {
+    /**
+     * Fork the child command i.e. dispatch it to its registered command handler 
+     * via the {@link java.util.concurrent.ForkJoinPool} of the dispatcher. 
+     * The child command gets its own context so it can fork commands as well.
+     * @param <TCommand> The command type.
+     * @param command The child command.
+     * @return The forked child command which can be joined to wait for it to be handled.
+     */
+    <TCommand> ForkedCommand fork(TCommand command);
+
+    /**
+     * Fork all child commands and wait until all of them have been handled.
+     * If any of the child commands fail, the first failure is rethrown once all 
+     * child commands have completed and the other failures are added as suppressed exceptions.
+     * @param commands The child commands.
+     */
+    void forkAll(Collection<?> commands);
+
+    /**
+     * Wait until all child commands which were forked via this context and 
+     * which have not been joined yet have been handled.
+     * If any of the child commands fail, the first failure is rethrown once all 
+     * child commands have completed and the other failures are added as suppressed exceptions.
+     */
+    void joinAll();
+
+    /**
+     * Get the context of the command which is being handled by the current thread.
+     * This throws an {@link IllegalStateException} if the current thread is not handling a command 
+     * which was dispatched via a {@link ForkJoinCommandDispatcher}.
+     * @return The context of the command which is being handled by the current thread.
+     */
+    static CommandForkContext current() {
+        return ForkJoinCommandDispatcher.currentForkContext();
+    }
+}
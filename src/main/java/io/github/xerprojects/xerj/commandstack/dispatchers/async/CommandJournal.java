@@ -0,0 +1,487 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
+
+/**
+ * Write-ahead journal of encoded commands which is made of memory-mapped segment files 
+ * of a fixed size. Entries are appended to the active segment until it is full, at which point 
+ * a new segment is created.
+ * 
+ * Entries are made durable in groups: the thread which forces the active segment to disk makes 
+ * all entries durable that have been appended so far, so concurrent threads which wait for 
+ * their entries to become durable share a single force.
+ * 
+ * Acknowledged entries are marked in place. Segments whose entries have all been 
+ * acknowledged are deleted once they are no longer active.
+ * 
+ * Each entry is made of a 12 byte header followed by the encoded command. The header contains 
+ * the length of the encoded command, a CRC32C checksum of the encoded command and 
+ * the state of the entry. Entries which are not marked as written or whose checksum does not match
+ * (i.e. entries that were being written when the process or the machine died) end the segment.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+class CommandJournal implements AutoCloseable {
+
+    static final int ENTRY_HEADER_SIZE = 12;
+
+    private static final int LENGTH_OFFSET = 0;
+    private static final int CHECKSUM_OFFSET = 4;
+    private static final int STATE_OFFSET = 8;
+    // Unused space is zeroed, so zero marks the end of the written entries.
+    private static final int WRITTEN = 1;
+    private static final int ACKNOWLEDGED = 2;
+
+    private static final String LOCK_FILE_NAME = "journal.lock";
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+    private static final String SEGMENT_FILE_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FileChannel lockChannel;
+    private final List<Entry> recoveredEntries;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    // Guarded by appendLock.
+    private long nextSegmentId;
+    private boolean closed;
+
+    // Only changed while holding appendLock.
+    private volatile Segment activeSegment;
+    private volatile long appendedSequence;
+    // Only changed while holding syncLock.
+    private volatile long syncedSequence;
+
+    private CommandJournal(
+            Path directory, 
+            int segmentSize, 
+            FileChannel lockChannel, 
+            List<Entry> recoveredEntries, 
+            long nextSegmentId) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.lockChannel = lockChannel;
+        this.recoveredEntries = Collections.unmodifiableList(recoveredEntries);
+        this.nextSegmentId = nextSegmentId;
+        this.activeSegment = createSegment();
+    }
+
+    /**
+     * Open the journal in the given directory. The directory is created if it does not exist.
+     * Entries of existing segments which have not been acknowledged are recovered, 
+     * fully acknowledged segments are deleted and a new segment is created for new entries.
+     * 
+     * This throws a {@link CommandStackException} if the journal cannot be opened 
+     * or if the journal is already open, either in this or in another process.
+     * 
+     * @param directory The journal directory.
+     * @param segmentSize The size of each segment file in bytes.
+     * @return The opened journal.
+     */
+    static CommandJournal open(Path directory, int segmentSize) {
+        requireNonNull(directory, "directory");
+        require(segmentSize, size -> size <= ENTRY_HEADER_SIZE, 
+            "segmentSize argument must be greater than " + ENTRY_HEADER_SIZE + ".");
+
+        FileChannel lockChannel = null;
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve(LOCK_FILE_NAME), 
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (!tryLock(lockChannel)) {
+                throw new CommandStackException("Journal " + directory + " is already open.");
+            }
+
+            List<Entry> recoveredEntries = new ArrayList<>();
+            long lastSegmentId = -1;
+            for (Path segmentFile : listSegmentFiles(directory)) {
+                long segmentId = segmentIdOf(segmentFile);
+                lastSegmentId = Math.max(lastSegmentId, segmentId);
+                recover(segmentFile, recoveredEntries);
+            }
+
+            return new CommandJournal(directory, segmentSize, lockChannel, recoveredEntries, lastSegmentId + 1);
+        } catch (IOException | RuntimeException ex) {
+            closeQuietly(lockChannel);
+            if (ex instanceof CommandStackException) {
+                throw (CommandStackException)ex;
+            }
+            throw new CommandStackException("Failed to open journal " + directory + ".", ex);
+        }
+    }
+
+    /**
+     * Get the entries which had not been acknowledged when the journal was opened,
+     * in the order they were appended.
+     * @return The recovered entries.
+     */
+    List<Entry> getRecoveredEntries() {
+        return recoveredEntries;
+    }
+
+    /**
+     * Get the maximum size of an encoded command that fits in a segment.
+     * @return The maximum size of an encoded command in bytes.
+     */
+    int getMaxEntryLength() {
+        return segmentSize - ENTRY_HEADER_SIZE;
+    }
+
+    /**
+     * Append the encoded command to the journal. The entry is not durable until 
+     * {@link #sync(Entry)} returns.
+     * 
+     * This throws an {@link IllegalStateException} if the journal has been closed.
+     * 
+     * @param encodedCommand The encoded command. Must not be longer than {@link #getMaxEntryLength()}.
+     * @return The appended entry.
+     */
+    Entry append(byte[] encodedCommand) {
+        require(encodedCommand, bytes -> bytes.length > getMaxEntryLength(), 
+            "encodedCommand argument must not be longer than " + getMaxEntryLength() + " bytes.");
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(encodedCommand);
+
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal has been closed.");
+            }
+
+            Segment segment = activeSegment;
+            if (!segment.hasRoomFor(encodedCommand.length)) {
+                segment = roll();
+            }
+
+            int offset = segment.append(encodedCommand, (int)checksum.getValue());
+            long sequence = appendedSequence + 1;
+            appendedSequence = sequence;
+            return new Entry(segment, offset, encodedCommand.length, sequence);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Wait until the entry is durable. If the entry is not yet durable, the calling thread 
+     * either forces the active segment to disk, which makes all entries that have been 
+     * appended so far durable, or waits for the thread that is currently doing so.
+     * @param entry The entry to wait for.
+     */
+    void sync(Entry entry) {
+        long sequence = entry.sequence;
+        if (syncedSequence >= sequence) {
+            return;
+        }
+
+        syncLock.lock();
+        try {
+            if (syncedSequence >= sequence) {
+                // Made durable by the previous force.
+                return;
+            }
+
+            // The sequence must be read before the active segment. Segments are forced 
+            // before they are replaced, so entries of earlier segments are already durable.
+            long appended = appendedSequence;
+            activeSegment.force();
+            syncedSequence = appended;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting entries, force the active segment to disk and unlock the journal directory. 
+     * Entries can still be acknowledged after the journal has been closed, so the journal 
+     * must not be opened again until all of its outstanding entries have been acknowledged.
+     */
+    @Override
+    public void close() {
+        Segment segment;
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            segment = activeSegment;
+        } finally {
+            appendLock.unlock();
+        }
+
+        syncLock.lock();
+        try {
+            segment.force();
+            syncedSequence = appendedSequence;
+        } finally {
+            syncLock.unlock();
+        }
+
+        segment.seal();
+        closeQuietly(lockChannel);
+    }
+
+    private Segment roll() {
+        Segment fullSegment = activeSegment;
+        fullSegment.force();
+        fullSegment.seal();
+
+        activeSegment = createSegment();
+        return activeSegment;
+    }
+
+    private Segment createSegment() {
+        Path segmentFile = directory.resolve(
+            String.format("%s%020d%s", SEGMENT_FILE_PREFIX, nextSegmentId++, SEGMENT_FILE_SUFFIX));
+
+        try {
+            Segment segment;
+            try (FileChannel channel = FileChannel.open(segmentFile, 
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = new Segment(segmentFile, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+            }
+            forceDirectory();
+            return segment;
+        } catch (IOException ex) {
+            throw new CommandStackException("Failed to create journal segment " + segmentFile + ".", ex);
+        }
+    }
+
+    /**
+     * Make the creation of new segment files durable. 
+     * Not all platforms support this, in which case this does nothing.
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            // Not supported on this platform.
+        }
+    }
+
+    private static void recover(Path segmentFile, List<Entry> recoveredEntries) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segmentFile, 
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+
+        Segment segment = new Segment(segmentFile, buffer);
+        int offset = 0;
+        while (buffer.capacity() - offset >= ENTRY_HEADER_SIZE) {
+            int state = buffer.getInt(offset + STATE_OFFSET);
+            int length = buffer.getInt(offset + LENGTH_OFFSET);
+            if ((state != WRITTEN && state != ACKNOWLEDGED) || 
+                    length < 0 || length > buffer.capacity() - offset - ENTRY_HEADER_SIZE) {
+                break;
+            }
+
+            Entry entry = new Entry(segment, offset, length, 0);
+            CRC32C checksum = new CRC32C();
+            checksum.update(entry.read());
+            if ((int)checksum.getValue() != buffer.getInt(offset + CHECKSUM_OFFSET)) {
+                // Torn write.
+                break;
+            }
+
+            if (state != ACKNOWLEDGED) {
+                segment.pendingEntries.incrementAndGet();
+                recoveredEntries.add(entry);
+            }
+            offset += ENTRY_HEADER_SIZE + length;
+        }
+
+        segment.seal();
+    }
+
+    private static List<Path> listSegmentFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> {
+                    String fileName = file.getFileName().toString();
+                    return fileName.startsWith(SEGMENT_FILE_PREFIX) && fileName.endsWith(SEGMENT_FILE_SUFFIX);
+                })
+                .sorted((a, b) -> Long.compare(segmentIdOf(a), segmentIdOf(b)))
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static long segmentIdOf(Path segmentFile) {
+        String fileName = segmentFile.getFileName().toString();
+        String segmentId = fileName.substring(
+            SEGMENT_FILE_PREFIX.length(), fileName.length() - SEGMENT_FILE_SUFFIX.length());
+        try {
+            return Long.parseLong(segmentId);
+        } catch (NumberFormatException ex) {
+            throw new CommandStackException("Invalid journal segment file name: " + segmentFile + ".", ex);
+        }
+    }
+
+    private static boolean tryLock(FileChannel lockChannel) throws IOException {
+        try {
+            return lockChannel.tryLock() != null;
+        } catch (OverlappingFileLockException ex) {
+            // Locked by this process.
+            return false;
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            // Nothing left to do.
+        }
+    }
+
+    /**
+     * An entry in the journal.
+     */
+    static final class Entry {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+        private final long sequence;
+
+        private Entry(Segment segment, int offset, int length, long sequence) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Read the encoded command.
+         * @return The encoded command.
+         */
+        byte[] read() {
+            byte[] encodedCommand = new byte[length];
+            ByteBuffer reader = segment.buffer.duplicate();
+            reader.position(offset + ENTRY_HEADER_SIZE);
+            reader.get(encodedCommand);
+            return encodedCommand;
+        }
+
+        /**
+         * Mark the entry as acknowledged so that it is not recovered when the journal is opened again.
+         * Acknowledgements are not forced to disk, so entries which were acknowledged right before
+         * the machine died may be recovered again.
+         */
+        void acknowledge() {
+            segment.acknowledge(offset);
+        }
+    }
+
+    /**
+     * A memory-mapped segment file.
+     */
+    private static final class Segment {
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        // Guarded by the append lock of the journal.
+        private final ByteBuffer writer;
+        private final AtomicInteger pendingEntries = new AtomicInteger();
+        private final AtomicBoolean deleted = new AtomicBoolean();
+        private volatile boolean sealed;
+
+        Segment(Path file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+            this.writer = buffer.duplicate();
+        }
+
+        boolean hasRoomFor(int length) {
+            return writer.remaining() >= ENTRY_HEADER_SIZE + length;
+        }
+
+        int append(byte[] encodedCommand, int checksum) {
+            int offset = writer.position();
+            pendingEntries.incrementAndGet();
+
+            writer.position(offset + ENTRY_HEADER_SIZE);
+            writer.put(encodedCommand);
+            buffer.putInt(offset + LENGTH_OFFSET, encodedCommand.length);
+            buffer.putInt(offset + CHECKSUM_OFFSET, checksum);
+            // The state marks the entry as written.
+            buffer.putInt(offset + STATE_OFFSET, WRITTEN);
+            return offset;
+        }
+
+        void acknowledge(int offset) {
+            buffer.putInt(offset + STATE_OFFSET, ACKNOWLEDGED);
+            if (pendingEntries.decrementAndGet() == 0 && sealed) {
+                delete();
+            }
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        /**
+         * Mark the segment as no longer accepting entries. The segment is deleted 
+         * as soon as all of its entries have been acknowledged.
+         */
+        void seal() {
+            sealed = true;
+            if (pendingEntries.get() == 0) {
+                delete();
+            }
+        }
+
+        private void delete() {
+            if (!deleted.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                // Some platforms do not allow deleting mapped files. 
+                // The segment is deleted when the journal is opened again.
+            }
+        }
+    }
+}
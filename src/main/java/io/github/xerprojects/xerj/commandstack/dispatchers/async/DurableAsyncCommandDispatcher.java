@@ -0,0 +1,348 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
+import io.github.xerprojects.xerj.commandstack.internal.jfr.JfrEvents;
+import io.github.xerprojects.xerj.commandstack.internal.utils.Rejections;
+
+/**
+ * Command dispatcher decorator that enables decorated command dispatcher to 
+ * execute commands asynchronously without losing them if the JVM dies before they are handled. 
+ * Like {@link AsyncCommandDispatcher}, commands are executed via the provided {@link ExecutorService}, 
+ * but each command is first encoded via the provided {@link CommandCodec} and appended to 
+ * a write-ahead journal of memory-mapped segment files. Dispatching returns once the command 
+ * has been forced to disk. Forces are shared by concurrent senders, so each sender only 
+ * waits for the next force instead of forcing the journal on its own.
+ * 
+ * Journal entries are acknowledged once the command handler returns, whether or not it throws,
+ * so that failing commands are not replayed forever. Commands which have not been acknowledged 
+ * when the dispatcher is created again with the same journal directory are replayed 
+ * in the order they were dispatched before any new commands are accepted. Since acknowledgements 
+ * are not forced to disk, commands are handled at least once and command handlers must be 
+ * able to handle the same command more than once.
+ * 
+ * Commands that are marked with marker interface {@link SynchronousCommand} 
+ * will be executed synchrously (not via {@link ExecutorService}) and are not journaled.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class DurableAsyncCommandDispatcher implements CommandDispatcher, AutoCloseable {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final CommandDispatcher decoratedDispatcher;
+    private final ExecutorService executorService;
+    private final CommandCodec commandCodec;
+    private final CommandJournal journal;
+    private final int replayedCount;
+    private volatile boolean closed;
+
+    /**
+     * Constructor. Uses journal segments of 64 MiB.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param executorService Executor service that will be used to execute commands.
+     * @param journalDirectory The directory of the journal. Created if it does not exist. 
+     * Only one dispatcher can use the directory at a time.
+     * @param commandCodec The codec which converts commands to and from journal entries.
+     */
+    public DurableAsyncCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            ExecutorService executorService,
+            Path journalDirectory,
+            CommandCodec commandCodec) {
+        this(decoratedDispatcher, executorService, journalDirectory, commandCodec, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * This throws a {@link CommandStackException} if the journal cannot be opened or if 
+     * journaled commands cannot be decoded.
+     * 
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param executorService Executor service that will be used to execute commands.
+     * @param journalDirectory The directory of the journal. Created if it does not exist. 
+     * Only one dispatcher can use the directory at a time.
+     * @param commandCodec The codec which converts commands to and from journal entries.
+     * @param segmentSize The size of each journal segment file in bytes. 
+     * Limits the size of encoded commands.
+     */
+    public DurableAsyncCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            ExecutorService executorService,
+            Path journalDirectory,
+            CommandCodec commandCodec,
+            int segmentSize) {
+
+        this.decoratedDispatcher = 
+            requireNonNull(decoratedDispatcher, "decoratedDispatcher");
+        this.executorService = requireNonNull(executorService, "executorService");
+        requireNonNull(journalDirectory, "journalDirectory");
+        this.commandCodec = requireNonNull(commandCodec, "commandCodec");
+        require(segmentSize, size -> size <= CommandJournal.ENTRY_HEADER_SIZE, 
+            "segmentSize argument must be greater than " + CommandJournal.ENTRY_HEADER_SIZE + ".");
+
+        this.journal = CommandJournal.open(journalDirectory, segmentSize);
+        try {
+            this.replayedCount = replay();
+        } catch (RuntimeException | Error ex) {
+            journal.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Get the number of commands which were replayed from the journal when this dispatcher was created.
+     * @return The number of replayed commands.
+     */
+    public int getReplayedCount() {
+        return replayedCount;
+    }
+
+    /**
+     * Journal the command and asynchronously dispatch it to its registered command handler.
+     * This returns once the command has been forced to disk.
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously.
+     * 
+     * This throws a {@link CommandRejectedException} if this dispatcher has already been closed 
+     * or if the encoded command does not fit in a journal segment.
+     */
+    @Override
+    public <TCommand> void send(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        if (command instanceof SynchronousCommand) {
+            decoratedDispatcher.send(command);
+        } else {
+            CommandJournal.Entry entry = journal(command, commandCodec.encode(command));
+            journal.sync(entry);
+            execute(command, entry, null);
+        }
+    }
+
+    /**
+     * Journal the command, asynchronously dispatch it to its registered command handler and return a
+     * {@link CompletionStage} which is completed by the thread that executed the command handler
+     * as soon as the command handler returns. If the command handler throws, the returned
+     * {@link CompletionStage} is completed exceptionally with the thrown exception.
+     * This returns once the command has been forced to disk.
+     * 
+     * If the command cannot be journaled or if the {@link ExecutorService} rejects the command,
+     * the returned {@link CompletionStage} is completed exceptionally with the thrown exception.
+     * 
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously and the returned 
+     * {@link CompletionStage} is already completed when this method returns.
+     * 
+     * @param <TCommand> The command type.
+     * @param command The command to dispatch.
+     * @return The {@link CompletionStage} which is completed once the command has been handled.
+     */
+    public <TCommand> CompletionStage<Void> sendAsync(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        if (command instanceof SynchronousCommand) {
+            try {
+                decoratedDispatcher.send(command);
+                completion.complete(null);
+            } catch (Throwable ex) {
+                completion.completeExceptionally(ex);
+            }
+        } else {
+            try {
+                CommandJournal.Entry entry = journal(command, commandCodec.encode(command));
+                journal.sync(entry);
+                execute(command, entry, completion);
+            } catch (RuntimeException ex) {
+                completion.completeExceptionally(ex);
+            }
+        }
+
+        return completion;
+    }
+
+    /**
+     * Journal the commands and asynchronously dispatch them to their registered command handlers.
+     * This returns once all commands have been forced to disk.
+     * Commands that implement the marker interface {@link SynchronousCommand} are dispatched 
+     * synchronously as one batch. All other commands are dispatched as one batch in a single 
+     * task that is submitted to the {@link ExecutorService}.
+     */
+    @Override
+    public void sendAll(Collection<?> commands) {
+
+        requireNonNull(commands, "commands");
+
+        List<Object> synchronousCommands = new ArrayList<>();
+        List<Object> asynchronousCommands = new ArrayList<>(commands.size());
+        List<byte[]> encodedCommands = new ArrayList<>(commands.size());
+
+        // Encode all commands first so that no command is journaled if any of them cannot be encoded.
+        for (Object command : commands) {
+            requireNonNull(command, "command");
+
+            if (command instanceof SynchronousCommand) {
+                synchronousCommands.add(command);
+            } else {
+                asynchronousCommands.add(command);
+                encodedCommands.add(commandCodec.encode(command));
+            }
+        }
+
+        if (!asynchronousCommands.isEmpty()) {
+            List<CommandJournal.Entry> entries = new ArrayList<>(asynchronousCommands.size());
+            try {
+                for (int i = 0; i < asynchronousCommands.size(); i++) {
+                    entries.add(journal(asynchronousCommands.get(i), encodedCommands.get(i)));
+                }
+            } catch (RuntimeException ex) {
+                entries.forEach(CommandJournal.Entry::acknowledge);
+                throw ex;
+            }
+            // Entries are durable in the order they were appended.
+            journal.sync(entries.get(entries.size() - 1));
+
+            Object queueWaitEvents = JfrEvents.beginQueueWaits(asynchronousCommands.size());
+            try {
+                executorService.execute(() -> {
+                    JfrEvents.commitQueueWaits(queueWaitEvents, asynchronousCommands);
+                    try {
+                        decoratedDispatcher.sendAll(asynchronousCommands);
+                    } finally {
+                        entries.forEach(CommandJournal.Entry::acknowledge);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                entries.forEach(CommandJournal.Entry::acknowledge);
+                throw ex;
+            }
+        }
+
+        if (!synchronousCommands.isEmpty()) {
+            decoratedDispatcher.sendAll(synchronousCommands);
+        }
+    }
+
+    /**
+     * Stop accepting commands and force the journal to disk. Commands which have already been
+     * dispatched are still handled and acknowledged by the {@link ExecutorService}, which is 
+     * not shut down by this dispatcher.
+     * 
+     * The journal directory is unlocked once this returns, even if dispatched commands are still 
+     * being handled. The {@link ExecutorService} must be drained (e.g. shut down and awaited) before 
+     * a dispatcher is created again with the same journal directory. Otherwise, commands which 
+     * are still being handled are replayed by the new dispatcher and their acknowledgements may 
+     * delete segments which the new dispatcher has recovered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        journal.close();
+    }
+
+    private int replay() {
+        List<CommandJournal.Entry> entries = journal.getRecoveredEntries();
+
+        // Decode all commands first so that no command is replayed twice if any of them cannot be decoded.
+        List<Object> commands = new ArrayList<>(entries.size());
+        for (CommandJournal.Entry entry : entries) {
+            commands.add(commandCodec.decode(entry.read()));
+        }
+
+        for (int i = 0; i < commands.size(); i++) {
+            Object command = commands.get(i);
+            CommandJournal.Entry entry = entries.get(i);
+            Object queueWaitEvent = JfrEvents.beginQueueWait();
+            // Rejected commands remain in the journal so that they are replayed next time.
+            executorService.execute(() -> {
+                JfrEvents.commitQueueWait(queueWaitEvent, command.getClass());
+                handle(command, entry, null);
+            });
+        }
+
+        return commands.size();
+    }
+
+    private CommandJournal.Entry journal(Object command, byte[] encodedCommand) {
+        if (closed) {
+            throw Rejections.dispatcherClosed(command);
+        }
+        if (encodedCommand.length > journal.getMaxEntryLength()) {
+            throw Rejections.rejected(command, "Encoded command is larger than the maximum of " + 
+                journal.getMaxEntryLength() + " bytes.");
+        }
+
+        try {
+            return journal.append(encodedCommand);
+        } catch (IllegalStateException ex) {
+            // Closed concurrently.
+            throw Rejections.dispatcherClosed(command);
+        }
+    }
+
+    private void execute(Object command, CommandJournal.Entry entry, CompletableFuture<Void> completion) {
+        Object queueWaitEvent = JfrEvents.beginQueueWait();
+        try {
+            executorService.execute(() -> {
+                JfrEvents.commitQueueWait(queueWaitEvent, command.getClass());
+                handle(command, entry, completion);
+            });
+        } catch (RejectedExecutionException ex) {
+            // The command is not going to be handled, so it must not be replayed either.
+            entry.acknowledge();
+            throw ex;
+        }
+    }
+
+    private void handle(Object command, CommandJournal.Entry entry, CompletableFuture<Void> completion) {
+        try {
+            decoratedDispatcher.send(command);
+        } catch (RuntimeException | Error ex) {
+            entry.acknowledge();
+            if (completion == null) {
+                throw ex;
+            }
+            completion.completeExceptionally(ex);
+            return;
+        }
+
+        entry.acknowledge();
+        if (completion != null) {
+            completion.complete(null);
+        }
+    }
+}
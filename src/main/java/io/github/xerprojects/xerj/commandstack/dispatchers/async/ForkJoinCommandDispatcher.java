@@ -0,0 +1,352 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
+import io.github.xerprojects.xerj.commandstack.internal.jfr.JfrEvents;
+
+/**
+ * Command dispatcher decorator that enables decorated command dispatcher to 
+ * execute commands asynchronously via a {@link ForkJoinPool}. Command handlers can split 
+ * large commands into child commands via {@link CommandForkContext#current()}. Child commands
+ * are executed in parallel by the work-stealing worker threads of the {@link ForkJoinPool}.
+ * 
+ * Commands that are marked with marker interface {@link SynchronousCommand} 
+ * will be executed synchrously (not via {@link ForkJoinPool}) but can still fork child commands.
+ * 
+ * Exceptions that are thrown by command handlers of asynchronous commands (including exceptions of
+ * child commands which were not joined) are reported to the worker thread's 
+ * {@link Thread.UncaughtExceptionHandler}.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class ForkJoinCommandDispatcher implements CommandDispatcher {
+
+    private static final ThreadLocal<ForkContext> CURRENT_FORK_CONTEXT = new ThreadLocal<>();
+
+    private final CommandDispatcher decoratedDispatcher;
+    private final ForkJoinPool forkJoinPool;
+
+    /**
+     * Constructor. Commands are executed via {@link ForkJoinPool#commonPool()}.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     */
+    public ForkJoinCommandDispatcher(CommandDispatcher decoratedDispatcher) {
+        this(decoratedDispatcher, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param forkJoinPool The fork/join pool that will be used to execute commands and child commands.
+     */
+    public ForkJoinCommandDispatcher(
+            CommandDispatcher decoratedDispatcher, 
+            ForkJoinPool forkJoinPool) {
+        this.decoratedDispatcher = 
+            requireNonNull(decoratedDispatcher, "decoratedDispatcher");
+        this.forkJoinPool = requireNonNull(forkJoinPool, "forkJoinPool");
+    }
+
+    /**
+     * Get the fork/join pool that is used to execute commands and child commands.
+     * @return The fork/join pool.
+     */
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler.
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously and this returns 
+     * once the command and all its child commands have been handled.
+     */
+    @Override
+    public <TCommand> void send(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        if (command instanceof SynchronousCommand) {
+            handle(command);
+        } else {
+            Object queueWaitEvent = JfrEvents.beginQueueWait();
+            forkJoinPool.execute(() -> {
+                JfrEvents.commitQueueWait(queueWaitEvent, command.getClass());
+                handle(command);
+            });
+        }
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler and return a
+     * {@link CompletionStage} which is completed as soon as the command and all its child commands 
+     * have been handled. If the command handler or a child command which was not joined throws, 
+     * the returned {@link CompletionStage} is completed exceptionally with the thrown exception.
+     * 
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously and the returned 
+     * {@link CompletionStage} is already completed when this method returns.
+     * 
+     * If the {@link ForkJoinPool} rejects the command, the returned {@link CompletionStage}
+     * is completed exceptionally with the {@link RejectedExecutionException}.
+     * 
+     * @param <TCommand> The command type.
+     * @param command The command to dispatch.
+     * @return The {@link CompletionStage} which is completed once the command has been handled.
+     */
+    public <TCommand> CompletionStage<Void> sendAsync(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        if (command instanceof SynchronousCommand) {
+            handleAndComplete(command, completion);
+        } else {
+            Object queueWaitEvent = JfrEvents.beginQueueWait();
+            try {
+                forkJoinPool.execute(() -> {
+                    JfrEvents.commitQueueWait(queueWaitEvent, command.getClass());
+                    handleAndComplete(command, completion);
+                });
+            } catch (RejectedExecutionException ex) {
+                completion.completeExceptionally(ex);
+            }
+        }
+
+        return completion;
+    }
+
+    /**
+     * Get the context of the command which is being handled by the current thread.
+     * @return The context of the command which is being handled by the current thread.
+     */
+    static CommandForkContext currentForkContext() {
+        ForkContext context = CURRENT_FORK_CONTEXT.get();
+        if (context == null) {
+            throw new IllegalStateException(
+                "The current thread is not handling a command which was dispatched via a " + 
+                ForkJoinCommandDispatcher.class.getSimpleName() + ".");
+        }
+        return context;
+    }
+
+    /**
+     * Handle the command with its own fork context and join all child commands 
+     * which were not joined by the command handler.
+     */
+    private void handle(Object command) {
+        ForkContext context = new ForkContext();
+        ForkContext previousContext = CURRENT_FORK_CONTEXT.get();
+        CURRENT_FORK_CONTEXT.set(context);
+
+        Throwable failure = null;
+        try {
+            try {
+                decoratedDispatcher.send(command);
+            } catch (Throwable ex) {
+                failure = ex;
+            }
+            failure = context.join(failure);
+        } finally {
+            context.closed = true;
+            // Joining may have executed other commands on this thread. Those restore their previous context.
+            if (previousContext == null) {
+                CURRENT_FORK_CONTEXT.remove();
+            } else {
+                CURRENT_FORK_CONTEXT.set(previousContext);
+            }
+        }
+
+        rethrow(failure);
+    }
+
+    private <TCommand> void handleAndComplete(TCommand command, CompletableFuture<Void> completion) {
+        try {
+            handle(command);
+        } catch (Throwable ex) {
+            completion.completeExceptionally(ex);
+            return;
+        }
+        completion.complete(null);
+    }
+
+    private static void rethrow(Throwable failure) {
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException)failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error)failure;
+        }
+        throw new CommandStackException("Command handler threw a checked exception.", failure);
+    }
+
+    /**
+     * The fork context of a single command.
+     */
+    private class ForkContext implements CommandForkContext {
+        private final List<ChildCommand> children = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public <TCommand> ForkedCommand fork(TCommand command) {
+            requireNonNull(command, "command");
+
+            if (closed) {
+                throw new IllegalStateException(
+                    "Cannot fork child commands after the command has been handled.");
+            }
+
+            CommandTask task = new CommandTask(command);
+            Thread currentThread = Thread.currentThread();
+            if (currentThread instanceof ForkJoinWorkerThread && 
+                    ((ForkJoinWorkerThread)currentThread).getPool() == forkJoinPool) {
+                // Push to the worker's own queue so that idle workers can steal it.
+                task.fork();
+            } else {
+                forkJoinPool.execute(task);
+            }
+
+            ChildCommand child = new ChildCommand(task);
+            children.add(child);
+            return child;
+        }
+
+        @Override
+        public void forkAll(Collection<?> commands) {
+            requireNonNull(commands, "commands");
+
+            List<ChildCommand> forkedChildren = new ArrayList<>(commands.size());
+            for (Object command : commands) {
+                forkedChildren.add((ChildCommand)fork(command));
+            }
+
+            Throwable failure = null;
+            // Join in reverse order so that the most recently forked commands are handled 
+            // by this thread if they have not been stolen yet.
+            for (int i = forkedChildren.size() - 1; i >= 0; i--) {
+                failure = forkedChildren.get(i).join(failure);
+            }
+            rethrow(failure);
+        }
+
+        @Override
+        public void joinAll() {
+            rethrow(join(null));
+        }
+
+        /**
+         * Join all child commands which have not been joined yet.
+         * @param failure The failure so far or null.
+         * @return The first failure or null. Subsequent failures are added as suppressed exceptions.
+         */
+        Throwable join(Throwable failure) {
+            for (int i = children.size() - 1; i >= 0; i--) {
+                ChildCommand child = children.get(i);
+                if (!child.joined) {
+                    failure = child.join(failure);
+                }
+            }
+            children.clear();
+            return failure;
+        }
+    }
+
+    /**
+     * Child command which is only joined by the thread which forked it.
+     */
+    private static class ChildCommand implements ForkedCommand {
+        private final CommandTask task;
+        private boolean joined;
+
+        ChildCommand(CommandTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void join() {
+            rethrow(join(null));
+        }
+
+        @Override
+        public boolean isDone() {
+            return task.isDone();
+        }
+
+        /**
+         * Join the child command.
+         * @param failure The failure so far or null.
+         * @return The first failure or null. Subsequent failures are added as suppressed exceptions.
+         */
+        Throwable join(Throwable failure) {
+            joined = true;
+            task.quietlyJoin();
+
+            Throwable childFailure = task.failure;
+            if (childFailure == null || childFailure == failure) {
+                return failure;
+            }
+            if (failure == null) {
+                return childFailure;
+            }
+            failure.addSuppressed(childFailure);
+            return failure;
+        }
+    }
+
+    /**
+     * Handles a child command. Failures are kept as is instead of being 
+     * re-created by {@link ForkJoinTask#join()}.
+     */
+    private class CommandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Object command;
+        private transient Throwable failure;
+
+        CommandTask(Object command) {
+            this.command = command;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                handle(command);
+            } catch (Throwable ex) {
+                failure = ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+/**
+ * Child command which was forked via {@link CommandForkContext#fork(Object)}.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public interface ForkedCommand {
+    /**
+     * Wait until the child command has been handled. While waiting, the current thread
+     * helps to execute other pending commands if it is a {@link java.util.concurrent.ForkJoinPool} 
+     * worker thread. This rethrows any exception that was thrown while handling the child command.
+     */
+    void join();
+
+    /**
+     * Whether the child command has been handled (successfully or not).
+     * @return True if the child command has been handled. Otherwise, false.
+     */
+    boolean isDone();
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
+
+/**
+ * {@link CommandCodec} which uses Java serialization.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+class JavaSerializationCommandCodec implements CommandCodec {
+
+    static final JavaSerializationCommandCodec INSTANCE = new JavaSerializationCommandCodec();
+
+    private JavaSerializationCommandCodec() {}
+
+    @Override
+    public byte[] encode(Object command) {
+        if (!(command instanceof Serializable)) {
+            throw new CommandStackException("Command of type " + command.getClass() + 
+                " cannot be encoded. Command must implement " + Serializable.class.getName() + ".");
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(command);
+        } catch (IOException ex) {
+            throw new CommandStackException("Failed to encode command of type " + command.getClass() + ".", ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] encodedCommand) {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(encodedCommand))) {
+            return input.readObject();
+        } catch (IOException | ClassNotFoundException ex) {
+            throw new CommandStackException("Failed to decode command.", ex);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.time.Duration;
+
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+
+/**
+ * Determines what {@link BoundedAsyncCommandDispatcher} does with a command 
+ * that is dispatched while its dispatch queue is full.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public final class OverflowPolicy {
+
+    /**
+     * The supported overflow policies.
+     */
+    public enum Kind {
+        /**
+         * See {@link OverflowPolicy#block(Duration)}.
+         */
+        BLOCK,
+        /**
+         * See {@link OverflowPolicy#callerRuns()}.
+         */
+        CALLER_RUNS,
+        /**
+         * See {@link OverflowPolicy#dropNewest()}.
+         */
+        DROP_NEWEST,
+        /**
+         * See {@link OverflowPolicy#dropOldest()}.
+         */
+        DROP_OLDEST,
+        /**
+         * See {@link OverflowPolicy#reject()}.
+         */
+        REJECT
+    }
+
+    private static final OverflowPolicy CALLER_RUNS = new OverflowPolicy(Kind.CALLER_RUNS, Duration.ZERO);
+    private static final OverflowPolicy DROP_NEWEST = new OverflowPolicy(Kind.DROP_NEWEST, Duration.ZERO);
+    private static final OverflowPolicy DROP_OLDEST = new OverflowPolicy(Kind.DROP_OLDEST, Duration.ZERO);
+    private static final OverflowPolicy REJECT = new OverflowPolicy(Kind.REJECT, Duration.ZERO);
+
+    private final Kind kind;
+    private final Duration timeout;
+
+    private OverflowPolicy(Kind kind, Duration timeout) {
+        this.kind = kind;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Block the dispatching thread until there is room in the dispatch queue. If there is still
+     * no room after the timeout, the command is rejected with a {@link CommandRejectedException}.
+     * @param timeout The maximum time to wait for room in the dispatch queue.
+     * @return The blocking overflow policy.
+     */
+    public static OverflowPolicy block(Duration timeout) {
+        requireNonNull(timeout, "timeout");
+        require(timeout, t -> t.isNegative(), "timeout argument must not be negative.");
+
+        return new OverflowPolicy(Kind.BLOCK, timeout);
+    }
+
+    /**
+     * Handle the command on the dispatching thread. This slows down the dispatching
+     * thread(s) in proportion to the overload. Exceptions thrown by the command handler
+     * propagate to the dispatching thread.
+     * @return The caller-runs overflow policy.
+     */
+    public static OverflowPolicy callerRuns() {
+        return CALLER_RUNS;
+    }
+
+    /**
+     * Discard the command that is being dispatched.
+     * @return The drop-newest overflow policy.
+     */
+    public static OverflowPolicy dropNewest() {
+        return DROP_NEWEST;
+    }
+
+    /**
+     * Discard the oldest command in the dispatch queue to make room for the command 
+     * that is being dispatched.
+     * @return The drop-oldest overflow policy.
+     */
+    public static OverflowPolicy dropOldest() {
+        return DROP_OLDEST;
+    }
+
+    /**
+     * Reject the command that is being dispatched with a {@link CommandRejectedException}.
+     * @return The reject overflow policy.
+     */
+    public static OverflowPolicy reject() {
+        return REJECT;
+    }
+
+    /**
+     * The kind of overflow policy.
+     * @return The kind of overflow policy.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * The maximum time to wait for room in the dispatch queue. 
+     * Only applies to {@link #block(Duration)}.
+     * @return The maximum time to wait for room in the dispatch queue.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.BLOCK ? "BLOCK(" + timeout + ")" : kind.name();
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.internal.utils.DaemonThreadFactory;
+
+/**
+ * Command dispatcher decorator that enables decorated command dispatcher to 
+ * execute commands asynchronously on a fixed number of lanes. Each lane is a single thread
+ * which executes its commands one at a time in the order they were dispatched.
+ * 
+ * Commands that implement {@link PartitionedCommand} are assigned to a lane based on
+ * their partition key so commands with equal partition keys are executed in FIFO order 
+ * and never concurrently, while commands with different partition keys are executed in parallel 
+ * across lanes. Commands that do not implement {@link PartitionedCommand} are distributed 
+ * across lanes in a round-robin fashion and have no ordering guarantees.
+ * 
+ * Commands that are marked with marker interface {@link SynchronousCommand} 
+ * will be executed synchrously (not on a lane).
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class PartitionedAsyncCommandDispatcher implements CommandDispatcher, AutoCloseable {
+
+    private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("xerj-commandstack-lane-");
+
+    private final CommandDispatcher decoratedDispatcher;
+    private final ExecutorService[] lanes;
+    private final AtomicInteger nextUnpartitionedLane = new AtomicInteger();
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param laneCount The number of lanes i.e. the maximum number of commands 
+     * that can be executed in parallel.
+     */
+    public PartitionedAsyncCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            int laneCount) {
+        this(decoratedDispatcher, laneCount, THREAD_FACTORY);
+    }
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param laneCount The number of lanes i.e. the maximum number of commands 
+     * that can be executed in parallel.
+     * @param threadFactory The thread factory to create the lane threads with.
+     */
+    public PartitionedAsyncCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            int laneCount,
+            ThreadFactory threadFactory) {
+
+        this.decoratedDispatcher = 
+            requireNonNull(decoratedDispatcher, "decoratedDispatcher");
+        require(laneCount, count -> count < 1, 
+            "laneCount argument must be greater than zero.");
+        requireNonNull(threadFactory, "threadFactory");
+
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(threadFactory);
+        }
+    }
+
+    /**
+     * Get the number of lanes.
+     * @return The number of lanes.
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler on the command's lane.
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously.
+     * 
+     * This throws a {@link RejectedExecutionException} if this dispatcher has already been closed.
+     */
+    @Override
+    public <TCommand> void send(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        if (command instanceof SynchronousCommand) {
+            decoratedDispatcher.send(command);
+        } else {
+            laneOf(command).execute(() -> {
+                decoratedDispatcher.send(command);
+            });
+        }
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler on the command's lane
+     * and return a {@link CompletionStage} which is completed by the lane thread as soon as 
+     * the command handler returns. If the command handler throws, the returned 
+     * {@link CompletionStage} is completed exceptionally with the thrown exception.
+     * 
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously and the returned 
+     * {@link CompletionStage} is already completed when this method returns.
+     * 
+     * If this dispatcher has already been closed, the returned {@link CompletionStage}
+     * is completed exceptionally with a {@link RejectedExecutionException}.
+     * 
+     * @param <TCommand> The command type.
+     * @param command The command to dispatch.
+     * @return The {@link CompletionStage} which is completed once the command has been handled.
+     */
+    public <TCommand> CompletionStage<Void> sendAsync(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        if (command instanceof SynchronousCommand) {
+            sendAndComplete(command, completion);
+        } else {
+            ExecutorService lane = laneOf(command);
+            try {
+                lane.execute(() -> {
+                    sendAndComplete(command, completion);
+                });
+            } catch (RejectedExecutionException ex) {
+                completion.completeExceptionally(ex);
+            }
+        }
+
+        return completion;
+    }
+
+    /**
+     * Stop accepting commands and wait for all lanes to finish their queued commands.
+     * If interrupted while waiting, the lane threads are interrupted.
+     */
+    @Override
+    public void close() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+
+        try {
+            for (ExecutorService lane : lanes) {
+                while (!lane.awaitTermination(1, TimeUnit.DAYS)) {
+                    // Keep waiting.
+                }
+            }
+        } catch (InterruptedException ex) {
+            for (ExecutorService lane : lanes) {
+                lane.shutdownNow();
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ExecutorService laneOf(Object command) {
+        if (command instanceof PartitionedCommand) {
+            Object partitionKey = requireNonNull(
+                ((PartitionedCommand)command).getPartitionKey(), "partitionKey");
+
+            int hash = partitionKey.hashCode();
+            // Spread the high bits so keys with similar hash codes do not pile up on the same lane.
+            hash ^= (hash >>> 16);
+            return lanes[Math.floorMod(hash, lanes.length)];
+        }
+
+        return lanes[Math.floorMod(nextUnpartitionedLane.getAndIncrement(), lanes.length)];
+    }
+
+    private <TCommand> void sendAndComplete(TCommand command, CompletableFuture<Void> completion) {
+        try {
+            decoratedDispatcher.send(command);
+        } catch (Throwable ex) {
+            completion.completeExceptionally(ex);
+            return;
+        }
+        completion.complete(null);
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+/**
+ * Interface that tells {@link PartitionedAsyncCommandDispatcher} which partition
+ * the command belongs to. Commands with equal partition keys are executed one at a time
+ * in the order they were dispatched.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public interface PartitionedCommand {
+    /**
+     * Get the partition key of the command e.g. the ID of the aggregate the command targets.
+     * Partition keys are compared via {@link Object#hashCode()} so they must have
+     * a stable hash code.
+     * @return The partition key of the command. Must not be null.
+     */
+    Object getPartitionKey();
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+/**
+ * Interface that tells {@link PriorityAsyncCommandDispatcher} which priority lane
+ * the command belongs to. Commands in higher priority lanes are handled before 
+ * commands in lower priority lanes.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public interface PrioritizedCommand {
+    /**
+     * Get the priority of the command i.e. the index of its priority lane.
+     * 0 is the highest priority. Priorities beyond the lowest priority lane 
+     * are assigned to the lowest priority lane.
+     * @return The priority of the command.
+     */
+    int getPriority();
+}
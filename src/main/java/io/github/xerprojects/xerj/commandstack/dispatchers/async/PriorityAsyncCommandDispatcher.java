@@ -0,0 +1,383 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.ToIntFunction;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+import io.github.xerprojects.xerj.commandstack.internal.jfr.JfrEvents;
+import io.github.xerprojects.xerj.commandstack.internal.utils.DaemonThreadFactory;
+import io.github.xerprojects.xerj.commandstack.internal.utils.Rejections;
+import io.github.xerprojects.xerj.commandstack.internal.utils.UncaughtExceptions;
+
+/**
+ * Command dispatcher decorator that enables decorated command dispatcher to 
+ * execute commands asynchronously in order of their priority. Commands are queued in 
+ * one of a fixed number of priority lanes which are drained by a fixed number of worker threads.
+ * Worker threads always take the next command from the highest priority lane which is not empty,
+ * so a flood of low priority commands does not hold up high priority commands.
+ * 
+ * To protect lower priority lanes from starvation, a command which has waited longer than the 
+ * starvation threshold is taken before commands in higher priority lanes. Commands within
+ * a lane are taken in FIFO order.
+ * 
+ * The priority of a command is determined by a priority classifier. By default, commands
+ * which implement {@link PrioritizedCommand} are assigned to the lane of their priority and all 
+ * other commands are assigned to the lowest priority lane.
+ * 
+ * Exceptions that are thrown by command handlers are reported to the worker thread's
+ * {@link Thread.UncaughtExceptionHandler} and the worker thread continues with the next command.
+ * 
+ * Commands that are marked with marker interface {@link SynchronousCommand} 
+ * will be executed synchrously (not via a priority lane).
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class PriorityAsyncCommandDispatcher implements CommandDispatcher, AutoCloseable {
+
+    private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("xerj-commandstack-priority-");
+    private static final Duration DEFAULT_STARVATION_THRESHOLD = Duration.ofMillis(100);
+
+    private final CommandDispatcher decoratedDispatcher;
+    private final ToIntFunction<Object> priorityClassifier;
+    private final long starvationThresholdNanos;
+    private final ConcurrentLinkedQueue<QueuedCommand>[] lanes;
+    /**
+     * One permit per queued command.
+     */
+    private final Semaphore queuedCommands = new Semaphore(0);
+    private final Thread[] workers;
+    private volatile boolean closed;
+
+    /**
+     * Constructor. Commands which implement {@link PrioritizedCommand} are assigned to the lane 
+     * of their priority. All other commands are assigned to the lowest priority lane.
+     * Commands which have waited for more than 100 milliseconds are taken first.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param laneCount The number of priority lanes.
+     * @param workerCount The number of worker threads which handle the queued commands.
+     */
+    public PriorityAsyncCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            int laneCount,
+            int workerCount) {
+        this(decoratedDispatcher, laneCount, workerCount, 
+            command -> command instanceof PrioritizedCommand ? 
+                ((PrioritizedCommand)command).getPriority() : laneCount - 1,
+            DEFAULT_STARVATION_THRESHOLD);
+    }
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param laneCount The number of priority lanes.
+     * @param workerCount The number of worker threads which handle the queued commands.
+     * @param priorityClassifier Determines the priority of each command i.e. the index of its lane.
+     * 0 is the highest priority. Priorities outside of the lanes are assigned to the nearest lane.
+     * @param starvationThreshold Commands which have waited longer than this are taken 
+     * before commands in higher priority lanes.
+     */
+    public PriorityAsyncCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            int laneCount,
+            int workerCount,
+            ToIntFunction<Object> priorityClassifier,
+            Duration starvationThreshold) {
+        this(decoratedDispatcher, laneCount, workerCount, priorityClassifier, starvationThreshold,
+            THREAD_FACTORY);
+    }
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param laneCount The number of priority lanes.
+     * @param workerCount The number of worker threads which handle the queued commands.
+     * @param priorityClassifier Determines the priority of each command i.e. the index of its lane.
+     * 0 is the highest priority. Priorities outside of the lanes are assigned to the nearest lane.
+     * @param starvationThreshold Commands which have waited longer than this are taken 
+     * before commands in higher priority lanes.
+     * @param threadFactory The thread factory to create the worker threads with.
+     */
+    @SuppressWarnings("unchecked")
+    public PriorityAsyncCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            int laneCount,
+            int workerCount,
+            ToIntFunction<Object> priorityClassifier,
+            Duration starvationThreshold,
+            ThreadFactory threadFactory) {
+
+        this.decoratedDispatcher = 
+            requireNonNull(decoratedDispatcher, "decoratedDispatcher");
+        require(laneCount, count -> count < 1, 
+            "laneCount argument must be greater than zero.");
+        require(workerCount, count -> count < 1, 
+            "workerCount argument must be greater than zero.");
+        this.priorityClassifier = requireNonNull(priorityClassifier, "priorityClassifier");
+        requireNonNull(starvationThreshold, "starvationThreshold");
+        require(starvationThreshold, t -> t.isNegative() || t.isZero(), 
+            "starvationThreshold argument must be greater than zero.");
+        requireNonNull(threadFactory, "threadFactory");
+
+        this.starvationThresholdNanos = starvationThreshold.toNanos();
+
+        this.lanes = (ConcurrentLinkedQueue<QueuedCommand>[])new ConcurrentLinkedQueue<?>[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new ConcurrentLinkedQueue<>();
+        }
+
+        this.workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = threadFactory.newThread(this::runWorker);
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Get the number of priority lanes.
+     * @return The number of priority lanes.
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Get the number of commands that are currently waiting in all priority lanes.
+     * @return The number of commands that are currently waiting in all priority lanes.
+     */
+    public int getQueueDepth() {
+        return queuedCommands.availablePermits();
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler via its priority lane.
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously.
+     * 
+     * This throws a {@link CommandRejectedException} if this dispatcher has already been closed.
+     */
+    @Override
+    public <TCommand> void send(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        if (command instanceof SynchronousCommand) {
+            decoratedDispatcher.send(command);
+        } else {
+            enqueue(new QueuedCommand(command, null));
+        }
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler via its priority lane
+     * and return a {@link CompletionStage} which is completed by the worker thread as soon as 
+     * the command handler returns. If the command handler throws, the returned 
+     * {@link CompletionStage} is completed exceptionally with the thrown exception.
+     * 
+     * If this dispatcher has already been closed, the returned {@link CompletionStage} 
+     * is completed exceptionally with a {@link CommandRejectedException}.
+     * 
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously and the returned 
+     * {@link CompletionStage} is already completed when this method returns.
+     * 
+     * @param <TCommand> The command type.
+     * @param command The command to dispatch.
+     * @return The {@link CompletionStage} which is completed once the command has been handled.
+     */
+    public <TCommand> CompletionStage<Void> sendAsync(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        QueuedCommand queuedCommand = new QueuedCommand(command, completion);
+
+        if (command instanceof SynchronousCommand) {
+            queuedCommand.handle(decoratedDispatcher);
+        } else {
+            try {
+                enqueue(queuedCommand);
+            } catch (CommandRejectedException ex) {
+                completion.completeExceptionally(ex);
+            }
+        }
+
+        return completion;
+    }
+
+    /**
+     * Stop accepting commands and wait for the worker threads to handle all queued commands.
+     * If interrupted while waiting, this returns without waiting for the worker threads.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        // Wake up all workers so that they notice that this dispatcher has been closed.
+        queuedCommands.release(workers.length);
+
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(QueuedCommand queuedCommand) {
+        if (closed) {
+            throw Rejections.dispatcherClosed(queuedCommand.command);
+        }
+
+        ConcurrentLinkedQueue<QueuedCommand> lane = laneOf(queuedCommand.command);
+        queuedCommand.markQueued();
+        lane.offer(queuedCommand);
+        queuedCommands.release();
+
+        // The workers may have already stopped. Take the command back if it is still there.
+        if (closed && lane.remove(queuedCommand)) {
+            throw Rejections.dispatcherClosed(queuedCommand.command);
+        }
+    }
+
+    private ConcurrentLinkedQueue<QueuedCommand> laneOf(Object command) {
+        int priority = priorityClassifier.applyAsInt(command);
+        return lanes[Math.min(Math.max(priority, 0), lanes.length - 1)];
+    }
+
+    private void runWorker() {
+        while (true) {
+            queuedCommands.acquireUninterruptibly();
+
+            QueuedCommand queuedCommand = take();
+            while (queuedCommand == null) {
+                if (closed && isEmpty()) {
+                    return;
+                }
+                // A command that was counted has not been offered yet or was taken by the worker 
+                // that released its permit to stop. Either way, a command is on its way.
+                Thread.onSpinWait();
+                queuedCommand = take();
+            }
+
+            try {
+                queuedCommand.handle(decoratedDispatcher);
+            } catch (Throwable ex) {
+                UncaughtExceptions.report(ex);
+            }
+        }
+    }
+
+    /**
+     * Take the oldest command which has waited longer than the starvation threshold (if any) 
+     * or else the next command of the highest priority lane which is not empty.
+     * @return The command or null if all lanes are empty.
+     */
+    private QueuedCommand take() {
+        if (lanes.length > 1) {
+            long now = System.nanoTime();
+            ConcurrentLinkedQueue<QueuedCommand> starvedLane = null;
+            long oldestQueuedNanos = 0;
+            // The highest priority lane is never starved. Only the heads of the lanes need to be 
+            // checked since commands within a lane are queued in FIFO order.
+            for (int i = 1; i < lanes.length; i++) {
+                QueuedCommand head = lanes[i].peek();
+                if (head != null && now - head.queuedNanos >= starvationThresholdNanos && 
+                        (starvedLane == null || head.queuedNanos - oldestQueuedNanos < 0)) {
+                    starvedLane = lanes[i];
+                    oldestQueuedNanos = head.queuedNanos;
+                }
+            }
+
+            if (starvedLane != null) {
+                QueuedCommand starved = starvedLane.poll();
+                if (starved != null) {
+                    return starved;
+                }
+            }
+        }
+
+        for (ConcurrentLinkedQueue<QueuedCommand> lane : lanes) {
+            QueuedCommand queuedCommand = lane.poll();
+            if (queuedCommand != null) {
+                return queuedCommand;
+            }
+        }
+        return null;
+    }
+
+    private boolean isEmpty() {
+        for (ConcurrentLinkedQueue<QueuedCommand> lane : lanes) {
+            if (!lane.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A command in a priority lane.
+     */
+    private static class QueuedCommand {
+        private final Object command;
+        private final CompletableFuture<Void> completion;
+        private long queuedNanos;
+        private Object queueWaitEvent;
+
+        QueuedCommand(Object command, CompletableFuture<Void> completion) {
+            this.command = command;
+            this.completion = completion;
+        }
+
+        void markQueued() {
+            queuedNanos = System.nanoTime();
+            queueWaitEvent = JfrEvents.beginQueueWait();
+        }
+
+        /**
+         * Dispatch the command. Exceptions are propagated if there is no completion to report them to.
+         */
+        void handle(CommandDispatcher dispatcher) {
+            JfrEvents.commitQueueWait(queueWaitEvent, command.getClass());
+
+            if (completion == null) {
+                dispatcher.send(command);
+                return;
+            }
+
+            try {
+                dispatcher.send(command);
+            } catch (Throwable ex) {
+                completion.completeExceptionally(ex);
+                return;
+            }
+            completion.complete(null);
+        }
+    }
+}
@@ -0,0 +1,403 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+import io.github.xerprojects.xerj.commandstack.internal.utils.DaemonThreadFactory;
+import io.github.xerprojects.xerj.commandstack.internal.utils.Rejections;
+import io.github.xerprojects.xerj.commandstack.internal.utils.UncaughtExceptions;
+
+/**
+ * Command dispatcher decorator that enables decorated command dispatcher to 
+ * execute commands asynchronously via a preallocated ring buffer which is drained
+ * by a fixed number of consumer threads.
+ * 
+ * Any number of threads can dispatch commands at the same time. Producers claim slots
+ * via a single atomic increment and publish commands without locks or allocations.
+ * Consumers claim published commands in batches so that contention between consumers 
+ * is amortized. How threads wait for commands or for free slots is determined by the 
+ * {@link WaitStrategy}.
+ * 
+ * Dispatching a command while the ring buffer is full blocks the dispatching thread 
+ * until a slot is freed up by the consumers.
+ * 
+ * Exceptions that are thrown by command handlers are reported to the consumer thread's
+ * {@link Thread.UncaughtExceptionHandler} and the consumer thread continues with the next command.
+ * 
+ * Commands that are marked with marker interface {@link SynchronousCommand} 
+ * will be executed synchrously (not via the ring buffer).
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class RingBufferCommandDispatcher implements CommandDispatcher, AutoCloseable {
+
+    private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("xerj-commandstack-ringbuffer-");
+
+    /**
+     * The maximum number of commands a consumer claims at once.
+     */
+    private static final int MAX_BATCH_SIZE = 256;
+
+    /**
+     * The number of spins before {@link WaitStrategy#YIELD} and 
+     * {@link WaitStrategy#PARK} start yielding or parking.
+     */
+    private static final int SPIN_TRIES = 100;
+
+    /**
+     * The maximum time a consumer parks before checking for commands again.
+     * This is only a safety net. Producers wake up parked consumers.
+     */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * The consumer sequences are spaced apart so that they sit on different cache lines.
+     */
+    private static final int SEQUENCE_PADDING = 16;
+
+    private static final VarHandle PUBLISHED_ROUNDS = 
+        MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final CommandDispatcher decoratedDispatcher;
+    private final WaitStrategy waitStrategy;
+    private final Object[] slots;
+    /**
+     * The round (sequence divided by capacity) of the last command published to each slot.
+     */
+    private final int[] publishedRounds;
+    private final int indexMask;
+    private final int roundShift;
+
+    /**
+     * The last sequence that was claimed by producers.
+     */
+    private final AtomicLong claimSequence = new AtomicLong(-1);
+    /**
+     * The last sequence that was claimed by consumers.
+     */
+    private final AtomicLong workSequence = new AtomicLong(-1);
+    /**
+     * Per consumer: all sequences up to this sequence are no longer used by the consumer.
+     */
+    private final AtomicLongArray consumerSequences;
+    private final AtomicLong cachedGatingSequence = new AtomicLong(-1);
+    private final AtomicInteger parkedConsumers = new AtomicInteger();
+
+    private final Thread[] consumers;
+    private volatile boolean closed;
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param capacity The number of slots in the ring buffer. Must be a power of 2.
+     * A slot is freed once its command has been handled.
+     * @param consumerCount The number of consumer threads which handle the commands.
+     * @param waitStrategy How threads wait for commands or for free slots.
+     */
+    public RingBufferCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            int capacity,
+            int consumerCount,
+            WaitStrategy waitStrategy) {
+        this(decoratedDispatcher, capacity, consumerCount, waitStrategy, THREAD_FACTORY);
+    }
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param capacity The number of slots in the ring buffer. Must be a power of 2.
+     * A slot is freed once its command has been handled.
+     * @param consumerCount The number of consumer threads which handle the commands.
+     * @param waitStrategy How threads wait for commands or for free slots.
+     * @param threadFactory The thread factory to create the consumer threads with.
+     */
+    public RingBufferCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            int capacity,
+            int consumerCount,
+            WaitStrategy waitStrategy,
+            ThreadFactory threadFactory) {
+
+        this.decoratedDispatcher = 
+            requireNonNull(decoratedDispatcher, "decoratedDispatcher");
+        this.waitStrategy = requireNonNull(waitStrategy, "waitStrategy");
+        requireNonNull(threadFactory, "threadFactory");
+
+        require(capacity, c -> c < 1 || Integer.bitCount(c) != 1, 
+            "capacity argument must be a power of 2.");
+        require(consumerCount, count -> count < 1, 
+            "consumerCount argument must be greater than zero.");
+
+        this.slots = new Object[capacity];
+        this.publishedRounds = new int[capacity];
+        Arrays.fill(publishedRounds, -1);
+        this.indexMask = capacity - 1;
+        this.roundShift = Integer.numberOfTrailingZeros(capacity);
+
+        this.consumerSequences = new AtomicLongArray((consumerCount + 1) * SEQUENCE_PADDING);
+        for (int i = 0; i < consumerCount; i++) {
+            consumerSequences.set(consumerSequenceIndex(i), -1);
+        }
+
+        this.consumers = new Thread[consumerCount];
+        for (int i = 0; i < consumerCount; i++) {
+            int consumerIndex = i;
+            consumers[i] = threadFactory.newThread(() -> runConsumer(consumerIndex));
+        }
+        for (Thread consumer : consumers) {
+            consumer.start();
+        }
+    }
+
+    /**
+     * Get the number of slots in the ring buffer.
+     * @return The number of slots in the ring buffer.
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Get the wait strategy of this dispatcher.
+     * @return The wait strategy.
+     */
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Get the number of dispatched commands that have not yet been claimed by a consumer.
+     * @return The number of dispatched commands that have not yet been claimed by a consumer.
+     */
+    public long getBacklog() {
+        return Math.max(0, claimSequence.get() - workSequence.get());
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler via the ring buffer.
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously.
+     * 
+     * This blocks while the ring buffer is full and throws a {@link CommandRejectedException}
+     * if this dispatcher has already been closed.
+     */
+    @Override
+    public <TCommand> void send(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        if (command instanceof SynchronousCommand) {
+            decoratedDispatcher.send(command);
+            return;
+        }
+
+        if (closed) {
+            throw Rejections.dispatcherClosed(command);
+        }
+
+        long sequence = claimSequence.incrementAndGet();
+        awaitFreeSlot(sequence);
+
+        // The sequence has been claimed so something must be published to it
+        // or the consumers will wait for it forever.
+        boolean accepted = !closed;
+        publish(sequence, accepted ? command : null);
+
+        if (!accepted) {
+            throw Rejections.dispatcherClosed(command);
+        }
+    }
+
+    /**
+     * Stop accepting commands and wait for the consumer threads to handle all dispatched commands.
+     * If interrupted while waiting, this returns without waiting for the consumer threads.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        wakeUpConsumers();
+
+        try {
+            for (Thread consumer : consumers) {
+                consumer.join();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitFreeSlot(long sequence) {
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint <= cachedGatingSequence.get()) {
+            return;
+        }
+
+        int tries = 0;
+        long gatingSequence;
+        while (wrapPoint > (gatingSequence = minimumGatingSequence())) {
+            tries = await(tries, false);
+        }
+        cachedGatingSequence.lazySet(gatingSequence);
+    }
+
+    private void publish(long sequence, Object command) {
+        int index = (int)sequence & indexMask;
+        slots[index] = command;
+        PUBLISHED_ROUNDS.setRelease(publishedRounds, index, (int)(sequence >>> roundShift));
+
+        if (waitStrategy == WaitStrategy.PARK) {
+            // Pairs with the increment of parkedConsumers in the consumers. Either the producer 
+            // sees the parked consumer or the consumer sees the published command.
+            VarHandle.fullFence();
+            if (parkedConsumers.get() > 0) {
+                wakeUpConsumers();
+            }
+        }
+    }
+
+    private boolean isPublished(long sequence) {
+        int index = (int)sequence & indexMask;
+        return (int)PUBLISHED_ROUNDS.getAcquire(publishedRounds, index) == (int)(sequence >>> roundShift);
+    }
+
+    private long minimumGatingSequence() {
+        long minimum = workSequence.get();
+        for (int i = 0; i < consumers.length; i++) {
+            minimum = Math.min(minimum, consumerSequences.get(consumerSequenceIndex(i)));
+        }
+        return minimum;
+    }
+
+    private void runConsumer(int consumerIndex) {
+        int sequenceIndex = consumerSequenceIndex(consumerIndex);
+        int tries = 0;
+
+        while (true) {
+            long current = workSequence.get();
+            // This consumer no longer uses any sequence up to the current work sequence.
+            consumerSequences.set(sequenceIndex, current);
+
+            long next = current + 1;
+            long last = next - 1;
+            long batchLimit = next + MAX_BATCH_SIZE;
+            while (last + 1 < batchLimit && isPublished(last + 1)) {
+                last++;
+            }
+
+            if (last < next) {
+                if (closed && current >= claimSequence.get()) {
+                    return;
+                }
+                tries = await(tries, true);
+                continue;
+            }
+
+            if (!workSequence.compareAndSet(current, last)) {
+                continue;
+            }
+
+            tries = 0;
+            for (long sequence = next; sequence <= last; sequence++) {
+                int index = (int)sequence & indexMask;
+                Object command = slots[index];
+                slots[index] = null;
+
+                // Null commands were claimed while closing and were never accepted.
+                if (command != null) {
+                    handle(command);
+                }
+            }
+        }
+    }
+
+    private void handle(Object command) {
+        try {
+            decoratedDispatcher.send(command);
+        } catch (Throwable ex) {
+            UncaughtExceptions.report(ex);
+        }
+    }
+
+    /**
+     * Wait according to the wait strategy.
+     * @param tries The number of times the caller has waited so far.
+     * @param isConsumer Whether the caller is a consumer.
+     * @return The number of times the caller has waited so far, including this one.
+     */
+    private int await(int tries, boolean isConsumer) {
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                Thread.onSpinWait();
+                break;
+            case YIELD:
+                if (tries < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+                break;
+            case PARK:
+            default:
+                if (tries < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (isConsumer) {
+                    parkConsumer();
+                } else {
+                    // Consumers do not wake up producers so producers wait in short naps.
+                    LockSupport.parkNanos(1_000);
+                }
+                break;
+        }
+        return tries + 1;
+    }
+
+    private void parkConsumer() {
+        parkedConsumers.incrementAndGet();
+        try {
+            // Re-check after announcing the park so that a concurrent publish is not missed.
+            if (!isPublished(workSequence.get() + 1) && !closed) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+        } finally {
+            parkedConsumers.decrementAndGet();
+        }
+    }
+
+    private void wakeUpConsumers() {
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private static int consumerSequenceIndex(int consumerIndex) {
+        return (consumerIndex + 1) * SEQUENCE_PADDING;
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+/**
+ * Command which was scheduled via {@link ScheduledCommandDispatcher#sendAfter(Object, java.time.Duration)}
+ * or {@link ScheduledCommandDispatcher#sendAt(Object, java.time.Instant)}.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public interface ScheduledCommand {
+    /**
+     * Cancel the scheduled command so that it is not dispatched.
+     * @return True if the command was cancelled. False if the command has already been 
+     * dispatched or cancelled.
+     */
+    boolean cancel();
+
+    /**
+     * Whether the scheduled command was cancelled (including by closing the dispatcher).
+     * @return True if the scheduled command was cancelled. Otherwise, false.
+     */
+    boolean isCancelled();
+
+    /**
+     * Whether the scheduled command has been dispatched to the decorated command dispatcher.
+     * @return True if the scheduled command has been dispatched. Otherwise, false.
+     */
+    boolean isDispatched();
+}
@@ -0,0 +1,647 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+import io.github.xerprojects.xerj.commandstack.internal.utils.DaemonThreadFactory;
+import io.github.xerprojects.xerj.commandstack.internal.utils.Rejections;
+import io.github.xerprojects.xerj.commandstack.internal.utils.UncaughtExceptions;
+
+/**
+ * Command dispatcher decorator that enables decorated command dispatcher to
+ * dispatch commands after a delay or at a specific time. Scheduled commands are kept
+ * in a hierarchical timing wheel so scheduling and cancelling a command are O(1) operations
+ * regardless of the number of scheduled commands.
+ *
+ * Any number of threads can schedule commands at the same time. Scheduled commands are pushed
+ * to a lock-free inbox which is drained by a single timer thread. The timer thread owns the timing
+ * wheel, advances it one tick at a time and dispatches expired commands to the decorated dispatcher.
+ * Commands are never dispatched before their deadline but may be dispatched up to one tick late.
+ * Decorate an asynchronous command dispatcher so that command handlers do not hold up the timer thread.
+ *
+ * Exceptions that are thrown by the decorated dispatcher are reported to the timer thread's
+ * {@link Thread.UncaughtExceptionHandler} and the timer thread continues with the next command.
+ *
+ * @author Joel Jeremy Marquez
+ */
+public class ScheduledCommandDispatcher implements CommandDispatcher, AutoCloseable {
+
+    private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("xerj-commandstack-timer-");
+    private static final Duration DEFAULT_TICK_DURATION = Duration.ofMillis(1);
+    private static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    /**
+     * The timer thread is not parked.
+     */
+    private static final long AWAKE = -1;
+    /**
+     * Longer delays are capped so that adding the time elapsed since the start cannot overflow.
+     * This is still more than a hundred years.
+     */
+    private static final long MAX_DELAY_NANOS = Long.MAX_VALUE / 2;
+
+    private final CommandDispatcher decoratedDispatcher;
+    private final long tickNanos;
+    private final int ticksPerWheel;
+    private final long startNanos;
+
+    /**
+     * Commands which have been scheduled but not yet added to the timing wheel.
+     */
+    private final AtomicReference<TimerEntry> inbox = new AtomicReference<>();
+    /**
+     * Commands which have been cancelled but not yet removed from the timing wheel.
+     */
+    private final AtomicReference<TimerEntry> cancellations = new AtomicReference<>();
+
+    /**
+     * Only accessed by the timer thread.
+     */
+    private final TimingWheel timingWheel;
+
+    private final Thread timer;
+    /**
+     * The tick until which the timer thread is parked. Producers only wake up the timer thread
+     * if their command is due before that.
+     */
+    private volatile long parkedUntilTick = AWAKE;
+    private volatile boolean closed;
+
+    /**
+     * Constructor. The timing wheel ticks every millisecond and has 512 ticks per wheel.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     */
+    public ScheduledCommandDispatcher(CommandDispatcher decoratedDispatcher) {
+        this(decoratedDispatcher, DEFAULT_TICK_DURATION, DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param tickDuration The duration of a single tick i.e. the precision of the timing wheel.
+     * @param ticksPerWheel The number of buckets of each wheel. Must be a power of 2.
+     * Commands which are due beyond the first wheel go to coarser wheels which are created as needed.
+     */
+    public ScheduledCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            Duration tickDuration,
+            int ticksPerWheel) {
+        this(decoratedDispatcher, tickDuration, ticksPerWheel, THREAD_FACTORY);
+    }
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param tickDuration The duration of a single tick i.e. the precision of the timing wheel.
+     * @param ticksPerWheel The number of buckets of each wheel. Must be a power of 2.
+     * Commands which are due beyond the first wheel go to coarser wheels which are created as needed.
+     * @param threadFactory The thread factory to create the timer thread with.
+     */
+    public ScheduledCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            Duration tickDuration,
+            int ticksPerWheel,
+            ThreadFactory threadFactory) {
+
+        this.decoratedDispatcher =
+            requireNonNull(decoratedDispatcher, "decoratedDispatcher");
+        requireNonNull(tickDuration, "tickDuration");
+        require(tickDuration, d -> d.isNegative() || d.isZero(),
+            "tickDuration argument must be positive.");
+        require(ticksPerWheel, t -> t < 2 || Integer.bitCount(t) != 1,
+            "ticksPerWheel argument must be a power of 2 greater than 1.");
+        requireNonNull(threadFactory, "threadFactory");
+
+        this.tickNanos = tickDuration.toNanos();
+        this.ticksPerWheel = ticksPerWheel;
+        this.timingWheel = new TimingWheel(ticksPerWheel);
+        this.startNanos = System.nanoTime();
+
+        this.timer = threadFactory.newThread(this::runTimer);
+        timer.start();
+    }
+
+    /**
+     * Get the duration of a single tick.
+     * @return The duration of a single tick.
+     */
+    public Duration getTickDuration() {
+        return Duration.ofNanos(tickNanos);
+    }
+
+    /**
+     * Get the number of buckets of each wheel.
+     * @return The number of buckets of each wheel.
+     */
+    public int getTicksPerWheel() {
+        return ticksPerWheel;
+    }
+
+    /**
+     * Dispatch command to the decorated command dispatcher immediately.
+     */
+    @Override
+    public <TCommand> void send(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        decoratedDispatcher.send(command);
+    }
+
+    /**
+     * Dispatch command to the decorated command dispatcher once the delay has elapsed.
+     *
+     * This throws a {@link CommandRejectedException} if this dispatcher has already been closed.
+     *
+     * @param <TCommand> The command type.
+     * @param command The command to dispatch.
+     * @param delay The delay. Commands with zero or negative delays are dispatched as soon as 
+     * the timer thread picks them up.
+     * @return The scheduled command which can be cancelled.
+     */
+    public <TCommand> ScheduledCommand sendAfter(TCommand command, Duration delay) {
+
+        requireNonNull(command, "command");
+        requireNonNull(delay, "delay");
+
+        return schedule(command, saturatedNanos(delay));
+    }
+
+    /**
+     * Dispatch command to the decorated command dispatcher at the given time.
+     *
+     * This throws a {@link CommandRejectedException} if this dispatcher has already been closed.
+     *
+     * @param <TCommand> The command type.
+     * @param command The command to dispatch.
+     * @param instant The time to dispatch the command at. Commands with times in the past 
+     * are dispatched as soon as the timer thread picks them up.
+     * @return The scheduled command which can be cancelled.
+     */
+    public <TCommand> ScheduledCommand sendAt(TCommand command, Instant instant) {
+
+        requireNonNull(command, "command");
+        requireNonNull(instant, "instant");
+
+        return sendAfter(command, Duration.between(Instant.now(), instant));
+    }
+
+    /**
+     * Stop accepting commands, cancel all scheduled commands which have not been dispatched yet
+     * and wait for the timer thread to finish. If interrupted while waiting, this returns
+     * without waiting for the timer thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(timer);
+
+        try {
+            timer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ScheduledCommand schedule(Object command, long delayNanos) {
+        if (closed) {
+            throw Rejections.dispatcherClosed(command);
+        }
+
+        TimerEntry entry = new TimerEntry(this, command, deadlineTick(delayNanos));
+        pushToInbox(entry);
+        if (entry.deadlineTick < parkedUntilTick) {
+            LockSupport.unpark(timer);
+        }
+
+        // The timer thread may have already drained the inbox for the last time. If the entry
+        // can no longer be cancelled, it has already been dispatched or cancelled by the timer thread.
+        if (closed && entry.cancel()) {
+            throw Rejections.dispatcherClosed(command);
+        }
+
+        return entry;
+    }
+
+    private void runTimer() {
+        while (true) {
+            boolean isClosed = closed;
+
+            drainInbox(isClosed);
+            drainCancellations();
+
+            if (isClosed) {
+                timingWheel.cancelAll();
+                return;
+            }
+
+            long currentTick = (System.nanoTime() - startNanos) / tickNanos;
+            timingWheel.advanceTo(currentTick);
+
+            // Sleep until the next tick on which there is something to expire or cascade. If there is 
+            // nothing, sleep for a full rotation of the first wheel. Producers wake up the timer thread 
+            // if their command is due earlier.
+            long wakeUpTick = timingWheel.isEmpty() ? 
+                timingWheel.tick + ticksPerWheel : timingWheel.nextTick();
+            parkedUntilTick = wakeUpTick;
+            // Re-check after announcing the park so that a concurrent schedule is not missed.
+            if (inbox.get() == null && !closed) {
+                LockSupport.parkNanos(this, startNanos + wakeUpTick * tickNanos - System.nanoTime());
+            }
+            parkedUntilTick = AWAKE;
+        }
+    }
+
+    private void drainInbox(boolean isClosed) {
+        TimerEntry entries = reverse(inbox.getAndSet(null));
+        while (entries != null) {
+            TimerEntry entry = entries;
+            entries = entry.inboxNext;
+            entry.inboxNext = null;
+
+            if (isClosed) {
+                entry.markCancelled();
+            } else if (entry.isPending()) {
+                timingWheel.add(entry);
+            }
+        }
+    }
+
+    private void drainCancellations() {
+        TimerEntry entries = cancellations.getAndSet(null);
+        while (entries != null) {
+            TimerEntry entry = entries;
+            entries = entry.cancellationNext;
+            entry.cancellationNext = null;
+            timingWheel.remove(entry);
+        }
+    }
+
+    private void dispatch(TimerEntry entry) {
+        if (!entry.markDispatched()) {
+            // Cancelled meanwhile.
+            return;
+        }
+
+        try {
+            decoratedDispatcher.send(entry.command);
+        } catch (Throwable ex) {
+            UncaughtExceptions.report(ex);
+        }
+    }
+
+    /**
+     * The first tick which starts at or after the delay has elapsed.
+     */
+    private long deadlineTick(long delayNanos) {
+        // Relative to the start so that it cannot overflow, unlike an absolute System.nanoTime() deadline.
+        long elapsedNanos = (System.nanoTime() - startNanos) + delayNanos;
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        long tick = elapsedNanos / tickNanos;
+        return (elapsedNanos % tickNanos == 0) ? tick : tick + 1;
+    }
+
+    /**
+     * Convert the duration to nanoseconds, capped at {@link #MAX_DELAY_NANOS}.
+     */
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return Math.min(duration.toNanos(), MAX_DELAY_NANOS);
+        } catch (ArithmeticException ex) {
+            // Scheduled so far in the future or past that it overflows.
+            return duration.isNegative() ? 0 : MAX_DELAY_NANOS;
+        }
+    }
+
+    /**
+     * Push to the inbox (a Treiber stack).
+     */
+    private void pushToInbox(TimerEntry entry) {
+        TimerEntry head;
+        do {
+            head = inbox.get();
+            entry.inboxNext = head;
+        } while (!inbox.compareAndSet(head, entry));
+    }
+
+    /**
+     * Push to the cancellations (a Treiber stack).
+     */
+    private void pushToCancellations(TimerEntry entry) {
+        TimerEntry head;
+        do {
+            head = cancellations.get();
+            entry.cancellationNext = head;
+        } while (!cancellations.compareAndSet(head, entry));
+    }
+
+    /**
+     * Restore the order in which the entries were pushed.
+     */
+    private static TimerEntry reverse(TimerEntry entries) {
+        TimerEntry reversed = null;
+        while (entries != null) {
+            TimerEntry next = entries.inboxNext;
+            entries.inboxNext = reversed;
+            reversed = entries;
+            entries = next;
+        }
+        return reversed;
+    }
+
+    /**
+     * Hierarchical timing wheel. Level 0 has one bucket per tick. Each bucket of level N
+     * spans all the ticks of a full rotation of level N - 1. Commands in a bucket of level N > 0
+     * are cascaded to lower levels once level N - 1 has completed the rotations before them.
+     */
+    private class TimingWheel {
+        private final int bitsPerLevel;
+        private final int mask;
+        private Bucket[][] levels;
+        private long size;
+        /**
+         * The last tick which has been processed.
+         */
+        private long tick;
+
+        TimingWheel(int ticksPerWheel) {
+            this.bitsPerLevel = Integer.numberOfTrailingZeros(ticksPerWheel);
+            this.mask = ticksPerWheel - 1;
+            this.levels = new Bucket[][] { newLevel() };
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(TimerEntry entry) {
+            if (entry.deadlineTick <= tick) {
+                dispatch(entry);
+                return;
+            }
+
+            int level = 0;
+            // Find the lowest level on which the deadline is less than a full rotation away.
+            while (((entry.deadlineTick >>> (level * bitsPerLevel)) - (tick >>> (level * bitsPerLevel))) > mask) {
+                level++;
+            }
+            if (level >= levels.length) {
+                addLevels(level);
+            }
+
+            int index = (int)((entry.deadlineTick >>> (level * bitsPerLevel)) & mask);
+            levels[level][index].append(entry);
+            size++;
+        }
+
+        /**
+         * The next tick on which commands of the first wheel expire or, if there are none 
+         * before the first wheel completes its rotation, the tick on which the higher levels are cascaded.
+         */
+        long nextTick() {
+            long rotationEndTick = (tick | mask) + 1;
+            for (long nextTick = tick + 1; nextTick < rotationEndTick; nextTick++) {
+                if (!levels[0][(int)(nextTick & mask)].isEmpty()) {
+                    return nextTick;
+                }
+            }
+            return rotationEndTick;
+        }
+
+        void remove(TimerEntry entry) {
+            if (entry.bucket != null) {
+                entry.bucket.unlink(entry);
+                size--;
+            }
+        }
+
+        void advanceTo(long targetTick) {
+            if (size == 0) {
+                // Nothing to expire or cascade.
+                tick = Math.max(tick, targetTick);
+                return;
+            }
+
+            while (tick < targetTick) {
+                tick++;
+
+                // Cascade the higher levels whose lower levels have just completed a rotation.
+                for (int level = 1; level < levels.length; level++) {
+                    long lowerBits = tick & ((1L << (level * bitsPerLevel)) - 1);
+                    if (lowerBits != 0) {
+                        break;
+                    }
+                    int index = (int)((tick >>> (level * bitsPerLevel)) & mask);
+                    TimerEntry entries = levels[level][index].detach();
+                    while (entries != null) {
+                        TimerEntry entry = entries;
+                        entries = entry.next;
+                        entry.next = null;
+                        size--;
+                        add(entry);
+                    }
+                }
+
+                TimerEntry expired = levels[0][(int)(tick & mask)].detach();
+                while (expired != null) {
+                    TimerEntry entry = expired;
+                    expired = entry.next;
+                    entry.next = null;
+                    size--;
+                    dispatch(entry);
+                }
+
+                if (size == 0) {
+                    tick = targetTick;
+                }
+            }
+        }
+
+        void cancelAll() {
+            for (Bucket[] level : levels) {
+                for (Bucket bucket : level) {
+                    TimerEntry entries = bucket.detach();
+                    while (entries != null) {
+                        TimerEntry entry = entries;
+                        entries = entry.next;
+                        entry.next = null;
+                        entry.markCancelled();
+                    }
+                }
+            }
+            size = 0;
+        }
+
+        private void addLevels(int highestLevel) {
+            Bucket[][] newLevels = new Bucket[highestLevel + 1][];
+            System.arraycopy(levels, 0, newLevels, 0, levels.length);
+            for (int level = levels.length; level <= highestLevel; level++) {
+                newLevels[level] = newLevel();
+            }
+            levels = newLevels;
+        }
+
+        private Bucket[] newLevel() {
+            Bucket[] buckets = new Bucket[mask + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new Bucket();
+            }
+            return buckets;
+        }
+    }
+
+    /**
+     * Doubly-linked list of timer entries so that cancelled entries can be removed in O(1).
+     */
+    private static class Bucket {
+        private TimerEntry head;
+        private TimerEntry tail;
+
+        boolean isEmpty() {
+            return head == null;
+        }
+
+        void append(TimerEntry entry) {
+            entry.bucket = this;
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        void unlink(TimerEntry entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.bucket = null;
+            entry.prev = null;
+            entry.next = null;
+        }
+
+        /**
+         * Remove all entries from this bucket.
+         * @return The removed entries linked via {@link TimerEntry#next}.
+         */
+        TimerEntry detach() {
+            TimerEntry entries = head;
+            for (TimerEntry entry = entries; entry != null; entry = entry.next) {
+                entry.bucket = null;
+                entry.prev = null;
+            }
+            head = null;
+            tail = null;
+            return entries;
+        }
+    }
+
+    /**
+     * A scheduled command. This is the only object that is allocated per scheduled command.
+     */
+    private static class TimerEntry implements ScheduledCommand {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int DISPATCHED = 2;
+
+        private static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(TimerEntry.class, "state", int.class);
+            } catch (ReflectiveOperationException ex) {
+                throw new ExceptionInInitializerError(ex);
+            }
+        }
+
+        private final ScheduledCommandDispatcher dispatcher;
+        private final Object command;
+        private final long deadlineTick;
+        @SuppressWarnings("unused")
+        private volatile int state;
+
+        // An entry can be in the inbox and in the cancellations at the same time.
+        private TimerEntry inboxNext;
+        private TimerEntry cancellationNext;
+
+        // Only accessed by the timer thread.
+        private Bucket bucket;
+        private TimerEntry prev;
+        private TimerEntry next;
+
+        TimerEntry(ScheduledCommandDispatcher dispatcher, Object command, long deadlineTick) {
+            this.dispatcher = dispatcher;
+            this.command = command;
+            this.deadlineTick = deadlineTick;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            // The entry may still be in the inbox. The timer thread skips it then.
+            dispatcher.pushToCancellations(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isDispatched() {
+            return state == DISPATCHED;
+        }
+
+        boolean isPending() {
+            return state == PENDING;
+        }
+
+        boolean markDispatched() {
+            return STATE.compareAndSet(this, PENDING, DISPATCHED);
+        }
+
+        void markCancelled() {
+            STATE.compareAndSet(this, PENDING, CANCELLED);
+        }
+    }
+}
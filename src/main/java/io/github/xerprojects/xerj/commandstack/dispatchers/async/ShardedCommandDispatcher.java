@@ -0,0 +1,330 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.IntFunction;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+import io.github.xerprojects.xerj.commandstack.internal.utils.DaemonThreadFactory;
+import io.github.xerprojects.xerj.commandstack.internal.utils.Rejections;
+import io.github.xerprojects.xerj.commandstack.internal.utils.UncaughtExceptions;
+
+/**
+ * Command dispatcher that runs a fixed number of shards. Each shard is a single-threaded 
+ * event loop which owns its own command dispatcher (and therefore its own command handler instances)
+ * and drains its commands from a {@link RingBufferCommandDispatcher}. Command handlers
+ * are only ever called from the thread of the shard that owns them, so they need no synchronization
+ * and their state stays in the cache of the core that runs the shard.
+ * 
+ * Commands that implement {@link PartitionedCommand} are assigned to a shard based on
+ * their partition key. All other commands are assigned to a shard based on their type.
+ * Commands which are assigned to the same shard are executed in FIFO order and never concurrently.
+ * 
+ * Commands that are marked with marker interface {@link SynchronousCommand} are still
+ * executed by their shard but the dispatching thread waits until they have been handled.
+ * Exceptions that are thrown by command handlers of synchronous commands propagate to the 
+ * dispatching thread. Exceptions that are thrown by command handlers of other commands are reported 
+ * to the shard thread's {@link Thread.UncaughtExceptionHandler}.
+ * 
+ * Commands that command handlers dispatch to their own shard do not go through the ring buffer 
+ * because the shard thread would wait for itself if the ring buffer is full. They are queued
+ * on the shard thread instead and handled in dispatch order as soon as the current command 
+ * has been handled.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class ShardedCommandDispatcher implements CommandDispatcher, AutoCloseable {
+
+    private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("xerj-commandstack-shard-");
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final Shard[] shards;
+
+    /**
+     * Constructor. Creates one shard per available processor.
+     * @param shardDispatcherFactory Creates the command dispatcher of each shard. 
+     * The argument is the index of the shard.
+     */
+    public ShardedCommandDispatcher(IntFunction<CommandDispatcher> shardDispatcherFactory) {
+        this(shardDispatcherFactory, 
+            Runtime.getRuntime().availableProcessors(), 
+            DEFAULT_CAPACITY, 
+            WaitStrategy.PARK);
+    }
+
+    /**
+     * Constructor.
+     * @param shardDispatcherFactory Creates the command dispatcher of each shard. 
+     * The argument is the index of the shard.
+     * @param shardCount The number of shards.
+     * @param capacity The number of slots in the ring buffer of each shard. Must be a power of 2.
+     * @param waitStrategy How shard threads wait for commands and how dispatching threads 
+     * wait for free slots.
+     */
+    public ShardedCommandDispatcher(
+            IntFunction<CommandDispatcher> shardDispatcherFactory,
+            int shardCount,
+            int capacity,
+            WaitStrategy waitStrategy) {
+        this(shardDispatcherFactory, shardCount, capacity, waitStrategy, THREAD_FACTORY);
+    }
+
+    /**
+     * Constructor.
+     * @param shardDispatcherFactory Creates the command dispatcher of each shard. 
+     * The argument is the index of the shard.
+     * @param shardCount The number of shards.
+     * @param capacity The number of slots in the ring buffer of each shard. Must be a power of 2.
+     * @param waitStrategy How shard threads wait for commands and how dispatching threads 
+     * wait for free slots.
+     * @param threadFactory The thread factory to create the shard threads with.
+     */
+    public ShardedCommandDispatcher(
+            IntFunction<CommandDispatcher> shardDispatcherFactory,
+            int shardCount,
+            int capacity,
+            WaitStrategy waitStrategy,
+            ThreadFactory threadFactory) {
+
+        requireNonNull(shardDispatcherFactory, "shardDispatcherFactory");
+        require(shardCount, count -> count < 1, 
+            "shardCount argument must be greater than zero.");
+        require(capacity, c -> c < 1 || Integer.bitCount(c) != 1, 
+            "capacity argument must be a power of 2.");
+        requireNonNull(waitStrategy, "waitStrategy");
+        requireNonNull(threadFactory, "threadFactory");
+
+        this.shards = new Shard[shardCount];
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                CommandDispatcher shardDispatcher = requireNonNull(
+                    shardDispatcherFactory.apply(i), "shardDispatcher");
+                shards[i] = new Shard(shardDispatcher, capacity, waitStrategy, threadFactory);
+            }
+        } catch (RuntimeException | Error ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Get the number of shards.
+     * @return The number of shards.
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler on the command's shard.
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then this waits until the command has been handled by its shard.
+     * 
+     * This blocks while the ring buffer of the command's shard is full (unless dispatched from 
+     * the shard's own thread) and throws a {@link CommandRejectedException} if this dispatcher 
+     * has already been closed.
+     */
+    @Override
+    public <TCommand> void send(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        Shard shard = shardOf(command);
+
+        if (!(command instanceof SynchronousCommand)) {
+            shard.enqueue(command);
+        } else if (Thread.currentThread() == shard.thread) {
+            // Already on the shard thread. Waiting for the shard would never return.
+            shard.shardDispatcher.send(command);
+        } else {
+            try {
+                sendAsync(shard, command).toCompletableFuture().join();
+            } catch (CompletionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException)cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error)cause;
+                }
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler on the command's shard
+     * and return a {@link CompletionStage} which is completed by the shard thread as soon as 
+     * the command handler returns. If the command handler throws, the returned 
+     * {@link CompletionStage} is completed exceptionally with the thrown exception.
+     * 
+     * If this dispatcher has already been closed, the returned {@link CompletionStage}
+     * is completed exceptionally with a {@link CommandRejectedException}.
+     * 
+     * @param <TCommand> The command type.
+     * @param command The command to dispatch.
+     * @return The {@link CompletionStage} which is completed once the command has been handled.
+     */
+    public <TCommand> CompletionStage<Void> sendAsync(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        return sendAsync(shardOf(command), command);
+    }
+
+    /**
+     * Stop accepting commands and wait for all shards to handle their dispatched commands.
+     * If interrupted while waiting, this returns without waiting for the remaining shards.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            if (shard != null) {
+                shard.closed = true;
+                shard.ringBuffer.close();
+            }
+        }
+    }
+
+    /**
+     * Get the index of the shard which the command is assigned to.
+     * @param command The command.
+     * @return The index of the shard.
+     */
+    int getShardIndex(Object command) {
+        int hash;
+        if (command instanceof PartitionedCommand) {
+            hash = requireNonNull(
+                ((PartitionedCommand)command).getPartitionKey(), "partitionKey").hashCode();
+        } else {
+            hash = command.getClass().hashCode();
+        }
+        // Spread the high bits so keys with similar hash codes do not pile up on the same shard.
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, shards.length);
+    }
+
+    private Shard shardOf(Object command) {
+        return shards[getShardIndex(command)];
+    }
+
+    private static <TCommand> CompletionStage<Void> sendAsync(Shard shard, TCommand command) {
+        ShardTask task = new ShardTask(command);
+        try {
+            shard.enqueue(task);
+        } catch (CommandRejectedException ex) {
+            task.completion.completeExceptionally(Rejections.dispatcherClosed(command, ex));
+        }
+        return task.completion;
+    }
+
+    /**
+     * A single-threaded event loop which owns a command dispatcher.
+     */
+    private static class Shard implements CommandDispatcher {
+        private final CommandDispatcher shardDispatcher;
+        private final RingBufferCommandDispatcher ringBuffer;
+        // Commands which were dispatched from the shard thread. Only accessed by the shard thread.
+        private final Queue<Object> localQueue = new ArrayDeque<>();
+        private volatile Thread thread;
+        private volatile boolean closed;
+
+        Shard(
+                CommandDispatcher shardDispatcher, 
+                int capacity, 
+                WaitStrategy waitStrategy, 
+                ThreadFactory threadFactory) {
+            this.shardDispatcher = shardDispatcher;
+            this.ringBuffer = new RingBufferCommandDispatcher(this, capacity, 1, waitStrategy, task -> {
+                Thread shardThread = threadFactory.newThread(task);
+                thread = shardThread;
+                return shardThread;
+            });
+        }
+
+        void enqueue(Object command) {
+            if (Thread.currentThread() == thread) {
+                if (closed) {
+                    throw Rejections.dispatcherClosed(command);
+                }
+                // Queued commands are handled before the ring buffer is consulted again.
+                localQueue.add(command);
+            } else {
+                ringBuffer.send(command);
+            }
+        }
+
+        /**
+         * Called by the shard thread for every command that was dispatched to the ring buffer.
+         */
+        @Override
+        public <TCommand> void send(TCommand command) {
+            try {
+                dispatch(command);
+            } finally {
+                Object queuedCommand;
+                while ((queuedCommand = localQueue.poll()) != null) {
+                    try {
+                        dispatch(queuedCommand);
+                    } catch (Throwable ex) {
+                        UncaughtExceptions.report(ex);
+                    }
+                }
+            }
+        }
+
+        private void dispatch(Object command) {
+            if (command instanceof ShardTask) {
+                ((ShardTask)command).sendTo(shardDispatcher);
+            } else {
+                shardDispatcher.send(command);
+            }
+        }
+    }
+
+    /**
+     * A command whose completion is awaited.
+     */
+    private static class ShardTask {
+        private final Object command;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        ShardTask(Object command) {
+            this.command = command;
+        }
+
+        void sendTo(CommandDispatcher shardDispatcher) {
+            try {
+                shardDispatcher.send(command);
+            } catch (Throwable ex) {
+                completion.completeExceptionally(ex);
+                return;
+            }
+            completion.complete(null);
+        }
+    }
+}
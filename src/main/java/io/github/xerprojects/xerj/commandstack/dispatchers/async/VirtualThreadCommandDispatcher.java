@@ -0,0 +1,191 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.internal.utils.VirtualThreads;
+
+/**
+ * Command dispatcher decorator that enables decorated command dispatcher to 
+ * execute commands asynchronously, each on its own virtual thread. This is suitable
+ * for command handlers which block e.g. on JDBC or HTTP calls.
+ * 
+ * The number of commands that are handled at the same time is limited by a semaphore.
+ * Commands that are dispatched while the limit has been reached wait (on their own virtual thread) 
+ * until a permit is released. Dispatching never blocks the calling thread.
+ * 
+ * Virtual threads require Java 21 or later. On earlier versions, this dispatcher
+ * falls back to a pool of at most {@code maxConcurrency} platform threads. Commands that are 
+ * dispatched while all platform threads are busy are queued (without a thread) until a thread 
+ * becomes available, so bursts do not start a platform thread per command.
+ * See {@link #usesVirtualThreads()}.
+ * 
+ * Commands that are marked with marker interface {@link SynchronousCommand} 
+ * will be executed synchrously (not on a virtual thread).
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class VirtualThreadCommandDispatcher implements CommandDispatcher, AutoCloseable {
+
+    private final CommandDispatcher decoratedDispatcher;
+    private final Semaphore concurrencyLimiter;
+    private final int maxConcurrency;
+    private final ExecutorService executorService;
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param maxConcurrency The maximum number of commands that can be handled at the same time.
+     */
+    public VirtualThreadCommandDispatcher(
+            CommandDispatcher decoratedDispatcher,
+            int maxConcurrency) {
+        this.decoratedDispatcher = 
+            requireNonNull(decoratedDispatcher, "decoratedDispatcher");
+        this.maxConcurrency = require(maxConcurrency, max -> max < 1, 
+            "maxConcurrency argument must be greater than zero.");
+        this.concurrencyLimiter = new Semaphore(maxConcurrency);
+        // No more platform threads than permits are needed if virtual threads are not supported.
+        this.executorService = 
+            VirtualThreads.newThreadPerTaskExecutor("xerj-commandstack-dispatch-", maxConcurrency);
+    }
+
+    /**
+     * Get the maximum number of commands that can be handled at the same time.
+     * @return The maximum number of commands that can be handled at the same time.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Check whether commands are handled on virtual threads. 
+     * @return {@code true} if commands are handled on virtual threads (Java 21 or later)
+     * or {@code false} if commands are handled on platform threads.
+     */
+    public boolean usesVirtualThreads() {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler on a new virtual thread.
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously.
+     * 
+     * This throws a {@link RejectedExecutionException} if this dispatcher has already been closed.
+     */
+    @Override
+    public <TCommand> void send(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        if (command instanceof SynchronousCommand) {
+            decoratedDispatcher.send(command);
+        } else {
+            executorService.execute(() -> {
+                sendWithPermit(command);
+            });
+        }
+    }
+
+    /**
+     * Asynchronously dispatch command to its registered command handler on a new virtual thread
+     * and return a {@link CompletionStage} which is completed by that virtual thread as soon as 
+     * the command handler returns. If the command handler throws, the returned 
+     * {@link CompletionStage} is completed exceptionally with the thrown exception.
+     * 
+     * If the command implements the marker interface {@link SynchronousCommand},
+     * then the command handler will be executed synchronously and the returned 
+     * {@link CompletionStage} is already completed when this method returns.
+     * 
+     * If this dispatcher has already been closed, the returned {@link CompletionStage}
+     * is completed exceptionally with a {@link RejectedExecutionException}.
+     * 
+     * @param <TCommand> The command type.
+     * @param command The command to dispatch.
+     * @return The {@link CompletionStage} which is completed once the command has been handled.
+     */
+    public <TCommand> CompletionStage<Void> sendAsync(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        if (command instanceof SynchronousCommand) {
+            try {
+                decoratedDispatcher.send(command);
+            } catch (Throwable ex) {
+                completion.completeExceptionally(ex);
+                return completion;
+            }
+            completion.complete(null);
+        } else {
+            try {
+                executorService.execute(() -> {
+                    try {
+                        sendWithPermit(command);
+                    } catch (Throwable ex) {
+                        completion.completeExceptionally(ex);
+                        return;
+                    }
+                    completion.complete(null);
+                });
+            } catch (RejectedExecutionException ex) {
+                completion.completeExceptionally(ex);
+            }
+        }
+
+        return completion;
+    }
+
+    /**
+     * Stop accepting commands and wait for all dispatched commands to be handled.
+     * If interrupted while waiting, the threads of the commands which are still 
+     * being handled are interrupted.
+     */
+    @Override
+    public void close() {
+        executorService.shutdown();
+        try {
+            while (!executorService.awaitTermination(1, TimeUnit.DAYS)) {
+                // Keep waiting.
+            }
+        } catch (InterruptedException ex) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <TCommand> void sendWithPermit(TCommand command) {
+        concurrencyLimiter.acquireUninterruptibly();
+        try {
+            decoratedDispatcher.send(command);
+        } finally {
+            concurrencyLimiter.release();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+/**
+ * Determines how the threads of a {@link RingBufferCommandDispatcher} wait for commands 
+ * (consumers) or for free slots in the ring buffer (producers).
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public enum WaitStrategy {
+    /**
+     * Spin in a tight loop. Lowest latency but each waiting thread occupies a CPU core. 
+     * Only use this if there are more CPU cores than busy threads.
+     */
+    BUSY_SPIN,
+    /**
+     * Spin for a while and then yield the CPU to other threads between checks.
+     * Low latency but waiting threads still show up as busy.
+     */
+    YIELD,
+    /**
+     * Spin for a while and then park until woken up by a producer. 
+     * Highest latency but waiting threads do not use CPU.
+     */
+    PARK
+}
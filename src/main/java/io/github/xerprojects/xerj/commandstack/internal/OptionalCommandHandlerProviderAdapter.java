@@ -0,0 +1,67 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.internal;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.Optional;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.CommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.DirectCommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
+
+/**
+ * Adapts an {@link Optional}-returning {@link CommandHandlerProvider} to the 
+ * {@link DirectCommandHandlerProvider} contract. If the decorated command handler provider 
+ * returns a null {@link Optional}, this throws a {@link CommandStackException}.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class OptionalCommandHandlerProviderAdapter implements DirectCommandHandlerProvider {
+
+	private final CommandHandlerProvider commandHandlerProvider;
+
+	/**
+	 * Constructor.
+	 * @param commandHandlerProvider The command handler provider to adapt.
+	 */
+	public OptionalCommandHandlerProviderAdapter(CommandHandlerProvider commandHandlerProvider) {
+		this.commandHandlerProvider = 
+			requireNonNull(commandHandlerProvider, "commandHandlerProvider");
+	}
+
+	@Override
+	public <TCommand> CommandHandler<TCommand> getCommandHandlerOrNull(Class<TCommand> commandType) {
+		return getCommandHandlerFor(commandType).orElse(null);
+	}
+
+	@Override
+	public <TCommand> Optional<CommandHandler<TCommand>> getCommandHandlerFor(
+			Class<TCommand> commandType) {
+		Optional<CommandHandler<TCommand>> resolvedHandler = 
+			commandHandlerProvider.getCommandHandlerFor(commandType);
+		
+		if (resolvedHandler == null) {
+			throw new CommandStackException(
+				"Command handler provider returned null. Please check command handler provider configuration: " +
+					commandHandlerProvider.getClass());
+		}
+
+		return resolvedHandler;
+	}
+}
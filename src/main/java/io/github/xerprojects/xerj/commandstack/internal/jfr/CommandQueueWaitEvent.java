@@ -0,0 +1,37 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Time between the submission of an asynchronous command and the start of its execution.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+@Name("io.github.xerprojects.xerj.commandstack.CommandQueueWait")
+@Label("Command Queue Wait")
+@Description("Time between the submission of an asynchronous command and the start of its execution.")
+@Category({ "XerJ CommandStack" })
+public class CommandQueueWaitEvent extends Event {
+    @Label("Command Class")
+    Class<?> commandClass;
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Resolution of a command handler from a command handler provider.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+@Name("io.github.xerprojects.xerj.commandstack.CommandResolution")
+@Label("Command Handler Resolution")
+@Description("Resolution of a command handler from a command handler provider.")
+@Category({ "XerJ CommandStack" })
+public class CommandResolutionEvent extends Event {
+    @Label("Command Class")
+    Class<?> commandClass;
+
+    @Label("Provider Class")
+    @Description("The command handler provider that was consulted. For the dispatcher this is the " +
+        "outermost provider, e.g. a decorator. Composite providers additionally record " + 
+        "a resolution event for each of their providers that was consulted.")
+    Class<?> providerClass;
+
+    @Label("Handler Class")
+    Class<?> handlerClass;
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.internal.jfr;
+
+import java.util.List;
+
+/**
+ * JDK Flight Recorder events of the command stack library.
+ * 
+ * This class does not reference any JDK Flight Recorder types so that it can be loaded 
+ * even if the jdk.jfr module is not present at runtime. Event objects are passed around
+ * as plain objects and are null if the event is disabled or JDK Flight Recorder is not available.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class JfrEvents {
+    private JfrEvents() {}
+
+    private static final boolean JFR_AVAILABLE = 
+        ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    /**
+     * Begin a command handler resolution event.
+     * @return The event or null if the event is disabled.
+     */
+    public static Object beginResolution() {
+        return JFR_AVAILABLE ? Recorder.beginResolution() : null;
+    }
+
+    /**
+     * Commit a command handler resolution event.
+     * @param event The event returned by {@link #beginResolution()}.
+     * @param commandType The command type.
+     * @param providerType The type of the command handler provider.
+     * @param commandHandler The resolved command handler or null if none was resolved.
+     */
+    public static void commitResolution(
+            Object event, 
+            Class<?> commandType, 
+            Class<?> providerType, 
+            Object commandHandler) {
+        if (event != null) {
+            Recorder.commitResolution(event, commandType, providerType, commandHandler);
+        }
+    }
+
+    /**
+     * Begin a command handling event.
+     * @return The event or null if the event is disabled.
+     */
+    public static Object beginHandling() {
+        return JFR_AVAILABLE ? Recorder.beginHandling() : null;
+    }
+
+    /**
+     * Commit a command handling event.
+     * @param event The event returned by {@link #beginHandling()}.
+     * @param commandType The command type.
+     * @param commandHandler The command handler that handled the command.
+     */
+    public static void commitHandling(Object event, Class<?> commandType, Object commandHandler) {
+        if (event != null) {
+            Recorder.commitHandling(event, commandType, commandHandler);
+        }
+    }
+
+    /**
+     * Begin a queue wait event when a command is submitted for asynchronous execution.
+     * @return The event or null if the event is disabled.
+     */
+    public static Object beginQueueWait() {
+        return JFR_AVAILABLE ? Recorder.beginQueueWait() : null;
+    }
+
+    /**
+     * Commit a queue wait event when the asynchronous execution of a command starts.
+     * @param event The event returned by {@link #beginQueueWait()}.
+     * @param commandType The command type.
+     */
+    public static void commitQueueWait(Object event, Class<?> commandType) {
+        if (event != null) {
+            Recorder.commitQueueWait(event, commandType);
+        }
+    }
+
+    /**
+     * Begin a queue wait event for each command of a batch when the batch is submitted 
+     * for asynchronous execution.
+     * @param commandCount The number of commands of the batch.
+     * @return The events or null if the event is disabled.
+     */
+    public static Object beginQueueWaits(int commandCount) {
+        return JFR_AVAILABLE ? Recorder.beginQueueWaits(commandCount) : null;
+    }
+
+    /**
+     * Commit the queue wait events of a batch when the asynchronous execution of the batch starts.
+     * @param events The events returned by {@link #beginQueueWaits(int)}.
+     * @param commands The commands of the batch.
+     */
+    public static void commitQueueWaits(Object events, List<?> commands) {
+        if (events != null) {
+            Recorder.commitQueueWaits(events, commands);
+        }
+    }
+
+    /**
+     * Commit an unhandled command event.
+     * @param commandType The command type.
+     */
+    public static void commitUnhandledCommand(Class<?> commandType) {
+        if (JFR_AVAILABLE) {
+            Recorder.commitUnhandledCommand(commandType);
+        }
+    }
+}
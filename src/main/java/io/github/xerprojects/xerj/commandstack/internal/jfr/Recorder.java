@@ -0,0 +1,125 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.internal.jfr;
+
+import java.util.List;
+
+import jdk.jfr.EventType;
+
+/**
+ * Creates and commits the JDK Flight Recorder events. 
+ * This class must only be loaded if the jdk.jfr module is present.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+class Recorder {
+    private Recorder() {}
+
+    private static final EventType RESOLUTION = EventType.getEventType(CommandResolutionEvent.class);
+    private static final EventType HANDLING = EventType.getEventType(CommandHandlingEvent.class);
+    private static final EventType QUEUE_WAIT = EventType.getEventType(CommandQueueWaitEvent.class);
+    private static final EventType UNHANDLED = EventType.getEventType(UnhandledCommandEvent.class);
+
+    static Object beginResolution() {
+        if (!RESOLUTION.isEnabled()) {
+            return null;
+        }
+        CommandResolutionEvent event = new CommandResolutionEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitResolution(
+            Object event, 
+            Class<?> commandType, 
+            Class<?> providerType, 
+            Object commandHandler) {
+        CommandResolutionEvent resolutionEvent = (CommandResolutionEvent)event;
+        resolutionEvent.end();
+        if (resolutionEvent.shouldCommit()) {
+            resolutionEvent.commandClass = commandType;
+            resolutionEvent.providerClass = providerType;
+            resolutionEvent.handlerClass = commandHandler != null ? commandHandler.getClass() : null;
+            resolutionEvent.commit();
+        }
+    }
+
+    static Object beginHandling() {
+        if (!HANDLING.isEnabled()) {
+            return null;
+        }
+        CommandHandlingEvent event = new CommandHandlingEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitHandling(Object event, Class<?> commandType, Object commandHandler) {
+        CommandHandlingEvent handlingEvent = (CommandHandlingEvent)event;
+        handlingEvent.end();
+        if (handlingEvent.shouldCommit()) {
+            handlingEvent.commandClass = commandType;
+            handlingEvent.handlerClass = commandHandler.getClass();
+            handlingEvent.commit();
+        }
+    }
+
+    static Object beginQueueWait() {
+        if (!QUEUE_WAIT.isEnabled()) {
+            return null;
+        }
+        CommandQueueWaitEvent event = new CommandQueueWaitEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitQueueWait(Object event, Class<?> commandType) {
+        CommandQueueWaitEvent queueWaitEvent = (CommandQueueWaitEvent)event;
+        queueWaitEvent.end();
+        if (queueWaitEvent.shouldCommit()) {
+            queueWaitEvent.commandClass = commandType;
+            queueWaitEvent.commit();
+        }
+    }
+
+    static Object beginQueueWaits(int commandCount) {
+        if (!QUEUE_WAIT.isEnabled()) {
+            return null;
+        }
+        CommandQueueWaitEvent[] events = new CommandQueueWaitEvent[commandCount];
+        for (int i = 0; i < commandCount; i++) {
+            events[i] = new CommandQueueWaitEvent();
+            events[i].begin();
+        }
+        return events;
+    }
+
+    static void commitQueueWaits(Object events, List<?> commands) {
+        CommandQueueWaitEvent[] queueWaitEvents = (CommandQueueWaitEvent[])events;
+        for (int i = 0; i < queueWaitEvents.length; i++) {
+            commitQueueWait(queueWaitEvents[i], commands.get(i).getClass());
+        }
+    }
+
+    static void commitUnhandledCommand(Class<?> commandType) {
+        if (!UNHANDLED.isEnabled()) {
+            return;
+        }
+        UnhandledCommandEvent event = new UnhandledCommandEvent();
+        event.commandClass = commandType;
+        event.commit();
+    }
+}
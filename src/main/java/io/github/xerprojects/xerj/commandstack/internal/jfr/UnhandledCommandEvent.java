@@ -0,0 +1,37 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Command that was dispatched but had no registered command handler.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+@Name("io.github.xerprojects.xerj.commandstack.UnhandledCommand")
+@Label("Unhandled Command")
+@Description("Command that was dispatched but had no registered command handler.")
+@Category({ "XerJ CommandStack" })
+public class UnhandledCommandEvent extends Event {
+    @Label("Command Class")
+    Class<?> commandClass;
+}
@@ -0,0 +1,487 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.internal.processing;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor which generates a command handler provider for all command handlers
+ * that are marked with {@link io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand}.
+ *
+ * The generated command handler provider maps each command type to an index once (via a {@link ClassValue})
+ * and creates command handlers via a switch on the index, so resolving a command handler
+ * needs neither reflection nor a map lookup. Command handlers which have no instance fields
+ * are stateless, so they are created once on first resolution and reused afterwards.
+ *
+ * The command handler provider is only generated if its name is specified via the 
+ * {@value #GENERATED_PROVIDER_OPTION} option. Otherwise, this processor does nothing
+ * because marked methods may be meant to be registered at runtime instead.
+ *
+ * @author Joel Jeremy Marquez
+ */
+@SupportedAnnotationTypes(CommandHandlerProcessor.HANDLES_COMMAND)
+@SupportedOptions(CommandHandlerProcessor.GENERATED_PROVIDER_OPTION)
+public class CommandHandlerProcessor extends AbstractProcessor {
+
+    static final String HANDLES_COMMAND =
+        "io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand";
+    static final String GENERATED_PROVIDER_OPTION = "xerj.commandstack.generatedProvider";
+
+    private static final String COMMAND_HANDLER = "io.github.xerprojects.xerj.commandstack.CommandHandler";
+    // Keeps the generated methods well below the 64KB method size limit.
+    private static final int CASES_PER_METHOD = 1000;
+
+    private final Map<String, Registration> registrations = new LinkedHashMap<>();
+    private String providerName;
+    private boolean hasErrors;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+
+        String providerNameOption = processingEnv.getOptions().get(GENERATED_PROVIDER_OPTION);
+        providerName = providerNameOption == null || providerNameOption.isEmpty() ? 
+            null : providerNameOption;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (providerName == null) {
+            return false;
+        }
+
+        if (roundEnv.processingOver()) {
+            if (!registrations.isEmpty() && !hasErrors) {
+                generateProvider();
+            }
+            return false;
+        }
+
+        TypeElement handlesCommand = processingEnv.getElementUtils().getTypeElement(HANDLES_COMMAND);
+        if (handlesCommand == null) {
+            return false;
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(handlesCommand)) {
+            Registration registration = element.getKind() == ElementKind.METHOD ?
+                registerMethod((ExecutableElement)element) :
+                registerClass(element);
+
+            if (registration == null) {
+                continue;
+            }
+
+            Registration existingRegistration =
+                registrations.putIfAbsent(registration.commandTypeName, registration);
+            if (existingRegistration != null) {
+                error(element, "Duplicate command handler for " + registration.commandTypeName +
+                    ". A command handler is already registered by " + existingRegistration + ".");
+            }
+        }
+
+        return true;
+    }
+
+    private Registration registerClass(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return error(element, "Only classes and methods can be marked as command handlers.");
+        }
+
+        TypeElement handlerType = (TypeElement)element;
+        if (!isInstantiable(handlerType)) {
+            return error(element, "Command handler class must be a non-abstract top-level or " +
+                "static nested class with a no-arg constructor which does not throw checked exceptions.");
+        }
+
+        TypeMirror commandType = findCommandType(handlerType.asType());
+        if (commandType == null) {
+            return error(element, "Command handler class must implement " + COMMAND_HANDLER +
+                " with a command type argument.");
+        }
+
+        return register(element, commandType, "new " + handlerType.getQualifiedName() + "()",
+            isStateless(handlerType));
+    }
+
+    private Registration registerMethod(ExecutableElement method) {
+        Element enclosingElement = method.getEnclosingElement();
+        if (enclosingElement.getKind() != ElementKind.CLASS) {
+            return error(method, "Command handler method must be declared in a class.");
+        }
+
+        if (method.getReturnType().getKind() != TypeKind.VOID ||
+                method.getParameters().size() != 1 ||
+                !method.getTypeParameters().isEmpty()) {
+            return error(method, "Command handler method must return void, " +
+                "must not be generic and must have the command as its only parameter.");
+        }
+
+        for (TypeMirror thrownType : method.getThrownTypes()) {
+            if (isCheckedException(thrownType)) {
+                return error(method, "Command handler method must not throw checked exceptions.");
+            }
+        }
+
+        TypeElement declaringType = (TypeElement)enclosingElement;
+        String handlerExpression;
+        boolean stateless;
+        if (method.getModifiers().contains(Modifier.STATIC)) {
+            handlerExpression = declaringType.getQualifiedName() + "::" + method.getSimpleName();
+            stateless = true;
+        } else if (isInstantiable(declaringType)) {
+            handlerExpression = "new " + declaringType.getQualifiedName() + "()::" + method.getSimpleName();
+            stateless = isStateless(declaringType);
+        } else {
+            return error(method, "Class of non-static command handler method must be a non-abstract " +
+                "top-level or static nested class with a no-arg constructor " + 
+                "which does not throw checked exceptions.");
+        }
+
+        TypeMirror commandType = method.getParameters().get(0).asType();
+        // Method references need a target type.
+        return register(method, commandType,
+            "(" + COMMAND_HANDLER + "<" + commandType + ">)" + handlerExpression, stateless);
+    }
+
+    private Registration register(
+            Element element,
+            TypeMirror commandType,
+            String handlerExpression,
+            boolean stateless) {
+        if (commandType.getKind() != TypeKind.DECLARED) {
+            return error(element, "Command type must be a class or an interface but was " + commandType + ".");
+        }
+
+        TypeElement commandTypeElement = (TypeElement)((DeclaredType)commandType).asElement();
+        return new Registration(
+            element,
+            commandTypeElement,
+            processingEnv.getElementUtils().getBinaryName(commandTypeElement).toString(),
+            handlerExpression,
+            stateless);
+    }
+
+    private void generateProvider() {
+        int lastDot = providerName.lastIndexOf('.');
+        String packageName = lastDot < 0 ? "" : providerName.substring(0, lastDot);
+        String simpleName = providerName.substring(lastDot + 1);
+
+        List<Registration> orderedRegistrations = new ArrayList<>(registrations.values());
+        for (Registration registration : orderedRegistrations) {
+            if (!isAccessible(registration.element, packageName) ||
+                    !isAccessible(registration.commandTypeElement, packageName) ||
+                    !hasAccessibleConstructor(registration.element, packageName)) {
+                error(registration.element, "Command handler and command type must be accessible from " +
+                    "generated command handler provider " + providerName + ".");
+            }
+        }
+
+        if (hasErrors) {
+            return;
+        }
+
+        TypeElement[] originatingElements = orderedRegistrations.stream()
+            .map(registration -> topLevelTypeOf(registration.element))
+            .toArray(TypeElement[]::new);
+
+        try (Writer writer = processingEnv.getFiler()
+                .createSourceFile(providerName, originatingElements)
+                .openWriter()) {
+            writer.write(generateSource(packageName, simpleName, orderedRegistrations));
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Failed to generate command handler provider " + providerName + ": " + ex.getMessage());
+        }
+    }
+
+    private static String generateSource(
+            String packageName,
+            String simpleName,
+            List<Registration> orderedRegistrations) {
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("/**\n")
+            .append(" * Command handler provider which was generated from the command handlers that are marked with\n")
+            .append(" * {@link ").append(HANDLES_COMMAND).append("}. Do not edit.\n")
+            .append(" */\n")
+            .append("public final class ").append(simpleName)
+            .append(" implements io.github.xerprojects.xerj.commandstack.DirectCommandHandlerProvider {\n\n");
+
+        source.append("    private static final Class<?>[] COMMAND_TYPES = {\n");
+        for (Registration registration : orderedRegistrations) {
+            source.append("        ").append(registration.commandTypeElement.getQualifiedName()).append(".class,\n");
+        }
+        source.append("    };\n\n");
+
+        source.append("    private static final ClassValue<Integer> COMMAND_TYPE_INDEXES = new ClassValue<Integer>() {\n")
+            .append("        @Override\n")
+            .append("        protected Integer computeValue(Class<?> commandType) {\n")
+            .append("            for (int i = 0; i < COMMAND_TYPES.length; i++) {\n")
+            .append("                if (COMMAND_TYPES[i] == commandType) {\n")
+            .append("                    return i;\n")
+            .append("                }\n")
+            .append("            }\n")
+            .append("            return -1;\n")
+            .append("        }\n")
+            .append("    };\n\n");
+
+        boolean hasStatelessHandlers = orderedRegistrations.stream()
+            .anyMatch(registration -> registration.stateless);
+        if (hasStatelessHandlers) {
+            // Racy caching is fine since stateless handlers are interchangeable.
+            source.append("    // Lazily created stateless command handlers, indexed like COMMAND_TYPES.\n")
+                .append("    private static final ").append(COMMAND_HANDLER).append("<?>[] COMMAND_HANDLERS =\n")
+                .append("        new ").append(COMMAND_HANDLER).append("<?>[COMMAND_TYPES.length];\n\n");
+        }
+
+        source.append("    @Override\n")
+            .append("    @SuppressWarnings(\"unchecked\")\n")
+            .append("    public <TCommand> ").append(COMMAND_HANDLER).append("<TCommand> getCommandHandlerOrNull(\n")
+            .append("            Class<TCommand> commandType) {\n")
+            .append("        if (commandType == null) {\n")
+            .append("            throw new IllegalArgumentException(\"commandType argument must not be null.\");\n")
+            .append("        }\n\n")
+            .append("        int index = COMMAND_TYPE_INDEXES.get(commandType);\n")
+            .append("        if (index < 0) {\n")
+            .append("            return null;\n")
+            .append("        }\n\n");
+        if (hasStatelessHandlers) {
+            source.append("        ").append(COMMAND_HANDLER).append("<?> commandHandler = COMMAND_HANDLERS[index];\n")
+                .append("        if (commandHandler != null) {\n")
+                .append("            return (").append(COMMAND_HANDLER).append("<TCommand>)commandHandler;\n")
+                .append("        }\n\n");
+        }
+        source.append("        return (").append(COMMAND_HANDLER).append("<TCommand>)createCommandHandler(index);\n")
+            .append("    }\n\n");
+
+        int methodCount = (orderedRegistrations.size() + CASES_PER_METHOD - 1) / CASES_PER_METHOD;
+
+        source.append("    private static ").append(COMMAND_HANDLER).append("<?> createCommandHandler(int index) {\n")
+            .append("        switch (index / ").append(CASES_PER_METHOD).append(") {\n");
+        for (int m = 0; m < methodCount; m++) {
+            source.append("            case ").append(m).append(": return createCommandHandler")
+                .append(m).append("(index);\n");
+        }
+        source.append("            default: return null;\n")
+            .append("        }\n")
+            .append("    }\n");
+
+        for (int m = 0; m < methodCount; m++) {
+            source.append("\n    private static ").append(COMMAND_HANDLER).append("<?> createCommandHandler")
+                .append(m).append("(int index) {\n")
+                .append("        switch (index) {\n");
+            int end = Math.min(orderedRegistrations.size(), (m + 1) * CASES_PER_METHOD);
+            for (int i = m * CASES_PER_METHOD; i < end; i++) {
+                Registration registration = orderedRegistrations.get(i);
+                source.append("            case ").append(i).append(": return ");
+                if (registration.stateless) {
+                    source.append("COMMAND_HANDLERS[").append(i).append("] = ");
+                }
+                source.append(registration.handlerExpression).append(";\n");
+            }
+            source.append("            default: return null;\n")
+                .append("        }\n")
+                .append("    }\n");
+        }
+
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private TypeMirror findCommandType(TypeMirror handlerType) {
+        Queue<TypeMirror> pendingTypes = new ArrayDeque<>();
+        pendingTypes.add(handlerType);
+
+        while (!pendingTypes.isEmpty()) {
+            TypeMirror type = pendingTypes.remove();
+            for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type)) {
+                DeclaredType declaredSupertype = (DeclaredType)supertype;
+                TypeElement supertypeElement = (TypeElement)declaredSupertype.asElement();
+                if (supertypeElement.getQualifiedName().contentEquals(COMMAND_HANDLER)) {
+                    // Raw command handlers have no command type.
+                    return declaredSupertype.getTypeArguments().isEmpty() ?
+                        null : declaredSupertype.getTypeArguments().get(0);
+                }
+                pendingTypes.add(supertype);
+            }
+        }
+
+        return null;
+    }
+
+    private boolean isInstantiable(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL &&
+                (type.getNestingKind() != NestingKind.MEMBER || !type.getModifiers().contains(Modifier.STATIC))) {
+            return false;
+        }
+
+        return noArgConstructorOf(type) != null;
+    }
+
+    private boolean isStateless(TypeElement type) {
+        // Check the type and all of its superclasses.
+        for (TypeElement t = type; t != null; t = superclassOf(t)) {
+            for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ?
+            (TypeElement)((DeclaredType)superclass).asElement() : null;
+    }
+
+    private boolean hasAccessibleConstructor(Element element, String packageName) {
+        if (element.getKind() == ElementKind.METHOD) {
+            if (element.getModifiers().contains(Modifier.STATIC)) {
+                return true;
+            }
+            element = element.getEnclosingElement();
+        }
+        return isAccessible(noArgConstructorOf((TypeElement)element), packageName);
+    }
+
+    private boolean isAccessible(Element element, String packageName) {
+        String elementPackageName =
+            processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+
+        // Check the element and all of its enclosing types.
+        for (Element e = element; e != null && e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            Set<Modifier> modifiers = e.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!modifiers.contains(Modifier.PUBLIC) && !elementPackageName.equals(packageName)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private ExecutableElement noArgConstructorOf(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && 
+                    !constructor.getModifiers().contains(Modifier.PRIVATE) &&
+                    constructor.getThrownTypes().stream().noneMatch(this::isCheckedException)) {
+                return constructor;
+            }
+        }
+        return null;
+    }
+
+    private boolean isCheckedException(TypeMirror type) {
+        TypeMirror runtimeException =
+            processingEnv.getElementUtils().getTypeElement(RuntimeException.class.getName()).asType();
+        TypeMirror error =
+            processingEnv.getElementUtils().getTypeElement(Error.class.getName()).asType();
+
+        return !processingEnv.getTypeUtils().isAssignable(type, runtimeException) &&
+            !processingEnv.getTypeUtils().isAssignable(type, error);
+    }
+
+    private static TypeElement topLevelTypeOf(Element element) {
+        Element topLevelType = element;
+        while (topLevelType.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+            topLevelType = topLevelType.getEnclosingElement();
+        }
+        return (TypeElement)topLevelType;
+    }
+
+    private Registration error(Element element, String message) {
+        hasErrors = true;
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return null;
+    }
+
+    /**
+     * Command handler that was marked with
+     * {@link io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand}.
+     */
+    private static class Registration {
+        private final Element element;
+        private final TypeElement commandTypeElement;
+        private final String commandTypeName;
+        private final String handlerExpression;
+        private final boolean stateless;
+
+        Registration(
+                Element element,
+                TypeElement commandTypeElement,
+                String commandTypeName,
+                String handlerExpression,
+                boolean stateless) {
+            this.element = element;
+            this.commandTypeElement = commandTypeElement;
+            this.commandTypeName = commandTypeName;
+            this.handlerExpression = handlerExpression;
+            this.stateless = stateless;
+        }
+
+        @Override
+        public String toString() {
+            return element.getKind() == ElementKind.METHOD ?
+                element.getEnclosingElement() + "." + element :
+                element.toString();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.internal.utils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread factory which creates daemon threads named after the given prefix 
+ * followed by a sequence number e.g. {@code xerj-commandstack-lane-0}.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+    private final String threadNamePrefix;
+    private final AtomicLong threadCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     * @param threadNamePrefix The prefix of the names of the created threads.
+     */
+    public DaemonThreadFactory(String threadNamePrefix) {
+        this.threadNamePrefix = Arguments.requireNonNull(threadNamePrefix, "threadNamePrefix");
+    }
+
+    @Override
+    public Thread newThread(Runnable task) {
+        Thread thread = new Thread(task, threadNamePrefix + threadCount.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.internal.utils;
+
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+
+/**
+ * Command rejection utilities.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class Rejections {
+    private static final String DISPATCHER_CLOSED = "Command dispatcher has been closed.";
+
+    private Rejections() {}
+
+    /**
+     * Create the exception for a command which was rejected because its dispatcher has been closed.
+     * @param command The rejected command.
+     * @return The {@link CommandRejectedException}.
+     */
+    public static CommandRejectedException dispatcherClosed(Object command) {
+        return rejected(command, DISPATCHER_CLOSED, null);
+    }
+
+    /**
+     * Create the exception for a command which was rejected because its dispatcher has been closed.
+     * @param command The rejected command.
+     * @param cause The cause of the rejection e.g. the rejection of a decorated dispatcher.
+     * @return The {@link CommandRejectedException}.
+     */
+    public static CommandRejectedException dispatcherClosed(Object command, Throwable cause) {
+        return rejected(command, DISPATCHER_CLOSED, cause);
+    }
+
+    /**
+     * Create the exception for a rejected command.
+     * @param command The rejected command.
+     * @param reason The reason why the command was rejected.
+     * @return The {@link CommandRejectedException}.
+     */
+    public static CommandRejectedException rejected(Object command, String reason) {
+        return rejected(command, reason, null);
+    }
+
+    /**
+     * Create the exception for a rejected command.
+     * @param command The rejected command.
+     * @param reason The reason why the command was rejected.
+     * @param cause The cause of the rejection. May be null.
+     * @return The {@link CommandRejectedException}.
+     */
+    public static CommandRejectedException rejected(Object command, String reason, Throwable cause) {
+        return new CommandRejectedException(command.getClass(), 
+            "Command of type " + command.getClass() + " was rejected. " + reason, cause);
+    }
+}
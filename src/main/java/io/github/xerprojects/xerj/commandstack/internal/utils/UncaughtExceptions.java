@@ -0,0 +1,37 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.internal.utils;
+
+/**
+ * Uncaught exception utilities.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class UncaughtExceptions {
+    private UncaughtExceptions() {}
+
+    /**
+     * Report an exception which cannot be propagated to the dispatching thread, 
+     * e.g. one thrown by a command handler on a worker thread, to the 
+     * {@link Thread.UncaughtExceptionHandler} of the current thread.
+     * @param exception The exception to report.
+     */
+    public static void report(Throwable exception) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.internal.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Virtual thread utilities.
+ * 
+ * This is the Java 11 version which falls back to a bounded pool of platform threads. 
+ * The Java 21 version lives in {@code src/main/java21} and is packaged 
+ * under {@code META-INF/versions/21} of the multi-release jar.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class VirtualThreads {
+    private VirtualThreads() {}
+
+    /**
+     * Check if threads created by {@link #newThreadPerTaskExecutor(String, int)} are virtual threads.
+     * @return {@code true} if running on Java 21 or later. Otherwise, {@code false}.
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Create an executor service which starts a new thread for each task.
+     * Virtual threads are used when supported. Otherwise, a pool of at most the given number of
+     * daemon platform threads is used and the tasks which do not get a thread are queued.
+     * @param threadNamePrefix The prefix of the names of the created threads.
+     * @param maxPlatformThreads The maximum number of platform threads if virtual threads 
+     * are not supported.
+     * @return The thread-per-task executor service.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String threadNamePrefix, int maxPlatformThreads) {
+        Arguments.requireNonNull(threadNamePrefix, "threadNamePrefix");
+        Arguments.require(maxPlatformThreads, max -> max < 1, 
+            "maxPlatformThreads argument must be greater than zero.");
+
+        // Platform threads are too expensive to start one per task, so bursts are queued instead.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            maxPlatformThreads, maxPlatformThreads, 
+            60, TimeUnit.SECONDS, 
+            new LinkedBlockingQueue<>(), 
+            new DaemonThreadFactory(threadNamePrefix));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
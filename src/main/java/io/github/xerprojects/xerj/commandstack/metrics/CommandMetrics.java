@@ -0,0 +1,195 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.metrics;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.xerprojects.xerj.commandstack.BatchCommandHandler;
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.CommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.DirectCommandHandlerProvider;
+
+/**
+ * Lock-free metrics per command type. Metrics are recorded by the components that were 
+ * instrumented with this instance:
+ * <ul>
+ * <li>{@link MetricsCommandDispatcher} records sends and failed sends.</li>
+ * <li>{@link #instrument(CommandHandlerProvider)} records command handler resolution latency,
+ * unhandled commands and, by instrumenting the resolved command handlers, 
+ * handling latency and in-flight commands.</li>
+ * </ul>
+ * 
+ * Counters are {@link java.util.concurrent.atomic.LongAdder}s and latencies are recorded 
+ * in fixed-memory histograms so recording does not lock or allocate.
+ * Metrics are exported via {@link #exportTo(CommandMetricsSink)}.
+ * 
+ * <pre>
+ * CommandMetrics metrics = new CommandMetrics();
+ * CommandDispatcher dispatcher = new MetricsCommandDispatcher(
+ *     new CommandStackDispatcher(metrics.instrument(commandHandlerProvider)),
+ *     metrics);
+ * </pre>
+ * 
+ * If {@link io.github.xerprojects.xerj.commandstack.dispatchers.CommandStackDispatcher} caches
+ * resolved command handlers, resolution latency and unhandled commands are only recorded on 
+ * the first send of each command type.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class CommandMetrics {
+
+    private final ConcurrentHashMap<Class<?>, CommandTypeMetrics> metricsByCommandType = 
+        new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     */
+    public CommandMetrics() {}
+
+    /**
+     * Decorate the command handler provider so that command handler resolution 
+     * and the resolved command handlers are recorded to this instance.
+     * @param commandHandlerProvider The command handler provider to instrument.
+     * @return The instrumented command handler provider.
+     */
+    public DirectCommandHandlerProvider instrument(CommandHandlerProvider commandHandlerProvider) {
+        return new MetricsCommandHandlerProvider(
+            DirectCommandHandlerProvider.from(
+                requireNonNull(commandHandlerProvider, "commandHandlerProvider")));
+    }
+
+    /**
+     * Get a snapshot of the metrics of the given command type.
+     * @param commandType The command type.
+     * @return The snapshot of the command type's metrics.
+     */
+    public CommandMetricsSnapshot getSnapshot(Class<?> commandType) {
+        requireNonNull(commandType, "commandType");
+
+        return metricsOf(commandType).snapshot();
+    }
+
+    /**
+     * Export a snapshot of the metrics of each command type that has been recorded.
+     * @param sink The sink to export the metrics to.
+     */
+    public void exportTo(CommandMetricsSink sink) {
+        requireNonNull(sink, "sink");
+
+        List<CommandTypeMetrics> allMetrics = new ArrayList<>(metricsByCommandType.values());
+        for (CommandTypeMetrics typeMetrics : allMetrics) {
+            sink.export(typeMetrics.snapshot());
+        }
+    }
+
+    CommandTypeMetrics metricsOf(Class<?> commandType) {
+        CommandTypeMetrics typeMetrics = metricsByCommandType.get(commandType);
+        if (typeMetrics == null) {
+            typeMetrics = metricsByCommandType.computeIfAbsent(commandType, CommandTypeMetrics::new);
+        }
+        return typeMetrics;
+    }
+
+    /**
+     * Records command handler resolution and instruments the resolved command handlers.
+     */
+    private class MetricsCommandHandlerProvider implements DirectCommandHandlerProvider {
+
+        private final DirectCommandHandlerProvider decoratedProvider;
+
+        MetricsCommandHandlerProvider(DirectCommandHandlerProvider decoratedProvider) {
+            this.decoratedProvider = decoratedProvider;
+        }
+
+        @Override
+        public <TCommand> CommandHandler<TCommand> getCommandHandlerOrNull(Class<TCommand> commandType) {
+            requireNonNull(commandType, "commandType");
+
+            CommandTypeMetrics typeMetrics = metricsOf(commandType);
+
+            long start = System.nanoTime();
+            CommandHandler<TCommand> commandHandler = decoratedProvider.getCommandHandlerOrNull(commandType);
+            typeMetrics.resolutionLatency.record(System.nanoTime() - start);
+
+            if (commandHandler == null) {
+                typeMetrics.unhandledCount.increment();
+                return null;
+            }
+
+            @SuppressWarnings("unchecked")
+            MeteredCommandHandler<TCommand> lastMeteredHandler = 
+                (MeteredCommandHandler<TCommand>)typeMetrics.lastMeteredCommandHandler;
+
+            if (lastMeteredHandler != null && lastMeteredHandler.decoratedHandler == commandHandler) {
+                return lastMeteredHandler;
+            }
+
+            MeteredCommandHandler<TCommand> meteredHandler = 
+                new MeteredCommandHandler<>(commandHandler, typeMetrics);
+            typeMetrics.lastMeteredCommandHandler = meteredHandler;
+            return meteredHandler;
+        }
+    }
+
+    /**
+     * Records handling latency and in-flight commands. A batch is recorded as a single handling.
+     */
+    private static class MeteredCommandHandler<TCommand> implements BatchCommandHandler<TCommand> {
+
+        private final CommandHandler<TCommand> decoratedHandler;
+        private final CommandTypeMetrics typeMetrics;
+
+        MeteredCommandHandler(CommandHandler<TCommand> decoratedHandler, CommandTypeMetrics typeMetrics) {
+            this.decoratedHandler = decoratedHandler;
+            this.typeMetrics = typeMetrics;
+        }
+
+        @Override
+        public void handle(TCommand command) {
+            typeMetrics.inFlightCount.increment();
+            long start = System.nanoTime();
+            try {
+                decoratedHandler.handle(command);
+            } finally {
+                typeMetrics.handlingLatency.record(System.nanoTime() - start);
+                typeMetrics.inFlightCount.decrement();
+            }
+        }
+
+        @Override
+        public void handleAll(List<TCommand> commands) {
+            typeMetrics.inFlightCount.add(commands.size());
+            long start = System.nanoTime();
+            try {
+                if (decoratedHandler instanceof BatchCommandHandler) {
+                    ((BatchCommandHandler<TCommand>)decoratedHandler).handleAll(commands);
+                } else {
+                    for (TCommand command : commands) {
+                        decoratedHandler.handle(command);
+                    }
+                }
+            } finally {
+                typeMetrics.handlingLatency.record(System.nanoTime() - start);
+                typeMetrics.inFlightCount.add(-commands.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.metrics;
+
+/**
+ * Destination of command metrics e.g. an adapter to a metrics library or a log.
+ * 
+ * @author Joel Jeremy Marquez
+ * @see CommandMetrics#exportTo(CommandMetricsSink)
+ */
+public interface CommandMetricsSink {
+    /**
+     * Export the metrics of a command type.
+     * @param snapshot The snapshot of the command type's metrics.
+     */
+    void export(CommandMetricsSnapshot snapshot);
+}
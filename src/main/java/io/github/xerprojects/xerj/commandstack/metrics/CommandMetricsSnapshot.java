@@ -0,0 +1,106 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.metrics;
+
+/**
+ * Point in time snapshot of the metrics of a command type.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class CommandMetricsSnapshot {
+
+    private final Class<?> commandType;
+    private final long sendCount;
+    private final long unhandledCount;
+    private final long failureCount;
+    private final long inFlightCount;
+    private final LatencySnapshot resolutionLatency;
+    private final LatencySnapshot handlingLatency;
+
+    CommandMetricsSnapshot(
+            Class<?> commandType,
+            long sendCount,
+            long unhandledCount,
+            long failureCount,
+            long inFlightCount,
+            LatencySnapshot resolutionLatency,
+            LatencySnapshot handlingLatency) {
+        this.commandType = commandType;
+        this.sendCount = sendCount;
+        this.unhandledCount = unhandledCount;
+        this.failureCount = failureCount;
+        this.inFlightCount = inFlightCount;
+        this.resolutionLatency = resolutionLatency;
+        this.handlingLatency = handlingLatency;
+    }
+
+    /**
+     * Get the command type.
+     * @return The command type.
+     */
+    public Class<?> getCommandType() {
+        return commandType;
+    }
+
+    /**
+     * Get the number of commands that were sent via {@link MetricsCommandDispatcher}.
+     * @return The number of commands that were sent.
+     */
+    public long getSendCount() {
+        return sendCount;
+    }
+
+    /**
+     * Get the number of times no command handler was resolved for the command type.
+     * @return The number of times no command handler was resolved.
+     */
+    public long getUnhandledCount() {
+        return unhandledCount;
+    }
+
+    /**
+     * Get the number of sends via {@link MetricsCommandDispatcher} that threw an exception.
+     * @return The number of sends that threw an exception.
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Get the number of commands that are currently being handled by instrumented command handlers.
+     * @return The number of commands that are currently being handled.
+     */
+    public long getInFlightCount() {
+        return inFlightCount;
+    }
+
+    /**
+     * Get the latency of resolving command handlers from the instrumented command handler provider.
+     * @return The command handler resolution latency.
+     */
+    public LatencySnapshot getResolutionLatency() {
+        return resolutionLatency;
+    }
+
+    /**
+     * Get the latency of instrumented command handlers.
+     * @return The command handling latency.
+     */
+    public LatencySnapshot getHandlingLatency() {
+        return handlingLatency;
+    }
+}
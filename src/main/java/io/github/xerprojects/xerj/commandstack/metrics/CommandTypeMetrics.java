@@ -0,0 +1,56 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a single command type.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+class CommandTypeMetrics {
+
+    final Class<?> commandType;
+    final LongAdder sendCount = new LongAdder();
+    final LongAdder unhandledCount = new LongAdder();
+    final LongAdder failureCount = new LongAdder();
+    final LongAdder inFlightCount = new LongAdder();
+    final LatencyHistogram resolutionLatency = new LatencyHistogram();
+    final LatencyHistogram handlingLatency = new LatencyHistogram();
+
+    /**
+     * The last instrumented command handler. This is reused as long as the provider 
+     * keeps returning the same command handler instance e.g. for singletons.
+     */
+    volatile Object lastMeteredCommandHandler;
+
+    CommandTypeMetrics(Class<?> commandType) {
+        this.commandType = commandType;
+    }
+
+    CommandMetricsSnapshot snapshot() {
+        return new CommandMetricsSnapshot(
+            commandType,
+            sendCount.sum(),
+            unhandledCount.sum(),
+            failureCount.sum(),
+            inFlightCount.sum(),
+            resolutionLatency.snapshot(),
+            handlingLatency.snapshot());
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-memory, lock-free latency histogram with log-linear buckets.
+ * 
+ * Each power of 2 range of nanoseconds is split into {@value #SUB_BUCKET_COUNT} linear sub-buckets
+ * so recorded values are accurate to within 1/{@value #SUB_BUCKET_COUNT} (6.25%). 
+ * Values larger than {@link #MAX_TRACKABLE_NANOS} are recorded in the last bucket.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Values up to 2^44 nanoseconds (around 4.9 hours) are tracked precisely.
+     */
+    static final int MAX_EXPONENT = 43;
+    static final long MAX_TRACKABLE_NANOS = (1L << (MAX_EXPONENT + 1)) - 1;
+    static final int BUCKET_COUNT = bucketIndexOf(MAX_TRACKABLE_NANOS) + 1;
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a latency.
+     * @param nanos The latency in nanoseconds. Negative values are recorded as zero.
+     */
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        bucketCounts.incrementAndGet(bucketIndexOf(Math.min(value, MAX_TRACKABLE_NANOS)));
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /**
+     * Take a snapshot of the histogram. Recording may continue while the snapshot
+     * is taken so the snapshot is not necessarily atomic.
+     * @return The snapshot of the histogram.
+     */
+    LatencySnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long snapshotCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = bucketCounts.get(i);
+            snapshotCount += counts[i];
+        }
+        return new LatencySnapshot(counts, snapshotCount, totalNanos.sum(), maxNanos.get());
+    }
+
+    static int bucketIndexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int)value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Get the highest value that is recorded in the bucket.
+     */
+    static long bucketUpperBoundOf(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+        int exponent = bucketIndex / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        long subBucket = bucketIndex % SUB_BUCKET_COUNT;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
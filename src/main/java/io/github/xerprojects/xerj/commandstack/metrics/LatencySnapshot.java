@@ -0,0 +1,89 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.metrics;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+
+/**
+ * Point in time snapshot of a latency histogram. 
+ * Latencies are in nanoseconds and are accurate to within 6.25%.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class LatencySnapshot {
+
+    private final long[] bucketCounts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    LatencySnapshot(long[] bucketCounts, long count, long totalNanos, long maxNanos) {
+        this.bucketCounts = bucketCounts;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * Get the number of recorded latencies.
+     * @return The number of recorded latencies.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the mean latency.
+     * @return The mean latency in nanoseconds or zero if nothing has been recorded.
+     */
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double)totalNanos / count;
+    }
+
+    /**
+     * Get the maximum latency.
+     * @return The maximum latency in nanoseconds or zero if nothing has been recorded.
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Get the latency at the given percentile e.g. 99 for p99. 
+     * @param percentile The percentile, from 0 to 100.
+     * @return The latency in nanoseconds which the given percentage of recorded latencies 
+     * are less than or equal to. Zero if nothing has been recorded.
+     */
+    public long getNanosAtPercentile(double percentile) {
+        require(percentile, p -> Double.isNaN(p) || p < 0 || p > 100, 
+            "percentile argument must be from 0 to 100.");
+
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long)Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.bucketUpperBoundOf(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+}
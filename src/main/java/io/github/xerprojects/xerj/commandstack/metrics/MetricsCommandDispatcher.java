@@ -0,0 +1,101 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.metrics;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import io.github.xerprojects.xerj.commandstack.BatchCommandHandler;
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+
+/**
+ * Command dispatcher decorator that records the number of sends and failed sends 
+ * per command type in a {@link CommandMetrics}.
+ * 
+ * @author Joel Jeremy Marquez
+ * @see CommandMetrics
+ */
+public class MetricsCommandDispatcher implements CommandDispatcher {
+
+    private final CommandDispatcher decoratedDispatcher;
+    private final CommandMetrics metrics;
+
+    /**
+     * Constructor.
+     * @param decoratedDispatcher Decorated command dispatcher.
+     * @param metrics The metrics to record to.
+     */
+    public MetricsCommandDispatcher(CommandDispatcher decoratedDispatcher, CommandMetrics metrics) {
+        this.decoratedDispatcher = requireNonNull(decoratedDispatcher, "decoratedDispatcher");
+        this.metrics = requireNonNull(metrics, "metrics");
+    }
+
+    /**
+     * Dispatch command via the decorated command dispatcher and record the send.
+     * Exceptions thrown by the decorated command dispatcher are recorded as failures and rethrown.
+     */
+    @Override
+    public <TCommand> void send(TCommand command) {
+
+        requireNonNull(command, "command");
+
+        CommandTypeMetrics typeMetrics = metrics.metricsOf(command.getClass());
+        typeMetrics.sendCount.increment();
+
+        try {
+            decoratedDispatcher.send(command);
+        } catch (RuntimeException | Error ex) {
+            typeMetrics.failureCount.increment();
+            throw ex;
+        }
+    }
+
+    /**
+     * Dispatch commands via the decorated command dispatcher as one batch (so that 
+     * {@link BatchCommandHandler}s still receive them at once) and record a send for each command.
+     * If the decorated command dispatcher throws, a failure is recorded for each command type 
+     * in the batch and the exception is rethrown.
+     */
+    @Override
+    public void sendAll(Collection<?> commands) {
+
+        requireNonNull(commands, "commands");
+
+        // Look up all metrics before recording anything so that null commands are rejected up front.
+        List<CommandTypeMetrics> commandMetrics = new ArrayList<>(commands.size());
+        for (Object command : commands) {
+            requireNonNull(command, "command");
+            commandMetrics.add(metrics.metricsOf(command.getClass()));
+        }
+
+        for (CommandTypeMetrics typeMetrics : commandMetrics) {
+            typeMetrics.sendCount.increment();
+        }
+
+        try {
+            decoratedDispatcher.sendAll(commands);
+        } catch (RuntimeException | Error ex) {
+            commandMetrics.stream()
+                .distinct()
+                .forEach(typeMetrics -> typeMetrics.failureCount.increment());
+            throw ex;
+        }
+    }
+}
@@ -20,28 +20,53 @@ import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.r
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.github.xerprojects.xerj.commandstack.CommandHandler;
 import io.github.xerprojects.xerj.commandstack.CommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.DirectCommandHandlerProvider;
 import io.github.xerprojects.xerj.commandstack.exceptions.DuplicateCommandHandlerFoundException;
+import io.github.xerprojects.xerj.commandstack.internal.jfr.JfrEvents;
 
 /**
  * Command handler provider that aggregates command handlers 
  * from one or more command handler providers.
  * 
+ * Each lookup in one of the aggregated providers is recorded as a JDK Flight Recorder 
+ * command handler resolution event of that provider if JDK Flight Recorder is available 
+ * and the event is enabled.
+ * 
  * @author Joel Jeremy Marquez
  */
-public class CompositeCommandHandlerProvider implements CommandHandlerProvider {
+public class CompositeCommandHandlerProvider implements DirectCommandHandlerProvider {
 
-	private final ArrayList<CommandHandlerProvider> providers = new ArrayList<>();
+	private final ChildProvider[] providers;
+	private final boolean memoizeCommandHandlerOwners;
+	private final ConcurrentHashMap<Class<?>, ChildProvider> commandHandlerOwners = 
+		new ConcurrentHashMap<>();
 
 	/**
 	 * Constructor.
 	 * @param providers Command handler providers to get command handlers from.
 	 */
 	public CompositeCommandHandlerProvider(Iterable<CommandHandlerProvider> providers) {
+		this(providers, false);
+	}
+
+	/**
+	 * Constructor.
+	 * @param providers Command handler providers to get command handlers from.
+	 * @param memoizeCommandHandlerOwners
+	 * Whether to remember which provider owns the command handler of each command type. 
+	 * If enabled, all providers are only consulted (and checked for duplicates) on the first lookup
+	 * of each command type and succeeding lookups will go straight to the owning provider.
+	 * If the owning provider stops providing a command handler, all providers are consulted again.
+	 * Command types which have no command handler are not remembered.
+	 * Only enable this if the providers' registrations do not overlap after the first lookup.
+	 */
+	public CompositeCommandHandlerProvider(
+			Iterable<CommandHandlerProvider> providers,
+			boolean memoizeCommandHandlerOwners) {
 		
 		requireNonNull(providers, "providers");
 
@@ -49,7 +74,11 @@ public class CompositeCommandHandlerProvider implements CommandHandlerProvider {
 			throw new IllegalArgumentException("Providers list must not be empty.");
 		}
 		
-		providers.forEach(this.providers::add);
+		List<ChildProvider> childProviders = new ArrayList<>();
+		providers.forEach(provider -> childProviders.add(new ChildProvider(provider)));
+
+		this.providers = childProviders.toArray(new ChildProvider[0]);
+		this.memoizeCommandHandlerOwners = memoizeCommandHandlerOwners;
 	}
 	
 	/**
@@ -57,24 +86,73 @@ public class CompositeCommandHandlerProvider implements CommandHandlerProvider {
 	 * @param <TCommand> The command type.
 	 * @param commandType The command type.
 	 * @return The command handler instance that is registered for the command type.
-	 * If there is no command handler was registered, an empty Optional will be returned.
+	 * If there is no command handler was registered, null will be returned.
 	 */
 	@Override
-	public <TCommand> Optional<CommandHandler<TCommand>> getCommandHandlerFor(
+	public <TCommand> CommandHandler<TCommand> getCommandHandlerOrNull(
 			Class<TCommand> commandType) {
 
 		requireNonNull(commandType, "commandType");
+
+		if (memoizeCommandHandlerOwners) {
+			ChildProvider owner = commandHandlerOwners.get(commandType);
+			if (owner != null) {
+				CommandHandler<TCommand> commandHandler = owner.getCommandHandlerOrNull(commandType);
+				if (commandHandler != null) {
+					return commandHandler;
+				}
+				// Owner no longer provides a command handler. Look through all providers again.
+				commandHandlerOwners.remove(commandType, owner);
+			}
+		}
 		
-		List<Optional<CommandHandler<TCommand>>> resolvedCommandHandlers = providers.stream()
-			.map(provider -> provider.getCommandHandlerFor(commandType))
-			.filter(handler -> handler.isPresent())
-			.collect(Collectors.toList());
-		
-		// Multiple resolvers have a registered command handler for the command.
-		if (resolvedCommandHandlers.size() > 1) {
-			throw new DuplicateCommandHandlerFoundException(commandType);
+		CommandHandler<TCommand> resolvedCommandHandler = null;
+		ChildProvider resolvedOwner = null;
+
+		for (ChildProvider provider : providers) {
+			CommandHandler<TCommand> commandHandler = provider.getCommandHandlerOrNull(commandType);
+			if (commandHandler == null) {
+				continue;
+			}
+
+			// Multiple resolvers have a registered command handler for the command.
+			if (resolvedCommandHandler != null) {
+				throw new DuplicateCommandHandlerFoundException(commandType);
+			}
+
+			resolvedCommandHandler = commandHandler;
+			resolvedOwner = provider;
+		}
+
+		if (memoizeCommandHandlerOwners && resolvedOwner != null) {
+			commandHandlerOwners.put(commandType, resolvedOwner);
 		}
 		
-		return resolvedCommandHandlers.get(0);
+		return resolvedCommandHandler;
+	}
+
+	/**
+	 * One of the aggregated providers.
+	 */
+	private static class ChildProvider {
+		private final DirectCommandHandlerProvider provider;
+		// The type of the provider before it was adapted to a direct provider.
+		private final Class<?> providerType;
+
+		ChildProvider(CommandHandlerProvider provider) {
+			this.provider = DirectCommandHandlerProvider.from(provider);
+			this.providerType = provider.getClass();
+		}
+
+		<TCommand> CommandHandler<TCommand> getCommandHandlerOrNull(Class<TCommand> commandType) {
+			Object resolutionEvent = JfrEvents.beginResolution();
+			CommandHandler<TCommand> commandHandler = null;
+			try {
+				commandHandler = provider.getCommandHandlerOrNull(commandType);
+			} finally {
+				JfrEvents.commitResolution(resolutionEvent, commandType, providerType, commandHandler);
+			}
+			return commandHandler;
+		}
 	}
 }
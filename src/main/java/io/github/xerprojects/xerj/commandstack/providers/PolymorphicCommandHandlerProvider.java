@@ -0,0 +1,186 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.providers;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.CommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.DirectCommandHandlerProvider;
+
+/**
+ * Command handler provider decorator that resolves command handlers that are registered
+ * for a supertype of the command type if there is no command handler registered for 
+ * the command type itself. This allows one registration to handle a whole command hierarchy
+ * e.g. subclasses, proxies or implementations of a (sealed) interface.
+ * 
+ * Command handlers are looked up in the following order:
+ * <ol>
+ * <li>The command type itself.</li>
+ * <li>The superclasses of the command type, starting from the nearest superclass
+ * ({@link Object} is excluded).</li>
+ * <li>The interfaces of the command type and its superclasses, in breadth-first order.
+ * Direct interfaces are looked up in declaration order and before their superinterfaces,
+ * and interfaces of the command type before interfaces of its superclasses.</li>
+ * </ol>
+ * 
+ * The hierarchy is only walked on the first resolution of each command type. On the first resolution,
+ * the decorated command handler provider is consulted for each candidate type until a command handler is found,
+ * which is then returned. The type which has a command handler (or the absence of one) is cached per command type 
+ * and all succeeding resolutions of the command type only consult the decorated command handler provider once.
+ * Cached entries can be invalidated via {@link #invalidateResolvedCommandType(Class)}.
+ * 
+ * Because the decorated command handler provider is consulted for candidate types which may not have 
+ * a command handler, it should return null for those instead of throwing. To require command handlers, 
+ * decorate this provider with {@link RequiredCommandHandlerProvider} instead of the other way around.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class PolymorphicCommandHandlerProvider implements DirectCommandHandlerProvider {
+
+    private final DirectCommandHandlerProvider decoratedCommandHandlerProvider;
+    private final ClassValue<Resolution> resolutions = new ClassValue<>() {
+        @Override
+        protected Resolution computeValue(Class<?> commandType) {
+            return resolve(commandType);
+        }
+    };
+
+    /**
+     * Constructor.
+     * @param decoratedCommandHandlerProvider Command handler provider to get command handlers from.
+     */
+    public PolymorphicCommandHandlerProvider(CommandHandlerProvider decoratedCommandHandlerProvider) {
+        this.decoratedCommandHandlerProvider = DirectCommandHandlerProvider.from(
+            requireNonNull(decoratedCommandHandlerProvider, "decoratedCommandHandlerProvider"));
+    }
+
+    /**
+     * Get command handler for the given command type or for the nearest supertype 
+     * of the command type that has a registered command handler.
+     * @param <TCommand> The command type.
+     * @param commandType The command type.
+     * @return The command handler instance that is registered for the command type 
+     * or one of its supertypes. If there is no command handler was registered, null will be returned.
+     */
+    @Override
+    public <TCommand> CommandHandler<TCommand> getCommandHandlerOrNull(Class<TCommand> commandType) {
+
+        requireNonNull(commandType, "commandType");
+
+        Resolution resolution = resolutions.get(commandType);
+        if (resolution == Resolution.NO_COMMAND_HANDLER) {
+            return null;
+        }
+
+        CommandHandler<?> commandHandler = resolution.takeFoundCommandHandler();
+        if (commandHandler == null) {
+            commandHandler = decoratedCommandHandlerProvider.getCommandHandlerOrNull(resolution.resolvedCommandType);
+        }
+
+        // A command handler of a supertype can handle all commands of its subtypes.
+        @SuppressWarnings("unchecked")
+        CommandHandler<TCommand> result = (CommandHandler<TCommand>)commandHandler;
+
+        return result;
+    }
+
+    /**
+     * Invalidate the cached resolution of the given command type. The command type's hierarchy
+     * will be walked again on the next resolution.
+     * @param commandType The command type whose cached resolution should be invalidated.
+     */
+    public void invalidateResolvedCommandType(Class<?> commandType) {
+        requireNonNull(commandType, "commandType");
+
+        resolutions.remove(commandType);
+    }
+
+    /**
+     * Get the types that are looked up for a command handler, in order of precedence.
+     * @param commandType The command type.
+     * @return The command type and its supertypes, in order of precedence.
+     */
+    static List<Class<?>> getCandidateTypes(Class<?> commandType) {
+        requireNonNull(commandType, "commandType");
+
+        List<Class<?>> classes = new ArrayList<>();
+        for (Class<?> type = commandType; type != null && type != Object.class; type = type.getSuperclass()) {
+            classes.add(type);
+        }
+
+        Set<Class<?>> candidateTypes = new LinkedHashSet<>(classes);
+        Queue<Class<?>> pendingInterfaces = new ArrayDeque<>();
+        for (Class<?> type : classes) {
+            Collections.addAll(pendingInterfaces, type.getInterfaces());
+        }
+
+        while (!pendingInterfaces.isEmpty()) {
+            Class<?> interfaceType = pendingInterfaces.remove();
+            if (candidateTypes.add(interfaceType)) {
+                Collections.addAll(pendingInterfaces, interfaceType.getInterfaces());
+            }
+        }
+
+        return new ArrayList<>(candidateTypes);
+    }
+
+    private Resolution resolve(Class<?> commandType) {
+        for (Class<?> candidateType : getCandidateTypes(commandType)) {
+            CommandHandler<?> commandHandler = decoratedCommandHandlerProvider.getCommandHandlerOrNull(candidateType);
+            if (commandHandler != null) {
+                return new Resolution(candidateType, commandHandler);
+            }
+        }
+        return Resolution.NO_COMMAND_HANDLER;
+    }
+
+    /**
+     * The resolved type of a command type i.e. the type which has a registered command handler.
+     */
+    private static class Resolution {
+        /**
+         * Cached for command types that have no registered command handler.
+         */
+        static final Resolution NO_COMMAND_HANDLER = new Resolution(null, null);
+
+        final Class<?> resolvedCommandType;
+        /**
+         * The command handler that was found while walking the hierarchy. 
+         * Only returned once so that it is not shared by multiple resolutions.
+         */
+        private final AtomicReference<CommandHandler<?>> foundCommandHandler;
+
+        Resolution(Class<?> resolvedCommandType, CommandHandler<?> foundCommandHandler) {
+            this.resolvedCommandType = resolvedCommandType;
+            this.foundCommandHandler = new AtomicReference<>(foundCommandHandler);
+        }
+
+        CommandHandler<?> takeFoundCommandHandler() {
+            return foundCommandHandler.getAndSet(null);
+        }
+    }
+}
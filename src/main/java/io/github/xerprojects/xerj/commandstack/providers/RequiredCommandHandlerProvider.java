@@ -18,10 +18,9 @@ package io.github.xerprojects.xerj.commandstack.providers;
 
 import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
 
-import java.util.Optional;
-
 import io.github.xerprojects.xerj.commandstack.CommandHandler;
 import io.github.xerprojects.xerj.commandstack.CommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.DirectCommandHandlerProvider;
 import io.github.xerprojects.xerj.commandstack.exceptions.CommandHandlerNotFoundException;
 
 /**
@@ -30,17 +29,17 @@ import io.github.xerprojects.xerj.commandstack.exceptions.CommandHandlerNotFound
  * 
  * @author Joel Jeremy Marquez
  */
-public class RequiredCommandHandlerProvider implements CommandHandlerProvider {
+public class RequiredCommandHandlerProvider implements DirectCommandHandlerProvider {
 
-    private final CommandHandlerProvider decoratedCommandHandlerProvider;
+    private final DirectCommandHandlerProvider decoratedCommandHandlerProvider;
 
     /**
      * Constructor.
      * @param decoratedCommandHandlerProvider Command handler provider to get command handlers from.
      */
     public RequiredCommandHandlerProvider(CommandHandlerProvider decoratedCommandHandlerProvider) {
-        this.decoratedCommandHandlerProvider = 
-            requireNonNull(decoratedCommandHandlerProvider, "decoratedCommandHandlerProvider");
+        this.decoratedCommandHandlerProvider = DirectCommandHandlerProvider.from(
+            requireNonNull(decoratedCommandHandlerProvider, "decoratedCommandHandlerProvider"));
     }
 
     /**
@@ -51,15 +50,15 @@ public class RequiredCommandHandlerProvider implements CommandHandlerProvider {
 	 * @return The command handler instance that is registered for the command type.
 	 */
     @Override
-    public <TCommand> Optional<CommandHandler<TCommand>> getCommandHandlerFor(
+    public <TCommand> CommandHandler<TCommand> getCommandHandlerOrNull(
             Class<TCommand> commandType) {
 
         requireNonNull(commandType, "commandType");
 
-        Optional<CommandHandler<TCommand>> result = 
-            decoratedCommandHandlerProvider.getCommandHandlerFor(commandType);
+        CommandHandler<TCommand> result = 
+            decoratedCommandHandlerProvider.getCommandHandlerOrNull(commandType);
         
-        if (!result.isPresent()) {
+        if (result == null) {
             throw new CommandHandlerNotFoundException(commandType);
         }
 
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.providers.registry;
+
+import java.util.function.Supplier;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.providers.registry.internal.PerDispatchLifetime;
+import io.github.xerprojects.xerj.commandstack.providers.registry.internal.PerThreadLifetime;
+import io.github.xerprojects.xerj.commandstack.providers.registry.internal.PooledLifetime;
+import io.github.xerprojects.xerj.commandstack.providers.registry.internal.SingletonLifetime;
+
+/**
+ * Controls how command handler instances that are created by a registered
+ * instance factory are reused across dispatches.
+ *
+ * @author Joel Jeremy Marquez
+ */
+public interface CommandHandlerLifetime {
+    /**
+     * Apply this lifetime to the command handler instance factory.
+     * @param <TCommand> The command type.
+     * @param commandType The command type.
+     * @param instanceFactory The registered command handler instance factory.
+     * @return The supplier which is called on every dispatch to get
+     * the command handler instance to use.
+     */
+    <TCommand> Supplier<CommandHandler<TCommand>> manage(
+        Class<TCommand> commandType,
+        Supplier<CommandHandler<TCommand>> instanceFactory);
+
+    /**
+     * A new command handler instance is created for every dispatch.
+     * This is the default lifetime.
+     * @return The per-dispatch lifetime.
+     */
+    static CommandHandlerLifetime perDispatch() {
+        return PerDispatchLifetime.INSTANCE;
+    }
+
+    /**
+     * A single command handler instance is created on first dispatch and
+     * is shared by all dispatches on all threads. Command handlers must be thread-safe.
+     * @return The singleton lifetime.
+     */
+    static CommandHandlerLifetime singleton() {
+        return SingletonLifetime.INSTANCE;
+    }
+
+    /**
+     * A command handler instance is created for each thread on the thread's first dispatch
+     * and is reused by all dispatches on that thread. Suitable for command handlers
+     * which are not thread-safe. Instances live as long as their threads do.
+     * @return The per-thread lifetime.
+     */
+    static CommandHandlerLifetime perThread() {
+        return PerThreadLifetime.INSTANCE;
+    }
+
+    /**
+     * Command handler instances are borrowed from a pool for the duration of
+     * {@link CommandHandler#handle(Object)} and returned afterwards so that each instance
+     * is only used by one thread at a time. Suitable for command handlers which are not thread-safe.
+     * @param maxPoolSize The maximum number of idle instances to keep in the pool.
+     * @return The pooled lifetime.
+     */
+    static CommandHandlerLifetime pooled(int maxPoolSize) {
+        return new PooledLifetime(maxPoolSize);
+    }
+
+    /**
+     * Command handler instances are borrowed from a pool for the duration of
+     * {@link CommandHandler#handle(Object)} and returned afterwards so that each instance
+     * is only used by one thread at a time. Instances which implement {@link ResettableCommandHandler}
+     * are reset before they are returned to the pool.
+     * @param maxPoolSize The maximum number of instances to keep in the pool.
+     * See {@link PoolExhaustionPolicy} for whether this limits idle instances or all instances.
+     * @param exhaustionPolicy The policy to apply when all instances are borrowed.
+     * @return The pooled lifetime.
+     */
+    static CommandHandlerLifetime pooled(int maxPoolSize, PoolExhaustionPolicy exhaustionPolicy) {
+        return new PooledLifetime(maxPoolSize, exhaustionPolicy);
+    }
+}
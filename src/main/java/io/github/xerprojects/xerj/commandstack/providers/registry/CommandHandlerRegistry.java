@@ -1,8 +1,13 @@
 package io.github.xerprojects.xerj.commandstack.providers.registry;
 
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.lang.invoke.MethodHandles;
 import java.util.function.Supplier;
 
 import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand;
+import io.github.xerprojects.xerj.commandstack.providers.registry.internal.CommandHandlerMethod;
 
 /**
  * Command handler regsitry.
@@ -11,7 +16,7 @@ import io.github.xerprojects.xerj.commandstack.CommandHandler;
  */
 public interface CommandHandlerRegistry {
     /**
-     * 
+     * Register command handler. A new command handler instance is created for every dispatch.
      * @param <TCommand> The command type.
      * @param commandType The command type.
      * @param instanceFactory Factory which returns an instance of 
@@ -21,4 +26,114 @@ public interface CommandHandlerRegistry {
     <TCommand> CommandHandlerRegistry registerCommandHandler(
         Class<TCommand> commandType,
         Supplier<CommandHandler<TCommand>> instanceFactory);
+
+    /**
+     * Register command handler with the given lifetime.
+     * @param <TCommand> The command type.
+     * @param commandType The command type.
+     * @param instanceFactory Factory which returns an instance of 
+     * a command handler that can handle commands of the given command type.
+     * @param lifetime The lifetime of the command handler instances 
+     * e.g. {@link CommandHandlerLifetime#singleton()}.
+     * @return This command handler registry instance.
+     */
+    default <TCommand> CommandHandlerRegistry registerCommandHandler(
+            Class<TCommand> commandType,
+            Supplier<CommandHandler<TCommand>> instanceFactory,
+            CommandHandlerLifetime lifetime) {
+        
+        requireNonNull(lifetime, "lifetime");
+
+        return registerCommandHandler(commandType, lifetime.manage(
+            requireNonNull(commandType, "commandType"), 
+            requireNonNull(instanceFactory, "instanceFactory")));
+    }
+
+    /**
+     * Register the methods which are marked with {@link HandlesCommand} and which are declared 
+     * by the class of the given object as command handlers. Instance methods are invoked on the given object.
+     * 
+     * Each method is bound to a {@link CommandHandler} once via {@link java.lang.invoke.LambdaMetafactory},
+     * so dispatching to a method costs the same as dispatching to a hand-written command handler.
+     * Marked methods must return void and must have the command as their only parameter.
+     * 
+     * @param lookup The lookup to bind the methods with. This must have private access and 
+     * must be able to access the methods e.g. the result of {@link MethodHandles#lookup()} 
+     * in the class which declares the methods.
+     * @param commandHandlers The object which declares the command handler methods.
+     * @return This command handler registry instance.
+     */
+    default CommandHandlerRegistry registerCommandHandlers(
+            MethodHandles.Lookup lookup, 
+            Object commandHandlers) {
+
+        requireNonNull(lookup, "lookup");
+        requireNonNull(commandHandlers, "commandHandlers");
+
+        for (CommandHandlerMethod<?> method : CommandHandlerMethod.findAll(lookup, commandHandlers.getClass())) {
+            registerCommandHandlerMethod(this, method, commandHandlers);
+        }
+
+        return this;
+    }
+
+    /**
+     * Register the methods which are marked with {@link HandlesCommand} and which are declared 
+     * by the given class as command handlers. Instance methods are invoked on instances which 
+     * are created by the instance factory and which are managed by the given lifetime. 
+     * The lifetime manages the instances of each method separately.
+     * 
+     * Each method is bound to a {@link CommandHandler} once via {@link java.lang.invoke.LambdaMetafactory},
+     * so dispatching to a method costs the same as dispatching to a hand-written command handler.
+     * Marked methods must return void and must have the command as their only parameter.
+     * 
+     * @param <T> The type which declares the command handler methods.
+     * @param lookup The lookup to bind the methods with. This must have private access and 
+     * must be able to access the methods e.g. the result of {@link MethodHandles#lookup()} 
+     * in the class which declares the methods.
+     * @param commandHandlersType The class which declares the command handler methods.
+     * @param instanceFactory Factory which returns an instance of the given class.
+     * @param lifetime The lifetime of the command handler instances 
+     * e.g. {@link CommandHandlerLifetime#singleton()}.
+     * @return This command handler registry instance.
+     */
+    default <T> CommandHandlerRegistry registerCommandHandlers(
+            MethodHandles.Lookup lookup, 
+            Class<T> commandHandlersType,
+            Supplier<? extends T> instanceFactory,
+            CommandHandlerLifetime lifetime) {
+
+        requireNonNull(lookup, "lookup");
+        requireNonNull(commandHandlersType, "commandHandlersType");
+        requireNonNull(instanceFactory, "instanceFactory");
+        requireNonNull(lifetime, "lifetime");
+
+        for (CommandHandlerMethod<?> method : CommandHandlerMethod.findAll(lookup, commandHandlersType)) {
+            registerCommandHandlerMethod(this, method, instanceFactory, lifetime);
+        }
+
+        return this;
+    }
+
+    private static <TCommand> void registerCommandHandlerMethod(
+            CommandHandlerRegistry registry,
+            CommandHandlerMethod<TCommand> method,
+            Object instance) {
+        // Bound once.
+        CommandHandler<TCommand> commandHandler = method.bindTo(instance);
+        registry.registerCommandHandler(method.getCommandType(), () -> commandHandler);
+    }
+
+    private static <TCommand> void registerCommandHandlerMethod(
+            CommandHandlerRegistry registry,
+            CommandHandlerMethod<TCommand> method,
+            Supplier<?> instanceFactory,
+            CommandHandlerLifetime lifetime) {
+        if (method.isStatic()) {
+            registerCommandHandlerMethod(registry, method, null);
+        } else {
+            registry.registerCommandHandler(method.getCommandType(), 
+                () -> method.bindTo(instanceFactory.get()), lifetime);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.providers.registry;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.time.Duration;
+
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+
+/**
+ * Determines what a pooled command handler does with a command that is dispatched
+ * while all of its command handler instances are borrowed.
+ * 
+ * @see CommandHandlerLifetime#pooled(int, PoolExhaustionPolicy)
+ * @author Joel Jeremy Marquez
+ */
+public final class PoolExhaustionPolicy {
+
+    /**
+     * The supported pool exhaustion policies.
+     */
+    public enum Kind {
+        /**
+         * See {@link PoolExhaustionPolicy#grow()}.
+         */
+        GROW,
+        /**
+         * See {@link PoolExhaustionPolicy#block(Duration)}.
+         */
+        BLOCK,
+        /**
+         * See {@link PoolExhaustionPolicy#fail()}.
+         */
+        FAIL
+    }
+
+    private static final PoolExhaustionPolicy GROW = new PoolExhaustionPolicy(Kind.GROW, Duration.ZERO);
+    private static final PoolExhaustionPolicy FAIL = new PoolExhaustionPolicy(Kind.FAIL, Duration.ZERO);
+
+    private final Kind kind;
+    private final Duration timeout;
+
+    private PoolExhaustionPolicy(Kind kind, Duration timeout) {
+        this.kind = kind;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Create a new command handler instance. The pool size only limits the number of 
+     * idle instances that are kept in the pool. Instances which are returned while the pool 
+     * is full are discarded. This is the default policy.
+     * @return The grow pool exhaustion policy.
+     */
+    public static PoolExhaustionPolicy grow() {
+        return GROW;
+    }
+
+    /**
+     * Wait until a command handler instance is returned to the pool. The pool size limits 
+     * the total number of instances. If there is still no instance after the timeout, 
+     * the command is rejected with a {@link CommandRejectedException}.
+     * @param timeout The maximum time to wait for an instance.
+     * @return The blocking pool exhaustion policy.
+     */
+    public static PoolExhaustionPolicy block(Duration timeout) {
+        requireNonNull(timeout, "timeout");
+        require(timeout, t -> t.isNegative(), "timeout argument must not be negative.");
+
+        return new PoolExhaustionPolicy(Kind.BLOCK, timeout);
+    }
+
+    /**
+     * Reject the command with a {@link CommandRejectedException}. 
+     * The pool size limits the total number of instances.
+     * @return The fail pool exhaustion policy.
+     */
+    public static PoolExhaustionPolicy fail() {
+        return FAIL;
+    }
+
+    /**
+     * The kind of pool exhaustion policy.
+     * @return The kind of pool exhaustion policy.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * The maximum time to wait for an instance. Only applies to {@link #block(Duration)}.
+     * @return The maximum time to wait for an instance.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.BLOCK ? "BLOCK(" + timeout + ")" : kind.name();
+    }
+}
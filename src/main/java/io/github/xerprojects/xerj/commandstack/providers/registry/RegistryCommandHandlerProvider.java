@@ -18,21 +18,25 @@ package io.github.xerprojects.xerj.commandstack.providers.registry;
 
 import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
 
-import java.util.Optional;
 import java.util.function.Consumer;
 
 import io.github.xerprojects.xerj.commandstack.CommandHandler;
-import io.github.xerprojects.xerj.commandstack.CommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.DirectCommandHandlerProvider;
 import io.github.xerprojects.xerj.commandstack.providers.registry.internal.ConcurrentHashMapRegistry;
+import io.github.xerprojects.xerj.commandstack.providers.registry.internal.FrozenRegistry;
 
 /**
  * Simple command handler provider that resolves command handlers via an internal map/registry.
  * 
+ * The registry is frozen as soon as the registry configuration returns i.e. registrations
+ * are compiled into a read-only lookup table and any attempts to register command handlers
+ * after construction will fail.
+ * 
  * @author Joel Jeremy Marquez
  */
-public class RegistryCommandHandlerProvider implements CommandHandlerProvider {
+public class RegistryCommandHandlerProvider implements DirectCommandHandlerProvider {
 
-	private final ConcurrentHashMapRegistry registry = new ConcurrentHashMapRegistry();
+	private final FrozenRegistry registry;
 
 	/**
 	 * Constructor.
@@ -40,7 +44,10 @@ public class RegistryCommandHandlerProvider implements CommandHandlerProvider {
 	 */
 	public RegistryCommandHandlerProvider(Consumer<CommandHandlerRegistry> registryConfiguration) {
 		requireNonNull(registryConfiguration, "registryConfiguration");
-		registryConfiguration.accept(registry);
+
+		ConcurrentHashMapRegistry registrations = new ConcurrentHashMapRegistry();
+		registryConfiguration.accept(registrations);
+		registry = registrations.freeze();
 	}
 
 	/**
@@ -48,14 +55,14 @@ public class RegistryCommandHandlerProvider implements CommandHandlerProvider {
 	 * @param <TCommand> The command type.
 	 * @param commandType The command type.
 	 * @return The command handler instance that is registered for the command type.
-	 * If there is no command handler was registered, an empty Optional will be returned.
+	 * If there is no command handler was registered, null will be returned.
 	 */
 	@Override
-	public <TCommand> Optional<CommandHandler<TCommand>> getCommandHandlerFor(
+	public <TCommand> CommandHandler<TCommand> getCommandHandlerOrNull(
 			Class<TCommand> commandType) {
 
 		requireNonNull(commandType, "commandType");
 
-		return registry.getCommandHandlerFor(commandType);
+		return registry.getCommandHandlerOrNull(commandType);
 	}
 }
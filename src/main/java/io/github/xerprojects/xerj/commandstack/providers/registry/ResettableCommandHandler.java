@@ -0,0 +1,35 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.providers.registry;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+
+/**
+ * Command handler which can be reset to a clean state so that it can be reused 
+ * by {@link CommandHandlerLifetime#pooled(int, PoolExhaustionPolicy)}.
+ * @param <TCommand> The command type.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public interface ResettableCommandHandler<TCommand> extends CommandHandler<TCommand> {
+    /**
+     * Clear any state that was left behind by the previous command e.g. buffers or parser state.
+     * This is called every time the command handler instance is returned to the pool.
+     * If this throws, the instance is discarded and the exception propagates to the dispatcher.
+     */
+    void reset();
+}
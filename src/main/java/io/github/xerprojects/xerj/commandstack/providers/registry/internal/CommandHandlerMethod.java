@@ -0,0 +1,172 @@
+package io.github.xerprojects.xerj.commandstack.providers.registry.internal;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
+
+/**
+ * Method which is marked with {@link HandlesCommand} and which is bound to a {@link CommandHandler}
+ * via {@link LambdaMetafactory}. The method is bound once so that command handlers which are created
+ * from the method are as fast as hand-written command handlers.
+ * @param <TCommand> The command type handled by the method.
+ *
+ * @author Joel Jeremy Marquez
+ */
+public class CommandHandlerMethod<TCommand> {
+
+    private static final MethodType HANDLE_METHOD_TYPE =
+        MethodType.methodType(void.class, Object.class);
+
+    private final Class<TCommand> commandType;
+    private final boolean isStatic;
+    // Creates command handlers. Takes the instance to bind to if the method is not static.
+    private final MethodHandle commandHandlerFactory;
+    // Static methods are bound to a single command handler.
+    private final CommandHandler<TCommand> staticCommandHandler;
+
+    private CommandHandlerMethod(Class<TCommand> commandType, boolean isStatic, MethodHandle commandHandlerFactory)
+            throws Throwable {
+        this.commandType = commandType;
+        this.isStatic = isStatic;
+        this.commandHandlerFactory = commandHandlerFactory;
+        this.staticCommandHandler = isStatic ? invokeFactory(null) : null;
+    }
+
+    /**
+     * Get the command type handled by the method.
+     * @return The command type.
+     */
+    public Class<TCommand> getCommandType() {
+        return commandType;
+    }
+
+    /**
+     * Whether the method is static.
+     * @return True if the method is static. Otherwise, false.
+     */
+    public boolean isStatic() {
+        return isStatic;
+    }
+
+    /**
+     * Create a command handler which invokes the method on the given instance.
+     * @param instance The instance to invoke the method on. Ignored if the method is static.
+     * @return The command handler.
+     */
+    public CommandHandler<TCommand> bindTo(Object instance) {
+        if (isStatic) {
+            return staticCommandHandler;
+        }
+
+        requireNonNull(instance, "instance");
+
+        try {
+            return invokeFactory(instance);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new CommandStackException("Failed to bind command handler method.", ex);
+        }
+    }
+
+    /**
+     * Find and bind all methods of the given class (excluding inherited methods)
+     * which are marked with {@link HandlesCommand}.
+     *
+     * Marked methods must return void, must not be generic and must have the command as
+     * their only parameter. They must also be accessible via the given lookup and the lookup
+     * must have private access e.g. the result of {@link MethodHandles#lookup()}
+     * in the class which declares the methods.
+     *
+     * This throws a {@link CommandStackException} if no methods are marked or if
+     * a marked method cannot be bound.
+     *
+     * @param lookup The lookup to bind the methods with.
+     * @param declaringClass The class which declares the marked methods.
+     * @return The bound methods.
+     */
+    public static List<CommandHandlerMethod<?>> findAll(MethodHandles.Lookup lookup, Class<?> declaringClass) {
+        requireNonNull(lookup, "lookup");
+        requireNonNull(declaringClass, "declaringClass");
+
+        List<CommandHandlerMethod<?>> commandHandlerMethods = new ArrayList<>();
+        for (Method method : declaringClass.getDeclaredMethods()) {
+            if (!method.isSynthetic() && method.isAnnotationPresent(HandlesCommand.class)) {
+                commandHandlerMethods.add(bind(lookup, method));
+            }
+        }
+
+        if (commandHandlerMethods.isEmpty()) {
+            throw new CommandStackException("No methods of " + declaringClass +
+                " are marked with @" + HandlesCommand.class.getSimpleName() + ".");
+        }
+
+        return commandHandlerMethods;
+    }
+
+    private static CommandHandlerMethod<?> bind(MethodHandles.Lookup lookup, Method method) {
+        if (method.getReturnType() != void.class ||
+                method.getParameterCount() != 1 ||
+                method.getTypeParameters().length > 0 ||
+                method.getParameterTypes()[0].isPrimitive()) {
+            throw new CommandStackException("Command handler method " + method +
+                " must return void, must not be generic and must have the command as its only parameter.");
+        }
+
+        Class<?> commandType = method.getParameterTypes()[0];
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+
+        try {
+            // The lambda class is defined in the caller's class. Before JDK 15, a lambda class cannot
+            // access private methods of its caller's nestmates, so the method's declaring class is used
+            // as the caller. This keeps private access as long as the lookup has private access to a class
+            // nested in the same top-level class.
+            MethodHandles.Lookup caller = lookup.in(method.getDeclaringClass());
+            if ((caller.lookupModes() & MethodHandles.Lookup.PRIVATE) == 0) {
+                throw new IllegalAccessException("Lookup " + lookup + " has no private access to " +
+                    method.getDeclaringClass() + ".");
+            }
+
+            MethodHandle target = caller.unreflect(method);
+
+            // Static methods capture nothing. Instance methods capture the instance to invoke the method on.
+            MethodType factoryType = isStatic ?
+                MethodType.methodType(CommandHandler.class) :
+                MethodType.methodType(CommandHandler.class, method.getDeclaringClass());
+
+            MethodHandle commandHandlerFactory = LambdaMetafactory.metafactory(
+                caller,
+                "handle",
+                factoryType,
+                HANDLE_METHOD_TYPE,
+                target,
+                MethodType.methodType(void.class, commandType))
+                .getTarget();
+
+            return new CommandHandlerMethod<>(commandType, isStatic, commandHandlerFactory);
+        } catch (Throwable ex) {
+            throw new CommandStackException("Failed to bind command handler method " + method +
+                ". Please make sure that the method is accessible via the given lookup and " +
+                "that the lookup has private access e.g. MethodHandles.lookup() " +
+                "in the class which declares the method.", ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CommandHandler<TCommand> invokeFactory(Object instance) throws Throwable {
+        return isStatic ?
+            (CommandHandler<TCommand>)commandHandlerFactory.invoke() :
+            (CommandHandler<TCommand>)commandHandlerFactory.invoke(instance);
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.xerprojects.xerj.commandstack.providers.registry.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+import io.github.xerprojects.xerj.commandstack.providers.registry.PoolExhaustionPolicy;
+import io.github.xerprojects.xerj.commandstack.providers.registry.ResettableCommandHandler;
+
+/**
+ * Lock-free bounded pool of command handler instances. Idle instances are kept in a fixed 
+ * number of slots which are claimed and filled via compare-and-set. Each thread starts scanning 
+ * the slots at a different index so that concurrent threads rarely contend for the same slot.
+ * @param <TCommand> The command type.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class CommandHandlerPool<TCommand> {
+
+    private static final int SPIN_TRIES = 64;
+    private static final long PARK_NANOS = 10_000;
+
+    private final Class<TCommand> commandType;
+    private final Supplier<CommandHandler<TCommand>> instanceFactory;
+    private final PoolExhaustionPolicy exhaustionPolicy;
+    private final boolean isBounded;
+    private final AtomicReferenceArray<CommandHandler<TCommand>> idleInstances;
+    // Only counted if the pool is bounded i.e. if instances are not created on demand.
+    private final AtomicInteger createdInstances = new AtomicInteger();
+
+    /**
+     * Constructor.
+     * @param commandType The command type.
+     * @param instanceFactory The command handler instance factory.
+     * @param maxPoolSize The maximum number of instances to keep in the pool.
+     * @param exhaustionPolicy The policy to apply when all instances are borrowed.
+     */
+    public CommandHandlerPool(
+            Class<TCommand> commandType,
+            Supplier<CommandHandler<TCommand>> instanceFactory,
+            int maxPoolSize,
+            PoolExhaustionPolicy exhaustionPolicy) {
+        this.commandType = commandType;
+        this.instanceFactory = instanceFactory;
+        this.exhaustionPolicy = exhaustionPolicy;
+        this.isBounded = exhaustionPolicy.getKind() != PoolExhaustionPolicy.Kind.GROW;
+        this.idleInstances = new AtomicReferenceArray<>(maxPoolSize);
+    }
+
+    /**
+     * Borrow an idle instance or create a new one if the pool has not been exhausted.
+     * If the pool has been exhausted, the pool exhaustion policy is applied.
+     * @return The borrowed instance which must be returned via {@link #release(CommandHandler)}.
+     */
+    public CommandHandler<TCommand> borrow() {
+        CommandHandler<TCommand> instance = pollIdle();
+        if (instance != null) {
+            return instance;
+        }
+
+        switch (exhaustionPolicy.getKind()) {
+            case BLOCK:
+                return borrowOrWait();
+            case FAIL:
+                instance = borrowOrCreate();
+                if (instance == null) {
+                    throw new CommandRejectedException(commandType, 
+                        "All " + idleInstances.length() + " pooled command handler instances of " + 
+                        commandType + " are in use.");
+                }
+                return instance;
+            case GROW:
+            default:
+                return instanceFactory.get();
+        }
+    }
+
+    /**
+     * Reset the instance if it is a {@link ResettableCommandHandler} and return it to the pool.
+     * The instance is discarded if the reset fails or if the pool is full.
+     * @param instance The borrowed instance.
+     */
+    public void release(CommandHandler<TCommand> instance) {
+        if (instance instanceof ResettableCommandHandler) {
+            try {
+                ((ResettableCommandHandler<TCommand>)instance).reset();
+            } catch (RuntimeException | Error ex) {
+                discard();
+                throw ex;
+            }
+        }
+
+        if (!offerIdle(instance)) {
+            discard();
+        }
+    }
+
+    private CommandHandler<TCommand> borrowOrWait() {
+        long timeoutNanos = exhaustionPolicy.getTimeout().toNanos();
+        long deadline = System.nanoTime() + timeoutNanos;
+
+        for (int tries = 0;; tries++) {
+            CommandHandler<TCommand> instance = borrowOrCreate();
+            if (instance != null) {
+                return instance;
+            }
+
+            if (System.nanoTime() - deadline >= 0) {
+                throw new CommandRejectedException(commandType, 
+                    "No pooled command handler instance of " + commandType + 
+                    " was returned after " + exhaustionPolicy.getTimeout() + ".");
+            }
+
+            if (tries < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                // Borrowers are not woken up when instances are returned so they wait in short naps.
+                LockSupport.parkNanos(this, PARK_NANOS);
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    throw new CommandRejectedException(commandType, 
+                        "Interrupted while waiting for a pooled command handler instance.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Poll an idle instance or create a new one if the pool is not yet full.
+     * @return The instance or null if all instances are borrowed.
+     */
+    private CommandHandler<TCommand> borrowOrCreate() {
+        CommandHandler<TCommand> instance = pollIdle();
+        if (instance != null) {
+            return instance;
+        }
+
+        int created;
+        while ((created = createdInstances.get()) < idleInstances.length()) {
+            if (createdInstances.compareAndSet(created, created + 1)) {
+                try {
+                    return instanceFactory.get();
+                } catch (RuntimeException | Error ex) {
+                    createdInstances.decrementAndGet();
+                    throw ex;
+                }
+            }
+        }
+
+        // Another thread may have returned an instance while we were counting.
+        return pollIdle();
+    }
+
+    private CommandHandler<TCommand> pollIdle() {
+        int slotCount = idleInstances.length();
+        int start = startIndex(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            int slot = (start + i) % slotCount;
+            CommandHandler<TCommand> instance = idleInstances.get(slot);
+            if (instance != null && idleInstances.compareAndSet(slot, instance, null)) {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    private boolean offerIdle(CommandHandler<TCommand> instance) {
+        int slotCount = idleInstances.length();
+        int start = startIndex(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            int slot = (start + i) % slotCount;
+            if (idleInstances.get(slot) == null && idleInstances.compareAndSet(slot, null, instance)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Free up room for a new instance if the pool is bounded.
+     */
+    private void discard() {
+        if (isBounded) {
+            createdInstances.decrementAndGet();
+        }
+    }
+
+    private static int startIndex(int slotCount) {
+        int hash = Long.hashCode(Thread.currentThread().getId());
+        // Spread the bits so threads with consecutive ids do not start on neighbouring slots only.
+        hash *= 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), slotCount);
+    }
+}
@@ -2,29 +2,37 @@ package io.github.xerprojects.xerj.commandstack.providers.registry.internal;
 
 import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
 
-import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import io.github.xerprojects.xerj.commandstack.CommandHandler;
-import io.github.xerprojects.xerj.commandstack.CommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.DirectCommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
 import io.github.xerprojects.xerj.commandstack.exceptions.DuplicateCommandHandlerRegistrationException;
+import io.github.xerprojects.xerj.commandstack.providers.registry.CommandHandlerLifetime;
 import io.github.xerprojects.xerj.commandstack.providers.registry.CommandHandlerRegistry;
 
 /**
  * Default internal implementation of {@link CommandHandlerRegistry}
  * which stores registrations via a {@link ConcurrentHashMap}.
  * 
+ * Once all command handlers have been registered, the registry can be frozen via
+ * {@link #freeze()} which compiles the registrations into a read-only {@link FrozenRegistry}
+ * that is optimized for lookups. No more registrations are accepted after that.
+ * 
  * @author Joel Jeremy Marquez
  */
-public class ConcurrentHashMapRegistry implements CommandHandlerRegistry, CommandHandlerProvider {
+public class ConcurrentHashMapRegistry implements CommandHandlerRegistry, DirectCommandHandlerProvider {
 
     private final ConcurrentHashMap<Class<?>, RegisteredCommandHandler<?>>
         registeredHandlers = new ConcurrentHashMap<>();
+    
+    private FrozenRegistry frozenRegistry;
 
     /**
      * Register command handler. This will throw a {@link DuplicateCommandHandlerRegistrationException}
-     * when a command is registered more than once.
+     * when a command is registered more than once and a {@link CommandStackException}
+     * when the registry has already been frozen.
      * @param <TCommand> The command type.
      * @param commandType The command type.
      * @param instanceFactory Factory which returns an instance of 
@@ -35,16 +43,42 @@ public class ConcurrentHashMapRegistry implements CommandHandlerRegistry, Comman
     public <TCommand> CommandHandlerRegistry registerCommandHandler(
             Class<TCommand> commandType,
             Supplier<CommandHandler<TCommand>> instanceFactory) {
+        return registerCommandHandler(commandType, instanceFactory, CommandHandlerLifetime.perDispatch());
+    }
+
+    /**
+     * Register command handler. This will throw a {@link DuplicateCommandHandlerRegistrationException}
+     * when a command is registered more than once and a {@link CommandStackException}
+     * when the registry has already been frozen.
+     * @param <TCommand> The command type.
+     * @param commandType The command type.
+     * @param instanceFactory Factory which returns an instance of 
+     * a command handler that can handle commands of the given command type.
+     * @param lifetime The lifetime of the command handler instances.
+     * @return This command handler registry instance.
+     */
+    @Override
+    public synchronized <TCommand> CommandHandlerRegistry registerCommandHandler(
+            Class<TCommand> commandType,
+            Supplier<CommandHandler<TCommand>> instanceFactory,
+            CommandHandlerLifetime lifetime) {
 
         requireNonNull(commandType, "commandType");
         requireNonNull(instanceFactory, "instanceFactory");
+        requireNonNull(lifetime, "lifetime");
+
+        if (frozenRegistry != null) {
+            throw new CommandStackException(
+                "Command handler registry has already been frozen. Unable to register command handler for " +
+                commandType + ". Please register all command handlers during configuration.");
+        }
 
         if (registeredHandlers.containsKey(commandType)) {
             throw new DuplicateCommandHandlerRegistrationException(commandType);
         }
 
         registeredHandlers.put(commandType, 
-            new RegisteredCommandHandler<>(commandType, instanceFactory));
+            new RegisteredCommandHandler<>(commandType, instanceFactory, lifetime));
 
         return this;
     }
@@ -54,10 +88,10 @@ public class ConcurrentHashMapRegistry implements CommandHandlerRegistry, Comman
      * @param <TCommand> The command type.
      * @param commandType The command type.
 	 * @return The command handler instance that is registered for the command type.
-	 * If there is no command handler was registered, an empty Optional will be returned.
+	 * If there is no command handler was registered, null will be returned.
      */
     @Override
-    public <TCommand> Optional<CommandHandler<TCommand>> getCommandHandlerFor(
+    public <TCommand> CommandHandler<TCommand> getCommandHandlerOrNull(
             Class<TCommand> commandType) {
         
         @SuppressWarnings("unchecked")
@@ -65,9 +99,22 @@ public class ConcurrentHashMapRegistry implements CommandHandlerRegistry, Comman
             (RegisteredCommandHandler<TCommand>)registeredHandlers.get(commandType);
 
         if (registeredHandler == null) {
-            return Optional.empty();
+            return null;
         }
 
-        return Optional.of(registeredHandler.getInstance());
+        return registeredHandler.getInstance();
+    }
+
+    /**
+     * Compile the registrations into a read-only {@link FrozenRegistry}.
+     * Once frozen, this registry will no longer accept registrations.
+     * Calling this method more than once returns the same snapshot.
+     * @return The read-only snapshot of the registrations.
+     */
+    public synchronized FrozenRegistry freeze() {
+        if (frozenRegistry == null) {
+            frozenRegistry = new FrozenRegistry(registeredHandlers.values());
+        }
+        return frozenRegistry;
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package io.github.xerprojects.xerj.commandstack.providers.registry.internal;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.Collection;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.DirectCommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.exceptions.DuplicateCommandHandlerRegistrationException;
+
+/**
+ * Read-only snapshot of command handler registrations which is created by
+ * {@link ConcurrentHashMapRegistry#freeze()}.
+ *
+ * Registrations are stored in an identity-based open addressing table
+ * (command types and registrations are interleaved in a single array and collisions
+ * are resolved via linear probing). The table is never modified after construction
+ * so lookups are plain array reads with no locking, volatile reads or equals() calls.
+ *
+ * @author Joel Jeremy Marquez
+ */
+public class FrozenRegistry implements DirectCommandHandlerProvider {
+
+    /**
+     * Golden ratio constant used to spread identity hash codes across the table.
+     */
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    /**
+     * Even indices hold the command types, odd indices hold the registrations.
+     */
+    private final Object[] table;
+    private final int shift;
+    private final int size;
+
+    /**
+     * Constructor.
+     * @param registeredHandlers The registrations to include in the snapshot.
+     * Each command type must only be registered once.
+     */
+    public FrozenRegistry(Collection<RegisteredCommandHandler<?>> registeredHandlers) {
+        requireNonNull(registeredHandlers, "registeredHandlers");
+
+        // Keep the load factor at or below 50% so probe sequences stay short.
+        int capacity = Integer.highestOneBit(Math.max(2, registeredHandlers.size()) * 2 - 1) << 1;
+
+        this.table = new Object[capacity * 2];
+        this.shift = Integer.numberOfLeadingZeros(capacity - 1);
+        this.size = registeredHandlers.size();
+
+        for (RegisteredCommandHandler<?> registeredHandler : registeredHandlers) {
+            insert(registeredHandler);
+        }
+    }
+
+    /**
+     * Get the number of registrations in this snapshot.
+     * @return The number of registrations.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the registration of the given command type.
+     * @param <TCommand> The command type.
+     * @param commandType The command type.
+     * @return The registration of the command type or {@code null}
+     * if no command handler was registered for the command type.
+     */
+    public <TCommand> RegisteredCommandHandler<TCommand> getRegisteredCommandHandler(
+            Class<TCommand> commandType) {
+
+        Object[] table = this.table;
+        int mask = table.length - 1;
+        int index = indexFor(commandType);
+
+        Object key;
+        while ((key = table[index]) != null) {
+            if (key == commandType) {
+                @SuppressWarnings("unchecked")
+                RegisteredCommandHandler<TCommand> registeredHandler =
+                    (RegisteredCommandHandler<TCommand>)table[index + 1];
+                return registeredHandler;
+            }
+            index = (index + 2) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Get command handler for the given command type.
+     * @param <TCommand> The command type.
+     * @param commandType The command type.
+     * @return The command handler instance that is registered for the command type
+     * or {@code null} if no command handler was registered for the command type.
+     */
+    @Override
+    public <TCommand> CommandHandler<TCommand> getCommandHandlerOrNull(
+            Class<TCommand> commandType) {
+
+        RegisteredCommandHandler<TCommand> registeredHandler =
+            getRegisteredCommandHandler(commandType);
+
+        if (registeredHandler == null) {
+            return null;
+        }
+
+        return registeredHandler.getInstance();
+    }
+
+    private void insert(RegisteredCommandHandler<?> registeredHandler) {
+        Class<?> commandType = registeredHandler.getCommandType();
+        int mask = table.length - 1;
+        int index = indexFor(commandType);
+
+        while (table[index] != null) {
+            if (table[index] == commandType) {
+                throw new DuplicateCommandHandlerRegistrationException(commandType);
+            }
+            index = (index + 2) & mask;
+        }
+
+        table[index] = commandType;
+        table[index + 1] = registeredHandler;
+    }
+
+    private int indexFor(Class<?> commandType) {
+        // Fibonacci hashing: take the top bits of the multiplied identity hash code.
+        // Shifted left by one so the index always points to a key slot.
+        return ((System.identityHashCode(commandType) * HASH_MULTIPLIER) >>> shift) << 1;
+    }
+}
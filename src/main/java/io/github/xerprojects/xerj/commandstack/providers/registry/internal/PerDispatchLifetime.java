@@ -0,0 +1,41 @@
+package io.github.xerprojects.xerj.commandstack.providers.registry.internal;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.function.Supplier;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.providers.registry.CommandHandlerLifetime;
+
+/**
+ * {@link CommandHandlerLifetime} which creates a new command handler instance for every dispatch.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class PerDispatchLifetime implements CommandHandlerLifetime {
+
+    /**
+     * Shared instance. This lifetime is stateless.
+     */
+    public static final PerDispatchLifetime INSTANCE = new PerDispatchLifetime();
+
+    private PerDispatchLifetime() {}
+
+    /**
+     * Returns the instance factory as is.
+     * @param <TCommand> The command type.
+     * @param commandType The command type.
+     * @param instanceFactory The registered command handler instance factory.
+     * @return The instance factory.
+     */
+    @Override
+    public <TCommand> Supplier<CommandHandler<TCommand>> manage(
+            Class<TCommand> commandType,
+            Supplier<CommandHandler<TCommand>> instanceFactory) {
+
+        requireNonNull(commandType, "commandType");
+        requireNonNull(instanceFactory, "instanceFactory");
+
+        return instanceFactory;
+    }
+}
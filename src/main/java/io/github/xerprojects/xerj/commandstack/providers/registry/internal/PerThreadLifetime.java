@@ -0,0 +1,42 @@
+package io.github.xerprojects.xerj.commandstack.providers.registry.internal;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.function.Supplier;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.providers.registry.CommandHandlerLifetime;
+
+/**
+ * {@link CommandHandlerLifetime} which lazily creates a command handler instance per thread.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class PerThreadLifetime implements CommandHandlerLifetime {
+
+    /**
+     * Shared instance. This lifetime is stateless.
+     */
+    public static final PerThreadLifetime INSTANCE = new PerThreadLifetime();
+
+    private PerThreadLifetime() {}
+
+    /**
+     * Store instances created by the instance factory in a {@link ThreadLocal}.
+     * @param <TCommand> The command type.
+     * @param commandType The command type.
+     * @param instanceFactory The registered command handler instance factory.
+     * @return The thread-local backed supplier.
+     */
+    @Override
+    public <TCommand> Supplier<CommandHandler<TCommand>> manage(
+            Class<TCommand> commandType,
+            Supplier<CommandHandler<TCommand>> instanceFactory) {
+
+        requireNonNull(commandType, "commandType");
+        requireNonNull(instanceFactory, "instanceFactory");
+
+        ThreadLocal<CommandHandler<TCommand>> instances = ThreadLocal.withInitial(instanceFactory);
+        return instances::get;
+    }
+}
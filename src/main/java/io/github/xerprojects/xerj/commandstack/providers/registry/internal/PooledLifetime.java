@@ -0,0 +1,147 @@
+package io.github.xerprojects.xerj.commandstack.providers.registry.internal;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.require;
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.github.xerprojects.xerj.commandstack.BatchCommandHandler;
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.providers.registry.CommandHandlerLifetime;
+import io.github.xerprojects.xerj.commandstack.providers.registry.PoolExhaustionPolicy;
+import io.github.xerprojects.xerj.commandstack.providers.registry.ResettableCommandHandler;
+
+/**
+ * {@link CommandHandlerLifetime} which borrows command handler instances from a pool 
+ * for the duration of {@link CommandHandler#handle(Object)} or {@link BatchCommandHandler#handleAll(List)}.
+ * The pool is lock-free so borrowing and returning instances does not serialize concurrent dispatches.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class PooledLifetime implements CommandHandlerLifetime {
+
+    private final int maxPoolSize;
+    private final PoolExhaustionPolicy exhaustionPolicy;
+
+    /**
+     * Constructor.
+     * @param maxPoolSize The maximum number of idle instances to keep in the pool.
+     */
+    public PooledLifetime(int maxPoolSize) {
+        this(maxPoolSize, PoolExhaustionPolicy.grow());
+    }
+
+    /**
+     * Constructor.
+     * @param maxPoolSize The maximum number of instances to keep in the pool.
+     * @param exhaustionPolicy The policy to apply when all instances are borrowed.
+     */
+    public PooledLifetime(int maxPoolSize, PoolExhaustionPolicy exhaustionPolicy) {
+        this.maxPoolSize = require(maxPoolSize, size -> size < 1, 
+            "maxPoolSize argument must be greater than zero.");
+        this.exhaustionPolicy = requireNonNull(exhaustionPolicy, "exhaustionPolicy");
+    }
+
+    /**
+     * Get the maximum number of instances to keep in the pool.
+     * @return The maximum number of instances to keep in the pool.
+     */
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    /**
+     * Get the policy to apply when all instances are borrowed.
+     * @return The policy to apply when all instances are borrowed.
+     */
+    public PoolExhaustionPolicy getExhaustionPolicy() {
+        return exhaustionPolicy;
+    }
+
+    /**
+     * Create a pooling command handler. The pooling command handler borrows an idle instance
+     * (or creates a new one if the pool has not been exhausted) whenever it handles a command and
+     * returns the instance to the pool afterwards. Instances which implement 
+     * {@link ResettableCommandHandler} are reset before they are returned.
+     * @param <TCommand> The command type.
+     * @param commandType The command type.
+     * @param instanceFactory The registered command handler instance factory.
+     * @return The supplier which always returns the pooling command handler.
+     */
+    @Override
+    public <TCommand> Supplier<CommandHandler<TCommand>> manage(
+            Class<TCommand> commandType,
+            Supplier<CommandHandler<TCommand>> instanceFactory) {
+
+        requireNonNull(commandType, "commandType");
+        requireNonNull(instanceFactory, "instanceFactory");
+
+        CommandHandler<TCommand> poolingHandler = 
+            new PoolingCommandHandler<>(
+                new CommandHandlerPool<>(commandType, instanceFactory, maxPoolSize, exhaustionPolicy));
+
+        return () -> poolingHandler;
+    }
+
+    private static class PoolingCommandHandler<TCommand> implements BatchCommandHandler<TCommand> {
+
+        private final CommandHandlerPool<TCommand> pool;
+
+        public PoolingCommandHandler(CommandHandlerPool<TCommand> pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void handle(TCommand command) {
+            CommandHandler<TCommand> instance = pool.borrow();
+
+            try {
+                instance.handle(command);
+            } catch (RuntimeException | Error ex) {
+                releaseAfterFailure(instance, ex);
+                throw ex;
+            }
+
+            pool.release(instance);
+        }
+
+        /**
+         * Borrow a single instance for the whole batch. Batches are forwarded
+         * as is if the instance is a {@link BatchCommandHandler}.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void handleAll(List<TCommand> commands) {
+            CommandHandler<TCommand> instance = pool.borrow();
+
+            try {
+                if (instance instanceof BatchCommandHandler) {
+                    ((BatchCommandHandler<TCommand>)instance).handleAll(commands);
+                } else {
+                    for (TCommand command : commands) {
+                        instance.handle(command);
+                    }
+                }
+            } catch (RuntimeException | Error ex) {
+                releaseAfterFailure(instance, ex);
+                throw ex;
+            }
+
+            pool.release(instance);
+        }
+
+        /**
+         * Return the instance to the pool after it failed to handle a command. If the instance
+         * also fails to reset, the reset failure is suppressed so that the handling failure is the one 
+         * that is propagated. The instance is discarded in that case.
+         */
+        private void releaseAfterFailure(CommandHandler<TCommand> instance, Throwable handlingFailure) {
+            try {
+                pool.release(instance);
+            } catch (RuntimeException | Error ex) {
+                handlingFailure.addSuppressed(ex);
+            }
+        }
+    }
+}
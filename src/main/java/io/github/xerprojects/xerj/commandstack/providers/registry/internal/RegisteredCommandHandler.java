@@ -6,6 +6,7 @@ import java.util.function.Supplier;
 
 import io.github.xerprojects.xerj.commandstack.CommandHandler;
 import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
+import io.github.xerprojects.xerj.commandstack.providers.registry.CommandHandlerLifetime;
 
 /**
  * Stores the command handler instance factory that is mapped to a command type.
@@ -17,18 +18,35 @@ public class RegisteredCommandHandler<TCommand> {
 		
     private final Class<TCommand> commandType;
     private final Supplier<CommandHandler<TCommand>> commandHandlerInstanceFactory;
+    private final Supplier<CommandHandler<TCommand>> managedInstanceFactory;
      
     /**
-     * Constructor.
+     * Constructor. A new command handler instance will be created for every dispatch.
      * @param commandType The command type.
      * @param commandHandlerInstanceFactory Command handler instance factory.
      */
     public RegisteredCommandHandler(
             Class<TCommand> commandType, 
             Supplier<CommandHandler<TCommand>> commandHandlerInstanceFactory) {
+        this(commandType, commandHandlerInstanceFactory, CommandHandlerLifetime.perDispatch());
+    }
+
+    /**
+     * Constructor.
+     * @param commandType The command type.
+     * @param commandHandlerInstanceFactory Command handler instance factory.
+     * @param lifetime The lifetime of the command handler instances.
+     */
+    public RegisteredCommandHandler(
+            Class<TCommand> commandType, 
+            Supplier<CommandHandler<TCommand>> commandHandlerInstanceFactory,
+            CommandHandlerLifetime lifetime) {
         this.commandType = requireNonNull(commandType, "commandType");
         this.commandHandlerInstanceFactory = 
             requireNonNull(commandHandlerInstanceFactory, "commandHandlerInstanceFactory");
+        this.managedInstanceFactory = requireNonNull(
+            requireNonNull(lifetime, "lifetime").manage(commandType, this::createInstance),
+            "managedInstanceFactory");
     }
 
     /**
@@ -40,7 +58,8 @@ public class RegisteredCommandHandler<TCommand> {
     }
     
     /**
-     * Get a command handler instance.
+     * Get a command handler instance. Whether a new instance is created or an existing one
+     * is reused depends on the lifetime of this registration.
      * 
      * This will validate the command handler instance returned by the command handler instance factory
      * and will throw a {@link CommandStackException} if:
@@ -51,6 +70,10 @@ public class RegisteredCommandHandler<TCommand> {
      * @return The command handler instance that can handle the registered comand type.
      */
     public CommandHandler<TCommand> getInstance() {
+        return managedInstanceFactory.get();
+    }
+
+    private CommandHandler<TCommand> createInstance() {
         CommandHandler<TCommand> instance;
         try {
             instance = commandHandlerInstanceFactory.get();
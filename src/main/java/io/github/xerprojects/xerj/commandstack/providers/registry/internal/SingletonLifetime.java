@@ -0,0 +1,69 @@
+package io.github.xerprojects.xerj.commandstack.providers.registry.internal;
+
+import static io.github.xerprojects.xerj.commandstack.internal.utils.Arguments.requireNonNull;
+
+import java.util.function.Supplier;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.providers.registry.CommandHandlerLifetime;
+
+/**
+ * {@link CommandHandlerLifetime} which lazily creates a single command handler instance
+ * that is shared by all dispatches.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class SingletonLifetime implements CommandHandlerLifetime {
+
+    /**
+     * Shared instance. This lifetime is stateless.
+     */
+    public static final SingletonLifetime INSTANCE = new SingletonLifetime();
+
+    private SingletonLifetime() {}
+
+    /**
+     * Memoize the instance factory. The instance factory is called at most once 
+     * unless it throws an exception or returns null, in which case it will be called
+     * again on the next dispatch.
+     * @param <TCommand> The command type.
+     * @param commandType The command type.
+     * @param instanceFactory The registered command handler instance factory.
+     * @return The memoizing supplier.
+     */
+    @Override
+    public <TCommand> Supplier<CommandHandler<TCommand>> manage(
+            Class<TCommand> commandType,
+            Supplier<CommandHandler<TCommand>> instanceFactory) {
+
+        requireNonNull(commandType, "commandType");
+        requireNonNull(instanceFactory, "instanceFactory");
+
+        return new MemoizingSupplier<>(instanceFactory);
+    }
+
+    private static class MemoizingSupplier<TCommand> implements Supplier<CommandHandler<TCommand>> {
+
+        private final Supplier<CommandHandler<TCommand>> instanceFactory;
+        private volatile CommandHandler<TCommand> instance;
+
+        public MemoizingSupplier(Supplier<CommandHandler<TCommand>> instanceFactory) {
+            this.instanceFactory = instanceFactory;
+        }
+
+        @Override
+        public CommandHandler<TCommand> get() {
+            CommandHandler<TCommand> result = instance;
+            if (result == null) {
+                synchronized (this) {
+                    result = instance;
+                    if (result == null) {
+                        result = instanceFactory.get();
+                        instance = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -15,12 +15,20 @@
  */
 
 module io.github.xerprojects.xerj.commandstack {
+    requires static java.compiler;
+    requires static jdk.jfr;
+
     exports io.github.xerprojects.xerj.commandstack;
+    exports io.github.xerprojects.xerj.commandstack.annotations;
     exports io.github.xerprojects.xerj.commandstack.dispatchers;
     exports io.github.xerprojects.xerj.commandstack.dispatchers.async;
     exports io.github.xerprojects.xerj.commandstack.exceptions;
+    exports io.github.xerprojects.xerj.commandstack.metrics;
     exports io.github.xerprojects.xerj.commandstack.providers;
     exports io.github.xerprojects.xerj.commandstack.providers.registry;
     exports io.github.xerprojects.xerj.commandstack.providers.registry.internal 
         to io.github.xerprojects.xerj.commandstack.providers.registry;
-}
\ No newline at end of file
+
+    provides javax.annotation.processing.Processor 
+        with io.github.xerprojects.xerj.commandstack.internal.processing.CommandHandlerProcessor;
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2021 Joel Jeremy Marquez
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.xerprojects.xerj.commandstack.internal.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual thread utilities.
+ * 
+ * This is the Java 21 version which is packaged under {@code META-INF/versions/21} 
+ * of the multi-release jar.
+ * 
+ * @author Joel Jeremy Marquez
+ */
+public class VirtualThreads {
+    private VirtualThreads() {}
+
+    /**
+     * Check if threads created by {@link #newThreadPerTaskExecutor(String, int)} are virtual threads.
+     * @return {@code true} if running on Java 21 or later. Otherwise, {@code false}.
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Create an executor service which starts a new thread for each task.
+     * Virtual threads are used when supported. Otherwise, a pool of at most the given number of
+     * daemon platform threads is used and the tasks which do not get a thread are queued.
+     * @param threadNamePrefix The prefix of the names of the created threads.
+     * @param maxPlatformThreads The maximum number of platform threads if virtual threads 
+     * are not supported. Ignored since virtual threads are supported.
+     * @return The thread-per-task executor service.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String threadNamePrefix, int maxPlatformThreads) {
+        Arguments.requireNonNull(threadNamePrefix, "threadNamePrefix");
+        Arguments.require(maxPlatformThreads, max -> max < 1, 
+            "maxPlatformThreads argument must be greater than zero.");
+
+        return Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+    }
+}
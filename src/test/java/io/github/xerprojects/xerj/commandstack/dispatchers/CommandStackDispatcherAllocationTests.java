@@ -0,0 +1,150 @@
+package io.github.xerprojects.xerj.commandstack.dispatchers;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+import io.github.xerprojects.xerj.commandstack.dispatchers.CommandStackDispatcher.UnhandleCommandListener;
+import io.github.xerprojects.xerj.commandstack.providers.CompositeCommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.providers.RequiredCommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.providers.registry.CommandHandlerLifetime;
+import io.github.xerprojects.xerj.commandstack.providers.registry.RegistryCommandHandlerProvider;
+
+public class CommandStackDispatcherAllocationTests {
+
+	private static final int WARMUP_ITERATIONS = 20_000;
+	private static final int MEASURED_ITERATIONS = 100_000;
+
+	/**
+	 * Allowance for incidental allocations e.g. by the JIT or the allocation counter itself.
+	 * A single allocation per dispatch would add up to megabytes.
+	 */
+	private static final long MAX_ALLOCATED_BYTES = 16 * 1024;
+
+	private static ThreadMXBean threadMXBean;
+	private static Method getThreadAllocatedBytes;
+
+	@BeforeAll
+	public static void setup() throws Exception {
+		threadMXBean = ManagementFactory.getThreadMXBean();
+		
+		Class<?> sunThreadMXBeanType;
+		try {
+			sunThreadMXBeanType = Class.forName("com.sun.management.ThreadMXBean");
+		} catch (ClassNotFoundException e) {
+			sunThreadMXBeanType = null;
+		}
+
+		assumeTrue(sunThreadMXBeanType != null && sunThreadMXBeanType.isInstance(threadMXBean),
+			"Thread allocation counters are not supported by this JVM.");
+
+		getThreadAllocatedBytes = sunThreadMXBeanType.getMethod("getThreadAllocatedBytes", long.class);
+	}
+
+	@Test
+	@DisplayName("should not allocate when sending commands to registered command handlers")
+	public void test1() throws Exception {
+		CommandHandler<TestCommand> handler = command -> {};
+
+		var commandDispatcher = new CommandStackDispatcher(
+			new RequiredCommandHandlerProvider(
+				new CompositeCommandHandlerProvider(List.of(
+					new RegistryCommandHandlerProvider(registry -> 
+						registry.registerCommandHandler(
+							TestSynchronousCommand.class, 
+							() -> command -> {},
+							CommandHandlerLifetime.singleton())),
+					new RegistryCommandHandlerProvider(registry -> 
+						registry.registerCommandHandler(
+							TestCommand.class, 
+							() -> handler,
+							CommandHandlerLifetime.singleton()))))));
+
+		assertNoAllocations(commandDispatcher, new TestCommand());
+	}
+
+	@Test
+	@DisplayName("should not allocate when sending commands to cached command handlers")
+	public void test2() throws Exception {
+		CommandHandler<TestCommand> handler = command -> {};
+
+		var commandDispatcher = new CommandStackDispatcher(
+			new RegistryCommandHandlerProvider(registry -> 
+				registry.registerCommandHandler(TestCommand.class, () -> handler)),
+			new UnhandleCommandListener() {
+				@Override
+				public <TCommand> void notifyUnhandledCommand(TCommand command) {}
+			},
+			true);
+
+		assertNoAllocations(commandDispatcher, new TestCommand());
+	}
+
+	@Test
+	@DisplayName("should not allocate when sending commands that have no registered command handlers")
+	public void test3() throws Exception {
+		var commandDispatcher = new CommandStackDispatcher(
+			new RegistryCommandHandlerProvider(registry -> {}));
+
+		assertNoAllocations(commandDispatcher, new TestCommand());
+	}
+
+	@Test
+	@DisplayName("should not allocate when sending commands through interceptor pipeline")
+	public void test4() throws Exception {
+		CommandHandler<TestCommand> handler = command -> {};
+		CommandInterceptor interceptor = new CommandInterceptor() {
+			@Override
+			public <TCommand> void intercept(TCommand command, CommandHandler<TCommand> next) {
+				next.handle(command);
+			}
+		};
+
+		var commandDispatcher = new CommandStackDispatcher(
+			new RegistryCommandHandlerProvider(registry -> 
+				registry.registerCommandHandler(
+					TestCommand.class, 
+					() -> handler,
+					CommandHandlerLifetime.singleton())),
+			new UnhandleCommandListener() {
+				@Override
+				public <TCommand> void notifyUnhandledCommand(TCommand command) {}
+			},
+			false,
+			List.of(interceptor, interceptor));
+
+		assertNoAllocations(commandDispatcher, new TestCommand());
+	}
+
+	private static void assertNoAllocations(
+			CommandStackDispatcher commandDispatcher, 
+			Object command) throws Exception {
+
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			commandDispatcher.send(command);
+		}
+
+		long threadId = Thread.currentThread().getId();
+		long before = (long)getThreadAllocatedBytes.invoke(threadMXBean, threadId);
+		
+		for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+			commandDispatcher.send(command);
+		}
+		
+		long allocatedBytes = (long)getThreadAllocatedBytes.invoke(threadMXBean, threadId) - before;
+
+		assertTrue(allocatedBytes < MAX_ALLOCATED_BYTES, 
+			"Allocated " + allocatedBytes + " bytes for " + MEASURED_ITERATIONS + " dispatches.");
+	}
+}
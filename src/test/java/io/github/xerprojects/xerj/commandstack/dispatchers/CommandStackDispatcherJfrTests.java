@@ -0,0 +1,152 @@
+package io.github.xerprojects.xerj.commandstack.dispatchers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestCommandHandler;
+import io.github.xerprojects.xerj.commandstack.dispatchers.CommandStackDispatcher.UnhandleCommandListener;
+import io.github.xerprojects.xerj.commandstack.providers.CompositeCommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.providers.registry.RegistryCommandHandlerProvider;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@ExtendWith(MockitoExtension.class)
+public class CommandStackDispatcherJfrTests {
+
+	private static final String RESOLUTION_EVENT = "io.github.xerprojects.xerj.commandstack.CommandResolution";
+	private static final String HANDLING_EVENT = "io.github.xerprojects.xerj.commandstack.CommandHandling";
+	private static final String UNHANDLED_EVENT = "io.github.xerprojects.xerj.commandstack.UnhandledCommand";
+
+	@Test
+	@DisplayName("should record command handler resolution events")
+	public void test1() throws Exception {
+		var provider = new RegistryCommandHandlerProvider(registry -> 
+			registry.registerCommandHandler(TestCommand.class, TestCommandHandler::new));
+		var commandDispatcher = new CommandStackDispatcher(provider);
+
+		List<RecordedEvent> events = record(RESOLUTION_EVENT, () -> 
+			commandDispatcher.send(new TestCommand()));
+
+		assertEquals(1, events.size());
+		assertClass(TestCommand.class, events.get(0), "commandClass");
+		assertClass(RegistryCommandHandlerProvider.class, events.get(0), "providerClass");
+		assertClass(TestCommandHandler.class, events.get(0), "handlerClass");
+	}
+
+	@Test
+	@DisplayName("should record command handling events")
+	public void test2() throws Exception {
+		var provider = new RegistryCommandHandlerProvider(registry -> 
+			registry.registerCommandHandler(TestCommand.class, TestCommandHandler::new));
+		var commandDispatcher = new CommandStackDispatcher(provider);
+
+		List<RecordedEvent> events = record(HANDLING_EVENT, () -> {
+			commandDispatcher.send(new TestCommand());
+			commandDispatcher.sendAll(List.of(new TestCommand(), new TestCommand()));
+		});
+
+		// One event per send and one event per batch.
+		assertEquals(2, events.size());
+		for (RecordedEvent event : events) {
+			assertClass(TestCommand.class, event, "commandClass");
+			assertClass(TestCommandHandler.class, event, "handlerClass");
+		}
+	}
+
+	@Test
+	@DisplayName("should record unhandled command events")
+	public void test3(@Mock UnhandleCommandListener unhandledCommandListener) throws Exception {
+		var provider = new RegistryCommandHandlerProvider(registry -> {});
+		var commandDispatcher = new CommandStackDispatcher(provider, unhandledCommandListener, true);
+		
+		List<RecordedEvent> events = record(UNHANDLED_EVENT, () -> {
+			// Second send uses the cached resolution.
+			commandDispatcher.send(new TestCommand());
+			commandDispatcher.send(new TestCommand());
+		});
+
+		assertEquals(2, events.size());
+		for (RecordedEvent event : events) {
+			assertClass(TestCommand.class, event, "commandClass");
+		}
+	}
+
+	@Test
+	@DisplayName("should not record command handling events for unhandled commands")
+	public void test4(@Mock UnhandleCommandListener unhandledCommandListener) throws Exception {
+		var provider = new RegistryCommandHandlerProvider(registry -> {});
+		var commandDispatcher = new CommandStackDispatcher(provider, unhandledCommandListener, true);
+		
+		List<RecordedEvent> events = record(HANDLING_EVENT, () -> {
+			commandDispatcher.send(new TestCommand());
+			commandDispatcher.send(new TestCommand());
+		});
+
+		assertTrue(events.isEmpty());
+	}
+
+	@Test
+	@DisplayName("should record command handler resolution events for each provider of a composite")
+	public void test5() throws Exception {
+		var emptyProvider = new RegistryCommandHandlerProvider(registry -> {});
+		var provider = new RegistryCommandHandlerProvider(registry -> 
+			registry.registerCommandHandler(TestCommand.class, TestCommandHandler::new));
+		var compositeProvider = new CompositeCommandHandlerProvider(List.of(emptyProvider, provider));
+		var commandDispatcher = new CommandStackDispatcher(compositeProvider);
+
+		List<RecordedEvent> events = record(RESOLUTION_EVENT, () -> 
+			commandDispatcher.send(new TestCommand()));
+
+		// One event per consulted provider and one event for the composite.
+		assertEquals(3, events.size());
+		assertClass(RegistryCommandHandlerProvider.class, events.get(0), "providerClass");
+		assertTrue(events.get(0).getValue("handlerClass") == null);
+		assertClass(RegistryCommandHandlerProvider.class, events.get(1), "providerClass");
+		assertClass(TestCommandHandler.class, events.get(1), "handlerClass");
+		assertClass(CompositeCommandHandlerProvider.class, events.get(2), "providerClass");
+		assertClass(TestCommandHandler.class, events.get(2), "handlerClass");
+	}
+
+	private static void assertClass(Class<?> expected, RecordedEvent event, String field) {
+		RecordedClass recordedClass = event.getValue(field);
+		assertEquals(expected.getName(), recordedClass.getName());
+	}
+
+	private static List<RecordedEvent> record(String eventName, Runnable action) throws Exception {
+		Path recordingFile = Files.createTempFile("xerj-commandstack-", ".jfr");
+		try (var recording = new Recording()) {
+			recording.enable(eventName);
+			recording.start();
+			Instant recordingStart = recording.getStartTime();
+			action.run();
+			recording.stop();
+			recording.dump(recordingFile);
+
+			// The dump may include events of other recordings and of other threads.
+			String threadName = Thread.currentThread().getName();
+			return RecordingFile.readAllEvents(recordingFile).stream()
+				.filter(event -> eventName.equals(event.getEventType().getName()))
+				.filter(event -> !event.getStartTime().isBefore(recordingStart))
+				.filter(event -> event.getThread() != null && 
+					threadName.equals(event.getThread().getJavaName()))
+				.collect(Collectors.toList());
+		} finally {
+			Files.deleteIfExists(recordingFile);
+		}
+	}
+}
@@ -1,23 +1,34 @@
 package io.github.xerprojects.xerj.commandstack.dispatchers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.github.xerprojects.xerj.commandstack.BatchCommandHandler;
 import io.github.xerprojects.xerj.commandstack.CommandHandler;
 import io.github.xerprojects.xerj.commandstack.CommandHandlerProvider;
 import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
 import io.github.xerprojects.xerj.commandstack.dispatchers.CommandStackDispatcher.UnhandleCommandListener;
 import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
 
@@ -50,6 +61,20 @@ public class CommandStackDispatcherTests {
 				new CommandStackDispatcher(commandHandlerProvider, null);
 			});
 		}
+
+		@Test
+		@DisplayName("should throw when interceptors argument is null or contains null")
+		public void test4(
+				@Mock CommandHandlerProvider commandHandlerProvider,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener) {
+			assertThrows(IllegalArgumentException.class, () -> {
+				new CommandStackDispatcher(commandHandlerProvider, mockUnhandledCommandListener, false, null);
+			});
+			assertThrows(IllegalArgumentException.class, () -> {
+				new CommandStackDispatcher(commandHandlerProvider, mockUnhandledCommandListener, false, 
+					Arrays.asList((CommandInterceptor)null));
+			});
+		}
 	}
 	
 	@Nested
@@ -160,5 +185,445 @@ public class CommandStackDispatcherTests {
 			// should be the correct command type.
 			verify(mockUnhandledCommandListener).notifyUnhandledCommand(testCommand);
 		}
+
+		@Test
+		@DisplayName("should resolve command handler only once per command type when caching is enabled")
+		public void test8(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener,
+				@Mock CommandHandler<TestCommand> mockHandler) {
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockHandler));
+
+			var commandDispatcher = new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener, true);
+
+			var command1 = new TestCommand();
+			var command2 = new TestCommand();
+
+			commandDispatcher.send(command1);
+			commandDispatcher.send(command2);
+
+			verify(mockProvider, times(1)).getCommandHandlerFor(TestCommand.class);
+			verify(mockHandler).handle(command1);
+			verify(mockHandler).handle(command2);
+		}
+
+		@Test
+		@DisplayName("should cache unhandled command listener when caching is enabled")
+		public void test9(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener) {
+
+			when(mockProvider.getCommandHandlerFor(any()))
+				.thenReturn(Optional.empty());
+
+			var commandDispatcher = new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener, true);
+
+			var command1 = new TestCommand();
+			var command2 = new TestCommand();
+
+			commandDispatcher.send(command1);
+			commandDispatcher.send(command2);
+
+			verify(mockProvider, times(1)).getCommandHandlerFor(TestCommand.class);
+			verify(mockUnhandledCommandListener).notifyUnhandledCommand(command1);
+			verify(mockUnhandledCommandListener).notifyUnhandledCommand(command2);
+		}
+
+		@Test
+		@DisplayName("should resolve command handler on every send when caching is not enabled")
+		public void test10(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock CommandHandler<TestCommand> mockHandler) {
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockHandler));
+
+			var commandDispatcher = new CommandStackDispatcher(mockProvider);
+
+			commandDispatcher.send(new TestCommand());
+			commandDispatcher.send(new TestCommand());
+
+			verify(mockProvider, times(2)).getCommandHandlerFor(TestCommand.class);
+		}
+
+		@Test
+		@DisplayName("should pass command through interceptors in order before command handler")
+		public void test11(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener) {
+
+			var events = new ArrayList<String>();
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(command -> events.add("handler")));
+
+			var commandDispatcher = new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener, false, List.of(
+					new RecordingInterceptor("first", events),
+					new RecordingInterceptor("second", events)));
+
+			commandDispatcher.send(new TestCommand());
+
+			assertEquals(
+				List.of("first:before", "second:before", "handler", "second:after", "first:after"), 
+				events);
+		}
+
+		@Test
+		@DisplayName("should only pass command through interceptors that apply to the command type")
+		public void test12(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener) {
+
+			var events = new ArrayList<String>();
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(command -> events.add("handler")));
+
+			var commandDispatcher = new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener, false, List.of(
+					new RecordingInterceptor("applicable", events),
+					new RecordingInterceptor("not-applicable", events, TestSynchronousCommand.class)));
+
+			commandDispatcher.send(new TestCommand());
+
+			assertEquals(List.of("applicable:before", "handler", "applicable:after"), events);
+		}
+
+		@Test
+		@DisplayName("should build interceptor pipeline only once per command type")
+		public void test13(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock CommandHandler<TestCommand> mockHandler,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener) {
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockHandler));
+
+			var interceptor = new RecordingInterceptor("interceptor", new ArrayList<>());
+
+			var commandDispatcher = new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener, false, List.of(interceptor));
+
+			commandDispatcher.send(new TestCommand());
+			commandDispatcher.send(new TestCommand());
+			commandDispatcher.send(new TestCommand());
+
+			assertEquals(1, interceptor.applicabilityChecks);
+			verify(mockHandler, times(3)).handle(any());
+		}
+
+		@Test
+		@DisplayName("should not invoke command handler when an interceptor short-circuits the pipeline")
+		public void test14(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener) {
+
+			var commandDispatcher = new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener, false, List.of(new CommandInterceptor() {
+					@Override
+					public <TCommand> void intercept(TCommand command, CommandHandler<TCommand> next) {
+						// Does not invoke next.
+					}
+				}));
+
+			commandDispatcher.send(new TestCommand());
+
+			verify(mockProvider, never()).getCommandHandlerFor(any());
+			verify(mockUnhandledCommandListener, never()).notifyUnhandledCommand(any());
+		}
+
+		@Test
+		@DisplayName("should pass unhandled command through interceptors before unhandled command listener")
+		public void test15(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener) {
+
+			var events = new ArrayList<String>();
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.empty());
+
+			var commandDispatcher = new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener, false, List.of(
+					new RecordingInterceptor("interceptor", events)));
+
+			var testCommand = new TestCommand();
+			commandDispatcher.send(testCommand);
+
+			assertEquals(List.of("interceptor:before", "interceptor:after"), events);
+			verify(mockUnhandledCommandListener).notifyUnhandledCommand(testCommand);
+		}
+	}
+
+	@Nested
+	public class SendAllMethod {
+		@Test
+		@DisplayName("should resolve command handler once per command type")
+		public void test1(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock CommandHandler<TestCommand> mockHandler,
+				@Mock CommandHandler<TestSynchronousCommand> mockSynchronousHandler) {
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockHandler));
+
+			when(mockProvider.getCommandHandlerFor(TestSynchronousCommand.class))
+				.thenReturn(Optional.of(mockSynchronousHandler));
+
+			var commandDispatcher = new CommandStackDispatcher(mockProvider);
+
+			var command1 = new TestCommand();
+			var command2 = new TestSynchronousCommand();
+			var command3 = new TestCommand();
+
+			commandDispatcher.sendAll(List.of(command1, command2, command3));
+
+			verify(mockProvider, times(1)).getCommandHandlerFor(TestCommand.class);
+			verify(mockProvider, times(1)).getCommandHandlerFor(TestSynchronousCommand.class);
+
+			InOrder inOrder = inOrder(mockHandler);
+			inOrder.verify(mockHandler).handle(command1);
+			inOrder.verify(mockHandler).handle(command3);
+			verify(mockSynchronousHandler).handle(command2);
+		}
+
+		@Test
+		@DisplayName("should pass all commands of a type to batch command handler at once")
+		public void test2(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock BatchCommandHandler<TestCommand> mockBatchHandler) {
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockBatchHandler));
+
+			var commandDispatcher = new CommandStackDispatcher(mockProvider);
+
+			var command1 = new TestCommand();
+			var command2 = new TestCommand();
+
+			commandDispatcher.sendAll(List.of(command1, command2));
+
+			verify(mockBatchHandler).handleAll(List.of(command1, command2));
+			verify(mockBatchHandler, never()).handle(any());
+		}
+
+		@Test
+		@DisplayName("should invoke unhandled command listener for each command " + 
+			"when no command handler is found")
+		public void test3(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener) {
+
+			when(mockProvider.getCommandHandlerFor(any()))
+				.thenReturn(Optional.empty());
+
+			var commandDispatcher = new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener);
+
+			var command1 = new TestCommand();
+			var command2 = new TestCommand();
+
+			commandDispatcher.sendAll(List.of(command1, command2));
+
+			verify(mockUnhandledCommandListener).notifyUnhandledCommand(command1);
+			verify(mockUnhandledCommandListener).notifyUnhandledCommand(command2);
+		}
+
+		@Test
+		@DisplayName("should throw when commands argument is null")
+		public void test4(@Mock CommandHandlerProvider mockProvider) {
+			var commandDispatcher = new CommandStackDispatcher(mockProvider);
+
+			assertThrows(IllegalArgumentException.class, () -> {
+				commandDispatcher.sendAll(null);
+			});
+		}
+
+		@Test
+		@DisplayName("should not dispatch any command when a command is null")
+		public void test5(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock CommandHandler<TestCommand> mockHandler) {
+
+			var commandDispatcher = new CommandStackDispatcher(mockProvider);
+
+			assertThrows(IllegalArgumentException.class, () -> {
+				commandDispatcher.sendAll(Arrays.asList(new TestCommand(), null));
+			});
+
+			verify(mockProvider, never()).getCommandHandlerFor(any());
+		}
+
+		@Test
+		@DisplayName("should pass each command through interceptors when command type has interceptors")
+		public void test6(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock BatchCommandHandler<TestCommand> mockBatchHandler,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener) {
+
+			var events = new ArrayList<String>();
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockBatchHandler));
+
+			var commandDispatcher = new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener, false, List.of(
+					new RecordingInterceptor("interceptor", events)));
+
+			var command1 = new TestCommand();
+			var command2 = new TestCommand();
+
+			commandDispatcher.sendAll(List.of(command1, command2));
+
+			assertEquals(
+				List.of("interceptor:before", "interceptor:after", "interceptor:before", "interceptor:after"), 
+				events);
+			verify(mockBatchHandler).handle(command1);
+			verify(mockBatchHandler).handle(command2);
+			verify(mockBatchHandler, never()).handleAll(any());
+		}
+
+		@Test
+		@DisplayName("should pass all commands of a type to batch command handler at once " + 
+			"when no interceptor applies to the command type")
+		public void test7(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock BatchCommandHandler<TestCommand> mockBatchHandler,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener) {
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockBatchHandler));
+
+			var commandDispatcher = new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener, false, List.of(
+					new RecordingInterceptor("interceptor", new ArrayList<>(), TestSynchronousCommand.class)));
+
+			var command1 = new TestCommand();
+			var command2 = new TestCommand();
+
+			commandDispatcher.sendAll(List.of(command1, command2));
+
+			verify(mockBatchHandler).handleAll(List.of(command1, command2));
+		}
+	}
+
+	@Nested
+	public class InvalidateResolvedCommandHandlerMethod {
+		@Test
+		@DisplayName("should resolve command handler again after invalidation")
+		public void test1(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener,
+				@Mock CommandHandler<TestCommand> mockHandler) {
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockHandler));
+
+			var commandDispatcher = new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener, true);
+
+			commandDispatcher.send(new TestCommand());
+			commandDispatcher.invalidateResolvedCommandHandler(TestCommand.class);
+			commandDispatcher.send(new TestCommand());
+
+			verify(mockProvider, times(2)).getCommandHandlerFor(TestCommand.class);
+		}
+
+		@Test
+		@DisplayName("should throw when command type argument is null")
+		public void test2(@Mock CommandHandlerProvider mockProvider) {
+			var commandDispatcher = new CommandStackDispatcher(mockProvider);
+
+			assertThrows(IllegalArgumentException.class, () -> {
+				commandDispatcher.invalidateResolvedCommandHandler(null);
+			});
+		}
+
+		@Test
+		@DisplayName("should not cache command handler which was resolved before a concurrent invalidation")
+		public void test3(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener,
+				@Mock CommandHandler<TestCommand> mockHandler) {
+
+			var commandDispatcher = new AtomicReference<CommandStackDispatcher>();
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenAnswer(invocation -> {
+					// Invalidated after the handler was resolved but before it was cached.
+					commandDispatcher.get().invalidateResolvedCommandHandler(TestCommand.class);
+					return Optional.of(mockHandler);
+				});
+
+			commandDispatcher.set(new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener, true));
+
+			commandDispatcher.get().send(new TestCommand());
+			commandDispatcher.get().send(new TestCommand());
+
+			verify(mockProvider, times(2)).getCommandHandlerFor(TestCommand.class);
+			verify(mockHandler, times(2)).handle(any());
+		}
+	}
+
+	@Nested
+	public class InvalidateResolvedCommandHandlersMethod {
+		@Test
+		@DisplayName("should resolve all command handlers again after invalidation")
+		public void test1(
+				@Mock CommandHandlerProvider mockProvider,
+				@Mock UnhandleCommandListener mockUnhandledCommandListener,
+				@Mock CommandHandler<TestCommand> mockHandler) {
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockHandler));
+
+			var commandDispatcher = new CommandStackDispatcher(
+				mockProvider, mockUnhandledCommandListener, true);
+
+			commandDispatcher.send(new TestCommand());
+			commandDispatcher.invalidateResolvedCommandHandlers();
+			commandDispatcher.send(new TestCommand());
+
+			verify(mockProvider, times(2)).getCommandHandlerFor(TestCommand.class);
+		}
+	}
+
+	/**
+	 * Records "name:before" and "name:after" around the rest of the pipeline.
+	 */
+	private static class RecordingInterceptor implements CommandInterceptor {
+		private final String name;
+		private final List<String> events;
+		private final Class<?> interceptedCommandType;
+		private int applicabilityChecks;
+
+		RecordingInterceptor(String name, List<String> events) {
+			this(name, events, Object.class);
+		}
+
+		RecordingInterceptor(String name, List<String> events, Class<?> interceptedCommandType) {
+			this.name = name;
+			this.events = events;
+			this.interceptedCommandType = interceptedCommandType;
+		}
+
+		@Override
+		public boolean interceptsCommandType(Class<?> commandType) {
+			applicabilityChecks++;
+			return interceptedCommandType.isAssignableFrom(commandType);
+		}
+
+		@Override
+		public <TCommand> void intercept(TCommand command, CommandHandler<TCommand> next) {
+			events.add(name + ":before");
+			next.handle(command);
+			events.add(name + ":after");
+		}
 	}
 }
@@ -1,13 +1,30 @@
 package io.github.xerprojects.xerj.commandstack.dispatchers.async;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -19,6 +36,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
 import io.github.xerprojects.xerj.commandstack.TestCommand;
 import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 @ExtendWith(MockitoExtension.class)
 public class AsyncCommandDispatcherTests {
@@ -94,12 +115,280 @@ public class AsyncCommandDispatcherTests {
 			});
 		}
 
-        private void executeRunnableWhenInvoked(ExecutorService mockExecutorService) {
-            doAnswer(invocation -> {
-                Runnable arg = invocation.getArgument(0);
-                arg.run();
-                return CompletableFuture.completedFuture(null);
-            }).when(mockExecutorService).execute(any(Runnable.class));
+        @Test
+        @DisplayName("should record queue wait events")
+        public void test4(@Mock CommandDispatcher mockCommandDispatcher) throws Exception {
+            var handlerThread = new AtomicReference<Thread>();
+            ExecutorService executorService = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task);
+                handlerThread.set(thread);
+                return thread;
+            });
+            var commandDispatcher = new AsyncCommandDispatcher(
+                mockCommandDispatcher, executorService);
+
+            Path recordingFile = Files.createTempFile("xerj-commandstack-", ".jfr");
+            try (var recording = new Recording()) {
+                String eventName = "io.github.xerprojects.xerj.commandstack.CommandQueueWait";
+                recording.enable(eventName);
+                recording.start();
+                Instant recordingStart = recording.getStartTime();
+                commandDispatcher.send(new TestCommand());
+                executorService.shutdown();
+                assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+                recording.stop();
+                recording.dump(recordingFile);
+
+                List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile).stream()
+                    .filter(event -> eventName.equals(event.getEventType().getName()))
+                    .filter(event -> !event.getStartTime().isBefore(recordingStart))
+                    .filter(event -> event.getThread() != null && 
+                        handlerThread.get().getName().equals(event.getThread().getJavaName()))
+                    .collect(Collectors.toList());
+
+                assertEquals(1, events.size());
+                RecordedClass commandClass = events.get(0).getValue("commandClass");
+                assertEquals(TestCommand.class.getName(), commandClass.getName());
+            } finally {
+                Files.deleteIfExists(recordingFile);
+            }
+        }
+    }
+
+    @Nested
+    public class SendAsyncMethod {
+        @Test
+        @DisplayName("should complete when command has been handled via executor service")
+        public void test1(
+                @Mock CommandDispatcher mockDecoratedCommandDispatcher,
+                @Mock ExecutorService mockExecutorService) {
+
+            var testCommand = new TestCommand();
+
+            executeRunnableWhenInvoked(mockExecutorService);
+
+            var commandDispatcher = 
+                new AsyncCommandDispatcher(mockDecoratedCommandDispatcher, mockExecutorService);
+
+            CompletableFuture<Void> completion = 
+                commandDispatcher.sendAsync(testCommand).toCompletableFuture();
+
+            assertTrue(completion.isDone());
+            assertFalse(completion.isCompletedExceptionally());
+            verify(mockExecutorService).execute(any(Runnable.class));
+            verify(mockDecoratedCommandDispatcher).send(testCommand);
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when command handler throws")
+        public void test2(
+                @Mock CommandDispatcher mockDecoratedCommandDispatcher,
+                @Mock ExecutorService mockExecutorService) {
+
+            var testCommand = new TestCommand();
+            var exception = new IllegalStateException();
+
+            executeRunnableWhenInvoked(mockExecutorService);
+            doThrow(exception).when(mockDecoratedCommandDispatcher).send(testCommand);
+
+            var commandDispatcher = 
+                new AsyncCommandDispatcher(mockDecoratedCommandDispatcher, mockExecutorService);
+
+            CompletableFuture<Void> completion = 
+                commandDispatcher.sendAsync(testCommand).toCompletableFuture();
+
+            var thrown = assertThrows(ExecutionException.class, completion::get);
+            assertSame(exception, thrown.getCause());
+        }
+
+        @Test
+        @DisplayName("should handle synchronous commands inline and return a completed stage")
+        public void test3(
+                @Mock CommandDispatcher mockDecoratedCommandDispatcher,
+                @Mock ExecutorService mockExecutorService) {
+
+            var testCommand = new TestSynchronousCommand();
+
+            var commandDispatcher = 
+                new AsyncCommandDispatcher(mockDecoratedCommandDispatcher, mockExecutorService);
+
+            CompletableFuture<Void> completion = 
+                commandDispatcher.sendAsync(testCommand).toCompletableFuture();
+
+            assertTrue(completion.isDone());
+            verify(mockExecutorService, never()).execute(any(Runnable.class));
+            verify(mockDecoratedCommandDispatcher).send(testCommand);
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when executor service rejects command")
+        public void test4(
+                @Mock CommandDispatcher mockDecoratedCommandDispatcher,
+                @Mock ExecutorService mockExecutorService) {
+
+            doThrow(RejectedExecutionException.class)
+                .when(mockExecutorService).execute(any(Runnable.class));
+
+            var commandDispatcher = 
+                new AsyncCommandDispatcher(mockDecoratedCommandDispatcher, mockExecutorService);
+
+            CompletableFuture<Void> completion = 
+                commandDispatcher.sendAsync(new TestCommand()).toCompletableFuture();
+
+            var thrown = assertThrows(ExecutionException.class, completion::get);
+            assertTrue(thrown.getCause() instanceof RejectedExecutionException);
+            verify(mockDecoratedCommandDispatcher, never()).send(any());
+        }
+
+        @Test
+        @DisplayName("should complete on the thread which handled the command")
+        public void test5(@Mock CommandDispatcher mockDecoratedCommandDispatcher) throws Exception {
+
+            ExecutorService executorService = Executors.newSingleThreadExecutor();
+            try {
+                var commandDispatcher = 
+                    new AsyncCommandDispatcher(mockDecoratedCommandDispatcher, executorService);
+
+                var handlerThread = new AtomicReference<Thread>();
+                var releaseHandler = new CountDownLatch(1);
+                doAnswer(invocation -> {
+                    handlerThread.set(Thread.currentThread());
+                    releaseHandler.await(10, TimeUnit.SECONDS);
+                    return null;
+                }).when(mockDecoratedCommandDispatcher).send(any());
+
+                // Dependent stage is registered before the command handler returns.
+                CompletableFuture<Thread> completionThread = commandDispatcher.sendAsync(new TestCommand())
+                    .thenApply(ignored -> Thread.currentThread())
+                    .toCompletableFuture();
+
+                releaseHandler.countDown();
+
+                Thread actualCompletionThread = completionThread.get(10, TimeUnit.SECONDS);
+
+                assertSame(handlerThread.get(), actualCompletionThread);
+            } finally {
+                executorService.shutdownNow();
+            }
         }
+
+        @Test
+        @DisplayName("should throw when command argument is null")
+        public void test6(
+                @Mock CommandDispatcher mockCommandDispatcher,
+                @Mock ExecutorService mockExecutorService) {
+
+            var commandDispatcher = new AsyncCommandDispatcher(
+                mockCommandDispatcher, mockExecutorService);
+
+            assertThrows(IllegalArgumentException.class, () -> {
+                commandDispatcher.sendAsync(null);
+            });
+        }
+    }
+
+    @Nested
+    public class SendAllMethod {
+        @Test
+        @DisplayName("should dispatch all asynchronous commands via a single executor service task")
+        public void test1(
+                @Mock CommandDispatcher mockDecoratedCommandDispatcher,
+                @Mock ExecutorService mockExecutorService) {
+
+            var command1 = new TestCommand();
+            var command2 = new TestCommand();
+
+            executeRunnableWhenInvoked(mockExecutorService);
+
+            var commandDispatcher = 
+                new AsyncCommandDispatcher(mockDecoratedCommandDispatcher, mockExecutorService);
+
+            commandDispatcher.sendAll(List.of(command1, command2));
+
+            verify(mockExecutorService, times(1)).execute(any(Runnable.class));
+            verify(mockDecoratedCommandDispatcher).sendAll(List.of(command1, command2));
+        }
+
+        @Test
+        @DisplayName("should not dispatch synchronous commands via executor service")
+        public void test2(
+                @Mock CommandDispatcher mockDecoratedCommandDispatcher,
+                @Mock ExecutorService mockExecutorService) {
+
+            var command1 = new TestCommand();
+            var command2 = new TestSynchronousCommand();
+
+            var commandDispatcher = 
+                new AsyncCommandDispatcher(mockDecoratedCommandDispatcher, mockExecutorService);
+
+            commandDispatcher.sendAll(List.of(command1, command2));
+
+            verify(mockExecutorService, times(1)).execute(any(Runnable.class));
+            verify(mockDecoratedCommandDispatcher).sendAll(List.of(command2));
+            verify(mockDecoratedCommandDispatcher, never()).sendAll(List.of(command1));
+        }
+
+        @Test
+        @DisplayName("should throw when commands argument is null")
+        public void test3(
+                @Mock CommandDispatcher mockCommandDispatcher,
+                @Mock ExecutorService mockExecutorService) {
+
+            var commandDispatcher = new AsyncCommandDispatcher(
+                mockCommandDispatcher, mockExecutorService);
+
+            assertThrows(IllegalArgumentException.class, () -> {
+                commandDispatcher.sendAll(null);
+            });
+        }
+
+        @Test
+        @DisplayName("should record queue wait events for each command")
+        public void test4(@Mock CommandDispatcher mockCommandDispatcher) throws Exception {
+            var handlerThread = new AtomicReference<Thread>();
+            ExecutorService executorService = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task);
+                handlerThread.set(thread);
+                return thread;
+            });
+            var commandDispatcher = new AsyncCommandDispatcher(
+                mockCommandDispatcher, executorService);
+
+            Path recordingFile = Files.createTempFile("xerj-commandstack-", ".jfr");
+            try (var recording = new Recording()) {
+                String eventName = "io.github.xerprojects.xerj.commandstack.CommandQueueWait";
+                recording.enable(eventName);
+                recording.start();
+                Instant recordingStart = recording.getStartTime();
+                commandDispatcher.sendAll(List.of(new TestCommand(), new TestCommand()));
+                executorService.shutdown();
+                assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+                recording.stop();
+                recording.dump(recordingFile);
+
+                List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile).stream()
+                    .filter(event -> eventName.equals(event.getEventType().getName()))
+                    .filter(event -> !event.getStartTime().isBefore(recordingStart))
+                    .filter(event -> event.getThread() != null && 
+                        handlerThread.get().getName().equals(event.getThread().getJavaName()))
+                    .collect(Collectors.toList());
+
+                assertEquals(2, events.size());
+                for (RecordedEvent event : events) {
+                    RecordedClass commandClass = event.getValue("commandClass");
+                    assertEquals(TestCommand.class.getName(), commandClass.getName());
+                }
+            } finally {
+                Files.deleteIfExists(recordingFile);
+            }
+        }
+    }
+
+    private static void executeRunnableWhenInvoked(ExecutorService mockExecutorService) {
+        doAnswer(invocation -> {
+            Runnable arg = invocation.getArgument(0);
+            arg.run();
+            return CompletableFuture.completedFuture(null);
+        }).when(mockExecutorService).execute(any(Runnable.class));
     }
 }
@@ -0,0 +1,465 @@
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+
+@ExtendWith(MockitoExtension.class)
+public class BoundedAsyncCommandDispatcherTests {
+
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw when decorated dispatcher is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new BoundedAsyncCommandDispatcher(null, 1, 1, OverflowPolicy.reject());
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when queue capacity is less than 1")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new BoundedAsyncCommandDispatcher(mockCommandDispatcher, 0, 1, OverflowPolicy.reject());
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when worker count is less than 1")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new BoundedAsyncCommandDispatcher(mockCommandDispatcher, 1, 0, OverflowPolicy.reject());
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when overflow policy is null")
+        public void test4(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new BoundedAsyncCommandDispatcher(mockCommandDispatcher, 1, 1, null);
+            });
+        }
+    }
+
+    @Nested
+    public class SendMethod {
+        @Test
+        @DisplayName("should dispatch command on a worker thread")
+        public void test1() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                    decoratedDispatcher, 1, 1, OverflowPolicy.reject())) {
+                commandDispatcher.send(new TestCommand());
+            }
+
+            assertEquals(1, decoratedDispatcher.handledCommands().size());
+            assertNotSame(Thread.currentThread(), decoratedDispatcher.handlerThreads().get(0));
+        }
+
+        @Test
+        @DisplayName("should dispatch synchronous commands on the calling thread")
+        public void test2() {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                    decoratedDispatcher, 1, 1, OverflowPolicy.reject())) {
+                commandDispatcher.send(new TestSynchronousCommand());
+                
+                assertSame(Thread.currentThread(), decoratedDispatcher.handlerThreads().get(0));
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when dispatch queue is full and overflow policy is reject")
+        public void test3() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                    decoratedDispatcher, 1, 1, OverflowPolicy.reject())) {
+                fillDispatchQueue(commandDispatcher, decoratedDispatcher);
+
+                assertThrows(CommandRejectedException.class, () -> {
+                    commandDispatcher.send(new TestCommand());
+                });
+                assertEquals(1, commandDispatcher.getRejectedCount());
+                assertEquals(1, commandDispatcher.getQueueDepth());
+
+                decoratedDispatcher.release();
+            }
+
+            assertEquals(2, decoratedDispatcher.handledCommands().size());
+        }
+
+        @Test
+        @DisplayName("should discard dispatched command when dispatch queue is full " + 
+            "and overflow policy is drop newest")
+        public void test4() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var droppedCommand = new TestCommand();
+
+            try (var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                    decoratedDispatcher, 1, 1, OverflowPolicy.dropNewest())) {
+                fillDispatchQueue(commandDispatcher, decoratedDispatcher);
+
+                commandDispatcher.send(droppedCommand);
+                assertEquals(1, commandDispatcher.getDroppedCount());
+
+                decoratedDispatcher.release();
+            }
+
+            assertEquals(2, decoratedDispatcher.handledCommands().size());
+            assertFalse(decoratedDispatcher.handledCommands().contains(droppedCommand));
+        }
+
+        @Test
+        @DisplayName("should discard oldest queued command when dispatch queue is full " + 
+            "and overflow policy is drop oldest")
+        public void test5() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var newestCommand = new TestCommand();
+
+            Object oldestCommand;
+            try (var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                    decoratedDispatcher, 1, 1, OverflowPolicy.dropOldest())) {
+                oldestCommand = fillDispatchQueue(commandDispatcher, decoratedDispatcher);
+
+                commandDispatcher.send(newestCommand);
+                assertEquals(1, commandDispatcher.getDroppedCount());
+
+                decoratedDispatcher.release();
+            }
+
+            assertFalse(decoratedDispatcher.handledCommands().contains(oldestCommand));
+            assertTrue(decoratedDispatcher.handledCommands().contains(newestCommand));
+        }
+
+        @Test
+        @DisplayName("should handle command on the calling thread when dispatch queue is full " + 
+            "and overflow policy is caller runs")
+        public void test6() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                    decoratedDispatcher, 1, 1, OverflowPolicy.callerRuns())) {
+                fillDispatchQueue(commandDispatcher, decoratedDispatcher);
+
+                var callerRunsCommand = new TestCommand();
+                commandDispatcher.send(callerRunsCommand);
+                decoratedDispatcher.release();
+
+                assertSame(Thread.currentThread(), 
+                    decoratedDispatcher.handlerThreadOf(callerRunsCommand));
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when dispatch queue is still full after timeout " + 
+            "and overflow policy is block")
+        public void test7() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                    decoratedDispatcher, 1, 1, OverflowPolicy.block(Duration.ofMillis(10)))) {
+                fillDispatchQueue(commandDispatcher, decoratedDispatcher);
+
+                assertThrows(CommandRejectedException.class, () -> {
+                    commandDispatcher.send(new TestCommand());
+                });
+                assertEquals(1, commandDispatcher.getRejectedCount());
+
+                decoratedDispatcher.release();
+            }
+        }
+
+        @Test
+        @DisplayName("should queue command once there is room in dispatch queue " + 
+            "and overflow policy is block")
+        public void test8() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var blockedCommand = new TestCommand();
+
+            try (var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                    decoratedDispatcher, 1, 1, OverflowPolicy.block(Duration.ofSeconds(10)))) {
+                fillDispatchQueue(commandDispatcher, decoratedDispatcher);
+
+                CompletableFuture.runAsync(decoratedDispatcher::release, 
+                    CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+
+                commandDispatcher.send(blockedCommand);
+            }
+
+            assertTrue(decoratedDispatcher.handledCommands().contains(blockedCommand));
+        }
+
+        @Test
+        @DisplayName("should report command handler exceptions and continue with the next command")
+        public void test9() throws Exception {
+            var reportedExceptions = new ArrayList<Throwable>();
+            var exception = new IllegalStateException();
+            var handledCommand = new TestCommand();
+
+            CommandDispatcher decoratedDispatcher = new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (command != handledCommand) {
+                        throw exception;
+                    }
+                }
+            };
+
+            var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                decoratedDispatcher, 2, 1, OverflowPolicy.reject(), task -> {
+                    var thread = new Thread(task);
+                    thread.setUncaughtExceptionHandler((t, ex) -> {
+                        synchronized (reportedExceptions) {
+                            reportedExceptions.add(ex);
+                        }
+                    });
+                    return thread;
+                });
+
+            commandDispatcher.send(new TestCommand());
+            assertCompletes(commandDispatcher.sendAsync(handledCommand));
+            commandDispatcher.close();
+
+            synchronized (reportedExceptions) {
+                assertEquals(List.of(exception), reportedExceptions);
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when dispatcher has been closed")
+        public void test10(@Mock CommandDispatcher mockCommandDispatcher) {
+            var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                mockCommandDispatcher, 1, 1, OverflowPolicy.reject());
+            commandDispatcher.close();
+
+            assertThrows(CommandRejectedException.class, () -> {
+                commandDispatcher.send(new TestCommand());
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when command argument is null")
+        public void test11(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                    mockCommandDispatcher, 1, 1, OverflowPolicy.reject())) {
+                assertThrows(IllegalArgumentException.class, () -> {
+                    commandDispatcher.send(null);
+                });
+            }
+        }
+    }
+
+    @Nested
+    public class SendAsyncMethod {
+        @Test
+        @DisplayName("should complete when command has been handled")
+        public void test1() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var testCommand = new TestCommand();
+
+            try (var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                    decoratedDispatcher, 1, 1, OverflowPolicy.reject())) {
+                assertCompletes(commandDispatcher.sendAsync(testCommand));
+                assertTrue(decoratedDispatcher.handledCommands().contains(testCommand));
+            }
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when command was rejected")
+        public void test2() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                    decoratedDispatcher, 1, 1, OverflowPolicy.reject())) {
+                fillDispatchQueue(commandDispatcher, decoratedDispatcher);
+
+                CompletableFuture<Void> completion = 
+                    commandDispatcher.sendAsync(new TestCommand()).toCompletableFuture();
+
+                var thrown = assertThrows(ExecutionException.class, completion::get);
+                assertTrue(thrown.getCause() instanceof CommandRejectedException);
+
+                decoratedDispatcher.release();
+            }
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when command was dropped")
+        public void test3() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                    decoratedDispatcher, 1, 1, OverflowPolicy.dropOldest())) {
+                decoratedDispatcher.blockOnNextCommand();
+                commandDispatcher.send(new TestCommand());
+                decoratedDispatcher.awaitBlocked();
+
+                CompletableFuture<Void> oldest = 
+                    commandDispatcher.sendAsync(new TestCommand()).toCompletableFuture();
+                commandDispatcher.send(new TestCommand());
+
+                var thrown = assertThrows(ExecutionException.class, () -> 
+                    oldest.get(10, TimeUnit.SECONDS));
+                assertTrue(thrown.getCause() instanceof CommandRejectedException);
+
+                decoratedDispatcher.release();
+            }
+        }
+    }
+
+    @Nested
+    public class CloseMethod {
+        @Test
+        @DisplayName("should handle all queued commands before returning")
+        public void test1() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                decoratedDispatcher, 100, 2, OverflowPolicy.reject());
+
+            for (int i = 0; i < 100; i++) {
+                commandDispatcher.send(new TestCommand());
+            }
+            commandDispatcher.close();
+
+            assertEquals(100, decoratedDispatcher.handledCommands().size());
+            assertEquals(0, commandDispatcher.getQueueDepth());
+        }
+
+        @Test
+        @DisplayName("should complete every command which is dispatched while closing")
+        public void test2() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var completions = new ConcurrentLinkedQueue<CompletableFuture<Void>>();
+            var senders = new ArrayList<Thread>();
+
+            var commandDispatcher = new BoundedAsyncCommandDispatcher(
+                decoratedDispatcher, 16, 2, OverflowPolicy.block(Duration.ofSeconds(10)));
+
+            for (int i = 0; i < 4; i++) {
+                var sender = new Thread(() -> {
+                    for (int j = 0; j < 5000; j++) {
+                        completions.add(commandDispatcher.sendAsync(new TestCommand()).toCompletableFuture());
+                    }
+                });
+                senders.add(sender);
+                sender.start();
+            }
+            commandDispatcher.close();
+            for (Thread sender : senders) {
+                sender.join();
+            }
+
+            for (CompletableFuture<Void> completion : completions) {
+                try {
+                    completion.get(10, TimeUnit.SECONDS);
+                } catch (ExecutionException ex) {
+                    assertTrue(ex.getCause() instanceof CommandRejectedException);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fill the dispatch queue of a dispatcher with a single worker and a queue capacity of 1.
+     * @return The queued command.
+     */
+    private static Object fillDispatchQueue(
+            BoundedAsyncCommandDispatcher commandDispatcher, 
+            RecordingDispatcher decoratedDispatcher) throws InterruptedException {
+
+        // Occupy the worker.
+        decoratedDispatcher.blockOnNextCommand();
+        commandDispatcher.send(new TestCommand());
+        decoratedDispatcher.awaitBlocked();
+
+        var queuedCommand = new TestCommand();
+        commandDispatcher.send(queuedCommand);
+        return queuedCommand;
+    }
+
+    private static void assertCompletes(CompletionStage<Void> stage) throws Exception {
+        stage.toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Records handled commands and can block the worker thread on the next command.
+     */
+    private static class RecordingDispatcher implements CommandDispatcher {
+        private final List<Object> handledCommands = new ArrayList<>();
+        private final List<Thread> handlerThreads = new ArrayList<>();
+        private volatile CountDownLatch blocked;
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public <TCommand> void send(TCommand command) {
+            CountDownLatch blockedLatch = blocked;
+            if (blockedLatch != null && blockedLatch.getCount() > 0) {
+                blockedLatch.countDown();
+                try {
+                    released.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            synchronized (this) {
+                handledCommands.add(command);
+                handlerThreads.add(Thread.currentThread());
+            }
+        }
+
+        void blockOnNextCommand() {
+            blocked = new CountDownLatch(1);
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        synchronized List<Object> handledCommands() {
+            return new ArrayList<>(handledCommands);
+        }
+
+        synchronized List<Thread> handlerThreads() {
+            return new ArrayList<>(handlerThreads);
+        }
+
+        synchronized Thread handlerThreadOf(Object command) {
+            return handlerThreads.get(handledCommands.indexOf(command));
+        }
+    }
+}
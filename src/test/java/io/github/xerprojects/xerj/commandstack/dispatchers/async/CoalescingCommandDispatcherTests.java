@@ -0,0 +1,350 @@
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
+
+@ExtendWith(MockitoExtension.class)
+public class CoalescingCommandDispatcherTests {
+
+    private static final Duration LONG_WINDOW = Duration.ofSeconds(30);
+
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw when decorated dispatcher is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new CoalescingCommandDispatcher(null, LONG_WINDOW, 1);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when window is not positive")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new CoalescingCommandDispatcher(mockCommandDispatcher, Duration.ZERO, 1);
+            });
+            assertThrows(IllegalArgumentException.class, () -> {
+                new CoalescingCommandDispatcher(mockCommandDispatcher, null, 1);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when max coalesced commands is less than 1")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new CoalescingCommandDispatcher(mockCommandDispatcher, LONG_WINDOW, 0);
+            });
+        }
+    }
+
+    @Nested
+    public class SendMethod {
+        @Test
+        @DisplayName("should dispatch non-coalescing commands right away on the calling thread")
+        public void test1() {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var testCommand = new TestCommand();
+
+            try (var commandDispatcher = new CoalescingCommandDispatcher(
+                    decoratedDispatcher, LONG_WINDOW, 100)) {
+                commandDispatcher.send(testCommand);
+
+                assertEquals(List.of(testCommand), decoratedDispatcher.handledCommands());
+                assertSame(Thread.currentThread(), decoratedDispatcher.handlerThreads().get(0));
+            }
+        }
+
+        @Test
+        @DisplayName("should only dispatch latest command per key once window has elapsed")
+        public void test2() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var latestA = new PriceUpdateCommand("A", 3);
+            var latestB = new PriceUpdateCommand("B", 2);
+
+            try (var commandDispatcher = new CoalescingCommandDispatcher(
+                    decoratedDispatcher, Duration.ofMillis(50), 100)) {
+                decoratedDispatcher.expectCommands(2);
+
+                commandDispatcher.send(new PriceUpdateCommand("A", 1));
+                commandDispatcher.send(new PriceUpdateCommand("B", 1));
+                commandDispatcher.send(new PriceUpdateCommand("A", 2));
+                commandDispatcher.send(latestB);
+                commandDispatcher.send(latestA);
+
+                decoratedDispatcher.awaitExpectedCommands();
+
+                assertEquals(List.of(latestA, latestB), decoratedDispatcher.handledCommands());
+                assertEquals(3, commandDispatcher.getCoalescedCount());
+            }
+        }
+
+        @Test
+        @DisplayName("should dispatch merged command when command overrides coalesceWith")
+        public void test3() {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = new CoalescingCommandDispatcher(
+                    decoratedDispatcher, LONG_WINDOW, 100)) {
+                commandDispatcher.send(new CounterCommand("A", 1));
+                commandDispatcher.send(new CounterCommand("A", 2));
+                commandDispatcher.send(new CounterCommand("A", 3));
+            }
+
+            List<Object> handledCommands = decoratedDispatcher.handledCommands();
+            assertEquals(1, handledCommands.size());
+            assertEquals(6, ((CounterCommand)handledCommands.get(0)).increment);
+        }
+
+        @Test
+        @DisplayName("should close window early once max coalesced commands has been reached")
+        public void test4() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var thirdCommand = new PriceUpdateCommand("A", 3);
+
+            try (var commandDispatcher = new CoalescingCommandDispatcher(
+                    decoratedDispatcher, LONG_WINDOW, 3)) {
+                decoratedDispatcher.expectCommands(1);
+
+                commandDispatcher.send(new PriceUpdateCommand("A", 1));
+                commandDispatcher.send(new PriceUpdateCommand("A", 2));
+                commandDispatcher.send(thirdCommand);
+
+                decoratedDispatcher.awaitExpectedCommands();
+                assertEquals(List.of(thirdCommand), decoratedDispatcher.handledCommands());
+
+                // Next command opens a new window.
+                commandDispatcher.send(new PriceUpdateCommand("A", 4));
+                assertEquals(1, decoratedDispatcher.handledCommands().size());
+            }
+
+            assertEquals(2, decoratedDispatcher.handledCommands().size());
+        }
+
+        @Test
+        @DisplayName("should not coalesce commands of different types with equal keys")
+        public void test5() {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var priceUpdate = new PriceUpdateCommand("A", 1);
+            var counter = new CounterCommand("A", 1);
+
+            try (var commandDispatcher = new CoalescingCommandDispatcher(
+                    decoratedDispatcher, LONG_WINDOW, 100)) {
+                commandDispatcher.send(priceUpdate);
+                commandDispatcher.send(counter);
+            }
+
+            List<Object> handledCommands = decoratedDispatcher.handledCommands();
+            assertEquals(2, handledCommands.size());
+            assertTrue(handledCommands.contains(priceUpdate));
+            assertTrue(handledCommands.contains(counter));
+        }
+
+        @Test
+        @DisplayName("should throw when coalesceWith returns null")
+        public void test6(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = new CoalescingCommandDispatcher(
+                    mockCommandDispatcher, LONG_WINDOW, 100)) {
+                commandDispatcher.send(new NullCoalescingCommand());
+
+                assertThrows(CommandStackException.class, () -> {
+                    commandDispatcher.send(new NullCoalescingCommand());
+                });
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when coalescing key is null")
+        public void test7(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = new CoalescingCommandDispatcher(
+                    mockCommandDispatcher, LONG_WINDOW, 100)) {
+                assertThrows(IllegalArgumentException.class, () -> {
+                    commandDispatcher.send(new PriceUpdateCommand(null, 1));
+                });
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when dispatcher has been closed")
+        public void test8(@Mock CommandDispatcher mockCommandDispatcher) {
+            var commandDispatcher = new CoalescingCommandDispatcher(
+                mockCommandDispatcher, LONG_WINDOW, 100);
+            commandDispatcher.close();
+
+            assertThrows(CommandRejectedException.class, () -> {
+                commandDispatcher.send(new PriceUpdateCommand("A", 1));
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when command argument is null")
+        public void test9(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = new CoalescingCommandDispatcher(
+                    mockCommandDispatcher, LONG_WINDOW, 100)) {
+                assertThrows(IllegalArgumentException.class, () -> {
+                    commandDispatcher.send(null);
+                });
+            }
+        }
+
+        @Test
+        @DisplayName("should report exceptions of decorated dispatcher")
+        public void test10() throws Exception {
+            var reportedExceptions = new ArrayList<Throwable>();
+            var reported = new CountDownLatch(1);
+            var exception = new IllegalStateException();
+
+            CommandDispatcher decoratedDispatcher = new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    throw exception;
+                }
+            };
+
+            try (var commandDispatcher = new CoalescingCommandDispatcher(
+                    decoratedDispatcher, Duration.ofMillis(10), 100, task -> {
+                        var thread = new Thread(task);
+                        thread.setDaemon(true);
+                        thread.setUncaughtExceptionHandler((t, ex) -> {
+                            synchronized (reportedExceptions) {
+                                reportedExceptions.add(ex);
+                            }
+                            reported.countDown();
+                        });
+                        return thread;
+                    })) {
+                commandDispatcher.send(new PriceUpdateCommand("A", 1));
+                assertTrue(reported.await(10, TimeUnit.SECONDS));
+            }
+
+            synchronized (reportedExceptions) {
+                assertEquals(List.of(exception), reportedExceptions);
+            }
+        }
+    }
+
+    @Nested
+    public class CloseMethod {
+        @Test
+        @DisplayName("should dispatch open windows before returning")
+        public void test1() {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var latestA = new PriceUpdateCommand("A", 2);
+            var latestB = new PriceUpdateCommand("B", 1);
+
+            var commandDispatcher = new CoalescingCommandDispatcher(
+                decoratedDispatcher, LONG_WINDOW, 100);
+
+            commandDispatcher.send(new PriceUpdateCommand("A", 1));
+            commandDispatcher.send(latestA);
+            commandDispatcher.send(latestB);
+            commandDispatcher.close();
+
+            List<Object> handledCommands = decoratedDispatcher.handledCommands();
+            assertEquals(2, handledCommands.size());
+            assertTrue(handledCommands.contains(latestA));
+            assertTrue(handledCommands.contains(latestB));
+        }
+    }
+
+    public static class PriceUpdateCommand implements CoalescingCommand<PriceUpdateCommand> {
+        private final String symbol;
+        private final int price;
+
+        public PriceUpdateCommand(String symbol, int price) {
+            this.symbol = symbol;
+            this.price = price;
+        }
+
+        @Override
+        public Object getCoalescingKey() {
+            return symbol;
+        }
+    }
+
+    public static class CounterCommand implements CoalescingCommand<CounterCommand> {
+        private final String counterName;
+        private final int increment;
+
+        public CounterCommand(String counterName, int increment) {
+            this.counterName = counterName;
+            this.increment = increment;
+        }
+
+        @Override
+        public Object getCoalescingKey() {
+            return counterName;
+        }
+
+        @Override
+        public CounterCommand coalesceWith(CounterCommand newerCommand) {
+            return new CounterCommand(counterName, increment + newerCommand.increment);
+        }
+    }
+
+    public static class NullCoalescingCommand implements CoalescingCommand<NullCoalescingCommand> {
+        @Override
+        public Object getCoalescingKey() {
+            return "key";
+        }
+
+        @Override
+        public NullCoalescingCommand coalesceWith(NullCoalescingCommand newerCommand) {
+            return null;
+        }
+    }
+
+    /**
+     * Records handled commands and lets tests wait for an expected number of commands.
+     */
+    private static class RecordingDispatcher implements CommandDispatcher {
+        private final List<Object> handledCommands = new ArrayList<>();
+        private final List<Thread> handlerThreads = new ArrayList<>();
+        private volatile CountDownLatch expectedCommands = new CountDownLatch(0);
+
+        @Override
+        public <TCommand> void send(TCommand command) {
+            synchronized (this) {
+                handledCommands.add(command);
+                handlerThreads.add(Thread.currentThread());
+            }
+            expectedCommands.countDown();
+        }
+
+        void expectCommands(int count) {
+            expectedCommands = new CountDownLatch(count);
+        }
+
+        void awaitExpectedCommands() throws InterruptedException {
+            assertTrue(expectedCommands.await(10, TimeUnit.SECONDS));
+        }
+
+        synchronized List<Object> handledCommands() {
+            return new ArrayList<>(handledCommands);
+        }
+
+        synchronized List<Thread> handlerThreads() {
+            return new ArrayList<>(handlerThreads);
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
+
+@ExtendWith(MockitoExtension.class)
+public class DurableAsyncCommandDispatcherTests {
+
+    private Path journalDirectory;
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        journalDirectory = Files.createTempDirectory("xerj-commandstack-journal-");
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        executorService.shutdownNow();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        try (var paths = Files.walk(journalDirectory)) {
+            for (Path path : paths.sorted((a, b) -> b.compareTo(a)).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw when decorated dispatcher is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new DurableAsyncCommandDispatcher(
+                    null, executorService, journalDirectory, CommandCodec.javaSerialization());
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when executor service is null")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new DurableAsyncCommandDispatcher(
+                    mockCommandDispatcher, null, journalDirectory, CommandCodec.javaSerialization());
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when journal directory is null")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new DurableAsyncCommandDispatcher(
+                    mockCommandDispatcher, executorService, null, CommandCodec.javaSerialization());
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when command codec is null")
+        public void test4(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new DurableAsyncCommandDispatcher(
+                    mockCommandDispatcher, executorService, journalDirectory, null);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when segment size cannot fit an entry")
+        public void test5(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new DurableAsyncCommandDispatcher(
+                    mockCommandDispatcher, executorService, journalDirectory, 
+                    CommandCodec.javaSerialization(), CommandJournal.ENTRY_HEADER_SIZE);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when journal is already open")
+        public void test6(@Mock CommandDispatcher mockCommandDispatcher) {
+            var commandDispatcher = newDispatcher(mockCommandDispatcher, executorService);
+            try {
+                assertThrows(CommandStackException.class, () -> {
+                    newDispatcher(mockCommandDispatcher, executorService);
+                });
+            } finally {
+                commandDispatcher.close();
+            }
+
+            // Released on close.
+            newDispatcher(mockCommandDispatcher, executorService).close();
+        }
+    }
+
+    @Nested
+    public class SendMethod {
+        @Test
+        @DisplayName("should dispatch command via executor service")
+        public void test1() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = newDispatcher(decoratedDispatcher, executorService)) {
+                commandDispatcher.send(new TestDurableCommand(1));
+                awaitExecutorService();
+            }
+
+            assertEquals(List.of(new TestDurableCommand(1)), decoratedDispatcher.handledCommands());
+            assertNotSame(Thread.currentThread(), decoratedDispatcher.handlerThreads().get(0));
+        }
+
+        @Test
+        @DisplayName("should dispatch synchronous commands on the calling thread without journaling them")
+        public void test2() {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            // Not serializable.
+            var synchronousCommand = new TestSynchronousCommand();
+
+            try (var commandDispatcher = newDispatcher(decoratedDispatcher, executorService)) {
+                commandDispatcher.send(synchronousCommand);
+
+                assertSame(synchronousCommand, decoratedDispatcher.handledCommands().get(0));
+                assertSame(Thread.currentThread(), decoratedDispatcher.handlerThreads().get(0));
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when dispatcher has been closed")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            var commandDispatcher = newDispatcher(mockCommandDispatcher, executorService);
+            commandDispatcher.close();
+
+            assertThrows(CommandRejectedException.class, () -> {
+                commandDispatcher.send(new TestDurableCommand(1));
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when encoded command does not fit in a journal segment")
+        public void test4(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = new DurableAsyncCommandDispatcher(
+                    mockCommandDispatcher, executorService, journalDirectory, 
+                    CommandCodec.javaSerialization(), 64)) {
+                assertThrows(CommandRejectedException.class, () -> {
+                    commandDispatcher.send(new TestDurableCommand(1));
+                });
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when command cannot be encoded")
+        public void test5(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = newDispatcher(mockCommandDispatcher, executorService)) {
+                assertThrows(CommandStackException.class, () -> {
+                    // Not serializable.
+                    commandDispatcher.send(new Object());
+                });
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when command argument is null")
+        public void test6(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = newDispatcher(mockCommandDispatcher, executorService)) {
+                assertThrows(IllegalArgumentException.class, () -> {
+                    commandDispatcher.send(null);
+                });
+            }
+        }
+    }
+
+    @Nested
+    public class SendAsyncMethod {
+        @Test
+        @DisplayName("should complete when command has been handled")
+        public void test1() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = newDispatcher(decoratedDispatcher, executorService)) {
+                commandDispatcher.sendAsync(new TestDurableCommand(1))
+                    .toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+                assertEquals(List.of(new TestDurableCommand(1)), decoratedDispatcher.handledCommands());
+            }
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when command handler throws")
+        public void test2() throws Exception {
+            var exception = new IllegalStateException();
+            CommandDispatcher decoratedDispatcher = new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    throw exception;
+                }
+            };
+
+            try (var commandDispatcher = newDispatcher(decoratedDispatcher, executorService)) {
+                CompletableFuture<Void> completion = 
+                    commandDispatcher.sendAsync(new TestDurableCommand(1)).toCompletableFuture();
+
+                var thrown = assertThrows(ExecutionException.class, () -> 
+                    completion.get(10, TimeUnit.SECONDS));
+                assertSame(exception, thrown.getCause());
+            }
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when dispatcher has been closed")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            var commandDispatcher = newDispatcher(mockCommandDispatcher, executorService);
+            commandDispatcher.close();
+
+            CompletableFuture<Void> completion = 
+                commandDispatcher.sendAsync(new TestDurableCommand(1)).toCompletableFuture();
+
+            var thrown = assertThrows(ExecutionException.class, completion::get);
+            assertTrue(thrown.getCause() instanceof CommandRejectedException);
+        }
+    }
+
+    @Nested
+    public class SendAllMethod {
+        @Test
+        @DisplayName("should dispatch all commands via executor service")
+        public void test1() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var commands = testCommands(1, 10);
+
+            try (var commandDispatcher = newDispatcher(decoratedDispatcher, executorService)) {
+                commandDispatcher.sendAll(commands);
+                awaitExecutorService();
+            }
+
+            assertEquals(commands, decoratedDispatcher.handledCommands());
+        }
+
+        @Test
+        @DisplayName("should not journal any command when a command cannot be encoded")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher, 
+                @Mock ExecutorService mockExecutorService) {
+            try (var commandDispatcher = newDispatcher(mockCommandDispatcher, mockExecutorService)) {
+                assertThrows(CommandStackException.class, () -> {
+                    commandDispatcher.sendAll(List.of(new TestDurableCommand(1), new Object()));
+                });
+            }
+
+            try (var commandDispatcher = newDispatcher(mockCommandDispatcher, mockExecutorService)) {
+                assertEquals(0, commandDispatcher.getReplayedCount());
+            }
+        }
+    }
+
+    @Nested
+    public class Replay {
+        @Test
+        @DisplayName("should replay commands which had not been handled in the order they were dispatched")
+        public void test1(@Mock CommandDispatcher mockCommandDispatcher, 
+                @Mock ExecutorService mockExecutorService) throws Exception {
+            var commands = testCommands(1, 5);
+
+            // Commands are never handled.
+            try (var commandDispatcher = newDispatcher(mockCommandDispatcher, mockExecutorService)) {
+                commands.forEach(commandDispatcher::send);
+            }
+
+            var decoratedDispatcher = new RecordingDispatcher();
+            try (var commandDispatcher = newDispatcher(decoratedDispatcher, executorService)) {
+                assertEquals(5, commandDispatcher.getReplayedCount());
+                awaitExecutorService();
+            }
+
+            assertEquals(commands, decoratedDispatcher.handledCommands());
+        }
+
+        @Test
+        @DisplayName("should not replay commands which have been handled")
+        public void test2() throws Exception {
+            var exception = new IllegalStateException();
+            CommandDispatcher decoratedDispatcher = new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (((TestDurableCommand)command).id % 2 == 0) {
+                        throw exception;
+                    }
+                }
+            };
+
+            try (var commandDispatcher = newDispatcher(decoratedDispatcher, executorService)) {
+                for (TestDurableCommand command : testCommands(1, 10)) {
+                    commandDispatcher.sendAsync(command);
+                }
+                awaitExecutorService();
+            }
+
+            try (var commandDispatcher = newDispatcher(decoratedDispatcher, executorService)) {
+                assertEquals(0, commandDispatcher.getReplayedCount());
+            }
+        }
+
+        @Test
+        @DisplayName("should replay commands across segments and delete fully acknowledged segments")
+        public void test3(@Mock ExecutorService mockExecutorService) throws Exception {
+            var blocked = new CountDownLatch(1);
+            var released = new CountDownLatch(1);
+            CommandDispatcher decoratedDispatcher = new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (((TestDurableCommand)command).id == 16) {
+                        blocked.countDown();
+                        try {
+                            // Keep the remaining commands from being handled until the journal is reopened.
+                            released.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+            };
+
+            var commandDispatcher = newDispatcher(decoratedDispatcher, executorService, 512);
+            testCommands(1, 20).forEach(commandDispatcher::send);
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+            commandDispatcher.close();
+
+            var recordingDispatcher = new RecordingDispatcher();
+            try (var replayingDispatcher = newDispatcher(recordingDispatcher, mockExecutorService, 512)) {
+                assertEquals(5, replayingDispatcher.getReplayedCount());
+
+                List<Path> segmentFiles = segmentFiles();
+                // Commands were journaled across segments.
+                assertTrue(segmentFiles.size() > 1);
+                // The first segment only contained handled commands.
+                assertTrue(segmentFiles.stream().noneMatch(file -> 
+                    file.getFileName().toString().equals(String.format("segment-%020d.journal", 0))));
+            } finally {
+                released.countDown();
+            }
+        }
+
+        @Test
+        @DisplayName("should not replay command whose journal entry is torn")
+        public void test4(@Mock CommandDispatcher mockCommandDispatcher, 
+                @Mock ExecutorService mockExecutorService) throws Exception {
+            try (var commandDispatcher = newDispatcher(mockCommandDispatcher, mockExecutorService)) {
+                commandDispatcher.send(new TestDurableCommand(1));
+                commandDispatcher.send(new TestDurableCommand(2));
+            }
+
+            // Corrupt the last byte of the second entry.
+            Path segmentFile = segmentFiles().get(0);
+            try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(4);
+                channel.read(header, 0);
+                int secondEntryOffset = CommandJournal.ENTRY_HEADER_SIZE + header.getInt(0);
+                header.clear();
+                channel.read(header, secondEntryOffset);
+                int lastByteOffset = secondEntryOffset + CommandJournal.ENTRY_HEADER_SIZE + header.getInt(0) - 1;
+                channel.write(ByteBuffer.wrap(new byte[] { 42 }), lastByteOffset);
+            }
+
+            var decoratedDispatcher = new RecordingDispatcher();
+            try (var commandDispatcher = newDispatcher(decoratedDispatcher, executorService)) {
+                assertEquals(1, commandDispatcher.getReplayedCount());
+                awaitExecutorService();
+            }
+
+            assertEquals(List.of(new TestDurableCommand(1)), decoratedDispatcher.handledCommands());
+        }
+
+        @Test
+        @DisplayName("should not replay command which was rejected by the executor service")
+        public void test5(@Mock CommandDispatcher mockCommandDispatcher) throws Exception {
+            var rejectingExecutorService = Executors.newSingleThreadExecutor();
+            rejectingExecutorService.shutdown();
+
+            try (var commandDispatcher = newDispatcher(mockCommandDispatcher, rejectingExecutorService)) {
+                assertThrows(RejectedExecutionException.class, () -> {
+                    commandDispatcher.send(new TestDurableCommand(1));
+                });
+            }
+
+            try (var commandDispatcher = newDispatcher(mockCommandDispatcher, executorService)) {
+                assertEquals(0, commandDispatcher.getReplayedCount());
+            }
+        }
+
+        @Test
+        @DisplayName("should throw and release the journal when a journaled command cannot be decoded")
+        public void test6(@Mock CommandDispatcher mockCommandDispatcher, 
+                @Mock ExecutorService mockExecutorService) {
+            try (var commandDispatcher = newDispatcher(mockCommandDispatcher, mockExecutorService)) {
+                commandDispatcher.send(new TestDurableCommand(1));
+            }
+
+            CommandCodec failingCodec = new CommandCodec() {
+                @Override
+                public byte[] encode(Object command) {
+                    return new byte[0];
+                }
+
+                @Override
+                public Object decode(byte[] encodedCommand) {
+                    throw new CommandStackException("Failed to decode command.");
+                }
+            };
+
+            assertThrows(CommandStackException.class, () -> {
+                new DurableAsyncCommandDispatcher(
+                    mockCommandDispatcher, executorService, journalDirectory, failingCodec);
+            });
+
+            try (var commandDispatcher = newDispatcher(mockCommandDispatcher, mockExecutorService)) {
+                assertEquals(1, commandDispatcher.getReplayedCount());
+            }
+        }
+
+        @Test
+        @DisplayName("should replay commands whose encoding is empty")
+        public void test7(@Mock CommandDispatcher mockCommandDispatcher, 
+                @Mock ExecutorService mockExecutorService) throws Exception {
+            CommandCodec stringCodec = new CommandCodec() {
+                @Override
+                public byte[] encode(Object command) {
+                    return ((String)command).getBytes(StandardCharsets.UTF_8);
+                }
+
+                @Override
+                public Object decode(byte[] encodedCommand) {
+                    return new String(encodedCommand, StandardCharsets.UTF_8);
+                }
+            };
+            var commands = List.of("a", "", "b", "c");
+
+            // Commands are never handled.
+            try (var commandDispatcher = new DurableAsyncCommandDispatcher(
+                    mockCommandDispatcher, mockExecutorService, journalDirectory, stringCodec)) {
+                commands.forEach(commandDispatcher::send);
+            }
+
+            var decoratedDispatcher = new RecordingDispatcher();
+            try (var commandDispatcher = new DurableAsyncCommandDispatcher(
+                    decoratedDispatcher, executorService, journalDirectory, stringCodec)) {
+                assertEquals(4, commandDispatcher.getReplayedCount());
+                awaitExecutorService();
+            }
+
+            assertEquals(commands, decoratedDispatcher.handledCommands());
+        }
+    }
+
+    private DurableAsyncCommandDispatcher newDispatcher(
+            CommandDispatcher decoratedDispatcher, 
+            ExecutorService executorService) {
+        return new DurableAsyncCommandDispatcher(
+            decoratedDispatcher, executorService, journalDirectory, CommandCodec.javaSerialization());
+    }
+
+    private DurableAsyncCommandDispatcher newDispatcher(
+            CommandDispatcher decoratedDispatcher, 
+            ExecutorService executorService,
+            int segmentSize) {
+        return new DurableAsyncCommandDispatcher(
+            decoratedDispatcher, executorService, journalDirectory, CommandCodec.javaSerialization(), segmentSize);
+    }
+
+    /**
+     * Wait for the single-threaded executor service to run all tasks that have been submitted so far.
+     */
+    private void awaitExecutorService() throws Exception {
+        executorService.submit(() -> {}).get(10, TimeUnit.SECONDS);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (var files = Files.list(journalDirectory)) {
+            return files
+                .filter(file -> file.getFileName().toString().endsWith(".journal"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static List<TestDurableCommand> testCommands(int firstId, int lastId) {
+        return IntStream.rangeClosed(firstId, lastId)
+            .mapToObj(TestDurableCommand::new)
+            .collect(Collectors.toList());
+    }
+
+    private static class TestDurableCommand implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        TestDurableCommand(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof TestDurableCommand && ((TestDurableCommand)obj).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return "TestDurableCommand" + id;
+        }
+    }
+
+    /**
+     * Records handled commands.
+     */
+    private static class RecordingDispatcher implements CommandDispatcher {
+        private final List<Object> handledCommands = new ArrayList<>();
+        private final List<Thread> handlerThreads = new ArrayList<>();
+
+        @Override
+        public synchronized <TCommand> void send(TCommand command) {
+            handledCommands.add(command);
+            handlerThreads.add(Thread.currentThread());
+        }
+
+        synchronized List<Object> handledCommands() {
+            return new ArrayList<>(handledCommands);
+        }
+
+        synchronized List<Thread> handlerThreads() {
+            return new ArrayList<>(handlerThreads);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+
+@ExtendWith(MockitoExtension.class)
+public class ForkJoinCommandDispatcherTests {
+
+    private ForkJoinPool forkJoinPool;
+
+    @BeforeEach
+    public void setup() {
+        forkJoinPool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        forkJoinPool.shutdownNow();
+    }
+
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw when decorated dispatcher is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ForkJoinCommandDispatcher(null);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when fork/join pool is null")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ForkJoinCommandDispatcher(mockCommandDispatcher, null);
+            });
+        }
+
+        @Test
+        @DisplayName("should use common pool by default")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            var commandDispatcher = new ForkJoinCommandDispatcher(mockCommandDispatcher);
+            assertSame(ForkJoinPool.commonPool(), commandDispatcher.getForkJoinPool());
+        }
+    }
+
+    @Nested
+    public class SendMethod {
+        @Test
+        @DisplayName("should handle command on a worker thread of the fork/join pool")
+        public void test1() throws Exception {
+            var handlerThread = new CompletableFuture<Thread>();
+
+            var commandDispatcher = new ForkJoinCommandDispatcher(new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    handlerThread.complete(Thread.currentThread());
+                }
+            }, forkJoinPool);
+
+            commandDispatcher.send(new TestCommand());
+
+            Thread thread = handlerThread.get(10, TimeUnit.SECONDS);
+            assertTrue(thread instanceof ForkJoinWorkerThread);
+            assertSame(forkJoinPool, ((ForkJoinWorkerThread)thread).getPool());
+        }
+
+        @Test
+        @DisplayName("should handle synchronous command on the calling thread")
+        public void test2() {
+            var handlerThread = new AtomicReference<Thread>();
+
+            var commandDispatcher = new ForkJoinCommandDispatcher(new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    handlerThread.set(Thread.currentThread());
+                }
+            }, forkJoinPool);
+
+            commandDispatcher.send(new TestSynchronousCommand());
+
+            assertSame(Thread.currentThread(), handlerThread.get());
+        }
+
+        @Test
+        @DisplayName("should throw when command argument is null")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            var commandDispatcher = new ForkJoinCommandDispatcher(mockCommandDispatcher, forkJoinPool);
+
+            assertThrows(IllegalArgumentException.class, () -> {
+                commandDispatcher.send(null);
+            });
+        }
+    }
+
+    @Nested
+    public class SendAsyncMethod {
+        @Test
+        @DisplayName("should complete when command has been handled")
+        public void test1(@Mock CommandDispatcher mockCommandDispatcher) throws Exception {
+            var commandDispatcher = new ForkJoinCommandDispatcher(mockCommandDispatcher, forkJoinPool);
+
+            commandDispatcher.sendAsync(new TestCommand())
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when command handler throws")
+        public void test2() {
+            var exception = new IllegalStateException();
+
+            var commandDispatcher = new ForkJoinCommandDispatcher(new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    throw exception;
+                }
+            }, forkJoinPool);
+
+            CompletableFuture<Void> completion = commandDispatcher
+                .sendAsync(new TestCommand())
+                .toCompletableFuture();
+
+            var thrown = assertThrows(ExecutionException.class, () -> 
+                completion.get(10, TimeUnit.SECONDS));
+            assertSame(exception, thrown.getCause());
+        }
+    }
+
+    @Nested
+    public class ForkMethod {
+        @Test
+        @DisplayName("should handle all child commands when forkAll returns")
+        public void test1() throws Exception {
+            var handledChildren = new AtomicInteger();
+            var handledChildrenAfterForkAll = new AtomicInteger();
+
+            var commandDispatcher = new ForkJoinCommandDispatcher(new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (command instanceof ChildCommand) {
+                        handledChildren.incrementAndGet();
+                        return;
+                    }
+
+                    List<ChildCommand> children = new ArrayList<>();
+                    for (int i = 0; i < 1000; i++) {
+                        children.add(new ChildCommand(i));
+                    }
+                    CommandForkContext.current().forkAll(children);
+                    handledChildrenAfterForkAll.set(handledChildren.get());
+                }
+            }, forkJoinPool);
+
+            commandDispatcher.sendAsync(new TestCommand())
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+            assertEquals(1000, handledChildrenAfterForkAll.get());
+        }
+
+        @Test
+        @DisplayName("should join child commands which were not joined before completing the parent command")
+        public void test2() throws Exception {
+            var handledChildren = new AtomicInteger();
+
+            var commandDispatcher = new ForkJoinCommandDispatcher(new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (command instanceof ChildCommand) {
+                        Thread.yield();
+                        handledChildren.incrementAndGet();
+                        return;
+                    }
+
+                    for (int i = 0; i < 100; i++) {
+                        CommandForkContext.current().fork(new ChildCommand(i));
+                    }
+                }
+            }, forkJoinPool);
+
+            commandDispatcher.sendAsync(new TestCommand())
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+            assertEquals(100, handledChildren.get());
+        }
+
+        @Test
+        @DisplayName("should rethrow child command failure when child command is joined")
+        public void test3() throws Exception {
+            var exception = new IllegalStateException();
+            var joinFailure = new CompletableFuture<Throwable>();
+
+            var commandDispatcher = new ForkJoinCommandDispatcher(new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (command instanceof ChildCommand) {
+                        throw exception;
+                    }
+
+                    ForkedCommand child = CommandForkContext.current().fork(new ChildCommand(0));
+                    try {
+                        child.join();
+                        joinFailure.complete(null);
+                    } catch (Throwable ex) {
+                        joinFailure.complete(ex);
+                    }
+                }
+            }, forkJoinPool);
+
+            // The failure has been handled by the parent command handler.
+            commandDispatcher.sendAsync(new TestCommand())
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+            assertSame(exception, joinFailure.get(10, TimeUnit.SECONDS));
+        }
+
+        @Test
+        @DisplayName("should fail parent command when a child command which was not joined fails")
+        public void test4() {
+            var exception = new IllegalStateException();
+
+            var commandDispatcher = new ForkJoinCommandDispatcher(new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (command instanceof ChildCommand) {
+                        if (((ChildCommand)command).index == 5) {
+                            throw exception;
+                        }
+                        return;
+                    }
+
+                    for (int i = 0; i < 10; i++) {
+                        CommandForkContext.current().fork(new ChildCommand(i));
+                    }
+                }
+            }, forkJoinPool);
+
+            CompletableFuture<Void> completion = commandDispatcher
+                .sendAsync(new TestCommand())
+                .toCompletableFuture();
+
+            var thrown = assertThrows(ExecutionException.class, () -> 
+                completion.get(10, TimeUnit.SECONDS));
+            assertSame(exception, thrown.getCause());
+        }
+
+        @Test
+        @DisplayName("should handle child commands in parallel")
+        public void test5() throws Exception {
+            var bothChildrenStarted = new CountDownLatch(2);
+            var childThreads = ConcurrentHashMap.<Thread>newKeySet();
+
+            var commandDispatcher = new ForkJoinCommandDispatcher(new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (command instanceof ChildCommand) {
+                        childThreads.add(Thread.currentThread());
+                        bothChildrenStarted.countDown();
+                        try {
+                            // Only returns true if the other child is handled on another thread meanwhile.
+                            if (!bothChildrenStarted.await(10, TimeUnit.SECONDS)) {
+                                throw new IllegalStateException("Child commands were not handled in parallel.");
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return;
+                    }
+
+                    CommandForkContext.current().forkAll(List.of(new ChildCommand(0), new ChildCommand(1)));
+                }
+            }, forkJoinPool);
+
+            commandDispatcher.sendAsync(new TestCommand())
+                .toCompletableFuture()
+                .get(30, TimeUnit.SECONDS);
+
+            assertEquals(2, childThreads.size());
+        }
+
+        @Test
+        @DisplayName("should let child commands of synchronous commands be forked and joined")
+        public void test6() {
+            var handledChildren = new AtomicInteger();
+
+            var commandDispatcher = new ForkJoinCommandDispatcher(new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (command instanceof ChildCommand) {
+                        handledChildren.incrementAndGet();
+                        return;
+                    }
+
+                    CommandForkContext.current().forkAll(List.of(new ChildCommand(0), new ChildCommand(1)));
+                }
+            }, forkJoinPool);
+
+            commandDispatcher.send(new TestSynchronousCommand());
+
+            assertEquals(2, handledChildren.get());
+        }
+
+        @Test
+        @DisplayName("should throw when current thread is not handling a command")
+        public void test7() {
+            assertThrows(IllegalStateException.class, () -> CommandForkContext.current());
+        }
+
+        @Test
+        @DisplayName("should throw when forking after the command has been handled")
+        public void test8() {
+            var context = new AtomicReference<CommandForkContext>();
+
+            var commandDispatcher = new ForkJoinCommandDispatcher(new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    context.set(CommandForkContext.current());
+                }
+            }, forkJoinPool);
+
+            commandDispatcher.send(new TestSynchronousCommand());
+
+            assertThrows(IllegalStateException.class, () -> context.get().fork(new ChildCommand(0)));
+        }
+
+        @Test
+        @DisplayName("should give each child command its own context")
+        public void test9() throws Exception {
+            var grandchildren = new AtomicInteger();
+
+            var commandDispatcher = new ForkJoinCommandDispatcher(new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (command instanceof GrandchildCommand) {
+                        grandchildren.incrementAndGet();
+                    } else if (command instanceof ChildCommand) {
+                        CommandForkContext.current().forkAll(List.of(new GrandchildCommand(), new GrandchildCommand()));
+                    } else {
+                        CommandForkContext.current().forkAll(List.of(new ChildCommand(0), new ChildCommand(1)));
+                    }
+                }
+            }, forkJoinPool);
+
+            commandDispatcher.sendAsync(new TestCommand())
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+            assertEquals(4, grandchildren.get());
+        }
+    }
+
+    public static class ChildCommand {
+        private final int index;
+
+        public ChildCommand(int index) {
+            this.index = index;
+        }
+    }
+
+    public static class GrandchildCommand {}
+}
@@ -0,0 +1,250 @@
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+
+@ExtendWith(MockitoExtension.class)
+public class PartitionedAsyncCommandDispatcherTests {
+
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw when decorated dispatcher is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new PartitionedAsyncCommandDispatcher(null, 1);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when lane count is less than 1")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new PartitionedAsyncCommandDispatcher(mockCommandDispatcher, 0);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when thread factory is null")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new PartitionedAsyncCommandDispatcher(mockCommandDispatcher, 1, null);
+            });
+        }
+    }
+
+    @Nested
+    public class SendMethod {
+        @Test
+        @DisplayName("should execute commands with the same partition key one at a time in dispatch order")
+        public void test1() {
+            Map<Object, List<Integer>> handledSequences = new ConcurrentHashMap<>();
+            Map<Object, AtomicInteger> concurrentCommands = new ConcurrentHashMap<>();
+            var maxConcurrentCommandsPerKey = new AtomicInteger();
+
+            CommandDispatcher decoratedDispatcher = new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    var partitionedCommand = (TestPartitionedCommand)command;
+                    Object key = partitionedCommand.getPartitionKey();
+
+                    var concurrent = concurrentCommands.computeIfAbsent(key, k -> new AtomicInteger());
+                    maxConcurrentCommandsPerKey.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    handledSequences.computeIfAbsent(key, k -> new ArrayList<>())
+                        .add(partitionedCommand.sequence);
+                    Thread.yield();
+                    concurrent.decrementAndGet();
+                }
+            };
+
+            var keys = List.of("order-1", "order-2", "order-3", "order-4", "order-5");
+
+            try (var commandDispatcher = new PartitionedAsyncCommandDispatcher(decoratedDispatcher, 3)) {
+                for (int sequence = 0; sequence < 200; sequence++) {
+                    for (String key : keys) {
+                        commandDispatcher.send(new TestPartitionedCommand(key, sequence));
+                    }
+                }
+            }
+
+            assertEquals(1, maxConcurrentCommandsPerKey.get());
+            for (String key : keys) {
+                List<Integer> sequences = handledSequences.get(key);
+                assertEquals(200, sequences.size());
+                for (int i = 0; i < sequences.size(); i++) {
+                    assertEquals(i, sequences.get(i));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should execute commands with different partition keys in parallel")
+        public void test2() throws Exception {
+            var key1Handled = new CountDownLatch(1);
+            var key0SawKey1 = new CompletableFuture<Boolean>();
+
+            CommandDispatcher decoratedDispatcher = new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    Object key = ((TestPartitionedCommand)command).getPartitionKey();
+                    if (key.equals(0)) {
+                        try {
+                            // Only completes if key 1 is handled on another lane meanwhile.
+                            key0SawKey1.complete(key1Handled.await(10, TimeUnit.SECONDS));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    } else {
+                        key1Handled.countDown();
+                    }
+                }
+            };
+
+            try (var commandDispatcher = new PartitionedAsyncCommandDispatcher(decoratedDispatcher, 2)) {
+                commandDispatcher.send(new TestPartitionedCommand(0, 0));
+                commandDispatcher.send(new TestPartitionedCommand(1, 0));
+
+                assertTrue(key0SawKey1.get(10, TimeUnit.SECONDS));
+            }
+        }
+
+        @Test
+        @DisplayName("should distribute commands without partition key across lanes")
+        public void test3() {
+            Map<Thread, Integer> commandsPerThread = new HashMap<>();
+
+            CommandDispatcher decoratedDispatcher = new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    synchronized (commandsPerThread) {
+                        commandsPerThread.merge(Thread.currentThread(), 1, Integer::sum);
+                    }
+                }
+            };
+
+            try (var commandDispatcher = new PartitionedAsyncCommandDispatcher(decoratedDispatcher, 4)) {
+                for (int i = 0; i < 40; i++) {
+                    commandDispatcher.send(new TestCommand());
+                }
+            }
+
+            assertEquals(4, commandsPerThread.size());
+            commandsPerThread.values().forEach(count -> assertEquals(10, count));
+        }
+
+        @Test
+        @DisplayName("should dispatch synchronous commands on the calling thread")
+        public void test4(@Mock CommandDispatcher mockDecoratedCommandDispatcher) {
+            var handlerThread = new AtomicReference<Thread>();
+
+            doAnswer(invocation -> {
+                handlerThread.set(Thread.currentThread());
+                return null;
+            }).when(mockDecoratedCommandDispatcher).send(any());
+
+            try (var commandDispatcher = 
+                    new PartitionedAsyncCommandDispatcher(mockDecoratedCommandDispatcher, 1)) {
+                commandDispatcher.send(new TestSynchronousCommand());
+            }
+
+            assertSame(Thread.currentThread(), handlerThread.get());
+        }
+
+        @Test
+        @DisplayName("should throw when partition key is null")
+        public void test5(@Mock CommandDispatcher mockDecoratedCommandDispatcher) {
+            try (var commandDispatcher = 
+                    new PartitionedAsyncCommandDispatcher(mockDecoratedCommandDispatcher, 1)) {
+                assertThrows(IllegalArgumentException.class, () -> {
+                    commandDispatcher.send(new TestPartitionedCommand(null, 0));
+                });
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when command argument is null")
+        public void test6(@Mock CommandDispatcher mockDecoratedCommandDispatcher) {
+            try (var commandDispatcher = 
+                    new PartitionedAsyncCommandDispatcher(mockDecoratedCommandDispatcher, 1)) {
+                assertThrows(IllegalArgumentException.class, () -> {
+                    commandDispatcher.send(null);
+                });
+            }
+        }
+    }
+
+    @Nested
+    public class SendAsyncMethod {
+        @Test
+        @DisplayName("should complete when command has been handled")
+        public void test1(@Mock CommandDispatcher mockDecoratedCommandDispatcher) throws Exception {
+            try (var commandDispatcher = 
+                    new PartitionedAsyncCommandDispatcher(mockDecoratedCommandDispatcher, 2)) {
+                commandDispatcher.sendAsync(new TestPartitionedCommand("order-1", 0))
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when command handler throws")
+        public void test2(@Mock CommandDispatcher mockDecoratedCommandDispatcher) {
+            var exception = new IllegalStateException();
+            doThrow(exception).when(mockDecoratedCommandDispatcher).send(any());
+
+            try (var commandDispatcher = 
+                    new PartitionedAsyncCommandDispatcher(mockDecoratedCommandDispatcher, 2)) {
+                CompletableFuture<Void> completion = commandDispatcher
+                    .sendAsync(new TestPartitionedCommand("order-1", 0))
+                    .toCompletableFuture();
+
+                var thrown = assertThrows(ExecutionException.class, () -> 
+                    completion.get(10, TimeUnit.SECONDS));
+                assertSame(exception, thrown.getCause());
+            }
+        }
+    }
+
+    public static class TestPartitionedCommand implements PartitionedCommand {
+        private final Object partitionKey;
+        private final int sequence;
+
+        public TestPartitionedCommand(Object partitionKey, int sequence) {
+            this.partitionKey = partitionKey;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public Object getPartitionKey() {
+            return partitionKey;
+        }
+    }
+}
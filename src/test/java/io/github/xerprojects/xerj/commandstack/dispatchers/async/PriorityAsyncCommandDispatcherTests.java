@@ -0,0 +1,462 @@
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+
+@ExtendWith(MockitoExtension.class)
+public class PriorityAsyncCommandDispatcherTests {
+
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw when decorated dispatcher is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new PriorityAsyncCommandDispatcher(null, 2, 1);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when lane count is less than 1")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new PriorityAsyncCommandDispatcher(mockCommandDispatcher, 0, 1);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when worker count is less than 1")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new PriorityAsyncCommandDispatcher(mockCommandDispatcher, 2, 0);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when priority classifier is null")
+        public void test4(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new PriorityAsyncCommandDispatcher(
+                    mockCommandDispatcher, 2, 1, null, Duration.ofMillis(100));
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when starvation threshold is null")
+        public void test5(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new PriorityAsyncCommandDispatcher(
+                    mockCommandDispatcher, 2, 1, command -> 0, null);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when starvation threshold is negative")
+        public void test6(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new PriorityAsyncCommandDispatcher(
+                    mockCommandDispatcher, 2, 1, command -> 0, Duration.ofMillis(-1));
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when starvation threshold is zero")
+        public void test7(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new PriorityAsyncCommandDispatcher(
+                    mockCommandDispatcher, 2, 1, command -> 0, Duration.ZERO);
+            });
+        }
+    }
+
+    @Nested
+    public class SendMethod {
+        @Test
+        @DisplayName("should dispatch command on a worker thread")
+        public void test1() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                    decoratedDispatcher, 2, 1)) {
+                commandDispatcher.send(new TestCommand());
+            }
+
+            assertEquals(1, decoratedDispatcher.handledCommands().size());
+            assertNotSame(Thread.currentThread(), decoratedDispatcher.handlerThreads().get(0));
+        }
+
+        @Test
+        @DisplayName("should dispatch synchronous commands on the calling thread")
+        public void test2() {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                    decoratedDispatcher, 2, 1)) {
+                commandDispatcher.send(new TestSynchronousCommand());
+                
+                assertSame(Thread.currentThread(), decoratedDispatcher.handlerThreads().get(0));
+            }
+        }
+
+        @Test
+        @DisplayName("should handle higher priority commands before lower priority commands")
+        public void test3() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var lowPriorityCommand = new TestPrioritizedCommand(2);
+            var defaultPriorityCommand = new TestCommand();
+            var highPriorityCommand = new TestPrioritizedCommand(0);
+
+            try (var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                    decoratedDispatcher, 3, 1, 
+                    command -> command instanceof PrioritizedCommand ? 
+                        ((PrioritizedCommand)command).getPriority() : 1,
+                    Duration.ofSeconds(10))) {
+                occupyWorker(commandDispatcher, decoratedDispatcher);
+
+                commandDispatcher.send(lowPriorityCommand);
+                commandDispatcher.send(defaultPriorityCommand);
+                commandDispatcher.send(highPriorityCommand);
+                assertEquals(3, commandDispatcher.getQueueDepth());
+
+                decoratedDispatcher.release();
+            }
+
+            assertEquals(
+                List.of(highPriorityCommand, defaultPriorityCommand, lowPriorityCommand), 
+                decoratedDispatcher.handledCommands().subList(1, 4));
+        }
+
+        @Test
+        @DisplayName("should handle commands of the same priority in the order they were sent")
+        public void test4() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var firstCommand = new TestPrioritizedCommand(0);
+            var secondCommand = new TestPrioritizedCommand(0);
+
+            try (var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                    decoratedDispatcher, 2, 1)) {
+                occupyWorker(commandDispatcher, decoratedDispatcher);
+
+                commandDispatcher.send(firstCommand);
+                commandDispatcher.send(secondCommand);
+
+                decoratedDispatcher.release();
+            }
+
+            assertEquals(
+                List.of(firstCommand, secondCommand), 
+                decoratedDispatcher.handledCommands().subList(1, 3));
+        }
+
+        @Test
+        @DisplayName("should handle lower priority command first " + 
+            "when it has waited longer than the starvation threshold")
+        public void test5() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var starvedCommand = new TestPrioritizedCommand(1);
+            var highPriorityCommand = new TestPrioritizedCommand(0);
+
+            try (var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                    decoratedDispatcher, 2, 1, 
+                    command -> ((PrioritizedCommand)command).getPriority(),
+                    Duration.ofMillis(20))) {
+                occupyWorker(commandDispatcher, decoratedDispatcher);
+
+                commandDispatcher.send(starvedCommand);
+                Thread.sleep(50);
+                commandDispatcher.send(highPriorityCommand);
+
+                decoratedDispatcher.release();
+            }
+
+            assertEquals(
+                List.of(starvedCommand, highPriorityCommand), 
+                decoratedDispatcher.handledCommands().subList(1, 3));
+        }
+
+        @Test
+        @DisplayName("should assign commands with out of range priorities to the nearest lane")
+        public void test6() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var lowestPriorityCommand = new TestPrioritizedCommand(100);
+            var lowPriorityCommand = new TestPrioritizedCommand(1);
+            var highestPriorityCommand = new TestPrioritizedCommand(-100);
+
+            try (var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                    decoratedDispatcher, 2, 1)) {
+                occupyWorker(commandDispatcher, decoratedDispatcher);
+
+                commandDispatcher.send(lowestPriorityCommand);
+                commandDispatcher.send(lowPriorityCommand);
+                commandDispatcher.send(highestPriorityCommand);
+
+                decoratedDispatcher.release();
+            }
+
+            assertEquals(
+                List.of(highestPriorityCommand, lowestPriorityCommand, lowPriorityCommand), 
+                decoratedDispatcher.handledCommands().subList(1, 4));
+        }
+
+        @Test
+        @DisplayName("should report command handler exceptions and continue with the next command")
+        public void test7() throws Exception {
+            var reportedExceptions = new ArrayList<Throwable>();
+            var exception = new IllegalStateException();
+            var handledCommand = new TestCommand();
+
+            CommandDispatcher decoratedDispatcher = new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (command != handledCommand) {
+                        throw exception;
+                    }
+                }
+            };
+
+            var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                decoratedDispatcher, 2, 1, command -> 0, Duration.ofMillis(100), task -> {
+                    var thread = new Thread(task);
+                    thread.setUncaughtExceptionHandler((t, ex) -> {
+                        synchronized (reportedExceptions) {
+                            reportedExceptions.add(ex);
+                        }
+                    });
+                    return thread;
+                });
+
+            commandDispatcher.send(new TestCommand());
+            assertCompletes(commandDispatcher.sendAsync(handledCommand));
+            commandDispatcher.close();
+
+            synchronized (reportedExceptions) {
+                assertEquals(List.of(exception), reportedExceptions);
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when dispatcher has been closed")
+        public void test8(@Mock CommandDispatcher mockCommandDispatcher) {
+            var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                mockCommandDispatcher, 2, 1);
+            commandDispatcher.close();
+
+            assertThrows(CommandRejectedException.class, () -> {
+                commandDispatcher.send(new TestCommand());
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when command argument is null")
+        public void test9(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                    mockCommandDispatcher, 2, 1)) {
+                assertThrows(IllegalArgumentException.class, () -> {
+                    commandDispatcher.send(null);
+                });
+            }
+        }
+
+        @Test
+        @DisplayName("should handle the command which has waited the longest first " + 
+            "when commands of multiple lanes have waited longer than the starvation threshold")
+        public void test10() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var oldestStarvedCommand = new TestPrioritizedCommand(2);
+            var firstStarvedCommand = new TestPrioritizedCommand(1);
+            var secondStarvedCommand = new TestPrioritizedCommand(1);
+
+            try (var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                    decoratedDispatcher, 3, 1, 
+                    command -> ((PrioritizedCommand)command).getPriority(),
+                    Duration.ofMillis(20))) {
+                occupyWorker(commandDispatcher, decoratedDispatcher);
+
+                commandDispatcher.send(oldestStarvedCommand);
+                Thread.sleep(10);
+                commandDispatcher.send(firstStarvedCommand);
+                commandDispatcher.send(secondStarvedCommand);
+                Thread.sleep(50);
+
+                decoratedDispatcher.release();
+            }
+
+            // The backlog of the middle lane does not starve the lowest priority lane.
+            assertEquals(
+                List.of(oldestStarvedCommand, firstStarvedCommand, secondStarvedCommand), 
+                decoratedDispatcher.handledCommands().subList(1, 4));
+        }
+    }
+
+    @Nested
+    public class SendAsyncMethod {
+        @Test
+        @DisplayName("should complete when command has been handled")
+        public void test1() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var testCommand = new TestPrioritizedCommand(0);
+
+            try (var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                    decoratedDispatcher, 2, 1)) {
+                assertCompletes(commandDispatcher.sendAsync(testCommand));
+                assertTrue(decoratedDispatcher.handledCommands().contains(testCommand));
+            }
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when command handler throws")
+        public void test2() throws Exception {
+            var exception = new IllegalStateException();
+            CommandDispatcher decoratedDispatcher = new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    throw exception;
+                }
+            };
+
+            try (var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                    decoratedDispatcher, 2, 1)) {
+                CompletableFuture<Void> completion = 
+                    commandDispatcher.sendAsync(new TestCommand()).toCompletableFuture();
+
+                var thrown = assertThrows(ExecutionException.class, () -> 
+                    completion.get(10, TimeUnit.SECONDS));
+                assertSame(exception, thrown.getCause());
+            }
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when dispatcher has been closed")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                mockCommandDispatcher, 2, 1);
+            commandDispatcher.close();
+
+            CompletableFuture<Void> completion = 
+                commandDispatcher.sendAsync(new TestCommand()).toCompletableFuture();
+
+            var thrown = assertThrows(ExecutionException.class, completion::get);
+            assertTrue(thrown.getCause() instanceof CommandRejectedException);
+        }
+    }
+
+    @Nested
+    public class CloseMethod {
+        @Test
+        @DisplayName("should handle all queued commands of all lanes before returning")
+        public void test1() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            var commandDispatcher = new PriorityAsyncCommandDispatcher(
+                decoratedDispatcher, 3, 2);
+
+            for (int i = 0; i < 99; i++) {
+                commandDispatcher.send(new TestPrioritizedCommand(i % 3));
+            }
+            commandDispatcher.close();
+
+            assertEquals(99, decoratedDispatcher.handledCommands().size());
+            assertEquals(0, commandDispatcher.getQueueDepth());
+        }
+    }
+
+    /**
+     * Block the worker of a dispatcher with a single worker.
+     */
+    private static void occupyWorker(
+            PriorityAsyncCommandDispatcher commandDispatcher, 
+            RecordingDispatcher decoratedDispatcher) throws InterruptedException {
+
+        decoratedDispatcher.blockOnNextCommand();
+        commandDispatcher.send(new TestPrioritizedCommand(0));
+        decoratedDispatcher.awaitBlocked();
+    }
+
+    private static void assertCompletes(CompletionStage<Void> stage) throws Exception {
+        stage.toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    private static class TestPrioritizedCommand implements PrioritizedCommand {
+        private final int priority;
+
+        TestPrioritizedCommand(int priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+    }
+
+    /**
+     * Records handled commands and can block the worker thread on the next command.
+     */
+    private static class RecordingDispatcher implements CommandDispatcher {
+        private final List<Object> handledCommands = new ArrayList<>();
+        private final List<Thread> handlerThreads = new ArrayList<>();
+        private volatile CountDownLatch blocked;
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public <TCommand> void send(TCommand command) {
+            CountDownLatch blockedLatch = blocked;
+            if (blockedLatch != null && blockedLatch.getCount() > 0) {
+                blockedLatch.countDown();
+                try {
+                    released.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            synchronized (this) {
+                handledCommands.add(command);
+                handlerThreads.add(Thread.currentThread());
+            }
+        }
+
+        void blockOnNextCommand() {
+            blocked = new CountDownLatch(1);
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        synchronized List<Object> handledCommands() {
+            return new ArrayList<>(handledCommands);
+        }
+
+        synchronized List<Thread> handlerThreads() {
+            return new ArrayList<>(handlerThreads);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+
+@ExtendWith(MockitoExtension.class)
+public class RingBufferCommandDispatcherTests {
+
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw when decorated dispatcher is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new RingBufferCommandDispatcher(null, 2, 1, WaitStrategy.PARK);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when capacity is not a power of 2")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new RingBufferCommandDispatcher(mockCommandDispatcher, 3, 1, WaitStrategy.PARK);
+            });
+            assertThrows(IllegalArgumentException.class, () -> {
+                new RingBufferCommandDispatcher(mockCommandDispatcher, 0, 1, WaitStrategy.PARK);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when consumer count is less than 1")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new RingBufferCommandDispatcher(mockCommandDispatcher, 2, 0, WaitStrategy.PARK);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when wait strategy is null")
+        public void test4(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new RingBufferCommandDispatcher(mockCommandDispatcher, 2, 1, null);
+            });
+        }
+    }
+
+    @Nested
+    public class SendMethod {
+        @Test
+        @DisplayName("should dispatch command on a consumer thread")
+        public void test1() {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = new RingBufferCommandDispatcher(
+                    decoratedDispatcher, 2, 1, WaitStrategy.PARK)) {
+                commandDispatcher.send(new TestCommand());
+            }
+
+            assertEquals(1, decoratedDispatcher.handledCommands().size());
+            assertNotSame(Thread.currentThread(), decoratedDispatcher.handlerThreads().get(0));
+        }
+
+        @Test
+        @DisplayName("should dispatch synchronous commands on the calling thread")
+        public void test2() {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            try (var commandDispatcher = new RingBufferCommandDispatcher(
+                    decoratedDispatcher, 2, 1, WaitStrategy.PARK)) {
+                commandDispatcher.send(new TestSynchronousCommand());
+
+                assertSame(Thread.currentThread(), decoratedDispatcher.handlerThreads().get(0));
+            }
+        }
+
+        @Test
+        @DisplayName("should block while ring buffer is full")
+        public void test3() throws Exception {
+            var decoratedDispatcher = new RecordingDispatcher();
+            var blockedCommand = new TestCommand();
+
+            try (var commandDispatcher = new RingBufferCommandDispatcher(
+                    decoratedDispatcher, 1, 1, WaitStrategy.PARK)) {
+                // Occupy the consumer and the only slot.
+                decoratedDispatcher.blockOnNextCommand();
+                commandDispatcher.send(new TestCommand());
+                decoratedDispatcher.awaitBlocked();
+
+                CompletableFuture<Void> blockedSend = 
+                    CompletableFuture.runAsync(() -> commandDispatcher.send(blockedCommand));
+
+                Thread.sleep(50);
+                assertFalse(blockedSend.isDone());
+
+                decoratedDispatcher.release();
+                blockedSend.get(10, TimeUnit.SECONDS);
+            }
+
+            assertEquals(2, decoratedDispatcher.handledCommands().size());
+            assertTrue(decoratedDispatcher.handledCommands().contains(blockedCommand));
+        }
+
+        @Test
+        @DisplayName("should report command handler exceptions and continue with the next command")
+        public void test4() throws Exception {
+            var reportedExceptions = new ArrayList<Throwable>();
+            var exception = new IllegalStateException();
+            var handledCommand = new TestCommand();
+            var handled = new CountDownLatch(1);
+
+            CommandDispatcher decoratedDispatcher = new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (command != handledCommand) {
+                        throw exception;
+                    }
+                    handled.countDown();
+                }
+            };
+
+            var commandDispatcher = new RingBufferCommandDispatcher(
+                decoratedDispatcher, 2, 1, WaitStrategy.PARK, task -> {
+                    var thread = new Thread(task);
+                    thread.setDaemon(true);
+                    thread.setUncaughtExceptionHandler((t, ex) -> {
+                        synchronized (reportedExceptions) {
+                            reportedExceptions.add(ex);
+                        }
+                    });
+                    return thread;
+                });
+
+            commandDispatcher.send(new TestCommand());
+            commandDispatcher.send(handledCommand);
+            assertTrue(handled.await(10, TimeUnit.SECONDS));
+            commandDispatcher.close();
+
+            synchronized (reportedExceptions) {
+                assertEquals(List.of(exception), reportedExceptions);
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when dispatcher has been closed")
+        public void test5(@Mock CommandDispatcher mockCommandDispatcher) {
+            var commandDispatcher = new RingBufferCommandDispatcher(
+                mockCommandDispatcher, 2, 1, WaitStrategy.PARK);
+            commandDispatcher.close();
+
+            assertThrows(CommandRejectedException.class, () -> {
+                commandDispatcher.send(new TestCommand());
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when command argument is null")
+        public void test6(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = new RingBufferCommandDispatcher(
+                    mockCommandDispatcher, 2, 1, WaitStrategy.PARK)) {
+                assertThrows(IllegalArgumentException.class, () -> {
+                    commandDispatcher.send(null);
+                });
+            }
+        }
+
+        @Test
+        @DisplayName("should handle every command exactly once with multiple producers and consumers " + 
+            "for all wait strategies")
+        public void test7() throws Exception {
+            int producerCount = 4;
+            int commandsPerProducer = 5_000;
+
+            for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+                var decoratedDispatcher = new RecordingDispatcher();
+                var producers = Executors.newFixedThreadPool(producerCount);
+
+                try (var commandDispatcher = new RingBufferCommandDispatcher(
+                        decoratedDispatcher, 64, 3, waitStrategy)) {
+                    sendConcurrently(commandDispatcher, producers, producerCount, commandsPerProducer);
+                } finally {
+                    producers.shutdownNow();
+                }
+
+                List<Object> handledCommands = decoratedDispatcher.handledCommands();
+                assertEquals(producerCount * commandsPerProducer, handledCommands.size(), 
+                    waitStrategy.name());
+                assertEquals(handledCommands.size(), new HashSet<>(handledCommands).size(), 
+                    waitStrategy.name());
+            }
+        }
+    }
+
+    @Nested
+    public class CloseMethod {
+        @Test
+        @DisplayName("should handle all dispatched commands before returning")
+        public void test1() {
+            var decoratedDispatcher = new RecordingDispatcher();
+
+            var commandDispatcher = new RingBufferCommandDispatcher(
+                decoratedDispatcher, 128, 2, WaitStrategy.YIELD);
+
+            for (int i = 0; i < 1000; i++) {
+                commandDispatcher.send(new TestCommand());
+            }
+            commandDispatcher.close();
+
+            assertEquals(1000, decoratedDispatcher.handledCommands().size());
+            assertEquals(0, commandDispatcher.getBacklog());
+        }
+    }
+
+    private static void sendConcurrently(
+            CommandDispatcher commandDispatcher, 
+            ExecutorService producers,
+            int producerCount, 
+            int commandsPerProducer) throws Exception {
+
+        var start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < producerCount; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int c = 0; c < commandsPerProducer; c++) {
+                    commandDispatcher.send(new TestCommand());
+                }
+            }, producers));
+        }
+        start.countDown();
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Records handled commands and can block the consumer thread on the next command.
+     */
+    private static class RecordingDispatcher implements CommandDispatcher {
+        private final List<Object> handledCommands = new ArrayList<>();
+        private final List<Thread> handlerThreads = new ArrayList<>();
+        private volatile CountDownLatch blocked;
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public <TCommand> void send(TCommand command) {
+            CountDownLatch blockedLatch = blocked;
+            if (blockedLatch != null && blockedLatch.getCount() > 0) {
+                blockedLatch.countDown();
+                try {
+                    released.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            synchronized (this) {
+                handledCommands.add(command);
+                handlerThreads.add(Thread.currentThread());
+            }
+        }
+
+        void blockOnNextCommand() {
+            blocked = new CountDownLatch(1);
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        synchronized List<Object> handledCommands() {
+            return new ArrayList<>(handledCommands);
+        }
+
+        synchronized List<Thread> handlerThreads() {
+            return new ArrayList<>(handlerThreads);
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+
+@ExtendWith(MockitoExtension.class)
+public class ScheduledCommandDispatcherTests {
+
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw when decorated dispatcher is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ScheduledCommandDispatcher(null);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when tick duration is null")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ScheduledCommandDispatcher(mockCommandDispatcher, null, 8);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when tick duration is not positive")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ScheduledCommandDispatcher(mockCommandDispatcher, Duration.ZERO, 8);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when ticks per wheel is not a power of 2")
+        public void test4(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ScheduledCommandDispatcher(mockCommandDispatcher, Duration.ofMillis(1), 12);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when thread factory is null")
+        public void test5(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ScheduledCommandDispatcher(mockCommandDispatcher, Duration.ofMillis(1), 8, null);
+            });
+        }
+    }
+
+    @Nested
+    public class SendMethod {
+        @Test
+        @DisplayName("should dispatch command to decorated dispatcher immediately")
+        public void test1(@Mock CommandDispatcher mockCommandDispatcher) {
+            var command = new TestCommand();
+
+            try (var commandDispatcher = new ScheduledCommandDispatcher(mockCommandDispatcher)) {
+                commandDispatcher.send(command);
+            }
+
+            verify(mockCommandDispatcher).send(command);
+        }
+
+        @Test
+        @DisplayName("should throw when command argument is null")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = new ScheduledCommandDispatcher(mockCommandDispatcher)) {
+                assertThrows(IllegalArgumentException.class, () -> commandDispatcher.send(null));
+            }
+        }
+    }
+
+    @Nested
+    public class SendAfterMethod {
+        @Test
+        @DisplayName("should dispatch command once delay has elapsed")
+        public void test1() throws Exception {
+            var dispatchedAt = new CompletableFuture<Long>();
+            var command = new TestCommand();
+
+            try (var commandDispatcher = new ScheduledCommandDispatcher(new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand c) {
+                        dispatchedAt.complete(System.nanoTime());
+                    }
+                })) {
+
+                long scheduledAt = System.nanoTime();
+                ScheduledCommand scheduledCommand = commandDispatcher.sendAfter(command, Duration.ofMillis(50));
+
+                long elapsedNanos = dispatchedAt.get(10, TimeUnit.SECONDS) - scheduledAt;
+                assertTrue(elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(50));
+                assertTrue(scheduledCommand.isDispatched());
+                assertFalse(scheduledCommand.cancel());
+            }
+        }
+
+        @Test
+        @DisplayName("should dispatch commands in deadline order")
+        public void test2() throws Exception {
+            BlockingQueue<Object> dispatchedCommands = new LinkedBlockingQueue<>();
+            var command1 = new TestCommand();
+            var command2 = new TestCommand();
+            var command3 = new TestCommand();
+
+            try (var commandDispatcher = new ScheduledCommandDispatcher(new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand c) {
+                        dispatchedCommands.add(c);
+                    }
+                })) {
+
+                commandDispatcher.sendAfter(command3, Duration.ofMillis(90));
+                commandDispatcher.sendAfter(command1, Duration.ofMillis(10));
+                commandDispatcher.sendAfter(command2, Duration.ofMillis(50));
+
+                assertSame(command1, dispatchedCommands.poll(10, TimeUnit.SECONDS));
+                assertSame(command2, dispatchedCommands.poll(10, TimeUnit.SECONDS));
+                assertSame(command3, dispatchedCommands.poll(10, TimeUnit.SECONDS));
+            }
+        }
+
+        @Test
+        @DisplayName("should not dispatch cancelled command")
+        public void test3() throws Exception {
+            BlockingQueue<Object> dispatchedCommands = new LinkedBlockingQueue<>();
+            var cancelledCommand = new TestCommand();
+            var command = new TestCommand();
+
+            try (var commandDispatcher = new ScheduledCommandDispatcher(new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand c) {
+                        dispatchedCommands.add(c);
+                    }
+                })) {
+
+                ScheduledCommand scheduledCommand = commandDispatcher.sendAfter(cancelledCommand, Duration.ofMillis(20));
+                commandDispatcher.sendAfter(command, Duration.ofMillis(60));
+
+                assertTrue(scheduledCommand.cancel());
+                assertTrue(scheduledCommand.isCancelled());
+                assertFalse(scheduledCommand.cancel());
+
+                assertSame(command, dispatchedCommands.poll(10, TimeUnit.SECONDS));
+                assertTrue(dispatchedCommands.isEmpty());
+                assertFalse(scheduledCommand.isDispatched());
+            }
+        }
+
+        @Test
+        @DisplayName("should never dispatch commands before their deadline across all wheel levels")
+        public void test4() throws Exception {
+            int commandCount = 500;
+            Map<Object, Long> deadlines = new ConcurrentHashMap<>();
+            Map<Object, Long> dispatchTimes = new ConcurrentHashMap<>();
+            var allDispatched = new CountDownLatch(commandCount);
+
+            // Only 4 ticks per wheel so that most commands are cascaded from higher levels.
+            try (var commandDispatcher = new ScheduledCommandDispatcher(new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand c) {
+                        dispatchTimes.put(c, System.nanoTime());
+                        allDispatched.countDown();
+                    }
+                }, Duration.ofMillis(1), 4)) {
+
+                for (int i = 0; i < commandCount; i++) {
+                    var command = new TestCommand();
+                    long delayMillis = ThreadLocalRandom.current().nextLong(300);
+                    deadlines.put(command, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+                    commandDispatcher.sendAfter(command, Duration.ofMillis(delayMillis));
+                }
+
+                assertTrue(allDispatched.await(10, TimeUnit.SECONDS));
+            }
+
+            assertEquals(commandCount, dispatchTimes.size());
+            deadlines.forEach((command, deadline) -> 
+                assertTrue(dispatchTimes.get(command) >= deadline));
+        }
+
+        @Test
+        @DisplayName("should dispatch commands which are scheduled concurrently")
+        public void test5() throws Exception {
+            int threads = 4;
+            int commandsPerThread = 1000;
+            var allDispatched = new CountDownLatch(threads * commandsPerThread);
+
+            try (var commandDispatcher = new ScheduledCommandDispatcher(new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand c) {
+                        allDispatched.countDown();
+                    }
+                })) {
+
+                List<Thread> producers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    Thread producer = new Thread(() -> {
+                        for (int i = 0; i < commandsPerThread; i++) {
+                            commandDispatcher.sendAfter(new TestCommand(), Duration.ofMillis(i % 20));
+                        }
+                    });
+                    producers.add(producer);
+                    producer.start();
+                }
+                for (Thread producer : producers) {
+                    producer.join();
+                }
+
+                assertTrue(allDispatched.await(10, TimeUnit.SECONDS));
+            }
+        }
+
+        @Test
+        @DisplayName("should keep dispatching when decorated dispatcher throws")
+        public void test6() throws Exception {
+            var exception = new IllegalStateException();
+            var reportedException = new CompletableFuture<Throwable>();
+            var dispatched = new CompletableFuture<Object>();
+            var failingCommand = new TestCommand();
+            var command = new TestCommand();
+
+            try (var commandDispatcher = new ScheduledCommandDispatcher(new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand c) {
+                        if (c == failingCommand) {
+                            throw exception;
+                        }
+                        dispatched.complete(c);
+                    }
+                }, Duration.ofMillis(1), 8, task -> {
+                    Thread thread = new Thread(task);
+                    thread.setDaemon(true);
+                    thread.setUncaughtExceptionHandler((t, ex) -> reportedException.complete(ex));
+                    return thread;
+                })) {
+
+                commandDispatcher.sendAfter(failingCommand, Duration.ofMillis(5));
+                commandDispatcher.sendAfter(command, Duration.ofMillis(10));
+
+                assertSame(exception, reportedException.get(10, TimeUnit.SECONDS));
+                assertSame(command, dispatched.get(10, TimeUnit.SECONDS));
+            }
+        }
+
+        @Test
+        @DisplayName("should cancel scheduled commands when closed")
+        public void test7(@Mock CommandDispatcher mockCommandDispatcher) {
+            ScheduledCommand scheduledCommand;
+            try (var commandDispatcher = new ScheduledCommandDispatcher(mockCommandDispatcher)) {
+                scheduledCommand = commandDispatcher.sendAfter(new TestCommand(), Duration.ofHours(1));
+            }
+
+            assertTrue(scheduledCommand.isCancelled());
+            assertFalse(scheduledCommand.isDispatched());
+        }
+
+        @Test
+        @DisplayName("should throw when dispatcher has been closed")
+        public void test8(@Mock CommandDispatcher mockCommandDispatcher) {
+            var commandDispatcher = new ScheduledCommandDispatcher(mockCommandDispatcher);
+            commandDispatcher.close();
+
+            assertThrows(CommandRejectedException.class, () -> 
+                commandDispatcher.sendAfter(new TestCommand(), Duration.ofMillis(1)));
+        }
+
+        @Test
+        @DisplayName("should throw when command or delay argument is null")
+        public void test9(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = new ScheduledCommandDispatcher(mockCommandDispatcher)) {
+                assertThrows(IllegalArgumentException.class, () -> 
+                    commandDispatcher.sendAfter(null, Duration.ofMillis(1)));
+                assertThrows(IllegalArgumentException.class, () -> 
+                    commandDispatcher.sendAfter(new TestCommand(), null));
+            }
+        }
+
+        @Test
+        @DisplayName("should not reject commands which have been dispatched while closing")
+        public void test10() throws Exception {
+            int threads = 4;
+            Set<Object> dispatchedCommands = ConcurrentHashMap.newKeySet();
+            Set<Object> rejectedCommands = ConcurrentHashMap.newKeySet();
+            Queue<ScheduledCommand> scheduledCommands = new ConcurrentLinkedQueue<>();
+
+            var commandDispatcher = new ScheduledCommandDispatcher(new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand c) {
+                    dispatchedCommands.add(c);
+                }
+            }, Duration.ofMillis(1), 8, task -> {
+                Thread thread = new Thread(task);
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            var producersStarted = new CountDownLatch(threads);
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread producer = new Thread(() -> {
+                    producersStarted.countDown();
+                    while (true) {
+                        var command = new TestCommand();
+                        try {
+                            scheduledCommands.add(commandDispatcher.sendAfter(command, Duration.ZERO));
+                        } catch (CommandRejectedException ex) {
+                            rejectedCommands.add(command);
+                            return;
+                        }
+                    }
+                });
+                producers.add(producer);
+                producer.start();
+            }
+
+            producersStarted.await();
+            Thread.sleep(10);
+            commandDispatcher.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            for (Object rejectedCommand : rejectedCommands) {
+                assertFalse(dispatchedCommands.contains(rejectedCommand));
+            }
+            for (ScheduledCommand scheduledCommand : scheduledCommands) {
+                assertTrue(scheduledCommand.isDispatched() || scheduledCommand.isCancelled());
+            }
+        }
+
+        @Test
+        @DisplayName("should not dispatch command early when delay is close to the maximum duration in nanoseconds")
+        public void test11() throws Exception {
+            BlockingQueue<Object> dispatchedCommands = new LinkedBlockingQueue<>();
+            var distantCommand = new TestCommand();
+            var command = new TestCommand();
+
+            try (var commandDispatcher = new ScheduledCommandDispatcher(new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand c) {
+                        dispatchedCommands.add(c);
+                    }
+                })) {
+
+                ScheduledCommand scheduledCommand = 
+                    commandDispatcher.sendAfter(distantCommand, Duration.ofNanos(Long.MAX_VALUE));
+                commandDispatcher.sendAfter(command, Duration.ofMillis(200));
+
+                assertSame(command, dispatchedCommands.poll(10, TimeUnit.SECONDS));
+                assertTrue(dispatchedCommands.isEmpty());
+                assertFalse(scheduledCommand.isDispatched());
+            }
+        }
+    }
+
+    @Nested
+    public class SendAtMethod {
+        @Test
+        @DisplayName("should dispatch command at the given time")
+        public void test1() throws Exception {
+            var dispatchedAt = new CompletableFuture<Instant>();
+
+            try (var commandDispatcher = new ScheduledCommandDispatcher(new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand c) {
+                        dispatchedAt.complete(Instant.now());
+                    }
+                })) {
+
+                Instant instant = Instant.now().plusMillis(50);
+                commandDispatcher.sendAt(new TestCommand(), instant);
+
+                assertFalse(dispatchedAt.get(10, TimeUnit.SECONDS).isBefore(instant));
+            }
+        }
+
+        @Test
+        @DisplayName("should dispatch command as soon as possible when time is in the past")
+        public void test2() throws Exception {
+            var dispatched = new CompletableFuture<Object>();
+            var command = new TestCommand();
+
+            try (var commandDispatcher = new ScheduledCommandDispatcher(new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand c) {
+                        dispatched.complete(c);
+                    }
+                })) {
+
+                commandDispatcher.sendAt(command, Instant.now().minusSeconds(60));
+
+                assertSame(command, dispatched.get(10, TimeUnit.SECONDS));
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when instant argument is null")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = new ScheduledCommandDispatcher(mockCommandDispatcher)) {
+                assertThrows(IllegalArgumentException.class, () -> 
+                    commandDispatcher.sendAt(new TestCommand(), null));
+            }
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+import io.github.xerprojects.xerj.commandstack.dispatchers.async.PartitionedAsyncCommandDispatcherTests.TestPartitionedCommand;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+
+public class ShardedCommandDispatcherTests {
+
+    private static final CommandDispatcher NO_OP_DISPATCHER = new CommandDispatcher() {
+        @Override
+        public <TCommand> void send(TCommand command) {}
+    };
+
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw when shard dispatcher factory is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ShardedCommandDispatcher(null);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when shard count is less than 1")
+        public void test2() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ShardedCommandDispatcher(shard -> NO_OP_DISPATCHER, 0, 16, WaitStrategy.PARK);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when capacity is not a power of 2")
+        public void test3() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ShardedCommandDispatcher(shard -> NO_OP_DISPATCHER, 1, 12, WaitStrategy.PARK);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when wait strategy is null")
+        public void test4() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ShardedCommandDispatcher(shard -> NO_OP_DISPATCHER, 1, 16, null);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when thread factory is null")
+        public void test5() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ShardedCommandDispatcher(shard -> NO_OP_DISPATCHER, 1, 16, WaitStrategy.PARK, null);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when shard dispatcher factory returns null")
+        public void test6() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ShardedCommandDispatcher(shard -> shard == 0 ? NO_OP_DISPATCHER : null, 2, 16, WaitStrategy.PARK);
+            });
+        }
+
+        @Test
+        @DisplayName("should create one shard per available processor by default")
+        public void test7() {
+            try (var commandDispatcher = new ShardedCommandDispatcher(shard -> NO_OP_DISPATCHER)) {
+                assertEquals(Runtime.getRuntime().availableProcessors(), commandDispatcher.getShardCount());
+            }
+        }
+    }
+
+    @Nested
+    public class SendMethod {
+        @Test
+        @DisplayName("should only call each shard dispatcher from its own shard thread")
+        public void test1() {
+            List<Set<Thread>> threadsPerShard = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                threadsPerShard.add(ConcurrentHashMap.newKeySet());
+            }
+
+            try (var commandDispatcher = new ShardedCommandDispatcher(shard -> new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand command) {
+                        threadsPerShard.get(shard).add(Thread.currentThread());
+                    }
+                }, 4, 16, WaitStrategy.PARK)) {
+
+                for (int i = 0; i < 100; i++) {
+                    commandDispatcher.send(new TestPartitionedCommand(i, i));
+                    commandDispatcher.send(new TestCommand());
+                }
+            }
+
+            Set<Thread> allThreads = ConcurrentHashMap.newKeySet();
+            for (Set<Thread> threads : threadsPerShard) {
+                assertEquals(1, threads.size());
+                allThreads.addAll(threads);
+            }
+            assertEquals(4, allThreads.size());
+            assertFalse(allThreads.contains(Thread.currentThread()));
+        }
+
+        @Test
+        @DisplayName("should handle commands with the same partition key on the same shard in dispatch order")
+        public void test2() {
+            List<Object> handledCommands = new ArrayList<>();
+            List<Object> dispatchedCommands = new ArrayList<>();
+            var partitionKey = "order-1";
+
+            try (var commandDispatcher = new ShardedCommandDispatcher(shard -> new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand command) {
+                        // Only accessed by one shard thread.
+                        handledCommands.add(command);
+                    }
+                }, 4, 16, WaitStrategy.PARK)) {
+
+                for (int i = 0; i < 100; i++) {
+                    var command = new TestPartitionedCommand(partitionKey, i);
+                    dispatchedCommands.add(command);
+                    commandDispatcher.send(command);
+                }
+            }
+
+            // Closing waits for the shards to handle all dispatched commands.
+            assertEquals(dispatchedCommands, handledCommands);
+        }
+
+        @Test
+        @DisplayName("should assign commands without partition key to shards by command type")
+        public void test3() {
+            try (var commandDispatcher = new ShardedCommandDispatcher(shard -> NO_OP_DISPATCHER, 8, 16, WaitStrategy.PARK)) {
+                int shardIndex = commandDispatcher.getShardIndex(new TestCommand());
+
+                for (int i = 0; i < 10; i++) {
+                    assertEquals(shardIndex, commandDispatcher.getShardIndex(new TestCommand()));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should wait for synchronous commands to be handled on their shard")
+        public void test4() {
+            var handlerThread = new AtomicReference<Thread>();
+
+            try (var commandDispatcher = new ShardedCommandDispatcher(shard -> new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand command) {
+                        handlerThread.set(Thread.currentThread());
+                    }
+                }, 1, 16, WaitStrategy.PARK)) {
+
+                commandDispatcher.send(new TestSynchronousCommand());
+
+                // No need to wait. The command has already been handled.
+                assertNotNull(handlerThread.get());
+                assertNotSame(Thread.currentThread(), handlerThread.get());
+            }
+        }
+
+        @Test
+        @DisplayName("should propagate exceptions of synchronous commands to the dispatching thread")
+        public void test5() {
+            var exception = new IllegalStateException();
+
+            try (var commandDispatcher = new ShardedCommandDispatcher(shard -> new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand command) {
+                        throw exception;
+                    }
+                }, 1, 16, WaitStrategy.PARK)) {
+
+                var thrown = assertThrows(IllegalStateException.class, () -> 
+                    commandDispatcher.send(new TestSynchronousCommand()));
+                assertSame(exception, thrown);
+            }
+        }
+
+        @Test
+        @DisplayName("should handle synchronous commands dispatched from the shard thread directly")
+        public void test6() throws Exception {
+            var commandDispatcher = new AtomicReference<ShardedCommandDispatcher>();
+            var nestedCommandThread = new CompletableFuture<Thread>();
+            var outerCommandThread = new AtomicReference<Thread>();
+
+            commandDispatcher.set(new ShardedCommandDispatcher(shard -> new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand command) {
+                    if (command instanceof TestSynchronousCommand) {
+                        nestedCommandThread.complete(Thread.currentThread());
+                    } else {
+                        outerCommandThread.set(Thread.currentThread());
+                        commandDispatcher.get().send(new TestSynchronousCommand());
+                    }
+                }
+            }, 1, 16, WaitStrategy.PARK));
+
+            try (var dispatcher = commandDispatcher.get()) {
+                dispatcher.send(new TestCommand());
+
+                assertSame(nestedCommandThread.get(10, TimeUnit.SECONDS), outerCommandThread.get());
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when dispatcher has been closed")
+        public void test7() {
+            var commandDispatcher = new ShardedCommandDispatcher(shard -> NO_OP_DISPATCHER, 2, 16, WaitStrategy.PARK);
+            commandDispatcher.close();
+
+            assertThrows(CommandRejectedException.class, () -> commandDispatcher.send(new TestCommand()));
+            assertThrows(CommandRejectedException.class, () -> commandDispatcher.send(new TestSynchronousCommand()));
+        }
+
+        @Test
+        @DisplayName("should throw when command argument is null")
+        public void test8() {
+            try (var commandDispatcher = new ShardedCommandDispatcher(shard -> NO_OP_DISPATCHER, 1, 16, WaitStrategy.PARK)) {
+                assertThrows(IllegalArgumentException.class, () -> commandDispatcher.send(null));
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when partition key is null")
+        public void test9() {
+            try (var commandDispatcher = new ShardedCommandDispatcher(shard -> NO_OP_DISPATCHER, 1, 16, WaitStrategy.PARK)) {
+                assertThrows(IllegalArgumentException.class, () -> 
+                    commandDispatcher.send(new TestPartitionedCommand(null, 0)));
+            }
+        }
+
+        @Test
+        @DisplayName("should not block when command handler fills the ring buffer of its own shard")
+        public void test10() throws Exception {
+            var commandDispatcher = new AtomicReference<ShardedCommandDispatcher>();
+            var command = new TestCommand();
+            List<Object> handledCommands = new ArrayList<>();
+            List<Object> nestedCommands = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                nestedCommands.add(new TestPartitionedCommand("order-1", i));
+            }
+
+            commandDispatcher.set(new ShardedCommandDispatcher(shard -> new CommandDispatcher() {
+                @Override
+                public <TCommand> void send(TCommand c) {
+                    // Only accessed by the shard thread.
+                    handledCommands.add(c);
+                    if (c == command) {
+                        // More commands than the ring buffer can hold.
+                        for (Object nestedCommand : nestedCommands) {
+                            commandDispatcher.get().send(nestedCommand);
+                        }
+                    }
+                }
+            }, 1, 2, WaitStrategy.PARK));
+
+            try (var dispatcher = commandDispatcher.get()) {
+                dispatcher.sendAsync(command)
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+
+                // Completes once the nested commands have been handled.
+                dispatcher.sendAsync(new TestCommand())
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+
+                // Nested commands are handled in dispatch order right after the command which dispatched them.
+                assertSame(command, handledCommands.get(0));
+                assertEquals(nestedCommands, handledCommands.subList(1, 11));
+            }
+        }
+    }
+
+    @Nested
+    public class SendAsyncMethod {
+        @Test
+        @DisplayName("should complete when command has been handled")
+        public void test1() throws Exception {
+            var handled = new AtomicReference<Object>();
+            var command = new TestCommand();
+
+            try (var commandDispatcher = new ShardedCommandDispatcher(shard -> new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand c) {
+                        handled.set(c);
+                    }
+                }, 2, 16, WaitStrategy.PARK)) {
+
+                commandDispatcher.sendAsync(command)
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+
+                assertSame(command, handled.get());
+            }
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when command handler throws")
+        public void test2() {
+            var exception = new IllegalStateException();
+
+            try (var commandDispatcher = new ShardedCommandDispatcher(shard -> new CommandDispatcher() {
+                    @Override
+                    public <TCommand> void send(TCommand command) {
+                        throw exception;
+                    }
+                }, 2, 16, WaitStrategy.PARK)) {
+
+                CompletableFuture<Void> completion = commandDispatcher
+                    .sendAsync(new TestCommand())
+                    .toCompletableFuture();
+
+                var thrown = assertThrows(ExecutionException.class, () -> 
+                    completion.get(10, TimeUnit.SECONDS));
+                assertSame(exception, thrown.getCause());
+            }
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when dispatcher has been closed")
+        public void test3() {
+            var commandDispatcher = new ShardedCommandDispatcher(shard -> NO_OP_DISPATCHER, 2, 16, WaitStrategy.PARK);
+            commandDispatcher.close();
+
+            CompletableFuture<Void> completion = commandDispatcher
+                .sendAsync(new TestCommand())
+                .toCompletableFuture();
+
+            var thrown = assertThrows(ExecutionException.class, () -> 
+                completion.get(10, TimeUnit.SECONDS));
+            assertTrue(thrown.getCause() instanceof CommandRejectedException);
+            assertEquals(TestCommand.class, ((CommandRejectedException)thrown.getCause()).getCommandType());
+        }
+    }
+}
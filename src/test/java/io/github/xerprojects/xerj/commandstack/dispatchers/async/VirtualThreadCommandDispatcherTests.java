@@ -0,0 +1,242 @@
+package io.github.xerprojects.xerj.commandstack.dispatchers.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+
+@ExtendWith(MockitoExtension.class)
+public class VirtualThreadCommandDispatcherTests {
+
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw when decorated dispatcher is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new VirtualThreadCommandDispatcher(null, 1);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when max concurrency is less than 1")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new VirtualThreadCommandDispatcher(mockCommandDispatcher, 0);
+            });
+        }
+    }
+
+    @Nested
+    public class SendMethod {
+        @Test
+        @DisplayName("should dispatch command on another thread")
+        public void test1(@Mock CommandDispatcher mockDecoratedCommandDispatcher) throws Exception {
+            var testCommand = new TestCommand();
+            var handlerThread = new CompletableFuture<Thread>();
+
+            doAnswer(invocation -> handlerThread.complete(Thread.currentThread()))
+                .when(mockDecoratedCommandDispatcher).send(testCommand);
+
+            try (var commandDispatcher = 
+                    new VirtualThreadCommandDispatcher(mockDecoratedCommandDispatcher, 1)) {
+                commandDispatcher.send(testCommand);
+
+                assertNotSame(Thread.currentThread(), handlerThread.get(10, TimeUnit.SECONDS));
+            }
+        }
+
+        @Test
+        @DisplayName("should dispatch synchronous commands on the calling thread")
+        public void test2(@Mock CommandDispatcher mockDecoratedCommandDispatcher) {
+            var testCommand = new TestSynchronousCommand();
+            var handlerThread = new AtomicReference<Thread>();
+
+            doAnswer(invocation -> {
+                handlerThread.set(Thread.currentThread());
+                return null;
+            }).when(mockDecoratedCommandDispatcher).send(testCommand);
+
+            try (var commandDispatcher = 
+                    new VirtualThreadCommandDispatcher(mockDecoratedCommandDispatcher, 1)) {
+                commandDispatcher.send(testCommand);
+            }
+
+            assertSame(Thread.currentThread(), handlerThread.get());
+        }
+
+        @Test
+        @DisplayName("should not handle more commands at the same time than max concurrency")
+        public void test3(@Mock CommandDispatcher mockDecoratedCommandDispatcher) {
+            var concurrentCommands = new AtomicInteger();
+            var maxConcurrentCommands = new AtomicInteger();
+
+            doAnswer(invocation -> {
+                maxConcurrentCommands.accumulateAndGet(concurrentCommands.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                concurrentCommands.decrementAndGet();
+                return null;
+            }).when(mockDecoratedCommandDispatcher).send(any());
+
+            try (var commandDispatcher = 
+                    new VirtualThreadCommandDispatcher(mockDecoratedCommandDispatcher, 2)) {
+                for (int i = 0; i < 10; i++) {
+                    commandDispatcher.send(new TestCommand());
+                }
+            }
+
+            assertTrue(maxConcurrentCommands.get() <= 2);
+            verify(mockDecoratedCommandDispatcher, times(10)).send(any());
+        }
+
+        @Test
+        @DisplayName("should not start more platform threads than max concurrency " + 
+            "when virtual threads are not supported")
+        public void test4(@Mock CommandDispatcher mockDecoratedCommandDispatcher) {
+            var handlerThreads = ConcurrentHashMap.<Thread>newKeySet();
+
+            doAnswer(invocation -> {
+                handlerThreads.add(Thread.currentThread());
+                Thread.sleep(5);
+                return null;
+            }).when(mockDecoratedCommandDispatcher).send(any());
+
+            boolean usesVirtualThreads;
+            try (var commandDispatcher = 
+                    new VirtualThreadCommandDispatcher(mockDecoratedCommandDispatcher, 2)) {
+                usesVirtualThreads = commandDispatcher.usesVirtualThreads();
+                for (int i = 0; i < 50; i++) {
+                    commandDispatcher.send(new TestCommand());
+                }
+            }
+
+            if (!usesVirtualThreads) {
+                assertTrue(handlerThreads.size() <= 2);
+            }
+            verify(mockDecoratedCommandDispatcher, times(50)).send(any());
+        }
+
+        @Test
+        @DisplayName("should throw when command argument is null")
+        public void test5(@Mock CommandDispatcher mockCommandDispatcher) {
+            try (var commandDispatcher = new VirtualThreadCommandDispatcher(mockCommandDispatcher, 1)) {
+                assertThrows(IllegalArgumentException.class, () -> {
+                    commandDispatcher.send(null);
+                });
+            }
+        }
+    }
+
+    @Nested
+    public class SendAsyncMethod {
+        @Test
+        @DisplayName("should complete when command has been handled")
+        public void test1(@Mock CommandDispatcher mockDecoratedCommandDispatcher) throws Exception {
+            var testCommand = new TestCommand();
+
+            try (var commandDispatcher = 
+                    new VirtualThreadCommandDispatcher(mockDecoratedCommandDispatcher, 1)) {
+                commandDispatcher.sendAsync(testCommand).toCompletableFuture().get(10, TimeUnit.SECONDS);
+            }
+
+            verify(mockDecoratedCommandDispatcher).send(testCommand);
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when command handler throws")
+        public void test2(@Mock CommandDispatcher mockDecoratedCommandDispatcher) {
+            var testCommand = new TestCommand();
+            var exception = new IllegalStateException();
+
+            doThrow(exception).when(mockDecoratedCommandDispatcher).send(testCommand);
+
+            try (var commandDispatcher = 
+                    new VirtualThreadCommandDispatcher(mockDecoratedCommandDispatcher, 1)) {
+                CompletableFuture<Void> completion = 
+                    commandDispatcher.sendAsync(testCommand).toCompletableFuture();
+
+                var thrown = assertThrows(ExecutionException.class, () -> 
+                    completion.get(10, TimeUnit.SECONDS));
+                assertSame(exception, thrown.getCause());
+            }
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when dispatcher has been closed")
+        public void test3(@Mock CommandDispatcher mockDecoratedCommandDispatcher) {
+            var commandDispatcher = new VirtualThreadCommandDispatcher(mockDecoratedCommandDispatcher, 1);
+            commandDispatcher.close();
+
+            CompletableFuture<Void> completion = 
+                commandDispatcher.sendAsync(new TestCommand()).toCompletableFuture();
+
+            var thrown = assertThrows(ExecutionException.class, completion::get);
+            assertTrue(thrown.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Nested
+    public class CloseMethod {
+        @Test
+        @DisplayName("should wait for dispatched commands to be handled")
+        public void test1(@Mock CommandDispatcher mockDecoratedCommandDispatcher) {
+            List<Object> handledCommands = new ArrayList<>();
+
+            doAnswer(invocation -> {
+                Thread.sleep(50);
+                synchronized (handledCommands) {
+                    handledCommands.add(invocation.getArgument(0));
+                }
+                return null;
+            }).when(mockDecoratedCommandDispatcher).send(any());
+
+            var commandDispatcher = new VirtualThreadCommandDispatcher(mockDecoratedCommandDispatcher, 1);
+            commandDispatcher.send(new TestCommand());
+            commandDispatcher.close();
+
+            synchronized (handledCommands) {
+                assertEquals(1, handledCommands.size());
+            }
+        }
+
+        @Test
+        @DisplayName("should reject commands after dispatcher has been closed")
+        public void test2(@Mock CommandDispatcher mockDecoratedCommandDispatcher) {
+            var commandDispatcher = new VirtualThreadCommandDispatcher(mockDecoratedCommandDispatcher, 1);
+            commandDispatcher.close();
+
+            assertThrows(RejectedExecutionException.class, () -> {
+                commandDispatcher.send(new TestCommand());
+            });
+            verify(mockDecoratedCommandDispatcher, never()).send(any());
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package io.github.xerprojects.xerj.commandstack.internal.processing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.DirectCommandHandlerProvider;
+
+public class CommandHandlerProcessorTests {
+
+    private Path outputDirectory;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        outputDirectory = Files.createTempDirectory("xerj-commandstack-processor-");
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        try (var paths = Files.walk(outputDirectory)) {
+            for (Path path : paths.sorted((a, b) -> b.compareTo(a)).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Nested
+    public class ProcessMethod {
+        @Test
+        @DisplayName("should generate provider which creates annotated command handler classes")
+        public void test1() throws Exception {
+            var result = compile(List.of("-Axerj.commandstack.generatedProvider=com.acme.AcmeProvider"),
+                source("com.acme.orders.ShipOrderCommand",
+                    "package com.acme.orders;",
+                    "public class ShipOrderCommand {}"),
+                source("com.acme.orders.ShipOrderCommandHandler",
+                    "package com.acme.orders;",
+                    "@io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand",
+                    "public class ShipOrderCommandHandler ",
+                    "        implements io.github.xerprojects.xerj.commandstack.CommandHandler<ShipOrderCommand> {",
+                    "    private int shippedOrders;",
+                    "    public void handle(ShipOrderCommand command) { shippedOrders++; }",
+                    "}"));
+
+            assertTrue(result.errors().isEmpty(), result.errors()::toString);
+
+            var provider = result.provider("com.acme.AcmeProvider");
+            var commandType = result.load("com.acme.orders.ShipOrderCommand");
+
+            CommandHandler<?> handler = provider.getCommandHandlerOrNull(commandType);
+            assertNotNull(handler);
+            assertEquals("com.acme.orders.ShipOrderCommandHandler", handler.getClass().getName());
+            // New instance per resolution of stateful command handlers.
+            assertNotSame(handler, provider.getCommandHandlerOrNull(commandType));
+        }
+
+        @Test
+        @DisplayName("should generate provider which invokes annotated static and instance methods")
+        public void test2() throws Exception {
+            var result = compile(List.of("-Axerj.commandstack.generatedProvider=com.acme.AcmeProvider"),
+                source("com.acme.OrderHandlers",
+                    "package com.acme;",
+                    "import io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand;",
+                    "public class OrderHandlers {",
+                    "    public static final java.util.List<Object> HANDLED = new java.util.ArrayList<>();",
+                    "    public static class ShipOrderCommand {}",
+                    "    public static class CancelOrderCommand {}",
+                    "    @HandlesCommand",
+                    "    public static void ship(ShipOrderCommand command) { HANDLED.add(command); }",
+                    "    @HandlesCommand",
+                    "    public void cancel(CancelOrderCommand command) { HANDLED.add(command); }",
+                    "}"));
+
+            assertTrue(result.errors().isEmpty(), result.errors()::toString);
+
+            var provider = result.provider("com.acme.AcmeProvider");
+            var shipOrderCommand = result.load("com.acme.OrderHandlers$ShipOrderCommand")
+                .getConstructor().newInstance();
+            var cancelOrderCommand = result.load("com.acme.OrderHandlers$CancelOrderCommand")
+                .getConstructor().newInstance();
+
+            handle(provider, shipOrderCommand);
+            handle(provider, cancelOrderCommand);
+
+            assertEquals(List.of(shipOrderCommand, cancelOrderCommand),
+                result.load("com.acme.OrderHandlers").getField("HANDLED").get(null));
+        }
+
+        @Test
+        @DisplayName("should generate provider which returns null for command types without command handlers")
+        public void test3() throws Exception {
+            var result = compile(List.of("-Axerj.commandstack.generatedProvider=com.acme.AcmeProvider"),
+                source("com.acme.OrderHandlers",
+                    "package com.acme;",
+                    "public class OrderHandlers {",
+                    "    @io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand",
+                    "    public static void ship(String command) {}",
+                    "}"));
+
+            assertTrue(result.errors().isEmpty(), result.errors()::toString);
+
+            var provider = result.provider("com.acme.AcmeProvider");
+
+            assertNotNull(provider.getCommandHandlerOrNull(String.class));
+            assertNull(provider.getCommandHandlerOrNull(Integer.class));
+        }
+
+        @Test
+        @DisplayName("should not generate provider when provider name is not specified")
+        public void test4() throws Exception {
+            var result = compile(List.of(),
+                source("com.acme.OrderHandlers",
+                    "package com.acme;",
+                    "public class OrderHandlers {",
+                    "    // Invalid command handler method is not reported either.",
+                    "    @io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand",
+                    "    private void ship(String command, int quantity) {}",
+                    "}"));
+
+            assertTrue(result.errors().isEmpty(), result.errors()::toString);
+            try (var paths = Files.walk(outputDirectory)) {
+                assertFalse(paths.anyMatch(path -> path.toString().endsWith(".java")));
+            }
+        }
+
+        @Test
+        @DisplayName("should generate provider with the name specified via processor option")
+        public void test5() throws Exception {
+            var result = compile(List.of("-Axerj.commandstack.generatedProvider=com.acme.billing.BillingProvider"),
+                source("com.acme.orders.OrderHandlers",
+                    "package com.acme.orders;",
+                    "public class OrderHandlers {",
+                    "    @io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand",
+                    "    public static void ship(String command) {}",
+                    "}"));
+
+            assertTrue(result.errors().isEmpty(), result.errors()::toString);
+
+            var provider = result.provider("com.acme.billing.BillingProvider");
+
+            assertNotNull(provider.getCommandHandlerOrNull(String.class));
+        }
+
+        @Test
+        @DisplayName("should generate provider which throws when command type is null")
+        public void test6() throws Exception {
+            var result = compile(List.of("-Axerj.commandstack.generatedProvider=com.acme.AcmeProvider"),
+                source("com.acme.OrderHandlers",
+                    "package com.acme;",
+                    "public class OrderHandlers {",
+                    "    @io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand",
+                    "    public static void ship(String command) {}",
+                    "}"));
+
+            var provider = result.provider("com.acme.AcmeProvider");
+
+            assertThrows(IllegalArgumentException.class, () -> {
+                provider.getCommandHandlerOrNull(null);
+            });
+        }
+
+        @Test
+        @DisplayName("should fail when there are multiple command handlers for a command type")
+        public void test7() throws Exception {
+            var result = compile(List.of("-Axerj.commandstack.generatedProvider=com.acme.AcmeProvider"),
+                source("com.acme.OrderHandlers",
+                    "package com.acme;",
+                    "import io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand;",
+                    "public class OrderHandlers {",
+                    "    @HandlesCommand",
+                    "    public static void ship(String command) {}",
+                    "    @HandlesCommand",
+                    "    public static void shipAgain(String command) {}",
+                    "}"));
+
+            assertError(result, "Duplicate command handler for java.lang.String");
+        }
+
+        @Test
+        @DisplayName("should fail when annotated class does not implement command handler")
+        public void test8() throws Exception {
+            var result = compile(List.of("-Axerj.commandstack.generatedProvider=com.acme.AcmeProvider"),
+                source("com.acme.OrderHandler",
+                    "package com.acme;",
+                    "@io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand",
+                    "public class OrderHandler {}"));
+
+            assertError(result, "must implement io.github.xerprojects.xerj.commandstack.CommandHandler");
+        }
+
+        @Test
+        @DisplayName("should fail when annotated method does not have exactly one parameter")
+        public void test9() throws Exception {
+            var result = compile(List.of("-Axerj.commandstack.generatedProvider=com.acme.AcmeProvider"),
+                source("com.acme.OrderHandlers",
+                    "package com.acme;",
+                    "public class OrderHandlers {",
+                    "    @io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand",
+                    "    public static void ship(String command, int quantity) {}",
+                    "}"));
+
+            assertError(result, "must have the command as its only parameter");
+        }
+
+        @Test
+        @DisplayName("should fail when annotated method throws checked exceptions")
+        public void test10() throws Exception {
+            var result = compile(List.of("-Axerj.commandstack.generatedProvider=com.acme.AcmeProvider"),
+                source("com.acme.OrderHandlers",
+                    "package com.acme;",
+                    "public class OrderHandlers {",
+                    "    @io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand",
+                    "    public static void ship(String command) throws java.io.IOException {}",
+                    "}"));
+
+            assertError(result, "must not throw checked exceptions");
+        }
+
+        @Test
+        @DisplayName("should fail when command handler is not accessible from generated provider")
+        public void test11() throws Exception {
+            var result = compile(List.of("-Axerj.commandstack.generatedProvider=com.acme.AcmeProvider"),
+                source("com.acme.orders.OrderHandlers",
+                    "package com.acme.orders;",
+                    "class OrderHandlers {",
+                    "    @io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand",
+                    "    static void ship(String command) {}",
+                    "}"));
+
+            assertError(result, "must be accessible from generated command handler provider com.acme.AcmeProvider");
+        }
+
+        @Test
+        @DisplayName("should fail when non-static annotated method is declared in an abstract class")
+        public void test12() throws Exception {
+            var result = compile(List.of("-Axerj.commandstack.generatedProvider=com.acme.AcmeProvider"),
+                source("com.acme.OrderHandlers",
+                    "package com.acme;",
+                    "public abstract class OrderHandlers {",
+                    "    @io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand",
+                    "    public void ship(String command) {}",
+                    "}"));
+
+            assertError(result, "Class of non-static command handler method must be a non-abstract");
+        }
+
+        @Test
+        @DisplayName("should generate provider which reuses stateless command handlers")
+        public void test13() throws Exception {
+            var result = compile(List.of("-Axerj.commandstack.generatedProvider=com.acme.AcmeProvider"),
+                source("com.acme.OrderHandlers",
+                    "package com.acme;",
+                    "import io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand;",
+                    "public class OrderHandlers {",
+                    "    public static class ShipOrderCommand {}",
+                    "    public static class CancelOrderCommand {}",
+                    "    public static class ArchiveOrderCommand {}",
+                    "    public static class StatefulBase { private int handled; }",
+                    "    @HandlesCommand",
+                    "    public static class ShipOrderCommandHandler ",
+                    "            implements io.github.xerprojects.xerj.commandstack.CommandHandler<ShipOrderCommand> {",
+                    "        private static int shippedOrders;",
+                    "        public void handle(ShipOrderCommand command) { shippedOrders++; }",
+                    "    }",
+                    "    @HandlesCommand",
+                    "    public static class ArchiveOrderCommandHandler extends StatefulBase",
+                    "            implements io.github.xerprojects.xerj.commandstack.CommandHandler<ArchiveOrderCommand> {",
+                    "        public void handle(ArchiveOrderCommand command) {}",
+                    "    }",
+                    "    @HandlesCommand",
+                    "    public void cancel(CancelOrderCommand command) {}",
+                    "}"));
+
+            assertTrue(result.errors().isEmpty(), result.errors()::toString);
+
+            var provider = result.provider("com.acme.AcmeProvider");
+            var shipOrderCommandType = result.load("com.acme.OrderHandlers$ShipOrderCommand");
+            var cancelOrderCommandType = result.load("com.acme.OrderHandlers$CancelOrderCommand");
+            var archiveOrderCommandType = result.load("com.acme.OrderHandlers$ArchiveOrderCommand");
+
+            assertSame(provider.getCommandHandlerOrNull(shipOrderCommandType),
+                provider.getCommandHandlerOrNull(shipOrderCommandType));
+            assertSame(provider.getCommandHandlerOrNull(cancelOrderCommandType),
+                provider.getCommandHandlerOrNull(cancelOrderCommandType));
+            // Inherited instance fields make a command handler stateful.
+            assertNotSame(provider.getCommandHandlerOrNull(archiveOrderCommandType),
+                provider.getCommandHandlerOrNull(archiveOrderCommandType));
+        }
+    }
+
+    private CompilationResult compile(List<String> options, JavaFileObject... sources) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+
+        // The library classes may be on the module path when running tests.
+        String libraryLocation = Paths.get(
+            CommandHandler.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+
+        List<String> compilerOptions = new ArrayList<>(options);
+        compilerOptions.add("-classpath");
+        compilerOptions.add(libraryLocation + File.pathSeparator + System.getProperty("java.class.path"));
+        compilerOptions.add("-d");
+        compilerOptions.add(outputDirectory.toString());
+        compilerOptions.add("-s");
+        compilerOptions.add(outputDirectory.toString());
+
+        JavaCompiler.CompilationTask task = compiler.getTask(
+            null, null, diagnostics, compilerOptions, null, List.of(sources));
+        task.setProcessors(List.of(new CommandHandlerProcessor()));
+        task.call();
+
+        return new CompilationResult(diagnostics.getDiagnostics());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <TCommand> void handle(DirectCommandHandlerProvider provider, TCommand command) {
+        CommandHandler<TCommand> handler =
+            provider.getCommandHandlerOrNull((Class<TCommand>)command.getClass());
+        handler.handle(command);
+    }
+
+    private static void assertError(CompilationResult result, String expectedMessage) {
+        assertFalse(result.errors().isEmpty());
+        assertTrue(result.errors().stream().anyMatch(error -> error.contains(expectedMessage)),
+            result.errors()::toString);
+    }
+
+    private static JavaFileObject source(String className, String... lines) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        String content = String.join("\n", lines);
+
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+
+    private class CompilationResult {
+        private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+        private URLClassLoader classLoader;
+
+        CompilationResult(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+            this.diagnostics = diagnostics;
+        }
+
+        List<String> errors() {
+            return diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+        }
+
+        Class<?> load(String className) throws Exception {
+            if (classLoader == null) {
+                classLoader = new URLClassLoader(
+                    new URL[] { outputDirectory.toUri().toURL() },
+                    CommandHandlerProcessorTests.class.getClassLoader());
+            }
+            return Class.forName(className, true, classLoader);
+        }
+
+        DirectCommandHandlerProvider provider(String className) throws Exception {
+            return (DirectCommandHandlerProvider)load(className).getConstructor().newInstance();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.xerprojects.xerj.commandstack.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.BatchCommandHandler;
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.CommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestCommandHandler;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+import io.github.xerprojects.xerj.commandstack.dispatchers.CommandStackDispatcher;
+
+@ExtendWith(MockitoExtension.class)
+public class CommandMetricsTests {
+
+    @Nested
+    public class InstrumentMethod {
+        @Test
+        @DisplayName("should throw when command handler provider is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new CommandMetrics().instrument(null);
+            });
+        }
+
+        @Test
+        @DisplayName("should record resolution and handling latency of resolved command handler")
+        public void test2(@Mock CommandHandlerProvider mockProvider) {
+            var commandHandler = new TestCommandHandler();
+            when(mockProvider.getCommandHandlerFor(TestCommand.class))
+                .thenReturn(Optional.of(commandHandler));
+
+            var metrics = new CommandMetrics();
+            var commandDispatcher = new CommandStackDispatcher(metrics.instrument(mockProvider));
+            var testCommand = new TestCommand();
+
+            commandDispatcher.send(testCommand);
+
+            assertTrue(commandHandler.hasHandledCommand(testCommand));
+
+            CommandMetricsSnapshot snapshot = metrics.getSnapshot(TestCommand.class);
+            assertEquals(1, snapshot.getResolutionLatency().getCount());
+            assertEquals(1, snapshot.getHandlingLatency().getCount());
+            assertEquals(0, snapshot.getUnhandledCount());
+            assertEquals(0, snapshot.getInFlightCount());
+        }
+
+        @Test
+        @DisplayName("should record unhandled command when no command handler is resolved")
+        public void test3(@Mock CommandHandlerProvider mockProvider) {
+            when(mockProvider.getCommandHandlerFor(TestCommand.class))
+                .thenReturn(Optional.empty());
+
+            var metrics = new CommandMetrics();
+
+            assertNull(metrics.instrument(mockProvider).getCommandHandlerOrNull(TestCommand.class));
+
+            CommandMetricsSnapshot snapshot = metrics.getSnapshot(TestCommand.class);
+            assertEquals(1, snapshot.getUnhandledCount());
+            assertEquals(1, snapshot.getResolutionLatency().getCount());
+        }
+
+        @Test
+        @DisplayName("should reuse instrumented command handler while provider returns the same instance")
+        public void test4(@Mock CommandHandlerProvider mockProvider) {
+            when(mockProvider.getCommandHandlerFor(TestCommand.class))
+                .thenReturn(Optional.of(new TestCommandHandler()));
+
+            var provider = new CommandMetrics().instrument(mockProvider);
+
+            assertSame(
+                provider.getCommandHandlerOrNull(TestCommand.class), 
+                provider.getCommandHandlerOrNull(TestCommand.class));
+        }
+
+        @Test
+        @DisplayName("should count command as in-flight while it is being handled")
+        public void test5(@Mock CommandHandlerProvider mockProvider) {
+            var metrics = new CommandMetrics();
+            var inFlightWhileHandling = new ArrayList<Long>();
+
+            CommandHandler<TestCommand> commandHandler = command -> 
+                inFlightWhileHandling.add(metrics.getSnapshot(TestCommand.class).getInFlightCount());
+            when(mockProvider.getCommandHandlerFor(TestCommand.class))
+                .thenReturn(Optional.of(commandHandler));
+
+            new CommandStackDispatcher(metrics.instrument(mockProvider)).send(new TestCommand());
+
+            assertEquals(List.of(1L), inFlightWhileHandling);
+            assertEquals(0, metrics.getSnapshot(TestCommand.class).getInFlightCount());
+        }
+
+        @Test
+        @DisplayName("should forward batches to batch command handler")
+        public void test6(
+                @Mock CommandHandlerProvider mockProvider,
+                @Mock BatchCommandHandler<TestCommand> mockBatchHandler) {
+            when(mockProvider.getCommandHandlerFor(TestCommand.class))
+                .thenReturn(Optional.of(mockBatchHandler));
+
+            var metrics = new CommandMetrics();
+            var commands = List.of(new TestCommand(), new TestCommand());
+
+            new CommandStackDispatcher(metrics.instrument(mockProvider)).sendAll(commands);
+
+            verify(mockBatchHandler).handleAll(commands);
+            assertEquals(1, metrics.getSnapshot(TestCommand.class).getHandlingLatency().getCount());
+        }
+    }
+
+    @Nested
+    public class ExportToMethod {
+        @Test
+        @DisplayName("should export a snapshot of each recorded command type")
+        public void test1(@Mock CommandHandlerProvider mockProvider) {
+            when(mockProvider.getCommandHandlerFor(TestCommand.class))
+                .thenReturn(Optional.of(new TestCommandHandler()));
+            when(mockProvider.getCommandHandlerFor(TestSynchronousCommand.class))
+                .thenReturn(Optional.empty());
+
+            var metrics = new CommandMetrics();
+            var commandDispatcher = new MetricsCommandDispatcher(
+                new CommandStackDispatcher(metrics.instrument(mockProvider)), metrics);
+
+            commandDispatcher.send(new TestCommand());
+            commandDispatcher.send(new TestSynchronousCommand());
+
+            var exported = new ArrayList<CommandMetricsSnapshot>();
+            metrics.exportTo(exported::add);
+
+            assertEquals(2, exported.size());
+            for (CommandMetricsSnapshot snapshot : exported) {
+                assertEquals(1, snapshot.getSendCount());
+                assertEquals(
+                    snapshot.getCommandType() == TestSynchronousCommand.class ? 1 : 0, 
+                    snapshot.getUnhandledCount());
+            }
+        }
+
+        @Test
+        @DisplayName("should throw when sink is null")
+        public void test2() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new CommandMetrics().exportTo(null);
+            });
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.xerprojects.xerj.commandstack.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTests {
+
+    @Nested
+    public class RecordMethod {
+        @Test
+        @DisplayName("should record count, mean and max")
+        public void test1() {
+            var histogram = new LatencyHistogram();
+            histogram.record(100);
+            histogram.record(200);
+            histogram.record(300);
+
+            LatencySnapshot snapshot = histogram.snapshot();
+
+            assertEquals(3, snapshot.getCount());
+            assertEquals(200, snapshot.getMeanNanos());
+            assertEquals(300, snapshot.getMaxNanos());
+        }
+
+        @Test
+        @DisplayName("should record negative values as zero")
+        public void test2() {
+            var histogram = new LatencyHistogram();
+            histogram.record(-5);
+
+            LatencySnapshot snapshot = histogram.snapshot();
+
+            assertEquals(1, snapshot.getCount());
+            assertEquals(0, snapshot.getNanosAtPercentile(100));
+        }
+
+        @Test
+        @DisplayName("should record values beyond the trackable range in the last bucket")
+        public void test3() {
+            var histogram = new LatencyHistogram();
+            histogram.record(Long.MAX_VALUE);
+
+            LatencySnapshot snapshot = histogram.snapshot();
+
+            assertEquals(1, snapshot.getCount());
+            assertEquals(Long.MAX_VALUE, snapshot.getMaxNanos());
+            assertEquals(LatencyHistogram.MAX_TRACKABLE_NANOS, snapshot.getNanosAtPercentile(100));
+        }
+    }
+
+    @Nested
+    public class BucketIndexOfMethod {
+        @Test
+        @DisplayName("should map every value to a bucket whose upper bound is within 6.25% of the value")
+        public void test1() {
+            for (long value = 0; value < LatencyHistogram.MAX_TRACKABLE_NANOS; value = value * 3 / 2 + 1) {
+                int bucketIndex = LatencyHistogram.bucketIndexOf(value);
+                long upperBound = LatencyHistogram.bucketUpperBoundOf(bucketIndex);
+
+                assertTrue(upperBound >= value, "Upper bound " + upperBound + " < " + value);
+                assertTrue(upperBound - value <= value / LatencyHistogram.SUB_BUCKET_COUNT, 
+                    "Upper bound " + upperBound + " is too far from " + value);
+                if (bucketIndex > 0) {
+                    assertTrue(LatencyHistogram.bucketUpperBoundOf(bucketIndex - 1) < value);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should map max trackable value to the last bucket")
+        public void test2() {
+            assertEquals(LatencyHistogram.BUCKET_COUNT - 1, 
+                LatencyHistogram.bucketIndexOf(LatencyHistogram.MAX_TRACKABLE_NANOS));
+            assertEquals(LatencyHistogram.MAX_TRACKABLE_NANOS, 
+                LatencyHistogram.bucketUpperBoundOf(LatencyHistogram.BUCKET_COUNT - 1));
+        }
+    }
+
+    @Nested
+    public class GetNanosAtPercentileMethod {
+        @Test
+        @DisplayName("should return latency at percentile within 6.25%")
+        public void test1() {
+            var histogram = new LatencyHistogram();
+            for (int i = 1; i <= 1000; i++) {
+                histogram.record(i * 1000L);
+            }
+
+            LatencySnapshot snapshot = histogram.snapshot();
+
+            assertWithinPrecision(500_000, snapshot.getNanosAtPercentile(50));
+            assertWithinPrecision(990_000, snapshot.getNanosAtPercentile(99));
+            assertEquals(1_000_000, snapshot.getNanosAtPercentile(100));
+        }
+
+        @Test
+        @DisplayName("should return zero when nothing has been recorded")
+        public void test2() {
+            assertEquals(0, new LatencyHistogram().snapshot().getNanosAtPercentile(99));
+        }
+
+        @Test
+        @DisplayName("should throw when percentile is not from 0 to 100")
+        public void test3() {
+            LatencySnapshot snapshot = new LatencyHistogram().snapshot();
+
+            assertThrows(IllegalArgumentException.class, () -> snapshot.getNanosAtPercentile(-1));
+            assertThrows(IllegalArgumentException.class, () -> snapshot.getNanosAtPercentile(101));
+            assertThrows(IllegalArgumentException.class, () -> snapshot.getNanosAtPercentile(Double.NaN));
+        }
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(actual >= expected && actual - expected <= expected / LatencyHistogram.SUB_BUCKET_COUNT,
+            "Expected " + expected + " (+6.25%) but was " + actual);
+    }
+}
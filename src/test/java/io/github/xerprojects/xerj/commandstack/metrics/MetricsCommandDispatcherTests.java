@@ -0,0 +1,143 @@
+package io.github.xerprojects.xerj.commandstack.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.CommandDispatcher;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+
+@ExtendWith(MockitoExtension.class)
+public class MetricsCommandDispatcherTests {
+
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw when decorated dispatcher is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new MetricsCommandDispatcher(null, new CommandMetrics());
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when metrics is null")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new MetricsCommandDispatcher(mockCommandDispatcher, null);
+            });
+        }
+    }
+
+    @Nested
+    public class SendMethod {
+        @Test
+        @DisplayName("should dispatch command via decorated dispatcher and record the send")
+        public void test1(@Mock CommandDispatcher mockCommandDispatcher) {
+            var metrics = new CommandMetrics();
+            var commandDispatcher = new MetricsCommandDispatcher(mockCommandDispatcher, metrics);
+            var testCommand = new TestCommand();
+
+            commandDispatcher.send(testCommand);
+            commandDispatcher.send(new TestCommand());
+
+            verify(mockCommandDispatcher).send(testCommand);
+            
+            CommandMetricsSnapshot snapshot = metrics.getSnapshot(TestCommand.class);
+            assertEquals(2, snapshot.getSendCount());
+            assertEquals(0, snapshot.getFailureCount());
+        }
+
+        @Test
+        @DisplayName("should record failure and rethrow exception of decorated dispatcher")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            var metrics = new CommandMetrics();
+            var commandDispatcher = new MetricsCommandDispatcher(mockCommandDispatcher, metrics);
+            var exception = new IllegalStateException();
+
+            doThrow(exception).when(mockCommandDispatcher).send(any());
+
+            var thrown = assertThrows(IllegalStateException.class, () -> {
+                commandDispatcher.send(new TestCommand());
+            });
+
+            assertSame(exception, thrown);
+            assertEquals(1, metrics.getSnapshot(TestCommand.class).getFailureCount());
+        }
+
+        @Test
+        @DisplayName("should throw when command argument is null")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            var commandDispatcher = new MetricsCommandDispatcher(mockCommandDispatcher, new CommandMetrics());
+
+            assertThrows(IllegalArgumentException.class, () -> {
+                commandDispatcher.send(null);
+            });
+        }
+    }
+
+    @Nested
+    public class SendAllMethod {
+        @Test
+        @DisplayName("should dispatch commands via decorated dispatcher as one batch and record each send")
+        public void test1(@Mock CommandDispatcher mockCommandDispatcher) {
+            var metrics = new CommandMetrics();
+            var commandDispatcher = new MetricsCommandDispatcher(mockCommandDispatcher, metrics);
+            var commands = List.of(new TestCommand(), new TestSynchronousCommand(), new TestCommand());
+
+            commandDispatcher.sendAll(commands);
+
+            verify(mockCommandDispatcher).sendAll(commands);
+            verify(mockCommandDispatcher, never()).send(any());
+            assertEquals(2, metrics.getSnapshot(TestCommand.class).getSendCount());
+            assertEquals(1, metrics.getSnapshot(TestSynchronousCommand.class).getSendCount());
+        }
+
+        @Test
+        @DisplayName("should record failure per command type and rethrow exception of decorated dispatcher")
+        public void test2(@Mock CommandDispatcher mockCommandDispatcher) {
+            var metrics = new CommandMetrics();
+            var commandDispatcher = new MetricsCommandDispatcher(mockCommandDispatcher, metrics);
+            var exception = new IllegalStateException();
+
+            doThrow(exception).when(mockCommandDispatcher).sendAll(any());
+
+            var thrown = assertThrows(IllegalStateException.class, () -> {
+                commandDispatcher.sendAll(List.of(new TestCommand(), new TestCommand(), new TestSynchronousCommand()));
+            });
+
+            assertSame(exception, thrown);
+            assertEquals(1, metrics.getSnapshot(TestCommand.class).getFailureCount());
+            assertEquals(1, metrics.getSnapshot(TestSynchronousCommand.class).getFailureCount());
+        }
+
+        @Test
+        @DisplayName("should throw without recording when a command is null")
+        public void test3(@Mock CommandDispatcher mockCommandDispatcher) {
+            var metrics = new CommandMetrics();
+            var commandDispatcher = new MetricsCommandDispatcher(mockCommandDispatcher, metrics);
+
+            assertThrows(IllegalArgumentException.class, () -> {
+                commandDispatcher.sendAll(Arrays.asList(new TestCommand(), null));
+            });
+
+            assertEquals(0, metrics.getSnapshot(TestCommand.class).getSendCount());
+            verify(mockCommandDispatcher, never()).sendAll(any());
+        }
+    }
+}
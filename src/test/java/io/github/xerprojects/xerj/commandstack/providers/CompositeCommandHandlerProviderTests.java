@@ -1,8 +1,12 @@
 package io.github.xerprojects.xerj.commandstack.providers;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
@@ -105,5 +109,137 @@ public class CompositeCommandHandlerProviderTests {
 				compositeProvider.getCommandHandlerFor(null);
 			});
 		}
+
+		@Test
+		@DisplayName("should return empty optional when no provider has a registered command handler")
+		public void test5(
+				@Mock CommandHandlerProvider mockProvider1,
+				@Mock CommandHandlerProvider mockProvider2) {
+
+			when(mockProvider1.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.empty());
+
+			when(mockProvider2.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.empty());
+
+			var compositeProvider = new CompositeCommandHandlerProvider(
+				List.of(mockProvider1, mockProvider2));
+
+			Optional<CommandHandler<TestCommand>> resolvedHandler = 
+				compositeProvider.getCommandHandlerFor(TestCommand.class);
+
+			assertTrue(resolvedHandler.isEmpty());
+		}
+
+		@Test
+		@DisplayName("should only consult owning provider after first lookup when memoizing owners")
+		public void test6(
+				@Mock CommandHandlerProvider mockProvider1,
+				@Mock CommandHandlerProvider mockProvider2,
+				@Mock CommandHandler<TestCommand> mockHandler) {
+
+			when(mockProvider1.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.empty());
+
+			when(mockProvider2.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockHandler));
+
+			var compositeProvider = new CompositeCommandHandlerProvider(
+				List.of(mockProvider1, mockProvider2), true);
+
+			compositeProvider.getCommandHandlerFor(TestCommand.class);
+			compositeProvider.getCommandHandlerFor(TestCommand.class);
+			Optional<CommandHandler<TestCommand>> resolvedHandler = 
+				compositeProvider.getCommandHandlerFor(TestCommand.class);
+
+			assertSame(mockHandler, resolvedHandler.get());
+			verify(mockProvider1, times(1)).getCommandHandlerFor(TestCommand.class);
+			verify(mockProvider2, times(3)).getCommandHandlerFor(TestCommand.class);
+		}
+
+		@Test
+		@DisplayName("should consult all providers again when owning provider " + 
+			"no longer provides a command handler")
+		public void test7(
+				@Mock CommandHandlerProvider mockProvider1,
+				@Mock CommandHandlerProvider mockProvider2,
+				@Mock CommandHandler<TestCommand> mockHandler) {
+
+			when(mockProvider1.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.empty())
+				.thenReturn(Optional.of(mockHandler));
+
+			when(mockProvider2.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockHandler))
+				.thenReturn(Optional.empty());
+
+			var compositeProvider = new CompositeCommandHandlerProvider(
+				List.of(mockProvider1, mockProvider2), true);
+
+			compositeProvider.getCommandHandlerFor(TestCommand.class);
+			Optional<CommandHandler<TestCommand>> resolvedHandler = 
+				compositeProvider.getCommandHandlerFor(TestCommand.class);
+
+			assertSame(mockHandler, resolvedHandler.get());
+			verify(mockProvider1, times(2)).getCommandHandlerFor(TestCommand.class);
+		}
+
+		@Test
+		@DisplayName("should throw when command handler is in multiple providers when memoizing owners")
+		public void test8(
+				@Mock CommandHandlerProvider mockProvider1,
+				@Mock CommandHandlerProvider mockProvider2,
+				@Mock CommandHandler<TestCommand> mockHandler) {
+
+			when(mockProvider1.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockHandler));
+
+			when(mockProvider2.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockHandler));
+
+			var compositeProvider = new CompositeCommandHandlerProvider(
+				List.of(mockProvider1, mockProvider2), true);
+
+			assertThrows(DuplicateCommandHandlerFoundException.class, () -> {
+				compositeProvider.getCommandHandlerFor(TestCommand.class);
+			});
+			assertThrows(DuplicateCommandHandlerFoundException.class, () -> {
+				compositeProvider.getCommandHandlerFor(TestCommand.class);
+			});
+		}
+	}
+
+	@Nested
+	public class GetCommandHandlerOrNullMethod {
+		@Test
+		@DisplayName("should provide registered command handler")
+		public void test1(
+				@Mock CommandHandlerProvider mockProvider1,
+				@Mock CommandHandlerProvider mockProvider2,
+				@Mock CommandHandler<TestCommand> mockHandler) {
+
+			when(mockProvider1.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.empty());
+
+			when(mockProvider2.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.of(mockHandler));
+
+			var compositeProvider = new CompositeCommandHandlerProvider(
+				List.of(mockProvider1, mockProvider2));
+
+			assertSame(mockHandler, compositeProvider.getCommandHandlerOrNull(TestCommand.class));
+		}
+
+		@Test
+		@DisplayName("should return null when no provider has a registered command handler")
+		public void test2(@Mock CommandHandlerProvider mockProvider) {
+
+			when(mockProvider.getCommandHandlerFor(TestCommand.class))
+				.thenReturn(Optional.empty());
+
+			var compositeProvider = new CompositeCommandHandlerProvider(List.of(mockProvider));
+
+			assertNull(compositeProvider.getCommandHandlerOrNull(TestCommand.class));
+		}
 	}
 }
\ No newline at end of file
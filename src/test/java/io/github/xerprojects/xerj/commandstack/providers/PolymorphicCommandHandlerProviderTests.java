@@ -0,0 +1,167 @@
+package io.github.xerprojects.xerj.commandstack.providers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.CommandHandlerProvider;
+import io.github.xerprojects.xerj.commandstack.providers.registry.RegistryCommandHandlerProvider;
+
+@ExtendWith(MockitoExtension.class)
+public class PolymorphicCommandHandlerProviderTests {
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw when decorated command handler provider is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new PolymorphicCommandHandlerProvider(null);
+            });
+        }
+    }
+
+    @Nested
+    public class GetCommandHandlerOrNullMethod {
+        @Test
+        @DisplayName("should provide command handler registered for the command type")
+        public void test1() {
+            CommandHandler<ShipOrderCommand> handler = command -> {};
+            CommandHandler<OrderCommand> superclassHandler = command -> {};
+
+            var provider = new PolymorphicCommandHandlerProvider(
+                new RegistryCommandHandlerProvider(registry -> {
+                    registry.registerCommandHandler(OrderCommand.class, () -> superclassHandler);
+                    registry.registerCommandHandler(ShipOrderCommand.class, () -> handler);
+                }));
+
+            assertSame(handler, provider.getCommandHandlerOrNull(ShipOrderCommand.class));
+        }
+
+        @Test
+        @DisplayName("should provide command handler registered for the nearest superclass")
+        public void test2() {
+            CommandHandler<OrderCommand> superclassHandler = command -> {};
+            CommandHandler<AuditedCommand> interfaceHandler = command -> {};
+
+            var provider = new PolymorphicCommandHandlerProvider(
+                new RegistryCommandHandlerProvider(registry -> {
+                    registry.registerCommandHandler(AuditedCommand.class, () -> interfaceHandler);
+                    registry.registerCommandHandler(OrderCommand.class, () -> superclassHandler);
+                }));
+
+            assertSame(superclassHandler, provider.getCommandHandlerOrNull(ExpressShipOrderCommand.class));
+        }
+
+        @Test
+        @DisplayName("should provide command handler registered for an interface")
+        public void test3() {
+            CommandHandler<AuditedCommand> interfaceHandler = command -> {};
+
+            var provider = new PolymorphicCommandHandlerProvider(
+                new RegistryCommandHandlerProvider(registry -> 
+                    registry.registerCommandHandler(AuditedCommand.class, () -> interfaceHandler)));
+
+            assertSame(interfaceHandler, provider.getCommandHandlerOrNull(ExpressShipOrderCommand.class));
+        }
+
+        @Test
+        @DisplayName("should return null when no command handler is registered for the command hierarchy")
+        public void test4() {
+            var provider = new PolymorphicCommandHandlerProvider(
+                new RegistryCommandHandlerProvider(registry -> {}));
+
+            assertNull(provider.getCommandHandlerOrNull(ExpressShipOrderCommand.class));
+        }
+
+        @Test
+        @DisplayName("should only walk the command hierarchy on the first resolution")
+        public void test5(@Mock CommandHandlerProvider mockProvider) {
+            CommandHandler<AuditedCommand> interfaceHandler = command -> {};
+            when(mockProvider.getCommandHandlerFor(any())).thenReturn(Optional.empty());
+            when(mockProvider.getCommandHandlerFor(AuditedCommand.class))
+                .thenReturn(Optional.of(interfaceHandler));
+
+            var provider = new PolymorphicCommandHandlerProvider(mockProvider);
+
+            provider.getCommandHandlerOrNull(ShipOrderCommand.class);
+            provider.getCommandHandlerOrNull(ShipOrderCommand.class);
+            provider.getCommandHandlerOrNull(ShipOrderCommand.class);
+
+            // Walked once.
+            verify(mockProvider, times(1)).getCommandHandlerFor(ShipOrderCommand.class);
+            verify(mockProvider, times(1)).getCommandHandlerFor(OrderCommand.class);
+            // Found by the walk on the first call and resolved on every succeeding call.
+            verify(mockProvider, times(3)).getCommandHandlerFor(AuditedCommand.class);
+        }
+
+        @Test
+        @DisplayName("should walk the command hierarchy again when invalidated")
+        public void test6(@Mock CommandHandlerProvider mockProvider) {
+            when(mockProvider.getCommandHandlerFor(any())).thenReturn(Optional.empty());
+
+            var provider = new PolymorphicCommandHandlerProvider(mockProvider);
+
+            provider.getCommandHandlerOrNull(ShipOrderCommand.class);
+            provider.invalidateResolvedCommandType(ShipOrderCommand.class);
+            provider.getCommandHandlerOrNull(ShipOrderCommand.class);
+
+            verify(mockProvider, times(2)).getCommandHandlerFor(ShipOrderCommand.class);
+        }
+
+        @Test
+        @DisplayName("should throw when command type is null")
+        public void test7() {
+            var provider = new PolymorphicCommandHandlerProvider(
+                new RegistryCommandHandlerProvider(registry -> {}));
+
+            assertThrows(IllegalArgumentException.class, () -> {
+                provider.getCommandHandlerOrNull(null);
+            });
+        }
+    }
+
+    @Nested
+    public class GetCandidateTypesMethod {
+        @Test
+        @DisplayName("should order superclasses before interfaces and interfaces breadth-first")
+        public void test1() {
+            assertEquals(
+                List.of(
+                    ExpressShipOrderCommand.class, 
+                    ShipOrderCommand.class, 
+                    OrderCommand.class,
+                    PriorityCommand.class,
+                    AuditedCommand.class,
+                    TrackedCommand.class),
+                PolymorphicCommandHandlerProvider.getCandidateTypes(ExpressShipOrderCommand.class));
+        }
+    }
+
+    private interface TrackedCommand {}
+
+    private interface AuditedCommand extends TrackedCommand {}
+
+    private interface PriorityCommand extends TrackedCommand {}
+
+    private static class OrderCommand implements AuditedCommand {}
+
+    private static class ShipOrderCommand extends OrderCommand {}
+
+    private static class ExpressShipOrderCommand extends ShipOrderCommand implements PriorityCommand {}
+}
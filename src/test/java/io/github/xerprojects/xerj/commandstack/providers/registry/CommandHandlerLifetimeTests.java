@@ -0,0 +1,515 @@
+package io.github.xerprojects.xerj.commandstack.providers.registry;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import io.github.xerprojects.xerj.commandstack.BatchCommandHandler;
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestCommandHandler;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandRejectedException;
+
+public class CommandHandlerLifetimeTests {
+
+    @Nested
+    public class PerDispatchMethod {
+        @Test
+        @DisplayName("should create a new instance for every dispatch")
+        public void test1() {
+            Supplier<CommandHandler<TestCommand>> managed = CommandHandlerLifetime.perDispatch()
+                .manage(TestCommand.class, TestCommandHandler::new);
+
+            assertNotSame(managed.get(), managed.get());
+        }
+    }
+
+    @Nested
+    public class SingletonMethod {
+        @Test
+        @DisplayName("should return the same instance for all dispatches")
+        public void test1() {
+            var createdInstances = new AtomicInteger();
+
+            Supplier<CommandHandler<TestCommand>> managed = CommandHandlerLifetime.singleton()
+                .manage(TestCommand.class, () -> {
+                    createdInstances.incrementAndGet();
+                    return new TestCommandHandler();
+                });
+
+            assertSame(managed.get(), managed.get());
+            assertEquals(1, createdInstances.get());
+        }
+
+        @Test
+        @DisplayName("should create only one instance when accessed concurrently")
+        public void test2() throws Exception {
+            var createdInstances = new AtomicInteger();
+
+            Supplier<CommandHandler<TestCommand>> managed = CommandHandlerLifetime.singleton()
+                .manage(TestCommand.class, () -> {
+                    createdInstances.incrementAndGet();
+                    return new TestCommandHandler();
+                });
+
+            List<CommandHandler<TestCommand>> instances = getConcurrently(managed, 8);
+
+            assertEquals(1, createdInstances.get());
+            instances.forEach(instance -> assertSame(instances.get(0), instance));
+        }
+
+        @Test
+        @DisplayName("should not memoize null instances")
+        public void test3() {
+            var createdInstances = new AtomicInteger();
+
+            Supplier<CommandHandler<TestCommand>> managed = CommandHandlerLifetime.singleton()
+                .manage(TestCommand.class, () ->
+                    createdInstances.incrementAndGet() == 1 ? null : new TestCommandHandler());
+
+            assertEquals(null, managed.get());
+            assertSame(managed.get(), managed.get());
+            assertEquals(2, createdInstances.get());
+        }
+    }
+
+    @Nested
+    public class PerThreadMethod {
+        @Test
+        @DisplayName("should return the same instance within a thread")
+        public void test1() {
+            Supplier<CommandHandler<TestCommand>> managed = CommandHandlerLifetime.perThread()
+                .manage(TestCommand.class, TestCommandHandler::new);
+
+            assertSame(managed.get(), managed.get());
+        }
+
+        @Test
+        @DisplayName("should return different instances on different threads")
+        public void test2() throws Exception {
+            Supplier<CommandHandler<TestCommand>> managed = CommandHandlerLifetime.perThread()
+                .manage(TestCommand.class, TestCommandHandler::new);
+
+            CommandHandler<TestCommand> instance = managed.get();
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                CommandHandler<TestCommand> otherThreadInstance =
+                    CompletableFuture.supplyAsync(managed, executor).get(10, TimeUnit.SECONDS);
+
+                assertNotSame(instance, otherThreadInstance);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    public class PooledMethod {
+        @Test
+        @DisplayName("should throw when max pool size is less than 1")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                CommandHandlerLifetime.pooled(0);
+            });
+        }
+
+        @Test
+        @DisplayName("should reuse pooled instance for sequential dispatches")
+        public void test2() {
+            List<TestCommandHandler> createdInstances = new ArrayList<>();
+
+            CommandHandler<TestCommand> poolingHandler = CommandHandlerLifetime.pooled(2)
+                .manage(TestCommand.class, () -> {
+                    var instance = new TestCommandHandler();
+                    createdInstances.add(instance);
+                    return instance;
+                })
+                .get();
+
+            var command1 = new TestCommand();
+            var command2 = new TestCommand();
+
+            poolingHandler.handle(command1);
+            poolingHandler.handle(command2);
+
+            assertEquals(1, createdInstances.size());
+            assertTrue(createdInstances.get(0).hasHandledCommand(command1));
+            assertTrue(createdInstances.get(0).hasHandledCommand(command2));
+        }
+
+        @Test
+        @DisplayName("should not share an instance between concurrent dispatches")
+        public void test3() throws Exception {
+            var handledCommands = new AtomicInteger();
+            var maxConcurrentUse = new AtomicInteger();
+            var bothStarted = new CountDownLatch(2);
+
+            CommandHandler<TestCommand> poolingHandler = CommandHandlerLifetime.pooled(1)
+                .manage(TestCommand.class, () -> new CommandHandler<TestCommand>() {
+                    private final AtomicInteger users = new AtomicInteger();
+
+                    @Override
+                    public void handle(TestCommand command) {
+                        maxConcurrentUse.accumulateAndGet(users.incrementAndGet(), Math::max);
+                        handledCommands.incrementAndGet();
+                        bothStarted.countDown();
+                        try {
+                            bothStarted.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        users.decrementAndGet();
+                    }
+                })
+                .get();
+
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                var future1 = CompletableFuture.runAsync(() -> poolingHandler.handle(new TestCommand()), executor);
+                var future2 = CompletableFuture.runAsync(() -> poolingHandler.handle(new TestCommand()), executor);
+                CompletableFuture.allOf(future1, future2).get(10, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(2, handledCommands.get());
+            assertEquals(1, maxConcurrentUse.get());
+        }
+
+        @Test
+        @DisplayName("should forward batches to pooled batch command handler instance")
+        public void test4() {
+            List<List<TestCommand>> handledBatches = new ArrayList<>();
+
+            CommandHandler<TestCommand> poolingHandler = CommandHandlerLifetime.pooled(1)
+                .manage(TestCommand.class, () -> new BatchCommandHandler<TestCommand>() {
+                    @Override
+                    public void handle(TestCommand command) {
+                        handledBatches.add(List.of(command));
+                    }
+
+                    @Override
+                    public void handleAll(List<TestCommand> commands) {
+                        handledBatches.add(commands);
+                    }
+                })
+                .get();
+
+            var commands = List.of(new TestCommand(), new TestCommand());
+
+            assertTrue(poolingHandler instanceof BatchCommandHandler);
+            ((BatchCommandHandler<TestCommand>)poolingHandler).handleAll(commands);
+
+            assertEquals(List.of(commands), handledBatches);
+        }
+
+        @Test
+        @DisplayName("should throw when exhaustion policy is null")
+        public void test5() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                CommandHandlerLifetime.pooled(1, null);
+            });
+        }
+
+        @Test
+        @DisplayName("should reset resettable instance before returning it to the pool")
+        public void test6() {
+            List<String> calls = new ArrayList<>();
+
+            CommandHandler<TestCommand> poolingHandler = CommandHandlerLifetime.pooled(1)
+                .manage(TestCommand.class, () -> new ResettableCommandHandler<TestCommand>() {
+                    @Override
+                    public void handle(TestCommand command) {
+                        calls.add("handle");
+                    }
+
+                    @Override
+                    public void reset() {
+                        calls.add("reset");
+                    }
+                })
+                .get();
+
+            poolingHandler.handle(new TestCommand());
+            poolingHandler.handle(new TestCommand());
+
+            assertEquals(List.of("handle", "reset", "handle", "reset"), calls);
+        }
+
+        @Test
+        @DisplayName("should discard instance when reset fails")
+        public void test7() {
+            var createdInstances = new AtomicInteger();
+
+            CommandHandler<TestCommand> poolingHandler = CommandHandlerLifetime.pooled(1, PoolExhaustionPolicy.fail())
+                .manage(TestCommand.class, () -> {
+                    int instanceNumber = createdInstances.incrementAndGet();
+                    return new ResettableCommandHandler<TestCommand>() {
+                        @Override
+                        public void handle(TestCommand command) {}
+
+                        @Override
+                        public void reset() {
+                            if (instanceNumber == 1) {
+                                throw new IllegalStateException("Reset failed.");
+                            }
+                        }
+                    };
+                })
+                .get();
+
+            assertThrows(IllegalStateException.class, () -> poolingHandler.handle(new TestCommand()));
+
+            // The failed instance no longer counts towards the pool size.
+            poolingHandler.handle(new TestCommand());
+            poolingHandler.handle(new TestCommand());
+
+            assertEquals(2, createdInstances.get());
+        }
+
+        @Test
+        @DisplayName("should create extra instance when pool is exhausted and exhaustion policy is grow")
+        public void test8() {
+            var createdInstances = new AtomicInteger();
+            var poolingHandler = new AtomicReference<CommandHandler<TestCommand>>();
+            var nestedCommand = new TestCommand();
+
+            poolingHandler.set(CommandHandlerLifetime.pooled(1, PoolExhaustionPolicy.grow())
+                .manage(TestCommand.class, () -> {
+                    int instanceNumber = createdInstances.incrementAndGet();
+                    return command -> {
+                        // Dispatch a nested command while the only pooled instance is borrowed.
+                        if (instanceNumber == 1 && command != nestedCommand) {
+                            poolingHandler.get().handle(nestedCommand);
+                        }
+                    };
+                })
+                .get());
+
+            poolingHandler.get().handle(new TestCommand());
+            assertEquals(2, createdInstances.get());
+
+            // The extra instance is kept as the pool's idle instance.
+            poolingHandler.get().handle(new TestCommand());
+            assertEquals(2, createdInstances.get());
+        }
+
+        @Test
+        @DisplayName("should reject command when pool is exhausted and exhaustion policy is fail")
+        public void test9() {
+            var createdInstances = new AtomicInteger();
+            var poolingHandler = new AtomicReference<CommandHandler<TestCommand>>();
+            var nestedCommand = new TestCommand();
+
+            poolingHandler.set(CommandHandlerLifetime.pooled(1, PoolExhaustionPolicy.fail())
+                .manage(TestCommand.class, () -> {
+                    createdInstances.incrementAndGet();
+                    return command -> {
+                        // Dispatch a nested command while the only pooled instance is borrowed.
+                        if (command != nestedCommand) {
+                            poolingHandler.get().handle(nestedCommand);
+                        }
+                    };
+                })
+                .get());
+
+            var exception = assertThrows(CommandRejectedException.class, () -> 
+                poolingHandler.get().handle(new TestCommand()));
+
+            assertEquals(TestCommand.class, exception.getCommandType());
+            assertEquals(1, createdInstances.get());
+
+            // The instance is still returned to the pool.
+            poolingHandler.get().handle(nestedCommand);
+            assertEquals(1, createdInstances.get());
+        }
+
+        @Test
+        @DisplayName("should reject command when no instance is returned before timeout and exhaustion policy is block")
+        public void test10() {
+            var poolingHandler = new AtomicReference<CommandHandler<TestCommand>>();
+            var nestedCommand = new TestCommand();
+
+            poolingHandler.set(CommandHandlerLifetime.pooled(1, PoolExhaustionPolicy.block(Duration.ofMillis(50)))
+                .manage(TestCommand.class, () -> command -> {
+                    // Dispatch a nested command while the only pooled instance is borrowed.
+                    if (command != nestedCommand) {
+                        poolingHandler.get().handle(nestedCommand);
+                    }
+                })
+                .get());
+
+            assertThrows(CommandRejectedException.class, () -> 
+                poolingHandler.get().handle(new TestCommand()));
+        }
+
+        @Test
+        @DisplayName("should wait for instance to be returned when pool is exhausted and exhaustion policy is block")
+        public void test11() throws Exception {
+            var createdInstances = new AtomicInteger();
+            var firstStarted = new CountDownLatch(1);
+            var releaseFirst = new CountDownLatch(1);
+
+            CommandHandler<TestCommand> poolingHandler = CommandHandlerLifetime
+                .pooled(1, PoolExhaustionPolicy.block(Duration.ofSeconds(10)))
+                .manage(TestCommand.class, () -> {
+                    createdInstances.incrementAndGet();
+                    return command -> {
+                        firstStarted.countDown();
+                        try {
+                            releaseFirst.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    };
+                })
+                .get();
+
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                var future1 = CompletableFuture.runAsync(() -> poolingHandler.handle(new TestCommand()), executor);
+                assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+
+                var future2 = CompletableFuture.runAsync(() -> poolingHandler.handle(new TestCommand()), executor);
+                releaseFirst.countDown();
+
+                CompletableFuture.allOf(future1, future2).get(10, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(1, createdInstances.get());
+        }
+
+        @Test
+        @DisplayName("should not exceed pool size when dispatched concurrently and exhaustion policy is block")
+        public void test12() throws Exception {
+            int maxPoolSize = 2;
+            var createdInstances = new AtomicInteger();
+            var instancesInUse = new AtomicInteger();
+            var maxInstancesInUse = new AtomicInteger();
+
+            CommandHandler<TestCommand> poolingHandler = CommandHandlerLifetime
+                .pooled(maxPoolSize, PoolExhaustionPolicy.block(Duration.ofSeconds(10)))
+                .manage(TestCommand.class, () -> {
+                    createdInstances.incrementAndGet();
+                    return command -> {
+                        maxInstancesInUse.accumulateAndGet(instancesInUse.incrementAndGet(), Math::max);
+                        Thread.yield();
+                        instancesInUse.decrementAndGet();
+                    };
+                })
+                .get();
+
+            getConcurrently(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    poolingHandler.handle(new TestCommand());
+                }
+                return null;
+            }, 4);
+
+            assertTrue(createdInstances.get() <= maxPoolSize);
+            assertTrue(maxInstancesInUse.get() <= maxPoolSize);
+        }
+
+        @Test
+        @DisplayName("should propagate handling failure when reset also fails")
+        public void test13() {
+            var createdInstances = new AtomicInteger();
+            var handlingFailure = new IllegalStateException("Handling failed.");
+            var resetFailure = new IllegalStateException("Reset failed.");
+
+            CommandHandler<TestCommand> poolingHandler = CommandHandlerLifetime.pooled(1, PoolExhaustionPolicy.fail())
+                .manage(TestCommand.class, () -> {
+                    createdInstances.incrementAndGet();
+                    return new ResettableCommandHandler<TestCommand>() {
+                        @Override
+                        public void handle(TestCommand command) {
+                            throw handlingFailure;
+                        }
+
+                        @Override
+                        public void reset() {
+                            throw resetFailure;
+                        }
+                    };
+                })
+                .get();
+
+            var exception = assertThrows(IllegalStateException.class, 
+                () -> poolingHandler.handle(new TestCommand()));
+            assertSame(handlingFailure, exception);
+            assertArrayEquals(new Throwable[] { resetFailure }, exception.getSuppressed());
+
+            // The failed instance no longer counts towards the pool size.
+            assertThrows(IllegalStateException.class, () -> poolingHandler.handle(new TestCommand()));
+            assertEquals(2, createdInstances.get());
+        }
+    }
+
+    @Nested
+    public class PoolExhaustionPolicyBlockMethod {
+        @Test
+        @DisplayName("should throw when timeout is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                PoolExhaustionPolicy.block(null);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw when timeout is negative")
+        public void test2() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                PoolExhaustionPolicy.block(Duration.ofMillis(-1));
+            });
+        }
+    }
+
+    private static <T> List<T> getConcurrently(Supplier<T> supplier, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            var start = new CountDownLatch(1);
+            List<CompletableFuture<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return supplier.get();
+                }, executor));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
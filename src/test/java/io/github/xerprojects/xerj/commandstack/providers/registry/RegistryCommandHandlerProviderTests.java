@@ -1,11 +1,17 @@
 package io.github.xerprojects.xerj.commandstack.providers.registry;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,6 +23,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import io.github.xerprojects.xerj.commandstack.CommandHandler;
 import io.github.xerprojects.xerj.commandstack.TestCommand;
 import io.github.xerprojects.xerj.commandstack.TestCommandHandler;
+import io.github.xerprojects.xerj.commandstack.annotations.HandlesCommand;
+import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
 import io.github.xerprojects.xerj.commandstack.exceptions.DuplicateCommandHandlerRegistrationException;
 
 @ExtendWith(MockitoExtension.class)
@@ -70,9 +78,134 @@ public class RegistryCommandHandlerProviderTests {
 					);
 				});
 			}
+
+			@Test
+			@DisplayName("should throw when lifetime argument is null")
+			public void test5() {
+				assertThrows(IllegalArgumentException.class, () -> {
+					new RegistryCommandHandlerProvider(config ->
+						// Null.
+						config.registerCommandHandler(TestCommand.class, () -> new TestCommandHandler(), null));
+				});
+			}
+
+			@Test
+			@DisplayName("should throw when registering after provider has been constructed")
+			public void test4() {
+				var registryReference = new AtomicReference<CommandHandlerRegistry>();
+
+				new RegistryCommandHandlerProvider(registryReference::set);
+
+				assertThrows(CommandStackException.class, () -> {
+					registryReference.get()
+						.registerCommandHandler(TestCommand.class, () -> new TestCommandHandler());
+				});
+			}
 		}
 	}
 	
+	@Nested
+	public class RegisterCommandHandlersMethod {
+		@Test
+		@DisplayName("should register marked instance methods bound to the given object")
+		public void test1() {
+			var orderHandlers = new OrderHandlers();
+			var provider = new RegistryCommandHandlerProvider(config ->
+				config.registerCommandHandlers(MethodHandles.lookup(), orderHandlers));
+
+			var shipOrderCommand = new ShipOrderCommand();
+			var cancelOrderCommand = new CancelOrderCommand();
+			provider.getCommandHandlerFor(ShipOrderCommand.class).get().handle(shipOrderCommand);
+			provider.getCommandHandlerFor(CancelOrderCommand.class).get().handle(cancelOrderCommand);
+
+			assertEquals(List.of(shipOrderCommand, cancelOrderCommand), orderHandlers.handledCommands);
+			// Bound once.
+			assertSame(
+				provider.getCommandHandlerFor(ShipOrderCommand.class).get(), 
+				provider.getCommandHandlerFor(ShipOrderCommand.class).get());
+		}
+
+		@Test
+		@DisplayName("should register marked static methods")
+		public void test2() {
+			var provider = new RegistryCommandHandlerProvider(config ->
+				config.registerCommandHandlers(MethodHandles.lookup(), new StaticOrderHandlers()));
+
+			var shipOrderCommand = new ShipOrderCommand();
+			provider.getCommandHandlerFor(ShipOrderCommand.class).get().handle(shipOrderCommand);
+
+			assertSame(shipOrderCommand, StaticOrderHandlers.lastHandledCommand);
+		}
+
+		@Test
+		@DisplayName("should invoke marked instance methods on instances managed by the lifetime")
+		public void test3() {
+			var createdInstances = new ArrayList<OrderHandlers>();
+			var provider = new RegistryCommandHandlerProvider(config ->
+				config.registerCommandHandlers(MethodHandles.lookup(), OrderHandlers.class, () -> {
+					var instance = new OrderHandlers();
+					createdInstances.add(instance);
+					return instance;
+				}, CommandHandlerLifetime.perDispatch()));
+
+			var shipOrderCommand1 = new ShipOrderCommand();
+			var shipOrderCommand2 = new ShipOrderCommand();
+			provider.getCommandHandlerFor(ShipOrderCommand.class).get().handle(shipOrderCommand1);
+			provider.getCommandHandlerFor(ShipOrderCommand.class).get().handle(shipOrderCommand2);
+
+			assertEquals(2, createdInstances.size());
+			assertEquals(List.of(shipOrderCommand1), createdInstances.get(0).handledCommands);
+			assertEquals(List.of(shipOrderCommand2), createdInstances.get(1).handledCommands);
+		}
+
+		@Test
+		@DisplayName("should throw when no methods are marked")
+		public void test4() {
+			assertThrows(CommandStackException.class, () -> {
+				new RegistryCommandHandlerProvider(config ->
+					config.registerCommandHandlers(MethodHandles.lookup(), new Object()));
+			});
+		}
+
+		@Test
+		@DisplayName("should throw when marked method does not have exactly one parameter")
+		public void test5() {
+			assertThrows(CommandStackException.class, () -> {
+				new RegistryCommandHandlerProvider(config ->
+					config.registerCommandHandlers(MethodHandles.lookup(), new InvalidOrderHandlers()));
+			});
+		}
+
+		@Test
+		@DisplayName("should throw when marked method is not accessible via the lookup")
+		public void test6() {
+			assertThrows(CommandStackException.class, () -> {
+				new RegistryCommandHandlerProvider(config ->
+					config.registerCommandHandlers(MethodHandles.publicLookup(), new OrderHandlers()));
+			});
+		}
+
+		@Test
+		@DisplayName("should throw when marked method handles an already registered command type")
+		public void test7() {
+			assertThrows(DuplicateCommandHandlerRegistrationException.class, () -> {
+				new RegistryCommandHandlerProvider(config ->
+					config.registerCommandHandler(ShipOrderCommand.class, () -> command -> {})
+						.registerCommandHandlers(MethodHandles.lookup(), new OrderHandlers()));
+			});
+		}
+
+		@Test
+		@DisplayName("should throw when lookup argument is null")
+		public void test8() {
+			assertThrows(IllegalArgumentException.class, () -> {
+				new RegistryCommandHandlerProvider(config ->
+					// Null.
+					config.registerCommandHandlers(null, new OrderHandlers()));
+			});
+		}
+	}
+
 	@Nested
 	public class GetCommandHandlerForMethod {
 		@Test
@@ -91,6 +224,31 @@ public class RegistryCommandHandlerProviderTests {
 			assertSame(mockHandler, instance);
 		}
 
+		@Test
+		@DisplayName("should provide the same command handler instance when registered as singleton")
+		public void test4() {
+			var provider = new RegistryCommandHandlerProvider(config ->
+				config.registerCommandHandler(TestCommand.class, 
+					() -> new TestCommandHandler(), CommandHandlerLifetime.singleton()));
+
+			CommandHandler<TestCommand> instance1 = provider.getCommandHandlerFor(TestCommand.class).get();
+			CommandHandler<TestCommand> instance2 = provider.getCommandHandlerFor(TestCommand.class).get();
+
+			assertSame(instance1, instance2);
+		}
+
+		@Test
+		@DisplayName("should provide a new command handler instance per dispatch by default")
+		public void test5() {
+			var provider = new RegistryCommandHandlerProvider(config ->
+				config.registerCommandHandler(TestCommand.class, () -> new TestCommandHandler()));
+
+			CommandHandler<TestCommand> instance1 = provider.getCommandHandlerFor(TestCommand.class).get();
+			CommandHandler<TestCommand> instance2 = provider.getCommandHandlerFor(TestCommand.class).get();
+
+			assertNotSame(instance1, instance2);
+		}
+
 		@Test
 		@DisplayName("should return empty optional if no handler was registered")
 		public void test2() {
@@ -113,4 +271,36 @@ public class RegistryCommandHandlerProviderTests {
 			});
 		}
 	}
+
+	private static class ShipOrderCommand {}
+
+	private static class CancelOrderCommand {}
+
+	private static class OrderHandlers {
+		private final List<Object> handledCommands = new ArrayList<>();
+
+		@HandlesCommand
+		void ship(ShipOrderCommand command) {
+			handledCommands.add(command);
+		}
+
+		@HandlesCommand
+		private void cancel(CancelOrderCommand command) {
+			handledCommands.add(command);
+		}
+	}
+
+	private static class StaticOrderHandlers {
+		private static volatile Object lastHandledCommand;
+
+		@HandlesCommand
+		static void ship(ShipOrderCommand command) {
+			lastHandledCommand = command;
+		}
+	}
+
+	private static class InvalidOrderHandlers {
+		@HandlesCommand
+		void ship(ShipOrderCommand command, int quantity) {}
+	}
 }
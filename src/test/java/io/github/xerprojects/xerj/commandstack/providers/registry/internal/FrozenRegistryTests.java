@@ -0,0 +1,130 @@
+package io.github.xerprojects.xerj.commandstack.providers.registry.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.xerprojects.xerj.commandstack.CommandHandler;
+import io.github.xerprojects.xerj.commandstack.TestCommand;
+import io.github.xerprojects.xerj.commandstack.TestSynchronousCommand;
+import io.github.xerprojects.xerj.commandstack.exceptions.DuplicateCommandHandlerRegistrationException;
+
+@ExtendWith(MockitoExtension.class)
+public class FrozenRegistryTests {
+
+    private static final Class<?>[] COMMAND_TYPES = {
+        String.class, Integer.class, Long.class, Short.class, Byte.class, Double.class,
+        Float.class, Character.class, Boolean.class, Object.class, Number.class, Thread.class,
+        StringBuilder.class, ArrayList.class, List.class, Optional.class, Runnable.class,
+        Exception.class, RuntimeException.class, Error.class, Class.class, Enum.class
+    };
+
+    @Nested
+    public class Constructor {
+        @Test
+        @DisplayName("should throw if registeredHandlers argument is null")
+        public void test1() {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new FrozenRegistry(null);
+            });
+        }
+
+        @Test
+        @DisplayName("should throw if a command type is registered more than once")
+        public void test2(@Mock CommandHandler<TestCommand> mockHandler) {
+            assertThrows(DuplicateCommandHandlerRegistrationException.class, () -> {
+                new FrozenRegistry(List.of(
+                    new RegisteredCommandHandler<>(TestCommand.class, () -> mockHandler),
+                    new RegisteredCommandHandler<>(TestCommand.class, () -> mockHandler)));
+            });
+        }
+    }
+
+    @Nested
+    public class GetRegisteredCommandHandlerMethod {
+        @Test
+        @DisplayName("should return registration of all registered command types")
+        public void test1() {
+            List<RegisteredCommandHandler<?>> registrations = registrationsFor(COMMAND_TYPES);
+
+            var frozenRegistry = new FrozenRegistry(registrations);
+
+            assertEquals(COMMAND_TYPES.length, frozenRegistry.size());
+            for (RegisteredCommandHandler<?> registration : registrations) {
+                assertSame(registration,
+                    frozenRegistry.getRegisteredCommandHandler(registration.getCommandType()));
+            }
+        }
+
+        @Test
+        @DisplayName("should return null if command type was not registered")
+        public void test2() {
+            var frozenRegistry = new FrozenRegistry(registrationsFor(COMMAND_TYPES));
+
+            assertNull(frozenRegistry.getRegisteredCommandHandler(TestCommand.class));
+            assertNull(frozenRegistry.getRegisteredCommandHandler(TestSynchronousCommand.class));
+        }
+
+        @Test
+        @DisplayName("should return null if there are no registrations")
+        public void test3() {
+            var frozenRegistry = new FrozenRegistry(List.of());
+
+            assertEquals(0, frozenRegistry.size());
+            assertNull(frozenRegistry.getRegisteredCommandHandler(TestCommand.class));
+        }
+    }
+
+    @Nested
+    public class GetCommandHandlerForMethod {
+        @Test
+        @DisplayName("should provide registered command handler")
+        public void test1(@Mock CommandHandler<TestCommand> mockHandler) {
+            var frozenRegistry = new FrozenRegistry(List.of(
+                new RegisteredCommandHandler<>(TestCommand.class, () -> mockHandler)));
+
+            Optional<CommandHandler<TestCommand>> resolvedHandler =
+                frozenRegistry.getCommandHandlerFor(TestCommand.class);
+
+            assertSame(mockHandler, resolvedHandler.get());
+        }
+
+        @Test
+        @DisplayName("should return empty optional if no handler was registered")
+        public void test2(@Mock CommandHandler<TestCommand> mockHandler) {
+            var frozenRegistry = new FrozenRegistry(List.of(
+                new RegisteredCommandHandler<>(TestCommand.class, () -> mockHandler)));
+
+            Optional<CommandHandler<TestSynchronousCommand>> resolvedHandler =
+                frozenRegistry.getCommandHandlerFor(TestSynchronousCommand.class);
+
+            assertTrue(resolvedHandler.isEmpty());
+        }
+    }
+
+    private static List<RegisteredCommandHandler<?>> registrationsFor(Class<?>[] commandTypes) {
+        List<RegisteredCommandHandler<?>> registrations = new ArrayList<>();
+        for (Class<?> commandType : commandTypes) {
+            registrations.add(registrationFor(commandType));
+        }
+        return registrations;
+    }
+
+    private static <TCommand> RegisteredCommandHandler<TCommand> registrationFor(Class<TCommand> commandType) {
+        CommandHandler<TCommand> handler = command -> {};
+        return new RegisteredCommandHandler<>(commandType, () -> handler);
+    }
+}
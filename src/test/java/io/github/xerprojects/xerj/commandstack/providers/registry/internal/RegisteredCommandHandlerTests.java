@@ -2,6 +2,7 @@ package io.github.xerprojects.xerj.commandstack.providers.registry.internal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -17,6 +18,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import io.github.xerprojects.xerj.commandstack.CommandHandler;
 import io.github.xerprojects.xerj.commandstack.TestCommand;
 import io.github.xerprojects.xerj.commandstack.exceptions.CommandStackException;
+import io.github.xerprojects.xerj.commandstack.providers.registry.CommandHandlerLifetime;
 
 @ExtendWith(MockitoExtension.class)
 public class RegisteredCommandHandlerTests {
@@ -37,6 +39,14 @@ public class RegisteredCommandHandlerTests {
                 new RegisteredCommandHandler<>(TestCommand.class, null);
             });
         }
+
+        @Test
+        @DisplayName("should throw if lifetime argument is null")
+        public void test3(@Mock Supplier<CommandHandler<TestCommand>> mockInstanceFactory) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                new RegisteredCommandHandler<>(TestCommand.class, mockInstanceFactory, null);
+            });
+        }
     }
 
     @Nested
@@ -103,5 +113,35 @@ public class RegisteredCommandHandlerTests {
             // CommandStackException should wrap the original exception.
             assertEquals(mockException, exception.getCause());
         }
+
+        @Test
+        @DisplayName("should validate instances created for the configured lifetime")
+        public void test4(@Mock Supplier<CommandHandler<TestCommand>> mockInstanceFactory) {
+
+            when(mockInstanceFactory.get()).thenReturn(null);
+
+            var registerCommandHandler = new RegisteredCommandHandler<TestCommand>(
+                TestCommand.class, mockInstanceFactory, CommandHandlerLifetime.singleton());
+
+            assertThrows(CommandStackException.class, () -> {
+                registerCommandHandler.getInstance();
+            });
+        }
+
+        @Test
+        @DisplayName("should reuse command handler instance for singleton lifetime")
+        public void test5(@Mock Supplier<CommandHandler<TestCommand>> mockInstanceFactory,
+                @Mock CommandHandler<TestCommand> mockCommandHandler) {
+
+            when(mockInstanceFactory.get()).thenReturn(mockCommandHandler);
+
+            var registerCommandHandler = new RegisteredCommandHandler<TestCommand>(
+                TestCommand.class, mockInstanceFactory, CommandHandlerLifetime.singleton());
+
+            assertEquals(mockCommandHandler, registerCommandHandler.getInstance());
+            assertEquals(mockCommandHandler, registerCommandHandler.getInstance());
+
+            verify(mockInstanceFactory, times(1)).get();
+        }
     }
 }